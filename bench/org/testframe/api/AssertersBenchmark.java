@@ -0,0 +1,72 @@
+package org.testframe.api;
+
+import static org.testframe.api.Asserters.*;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmarks of the passing path of commonly used assertions, which is the 
+ * path taken by almost every assertion in a healthy suite.
+ * @author Alonso del Arte
+ */
+public class AssertersBenchmark {
+
+    private static final int ARRAY_LENGTH = 100;
+
+    private final int[] expectedNumbers = new int[ARRAY_LENGTH];
+
+    private final int[] actualNumbers = new int[ARRAY_LENGTH];
+
+    private final Month[] months = Month.values();
+
+    private final Month[] shuffledMonths = new Month[2 * this.months.length];
+
+    private final List<Month> monthList = new ArrayList<>();
+
+    private final Set<Month> monthSet = EnumSet.allOf(Month.class);
+
+    @BeforeEachTest
+    public void setUp() {
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            this.expectedNumbers[i] = i * i - 7 * i;
+            this.actualNumbers[i] = i * i - 7 * i;
+        }
+        int len = this.months.length;
+        for (int i = 0; i < len; i++) {
+            this.shuffledMonths[i] = this.months[len - i - 1];
+            this.shuffledMonths[len + i] = this.months[(5 * i) % len];
+        }
+        this.monthList.addAll(Arrays.asList(this.months));
+    }
+
+    @Test @Benchmark
+    public void benchmarkAssertEqualsIntArrays() {
+        assertEquals(this.expectedNumbers, this.actualNumbers);
+    }
+
+    @Test @Benchmark
+    public void benchmarkAssertContainsInArray() {
+        assertContains(Month.NOVEMBER, this.months);
+    }
+
+    @Test @Benchmark
+    public void benchmarkAssertContainsInList() {
+        assertContains(Month.NOVEMBER, this.monthList);
+    }
+
+    @Test @Benchmark
+    public void benchmarkAssertContainsInSet() {
+        assertContains(Month.NOVEMBER, this.monthSet);
+    }
+
+    @Test @Benchmark
+    public void benchmarkAssertContainsSameArrays() {
+        assertContainsSame(this.months, this.shuffledMonths);
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.testframe.api.graphics;
+
+import java.awt.Color;
+import java.awt.Font;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Blackhole;
+import org.testframe.api.Test;
+
+/**
+ * Benchmarks of drawing on a mock graphics context, as a component's 
+ * <code>paint()</code> would under test. Most drawing commands aren't 
+ * recorded yet, so for now these mostly measure the getters and setters.
+ * @author Alonso del Arte
+ */
+public class MockGraphicsBenchmark {
+
+    private final MockGraphics graphics = new MockGraphics();
+
+    private final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+
+    @Test @Benchmark
+    public void benchmarkPaint() {
+        this.graphics.setColor(Color.BLUE);
+        this.graphics.fillRect(0, 0, 100, 50);
+        this.graphics.setColor(Color.RED);
+        this.graphics.drawLine(0, 0, 100, 50);
+        this.graphics.setFont(this.font);
+        this.graphics.drawString("Hello, world!", 10, 25);
+        Blackhole.consume(this.graphics.getColor());
+        Blackhole.consume(this.graphics.getFont());
+    }
+
+    @Test @Benchmark
+    public void benchmarkConstruction() {
+        Blackhole.consume(new MockGraphics());
+    }
+
+}
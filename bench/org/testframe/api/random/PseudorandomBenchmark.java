@@ -0,0 +1,61 @@
+package org.testframe.api.random;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Blackhole;
+import org.testframe.api.Test;
+
+/**
+ * Benchmarks of the pseudorandom generators that tests use to come up with 
+ * test data.
+ * @author Alonso del Arte
+ */
+public class PseudorandomBenchmark {
+
+    private final DayOfWeek[] days = DayOfWeek.values();
+
+    private final List<DayOfWeek> dayList = Arrays.asList(this.days);
+
+    private final Set<DayOfWeek> daySet = EnumSet.allOf(DayOfWeek.class);
+
+    @Test @Benchmark
+    public void benchmarkFlipCoin() {
+        Blackhole.consume(Pseudorandom.flipCoin());
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextInt() {
+        Blackhole.consume(Pseudorandom.nextInt(100));
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextPowerOfTwo() {
+        Blackhole.consume(Pseudorandom.nextPowerOfTwo());
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextASCIICharSeq() {
+        Blackhole.consume(Pseudorandom.nextASCIICharSeq(12));
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextObjectFromArray() {
+        Blackhole.consume(Pseudorandom.nextObject(this.days));
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextObjectFromList() {
+        Blackhole.consume(Pseudorandom.nextObject(this.dayList));
+    }
+
+    @Test @Benchmark
+    public void benchmarkNextObjectFromSet() {
+        Blackhole.consume(Pseudorandom.nextObject(this.daySet));
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.testframe.api.text;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Blackhole;
+import org.testframe.api.Test;
+
+/**
+ * Benchmarks of the text processors, on text of the sort they're given when 
+ * comparing expected and actual output.
+ * @author Alonso del Arte
+ */
+public class TextProcessorBenchmark {
+
+    private static final String WHITESPACE_TEXT = "Hello,\t\t world!\n\n  " 
+            + "This  line\thas   runs of  \r\n whitespace \u000B\f  of all "
+            + "kinds,    and    this    one    has    plain    spaces.";
+
+    private static final String HTML_TEXT = "<p>Caf&#233; cr&#232;me, " 
+            + "&#x2018;quoted&#x2019; &#8212; and &#169; 2021, with no "
+            + "entity here but &#60;tags&#62; at the end.</p>";
+
+    private static final String PLAIN_TEXT = "<p>A paragraph without any " 
+            + "numeric character entities, just plain text and tags.</p>";
+
+    @Test @Benchmark
+    public void benchmarkCollapseWhitespace() {
+        Blackhole.consume(PlainTextProcessor 
+                .collapseWhitespace(WHITESPACE_TEXT));
+    }
+
+    @Test @Benchmark
+    public void benchmarkConformCharacterEntities() {
+        Blackhole.consume(HTMLProcessor.conformCharacterEntities(HTML_TEXT));
+    }
+
+    @Test @Benchmark
+    public void benchmarkConformWithoutCharacterEntities() {
+        Blackhole.consume(HTMLProcessor.conformCharacterEntities(PLAIN_TEXT));
+    }
+
+}
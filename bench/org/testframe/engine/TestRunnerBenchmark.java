@@ -0,0 +1,86 @@
+package org.testframe.engine;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Blackhole;
+import org.testframe.api.Test;
+
+/**
+ * Benchmarks of how much the test runner adds to each test it runs. Each call 
+ * runs a test class of ten tests that do nothing, so the time per call 
+ * divided by ten is the overhead per test. One benchmark reuses the options, 
+ * and so the cached test plan, as a suite run does, and the other makes new 
+ * options for each call, so that the test class is scanned every time.
+ * @author Alonso del Arte
+ */
+public class TestRunnerBenchmark {
+
+    private final RunOptions sharedOptions = new RunOptions();
+
+    @Test @Benchmark
+    public void benchmarkDispatchWithCachedPlan() {
+        Blackhole.consume(TestRunner.execute(TenTrivialTests.class, 
+                this.sharedOptions));
+    }
+
+    @Test @Benchmark
+    public void benchmarkDispatchWithNewPlan() {
+        Blackhole.consume(TestRunner.execute(TenTrivialTests.class, 
+                new RunOptions()));
+    }
+
+    @Test @Benchmark
+    public void benchmarkDispatchInParallel() {
+        RunOptions options = new RunOptions();
+        options.setParallelism(4);
+        Blackhole.consume(TestRunner.execute(TenTrivialTests.class, options));
+    }
+
+    /**
+     * Ten tests that do nothing, so that running them measures nothing but 
+     * the test runner.
+     */
+    public static class TenTrivialTests {
+
+        @Test
+        public void testA() {
+        }
+
+        @Test
+        public void testB() {
+        }
+
+        @Test
+        public void testC() {
+        }
+
+        @Test
+        public void testD() {
+        }
+
+        @Test
+        public void testE() {
+        }
+
+        @Test
+        public void testF() {
+        }
+
+        @Test
+        public void testG() {
+        }
+
+        @Test
+        public void testH() {
+        }
+
+        @Test
+        public void testI() {
+        }
+
+        @Test
+        public void testJ() {
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a test annotated with {@link Test} is a micro-benchmark. 
+ * Rather than running the test once, the test runner calls it over and over, 
+ * first for some warm-up iterations, so that the just-in-time (JIT) compiler 
+ * gets a chance to compile it, and then for some measurement iterations, each 
+ * of which gives one sample of how long one call takes on average. The test 
+ * is reported along with the other tests, with the mean, percentiles and 
+ * confidence interval of the samples. If any call fails an assertion or 
+ * throws an exception, the test is reported as failed or as having caused an 
+ * error, just like any other test. Note that this annotation has no effect 
+ * on a procedure that does not also have the <code>@Test</code> annotation.
+ * <p>The procedures annotated {@link BeforeEachTest} and {@link 
+ * AfterEachTest} run once around all the iterations, not around each call. 
+ * Anything the benchmark computes should be passed to {@link 
+ * Blackhole#consume(Object)} or one of its overloads, so that the JIT 
+ * compiler can't leave out the computation on the grounds that nothing uses 
+ * its result.</p>
+ * <p>Instead of <code>System.nanoTime()</code> calls in an ordinary test, 
+ * prefer this annotation, since those give a single noisy measurement that 
+ * says more about whether the JIT compiler had gotten to the code yet than 
+ * about how fast the code is.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Benchmark {
+
+    /**
+     * How many iterations to run before measuring. These are not measured.
+     * @return The number of warm-up iterations. For example, 5. May be 0.
+     */
+    int warmupIterations() default 5;
+
+    /**
+     * How many iterations to measure. Each measured iteration gives one 
+     * sample.
+     * @return The number of measurement iterations. For example, 10. Should 
+     * be at least 1.
+     */
+    int iterations() default 10;
+
+    /**
+     * How long each iteration lasts. The benchmark is called as many times as 
+     * fit in this time, and then perhaps a few more.
+     * @return The length of an iteration in milliseconds. For example, 100. 
+     * Should be at least 1.
+     */
+    long iterationMillis() default 100L;
+
+    /**
+     * How many fresh Java Virtual Machines (JVMs) to run the iterations in. 
+     * Each fork runs all the warm-up and measurement iterations, so that the 
+     * samples aren't all colored by how the JIT compiler happened to compile 
+     * the code in a single JVM. The samples of all the forks are reported 
+     * together.
+     * @return The number of forks. For example, 2. Or 0 to run the iterations 
+     * in the same JVM as the other tests, which is the default.
+     */
+    int forks() default 0;
+
+}
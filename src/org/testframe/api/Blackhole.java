@@ -0,0 +1,81 @@
+package org.testframe.api;
+
+/**
+ * Consumes values computed by a benchmark, so that the just-in-time (JIT) 
+ * compiler can't tell the values go unused and leave out the computations 
+ * that produce them. Each value is compared to a volatile field that it can 
+ * never be equal to, which is much cheaper than writing the value to a 
+ * volatile field. For example,
+ * <pre>    &#64;Test 
+ *    &#64;Benchmark 
+ *    public void benchmarkIsPalindrome() { 
+ *        Blackhole.consume(checker.isPalindrome("A man, a plan, a canal")); 
+ *    }</pre>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class Blackhole {
+
+    private static volatile Object unmatchable = new Object();
+
+    private static volatile long longA = 1L;
+
+    private static volatile long longB = 2L;
+
+    private static volatile double doubleA = 1.0;
+
+    private static volatile double doubleB = 2.0;
+
+    private static volatile boolean booleanA = false;
+
+    private static volatile boolean booleanB = true;
+
+    /**
+     * Consumes an object.
+     * @param obj The object. For example, the <code>String</code> a 
+     * benchmark built. May be null.
+     */
+    public static void consume(Object obj) {
+        if (obj == unmatchable) {
+            unmatchable = new Object();
+        }
+    }
+
+    /**
+     * Consumes a number of any integral primitive type. Since 
+     * <code>byte</code>, <code>short</code>, <code>char</code> and 
+     * <code>int</code> all widen to <code>long</code>, this one overload 
+     * covers them all.
+     * @param value The number. For example, 42.
+     */
+    public static void consume(long value) {
+        if (value == longA && value == longB) {
+            longA = value + 1L;
+        }
+    }
+
+    /**
+     * Consumes a floating point number. Since <code>float</code> widens to 
+     * <code>double</code>, this also covers <code>float</code>.
+     * @param value The number. For example, 3.14159.
+     */
+    public static void consume(double value) {
+        if (value == doubleA && value == doubleB) {
+            doubleA = value + 1.0;
+        }
+    }
+
+    /**
+     * Consumes a Boolean value.
+     * @param value The value. For example, true.
+     */
+    public static void consume(boolean value) {
+        if (value == booleanA && value == booleanB) {
+            booleanA = !value;
+        }
+    }
+
+    private Blackhole() {
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a test annotated with {@link Test} takes its arguments from 
+ * a file of comma-separated values (CSV), one line per invocation and one 
+ * field per parameter. The file is read a line at a time, as the test is 
+ * about to be invoked, so that it can be much larger than would fit in 
+ * memory. Blank lines and lines starting with "#" are ignored. A field may be 
+ * put in double quotes to have commas in it, in which case a double quote in 
+ * the field is written as two double quotes.
+ * <p>Each field is converted to the type of its parameter: 
+ * <code>String</code>, any primitive type or its wrapper, or an 
+ * <code>enum</code> type, by the name of the constant. Each invocation is 
+ * reported to the listeners as a test result of its own.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CSVSource {
+
+    /**
+     * The path of the file. The file is looked for first as a resource on the 
+     * class path, by way of <code>Class.getResource()</code> on the class 
+     * that declares the test, so that a path without a leading slash is 
+     * relative to the package of that class. If there's no such resource, 
+     * the path is taken to be absolute or relative to the working directory. 
+     * A file found on the class path is also tracked by a test impact map, 
+     * so that changing it makes the test class run again.
+     * @return The path. For example, "palindromes.csv" for a file next to 
+     * the class file of the test class, or "/data/palindromes.csv" for a 
+     * file in the data folder at the root of the class path.
+     */
+    String value();
+
+    /**
+     * Whether the first line that isn't blank or a comment is a header, to 
+     * be skipped.
+     * @return True if there's a header, false otherwise. The default is 
+     * false.
+     */
+    boolean header() default false;
+
+}
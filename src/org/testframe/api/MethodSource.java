@@ -0,0 +1,46 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a test annotated with {@link Test} takes its arguments from 
+ * a procedure of the test class. The procedure should be public, take no 
+ * parameters and return a <code>java.util.stream.Stream</code>, a 
+ * <code>java.util.Iterator</code> or a <code>java.lang.Iterable</code>. Each 
+ * element gives the arguments for one invocation of the test: an 
+ * <code>Object[]</code> with one element per parameter, or, if the test has 
+ * only one parameter, the argument itself. The procedure may be static; if 
+ * it's not, it's called on the instance the test runs on.
+ * <p>The elements are taken one at a time, as the test is about to be 
+ * invoked with them, and each invocation is reported to the listeners as a 
+ * test result of its own. So a procedure that generates its elements as 
+ * they're asked for, such as with <code>Stream.iterate()</code>, can drive 
+ * millions of invocations without all the arguments being in memory at 
+ * once. A stream is closed once the test is done with it.</p>
+ * <p>For example:</p>
+ * <pre>    public static Stream&lt;Object[]&gt; palindromes() { 
+ *         return Stream.of(new Object[] {"racecar", true}, 
+ *                 new Object[] {"raceboat", false}); 
+ *     }
+ *
+ *     &#64;Test &#64;MethodSource("palindromes") 
+ *     public void testIsPalindrome(String word, boolean expected) { 
+ *         assert PalindromeChecker.isPalindrome(word) == expected; 
+ *     }</pre>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MethodSource {
+
+    /**
+     * The name of the procedure that gives the arguments.
+     * @return The name. For example, "palindromes".
+     */
+    String value();
+
+}
@@ -0,0 +1,64 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a test annotated with {@link Test} takes pseudorandom 
+ * arguments. Each argument is generated according to the type of its 
+ * parameter: integers and floating point numbers from {@link #min()} to 
+ * {@link #max()}, <code>boolean</code> values, printable ASCII characters, 
+ * strings of printable ASCII characters up to {@link #maxLength()} 
+ * characters long, or constants of an <code>enum</code> type. The arguments 
+ * are generated one invocation at a time, so the count may be in the 
+ * millions, and each invocation is reported to the listeners as a test 
+ * result of its own, with the arguments it was given.
+ * <p>The arguments come from a generator seeded with {@link #seed()}, so that 
+ * each run tries the same arguments and a failure can be reproduced. To try 
+ * different arguments, change the seed.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RandomSource {
+
+    /**
+     * How many times to invoke the test.
+     * @return The number of invocations. For example, 1000. Should be at 
+     * least 1.
+     */
+    long count() default 100L;
+
+    /**
+     * The seed of the pseudorandom number generator.
+     * @return The seed. For example, 20240917.
+     */
+    long seed() default 0L;
+
+    /**
+     * The least number to generate. Numbers that don't fit the type of 
+     * their parameter are brought into its range.
+     * @return The least number. For example, &minus;1000. The default is 
+     * &minus;1000.
+     */
+    long min() default -1000L;
+
+    /**
+     * The greatest number to generate. Numbers that don't fit the type of 
+     * their parameter are brought into its range.
+     * @return The greatest number. For example, 1000. Should not be less 
+     * than {@link #min()}. The default is 1000.
+     */
+    long max() default 1000L;
+
+    /**
+     * The greatest length of the strings to generate.
+     * @return The greatest length. For example, 20. Should not be negative. 
+     * The default is 20.
+     */
+    int maxLength() default 20;
+
+}
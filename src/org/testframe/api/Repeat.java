@@ -0,0 +1,47 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a test annotated with {@link Test} is to be run several 
+ * times, possibly from several threads at the same time. This is meant to 
+ * shake out bugs that only show up now and then, such as race conditions, 
+ * and to measure the latency of the code under test once it has settled 
+ * down. The repetitions are reported as one result, with how many passed and 
+ * how many failed, which repetition failed first, and the distribution of 
+ * how long each repetition took. The test is reported as failed or as having 
+ * caused an error if any repetition did, with the first failure as its 
+ * information. Note that this annotation has no effect on a procedure that 
+ * does not also have the <code>@Test</code> annotation, nor on a procedure 
+ * that also has the {@link Benchmark} annotation.
+ * <p>The procedures annotated {@link BeforeEachTest} and {@link 
+ * AfterEachTest} run once around all the repetitions, not around each one, 
+ * and a timeout applies to all the repetitions together. If the repetitions 
+ * run from several threads, they all run on the same instance of the test 
+ * class, so the test should only change state that's meant to be shared 
+ * between threads.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Repeat {
+
+    /**
+     * How many times to run the test.
+     * @return The number of repetitions. For example, 100. Should be at 
+     * least 1.
+     */
+    int value();
+
+    /**
+     * How many threads to run the repetitions from.
+     * @return The number of threads. For example, 4. Should be at least 1. 
+     * The default is 1, to run the repetitions one after the other.
+     */
+    int threads() default 1;
+
+}
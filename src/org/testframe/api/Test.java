@@ -20,7 +20,19 @@ import java.lang.annotation.Target;
  * open to the idea of making this annotation assignable at the class level.</p>
  * <p>In this testing framework, this annotation doesn't have any attributes and 
  * I don't think those will be necessary. Use {@link Asserters#assertTimeout} or
- * {@link Asserters#assertThrows}.</p>
+ * {@link Asserters#assertThrows}. For a test that might hang altogether, use 
+ * the separate {@link Timeout} annotation, for a micro-benchmark, the 
+ * separate {@link Benchmark} annotation, and for a test to run many times, 
+ * the separate {@link Repeat} annotation.</p>
+ * <p>A test procedure usually has no parameters. One that does is invoked 
+ * once for each set of arguments given by a {@link MethodSource}, {@link 
+ * CSVSource} or {@link RandomSource} annotation, and each invocation is 
+ * reported to the listeners as a test result of its own. In the results of 
+ * the test class, the invocations that passed are folded into one result, 
+ * while the others are kept on their own. The procedures annotated {@link 
+ * BeforeEachTest} and {@link AfterEachTest} run around each invocation. The 
+ * {@link Benchmark} and {@link Repeat} annotations have no effect on a test 
+ * procedure with parameters.</p>
  * @since 1.0
  * @author Alonso del Arte
  */
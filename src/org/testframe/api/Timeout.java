@@ -0,0 +1,36 @@
+package org.testframe.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates how long a test annotated with {@link Test} may run before the 
+ * test runner gives up on it. A test that runs out of time is interrupted and 
+ * reported as having caused an error, and the other tests go on without it, 
+ * even if it ignores the interruption. On a test class, this annotation 
+ * applies to every test in the class that doesn't have a timeout of its own, 
+ * including the tests it inherits. The procedures annotated {@link 
+ * BeforeEachTest} and {@link AfterEachTest} run on the same thread as the 
+ * test and count towards its time, but those annotated {@link AfterEachTest} 
+ * are not run after a test that ran out of time, since it may still be 
+ * running. Note that this annotation has no effect on a procedure that does 
+ * not also have the <code>@Test</code> annotation.
+ * <p>Unlike {@link Asserters#assertTimeout}, which only times the lambda it's 
+ * given, this annotation times the whole test procedure, and it also keeps a 
+ * test that never finishes from holding up the rest of the run.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Timeout {
+
+    /**
+     * How long the test may run, in milliseconds.
+     * @return The allotted time. For example, 5000 for five seconds.
+     */
+    long value();
+
+}
@@ -0,0 +1,445 @@
+package org.testframe.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.testframe.api.CSVSource;
+import org.testframe.api.MethodSource;
+import org.testframe.api.RandomSource;
+
+/**
+ * Gives the arguments for the invocations of a test with parameters, as 
+ * called for by its {@link MethodSource}, {@link CSVSource} or {@link 
+ * RandomSource} annotation. The arguments are given as a stream, so that 
+ * each set of arguments is only made, read or generated when the test is 
+ * about to be invoked with it. Arguments that are strings, such as the 
+ * fields of a CSV file, are only converted to the types of the parameters 
+ * right before the invocation, so that an argument that can't be converted 
+ * causes an error in that invocation only.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class ArgumentSources {
+
+    private static final int DESCRIPTION_LIMIT = 80;
+
+    private static final char FIRST_PRINTABLE = ' ';
+
+    private static final int PRINTABLE_COUNT = 95;
+
+    /**
+     * Tells whether a test is to be invoked with arguments rather than once 
+     * without any.
+     * @param test The test. For example, <code>testIsPalindrome(String, 
+     * boolean)</code>.
+     * @return True if the test has parameters or an argument source 
+     * annotation, false otherwise.
+     */
+    static boolean isParameterized(Method test) {
+        return test.getParameterCount() > 0 
+                || test.getAnnotation(MethodSource.class) != null
+                || test.getAnnotation(CSVSource.class) != null
+                || test.getAnnotation(RandomSource.class) != null;
+    }
+
+    private static Object[] toArguments(Object element, Class<?>[] types) {
+        if (types.length == 1 && !(element instanceof Object[] 
+                && !types[0].isInstance(element))) {
+            return new Object[] {element};
+        }
+        if (element instanceof Object[]) {
+            return (Object[]) element;
+        }
+        return new Object[] {element};
+    }
+
+    private static Stream<Object[]> fromMethod(Method test, Object instance, 
+            MethodSource source) throws Throwable {
+        Method supplier = test.getDeclaringClass().getMethod(source.value());
+        Object supplied;
+        try {
+            supplied = supplier.invoke(Modifier.isStatic(supplier 
+                    .getModifiers()) ? null : instance);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+        Stream<?> stream;
+        if (supplied instanceof Stream) {
+            stream = (Stream<?>) supplied;
+        } else if (supplied instanceof Iterable) {
+            stream = StreamSupport.stream(((Iterable<?>) supplied) 
+                    .spliterator(), false);
+        } else if (supplied instanceof Iterator) {
+            stream = StreamSupport.stream(Spliterators 
+                    .spliteratorUnknownSize((Iterator<?>) supplied, 
+                            Spliterator.ORDERED), false);
+        } else {
+            String excMsg = "Procedure " + source.value() 
+                    + " should return a Stream, Iterator or Iterable, not "
+                    + (supplied == null ? "null" 
+                            : supplied.getClass().getName());
+            throw new IllegalArgumentException(excMsg);
+        }
+        Class<?>[] types = test.getParameterTypes();
+        return stream.map(element -> toArguments(element, types));
+    }
+
+    /**
+     * Splits a line of a CSV file into fields. A field in double quotes may 
+     * have commas in it, and two double quotes in a row in such a field stand 
+     * for one double quote.
+     * @param line The line. For example, "\"Hello, world\",12,true".
+     * @return The fields, without the double quotes around any of them. For 
+     * example, "Hello, world", "12" and "true".
+     */
+    static String[] splitCSV(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() 
+                        && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Opens the file named by a {@link CSVSource} a line at a time, as a 
+     * resource on the class path if there is such a resource, or as a file 
+     * otherwise.
+     * @param test The test the file gives the arguments for, whose declaring 
+     * class the path of a resource is relative to.
+     * @param path The path of the file. For example, "palindromes.csv".
+     * @return The lines of the file. The caller should close the stream.
+     * @throws IOException If there's no such resource and the file can't be 
+     * opened.
+     */
+    private static Stream<String> lines(Method test, String path) 
+            throws IOException {
+        InputStream stream = test.getDeclaringClass() 
+                .getResourceAsStream(path);
+        if (stream == null) {
+            return Files.lines(Paths.get(path), StandardCharsets.UTF_8);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, 
+                StandardCharsets.UTF_8));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        });
+    }
+
+    private static Stream<Object[]> fromCSV(Method test, CSVSource source) 
+            throws IOException {
+        Stream<String> lines = lines(test, source.value()).filter(line 
+                -> !line.trim().isEmpty() && !line.startsWith("#"));
+        if (source.header()) {
+            lines = lines.skip(1L);
+        }
+        return lines.map(ArgumentSources::splitCSV);
+    }
+
+    private static long clamp(long value, long least, long greatest) {
+        return Math.max(least, Math.min(greatest, value));
+    }
+
+    /**
+     * Generates a number in a range, after bringing both ends of the range 
+     * into the range of a type, so that a range that doesn't fit the type at 
+     * all comes down to the nearest number that does.
+     * @param random The generator.
+     * @param min The least number asked for. For example, 1000.
+     * @param max The greatest number asked for, not less than 
+     * <code>min</code>. For example, 5000.
+     * @param least The least number of the type. For example, &minus;128 for 
+     * <code>byte</code>.
+     * @param greatest The greatest number of the type. For example, 127 for 
+     * <code>byte</code>.
+     * @return The number. For example, 127, the only number of the example 
+     * range to fit in a <code>byte</code>.
+     */
+    static long nextInRange(SplittableRandom random, long min, long max, 
+            long least, long greatest) {
+        min = clamp(min, least, greatest);
+        max = clamp(max, least, greatest);
+        long bound = max - min + 1L;
+        if (bound <= 0L) {
+            // The range is more than half of all longs, so this is quick
+            long value = random.nextLong();
+            while (value < min || value > max) {
+                value = random.nextLong();
+            }
+            return value;
+        }
+        return min + random.nextLong(bound);
+    }
+
+    private static Object generate(SplittableRandom random, Class<?> type, 
+            RandomSource source) {
+        long min = source.min();
+        long max = source.max();
+        if (type == int.class || type == Integer.class) {
+            return (int) nextInRange(random, min, max, Integer.MIN_VALUE, 
+                    Integer.MAX_VALUE);
+        } else if (type == long.class || type == Long.class) {
+            return nextInRange(random, min, max, Long.MIN_VALUE, 
+                    Long.MAX_VALUE);
+        } else if (type == short.class || type == Short.class) {
+            return (short) nextInRange(random, min, max, Short.MIN_VALUE, 
+                    Short.MAX_VALUE);
+        } else if (type == byte.class || type == Byte.class) {
+            return (byte) nextInRange(random, min, max, Byte.MIN_VALUE, 
+                    Byte.MAX_VALUE);
+        } else if (type == double.class || type == Double.class) {
+            return min + random.nextDouble() * ((double) max - min);
+        } else if (type == float.class || type == Float.class) {
+            return (float) (min + random.nextDouble() * ((double) max - min));
+        } else if (type == boolean.class || type == Boolean.class) {
+            return random.nextBoolean();
+        } else if (type == char.class || type == Character.class) {
+            return (char) (FIRST_PRINTABLE + random.nextInt(PRINTABLE_COUNT));
+        } else if (type == String.class) {
+            char[] chars = new char[random.nextInt(source.maxLength() + 1)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) (FIRST_PRINTABLE 
+                        + random.nextInt(PRINTABLE_COUNT));
+            }
+            return new String(chars);
+        } else {
+            Object[] constants = type.getEnumConstants();
+            return constants[random.nextInt(constants.length)];
+        }
+    }
+
+    private static boolean canGenerate(Class<?> type) {
+        if (type.isPrimitive()) {
+            return type != void.class;
+        }
+        Object[] constants = type.getEnumConstants();
+        return type == String.class || type == Integer.class 
+                || type == Long.class || type == Short.class
+                || type == Byte.class || type == Double.class
+                || type == Float.class || type == Boolean.class
+                || type == Character.class
+                || (constants != null && constants.length > 0);
+    }
+
+    private static Stream<Object[]> fromRandom(Method test, 
+            RandomSource source) {
+        String problem = null;
+        if (source.count() < 1L) {
+            problem = "Count " + source.count() + " should be at least 1";
+        } else if (source.min() > source.max()) {
+            problem = "Minimum " + source.min() 
+                    + " should not be more than maximum " + source.max();
+        } else if (source.maxLength() < 0) {
+            problem = "Maximum length " + source.maxLength() 
+                    + " should not be negative";
+        }
+        Class<?>[] types = test.getParameterTypes();
+        for (Class<?> type : types) {
+            if (problem == null && !canGenerate(type)) {
+                problem = "Unable to generate random arguments of type " 
+                        + type.getName();
+            }
+        }
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+        SplittableRandom random = new SplittableRandom(source.seed());
+        return Stream.generate(() -> {
+            Object[] arguments = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                arguments[i] = generate(random, types[i], source);
+            }
+            return arguments;
+        }).limit(source.count());
+    }
+
+    /**
+     * Opens the stream of arguments of a test with parameters.
+     * @param test The test. For example, <code>testIsPalindrome(String, 
+     * boolean)</code>.
+     * @param instance The instance the test runs on, in case the arguments 
+     * come from a procedure that's not static.
+     * @return The stream of arguments, one array per invocation. The caller 
+     * should close it once done with it, since it may hold a file open.
+     * @throws IllegalArgumentException If the test doesn't have exactly one 
+     * argument source annotation, or if the annotation's settings are 
+     * invalid, such as a count of 0 random invocations.
+     * @throws Throwable Whatever else keeps the stream from being opened, 
+     * such as a <code>NoSuchMethodException</code> if the procedure named by 
+     * a {@link MethodSource} doesn't exist, an <code>IOException</code> if 
+     * the file named by a {@link CSVSource} can't be read, or whatever that 
+     * procedure throws.
+     */
+    static Stream<Object[]> open(Method test, Object instance) 
+            throws Throwable {
+        MethodSource methodSource = test.getAnnotation(MethodSource.class);
+        CSVSource csvSource = test.getAnnotation(CSVSource.class);
+        RandomSource randomSource = test.getAnnotation(RandomSource.class);
+        int count = (methodSource == null ? 0 : 1) 
+                + (csvSource == null ? 0 : 1)
+                + (randomSource == null ? 0 : 1);
+        if (count != 1) {
+            String excMsg = "Test " + test.getName() 
+                    + " should have exactly one argument source, has "
+                    + count;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (methodSource != null) {
+            return fromMethod(test, instance, methodSource);
+        } else if (csvSource != null) {
+            return fromCSV(test, csvSource);
+        }
+        return fromRandom(test, randomSource);
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return Integer.valueOf(value.trim());
+        } else if (type == long.class || type == Long.class) {
+            return Long.valueOf(value.trim());
+        } else if (type == short.class || type == Short.class) {
+            return Short.valueOf(value.trim());
+        } else if (type == byte.class || type == Byte.class) {
+            return Byte.valueOf(value.trim());
+        } else if (type == double.class || type == Double.class) {
+            return Double.valueOf(value.trim());
+        } else if (type == float.class || type == Float.class) {
+            return Float.valueOf(value.trim());
+        } else if (type == boolean.class || type == Boolean.class) {
+            String trimmed = value.trim();
+            if (!trimmed.equalsIgnoreCase("true") 
+                    && !trimmed.equalsIgnoreCase("false")) {
+                String excMsg = "Unable to convert \"" + value 
+                        + "\" to boolean";
+                throw new IllegalArgumentException(excMsg);
+            }
+            return Boolean.valueOf(trimmed);
+        } else if (type == char.class || type == Character.class) {
+            if (value.length() != 1) {
+                String excMsg = "Unable to convert \"" + value 
+                        + "\" to char";
+                throw new IllegalArgumentException(excMsg);
+            }
+            return value.charAt(0);
+        } else if (type.isEnum()) {
+            for (Object constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(value.trim())) {
+                    return constant;
+                }
+            }
+        }
+        String excMsg = "Unable to convert \"" + value + "\" to " 
+                + type.getName();
+        throw new IllegalArgumentException(excMsg);
+    }
+
+    /**
+     * Converts arguments that are strings to the types of the parameters 
+     * they're for, if those are not strings.
+     * @param arguments The arguments. For example, "racecar" and "true". Not 
+     * changed.
+     * @param types The types of the parameters. For example, 
+     * <code>String</code> and <code>boolean</code>.
+     * @return The converted arguments. For example, "racecar" and 
+     * <code>Boolean.TRUE</code>. Or <code>arguments</code> itself if there 
+     * are more or fewer arguments than parameters.
+     * @throws IllegalArgumentException If a string can't be converted to the 
+     * type of its parameter. For example, "maybe" for a <code>boolean</code> 
+     * parameter. This includes <code>NumberFormatException</code>.
+     */
+    static Object[] convert(Object[] arguments, Class<?>[] types) {
+        if (arguments.length != types.length) {
+            return arguments;
+        }
+        Object[] converted = Arrays.copyOf(arguments, arguments.length, 
+                Object[].class);
+        for (int i = 0; i < types.length; i++) {
+            if (arguments[i] instanceof String 
+                    && !types[i].isInstance(arguments[i])) {
+                converted[i] = convert((String) arguments[i], types[i]);
+            }
+        }
+        return converted;
+    }
+
+    private static String describe(Object argument) {
+        if (argument instanceof String) {
+            return "\"" + argument + "\"";
+        } else if (argument instanceof Character) {
+            return "'" + argument + "'";
+        } else if (argument != null && argument.getClass().isArray()) {
+            String str = Arrays.deepToString(new Object[] {argument});
+            return str.substring(1, str.length() - 1);
+        }
+        return String.valueOf(argument);
+    }
+
+    /**
+     * Describes a set of arguments, to tell the invocations of a test apart 
+     * in the report. Long descriptions are cut short.
+     * @param arguments The arguments. For example, "racecar" and 
+     * <code>true</code>.
+     * @return The description, at most 80 characters long. For example, 
+     * "\"racecar\", true".
+     */
+    static String describe(Object[] arguments) {
+        StringBuilder builder = new StringBuilder();
+        for (Object argument : arguments) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(describe(argument));
+            if (builder.length() > DESCRIPTION_LIMIT) {
+                break;
+            }
+        }
+        if (builder.length() > DESCRIPTION_LIMIT) {
+            builder.setLength(DESCRIPTION_LIMIT - 3);
+            builder.append("...");
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,181 @@
+package org.testframe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Compares the samples a benchmark took in this run to the samples it took 
+ * when its baseline was recorded. Whether the benchmark got slower is decided 
+ * by a one-sided Mann-Whitney U test, which doesn't assume the samples are 
+ * normally distributed, and so isn't thrown off by the occasional sample 
+ * that's much slower than the rest, such as because of a garbage collection. 
+ * A slowdown only counts as a regression if it's both statistically 
+ * significant and larger than the tolerance, so that a real but negligible 
+ * slowdown doesn't fail the build. With fewer than about six samples on each 
+ * side, no slowdown can be significant.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class BaselineComparison {
+
+    /**
+     * The probability below which a slowdown is taken to be statistically 
+     * significant: 1%.
+     */
+    public static final double SIGNIFICANCE_LEVEL = 0.01;
+
+    private final double baselineMedian;
+
+    private final double currentMedian;
+
+    private final double pValue;
+
+    private final double tolerance;
+
+    private static double median(double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        if (sorted.length % 2 == 1) {
+            return sorted[middle];
+        }
+        return (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    private static double complementaryErrorFunction(double x) {
+        double t = 1.0 / (1.0 + 0.3275911 * Math.abs(x));
+        double polynomial = t * (0.254829592 + t * (-0.284496736 
+                + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        double result = polynomial * Math.exp(-x * x);
+        return x >= 0.0 ? result : 2.0 - result;
+    }
+
+    /**
+     * Computes the probability of the current samples being at least as slow 
+     * as they are compared to the baseline samples if the benchmark hadn't 
+     * actually gotten any slower. This uses the normal approximation to the 
+     * distribution of the Mann-Whitney U statistic, with a correction for 
+     * ties and a continuity correction.
+     * @param baseline The baseline samples. For example, 12.5, 12.25 and 
+     * 12.75. Should not be empty.
+     * @param current The current samples. For example, 15.5, 15.0 and 16.25. 
+     * Should not be empty.
+     * @return The one-sided p-value, from 0 to 1. For example, 0.04. Close to 
+     * 0 if the current samples are all slower than the baseline samples, 1 
+     * if all the samples are equal.
+     */
+    static double slowdownPValue(double[] baseline, double[] current) {
+        int n1 = baseline.length;
+        int n2 = current.length;
+        int n = n1 + n2;
+        double[] all = new double[n];
+        System.arraycopy(baseline, 0, all, 0, n1);
+        System.arraycopy(current, 0, all, n1, n2);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(all[a], all[b]));
+        double currentRankSum = 0.0;
+        double tieSum = 0.0;
+        int start = 0;
+        while (start < n) {
+            int end = start;
+            while (end + 1 < n && all[order[end + 1]] == all[order[start]]) {
+                end++;
+            }
+            double rank = (start + end) / 2.0 + 1.0;
+            for (int i = start; i <= end; i++) {
+                if (order[i] >= n1) {
+                    currentRankSum += rank;
+                }
+            }
+            double tied = end - start + 1;
+            tieSum += tied * tied * tied - tied;
+            start = end + 1;
+        }
+        double u = currentRankSum - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * n2 / 2.0;
+        double variance = n1 * n2 / 12.0 
+                * ((n + 1) - tieSum / ((double) n * (n - 1)));
+        if (variance <= 0.0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return complementaryErrorFunction(z / Math.sqrt(2.0)) / 2.0;
+    }
+
+    /**
+     * Gets the median of the baseline samples.
+     * @return The median in nanoseconds per call. For example, 12.5.
+     */
+    public double getBaselineMedian() {
+        return this.baselineMedian;
+    }
+
+    /**
+     * Gets the median of the current samples.
+     * @return The median in nanoseconds per call. For example, 15.5.
+     */
+    public double getCurrentMedian() {
+        return this.currentMedian;
+    }
+
+    /**
+     * Gets how much slower the current median is than the baseline median.
+     * @return The change as a fraction of the baseline median. For example, 
+     * 0.24 for 24% slower. Negative if the benchmark got faster.
+     */
+    public double getRelativeChange() {
+        return this.currentMedian / this.baselineMedian - 1.0;
+    }
+
+    /**
+     * Gets the probability of a slowdown at least this large if the 
+     * benchmark hadn't actually gotten any slower.
+     * @return The p-value, from 0 to 1. For example, 0.0002.
+     */
+    public double getPValue() {
+        return this.pValue;
+    }
+
+    /**
+     * Tells whether the benchmark got slower by more than the tolerance, and 
+     * significantly so.
+     * @return True if the p-value is below {@link #SIGNIFICANCE_LEVEL} and 
+     * the relative change is more than the tolerance, false otherwise.
+     */
+    public boolean isRegression() {
+        return this.pValue < SIGNIFICANCE_LEVEL 
+                && this.getRelativeChange() > this.tolerance;
+    }
+
+    /**
+     * Constructor.
+     * @param baseline The baseline samples, in nanoseconds per call. For 
+     * example, 12.5, 12.25 and 12.75.
+     * @param current The current samples, in nanoseconds per call. For 
+     * example, 15.5, 15.0 and 16.25.
+     * @param tolerance How much slower the benchmark may get before it counts 
+     * as a regression, as a fraction of the baseline median. For example, 
+     * 0.1 for 10%.
+     * @throws IllegalArgumentException If either array of samples is empty, 
+     * or if <code>tolerance</code> is negative.
+     */
+    public BaselineComparison(double[] baseline, double[] current, 
+            double tolerance) {
+        if (baseline.length == 0 || current.length == 0) {
+            String excMsg = "There should be baseline and current samples";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (!(tolerance >= 0.0)) {
+            String excMsg = "Tolerance " + tolerance 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.baselineMedian = median(baseline);
+        this.currentMedian = median(current);
+        this.pValue = slowdownPValue(baseline, current);
+        this.tolerance = tolerance;
+    }
+
+}
@@ -0,0 +1,266 @@
+package org.testframe.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testframe.api.Benchmark;
+
+/**
+ * Runs tests annotated {@link Benchmark}. Each iteration calls the benchmark 
+ * in batches of doubling size until the iteration's time is up, so that 
+ * reading the clock doesn't take up a noticeable share of the time measured, 
+ * and gives the average time per call as a sample. The warm-up iterations 
+ * are run the same way but their samples are thrown away. The benchmark is 
+ * called through a method handle, which adds a few nanoseconds to each call, 
+ * so the samples are not meaningful for a benchmark that takes only a few 
+ * nanoseconds.
+ * <p>If the benchmark is to be forked, each fork is a fresh Java Virtual 
+ * Machine (JVM) running the <code>main</code> procedure of this class, which 
+ * runs the procedures annotated {@link org.testframe.api.BeforeAllTests} and 
+ * {@link org.testframe.api.BeforeEachTest}, all the iterations and then the 
+ * procedures annotated {@link org.testframe.api.AfterEachTest} and {@link 
+ * org.testframe.api.AfterAllTests}. The fork writes its samples to standard 
+ * output with <code>DataOutputStream</code>: the number of samples followed 
+ * by the samples, or &minus;1 followed by the length and bytes of the 
+ * serialized <code>Throwable</code> if the benchmark failed. Whatever the 
+ * benchmark prints to <code>System.out</code> is sent to standard error 
+ * instead.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class BenchmarkExecutor {
+
+    private static final long MAXIMUM_BATCH = 1L << 16;
+
+    private static void validate(Benchmark settings) {
+        String problem = null;
+        if (settings.warmupIterations() < 0) {
+            problem = "Warm-up iterations " + settings.warmupIterations() 
+                    + " should not be negative";
+        } else if (settings.iterations() < 1) {
+            problem = "Iterations " + settings.iterations() 
+                    + " should be at least 1";
+        } else if (settings.iterationMillis() < 1L) {
+            problem = "Iteration length " + settings.iterationMillis() 
+                    + " milliseconds should be at least 1";
+        } else if (settings.forks() < 0) {
+            problem = "Forks " + settings.forks() + " should not be negative";
+        }
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+    }
+
+    /**
+     * Runs one iteration.
+     * @param benchmark The benchmark to call.
+     * @param instance The instance to call the benchmark on.
+     * @param iterationNanos How long the iteration should last, in 
+     * nanoseconds. For example, 100000000.
+     * @return The average time per call, in nanoseconds. For example, 12.5.
+     * @throws InterruptedException If the thread is interrupted between 
+     * batches, such as because the benchmark ran out of time.
+     * @throws Throwable Whatever the benchmark throws.
+     */
+    static double iterate(ProcedureHandle benchmark, Object instance, 
+            long iterationNanos) throws Throwable {
+        long calls = 0L;
+        long batch = 1L;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0L; i < batch; i++) {
+                benchmark.invoke(instance);
+            }
+            calls += batch;
+            elapsed = System.nanoTime() - start;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Benchmark " 
+                        + benchmark.getProcedure().getName()
+                        + " interrupted");
+            }
+            if (batch < MAXIMUM_BATCH) {
+                batch *= 2L;
+            }
+        } while (elapsed < iterationNanos);
+        return (double) elapsed / calls;
+    }
+
+    private static double[] sample(ProcedureHandle benchmark, Object instance, 
+            Benchmark settings) throws Throwable {
+        long iterationNanos = TimeUnit.MILLISECONDS 
+                .toNanos(settings.iterationMillis());
+        for (int i = 0; i < settings.warmupIterations(); i++) {
+            iterate(benchmark, instance, iterationNanos);
+        }
+        double[] samples = new double[settings.iterations()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = iterate(benchmark, instance, iterationNanos);
+        }
+        return samples;
+    }
+
+    private static double[] sampleInFork(Method procedure) 
+            throws Throwable {
+        String javaCommand = System.getProperty("java.home") + File.separator 
+                + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.add("-enableassertions");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkExecutor.class.getName());
+        command.add(procedure.getDeclaringClass().getName());
+        command.add(procedure.getName());
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process process = builder.start();
+        try (DataInputStream in = new DataInputStream( 
+                new BufferedInputStream(process.getInputStream()))) {
+            int count = in.readInt();
+            if (count < 0) {
+                byte[] info = new byte[in.readInt()];
+                in.readFully(info);
+                throw ForkedWorker.deserialize(info);
+            }
+            double[] samples = new double[count];
+            for (int i = 0; i < count; i++) {
+                samples[i] = in.readDouble();
+            }
+            return samples;
+        } catch (EOFException eofe) {
+            String excMsg = "Fork for benchmark " + procedure.getName() 
+                    + " exited before reporting its samples";
+            throw new IOException(excMsg, eofe);
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Runs a benchmark, in this JVM or in forks as its settings specify.
+     * @param benchmark The benchmark to run. For example, 
+     * <code>benchmarkIsPalindrome()</code>.
+     * @param instance The instance to call the benchmark on, with the 
+     * procedures annotated {@link org.testframe.api.BeforeEachTest} already 
+     * run on it. Not used if the benchmark is forked.
+     * @param settings The annotation on the benchmark. For example, 
+     * <code>&#64;Benchmark(iterations = 20)</code>.
+     * @return The statistics of the samples taken, from all the forks if 
+     * there are any.
+     * @throws IllegalArgumentException If the settings are invalid, such as 
+     * fewer than one measurement iteration.
+     * @throws IOException If a fork can't be started or exits before 
+     * reporting its samples.
+     * @throws Throwable Whatever the benchmark throws, whether in this JVM or 
+     * in a fork.
+     */
+    static BenchmarkStatistics run(ProcedureHandle benchmark, 
+            Object instance, Benchmark settings) throws Throwable {
+        validate(settings);
+        if (settings.forks() == 0) {
+            return new BenchmarkStatistics(sample(benchmark, instance, 
+                    settings));
+        }
+        int count = settings.forks() * settings.iterations();
+        double[] samples = new double[count];
+        int position = 0;
+        for (int i = 0; i < settings.forks(); i++) {
+            double[] forkSamples = sampleInFork(benchmark.getProcedure());
+            if (forkSamples.length != settings.iterations()) {
+                String excMsg = "Fork for benchmark " 
+                        + benchmark.getProcedure().getName() + " reported "
+                        + forkSamples.length + " samples, expected "
+                        + settings.iterations();
+                throw new IOException(excMsg);
+            }
+            System.arraycopy(forkSamples, 0, samples, position, 
+                    forkSamples.length);
+            position += forkSamples.length;
+        }
+        return new BenchmarkStatistics(samples);
+    }
+
+    private static Object instantiate(Class<?> type) throws Throwable {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static double[] sampleWithFixtures(Class<?> type, 
+            Method procedure) throws Throwable {
+        Benchmark settings = procedure.getAnnotation(Benchmark.class);
+        if (settings == null) {
+            String excMsg = "Procedure " + procedure.getName() 
+                    + " is not annotated as a benchmark";
+            throw new IllegalArgumentException(excMsg);
+        }
+        TestPlan plan = new TestPlan(type);
+        Object setUpInstance = instantiate(type);
+        for (ProcedureHandle setUp : plan.getSetUpHandles()) {
+            setUp.invoke(setUpInstance);
+        }
+        try {
+            Object instance = instantiate(type);
+            for (ProcedureHandle before : plan.getBeforeHandles()) {
+                before.invoke(instance);
+            }
+            try {
+                return sample(new ProcedureHandle(procedure), instance, 
+                        settings);
+            } finally {
+                for (ProcedureHandle after : plan.getAfterHandles()) {
+                    after.invoke(instance);
+                }
+            }
+        } finally {
+            for (ProcedureHandle tearDown : plan.getTearDownHandles()) {
+                tearDown.invoke(setUpInstance);
+            }
+        }
+    }
+
+    /**
+     * Runs one fork of a benchmark and writes its samples to standard output, 
+     * as explained in the class documentation.
+     * @param args The command line arguments: the fully qualified name of the 
+     * test class, such as "org.example.demo.textops.PalindromeCheckerTest", 
+     * and the name of the benchmark, such as "benchmarkIsPalindrome".
+     * @throws IOException If standard output can't be written to.
+     */
+    public static void main(String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream( 
+                new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        try {
+            Class<?> type = Class.forName(args[0]);
+            double[] samples = sampleWithFixtures(type, 
+                    type.getMethod(args[1]));
+            out.writeInt(samples.length);
+            for (double sample : samples) {
+                out.writeDouble(sample);
+            }
+        } catch (Throwable t) {
+            byte[] info = ForkedWorker.serialize(t);
+            out.writeInt(-1);
+            out.writeInt(info.length);
+            out.write(info);
+        }
+        out.flush();
+    }
+
+}
@@ -0,0 +1,137 @@
+package org.testframe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Summarizes the samples taken by a benchmark, each sample being the average 
+ * time one call took over one measurement iteration. The confidence interval 
+ * is for the mean, at 95% confidence, using Student's t distribution, since 
+ * there are usually too few samples for the normal distribution to be a good 
+ * fit.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class BenchmarkStatistics {
+
+    private static final double[] T_CRITICAL_VALUES = {12.706, 4.303, 3.182, 
+        2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228, 2.201, 2.179, 2.160,
+        2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069,
+        2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private static final double Z_CRITICAL_VALUE = 1.960;
+
+    private final double[] sortedSamples;
+
+    private final double[] samples;
+
+    private final double mean;
+
+    private final double standardDeviation;
+
+    /**
+     * Gets the samples, in the order they were taken.
+     * @return A copy of the samples, in nanoseconds per call. For example, 
+     * 12.5, 12.25 and 12.75.
+     */
+    public double[] getSamples() {
+        return this.samples.clone();
+    }
+
+    /**
+     * Tells how many samples there are.
+     * @return The number of samples. For example, 10.
+     */
+    public int getSampleCount() {
+        return this.samples.length;
+    }
+
+    /**
+     * Gets the mean of the samples.
+     * @return The mean in nanoseconds per call. For example, 12.5.
+     */
+    public double getMean() {
+        return this.mean;
+    }
+
+    /**
+     * Gets the sample standard deviation of the samples.
+     * @return The standard deviation in nanoseconds per call. For example, 
+     * 0.25. Or NaN if there's only one sample.
+     */
+    public double getStandardDeviation() {
+        return this.standardDeviation;
+    }
+
+    /**
+     * Gets a percentile of the samples, interpolating between the two 
+     * closest samples if need be.
+     * @param percentile The percentile. For example, 90.0 for the sample that 
+     * 90% of the samples are at or below.
+     * @return The percentile in nanoseconds per call. For example, 12.7.
+     * @throws IllegalArgumentException If <code>percentile</code> is less 
+     * than 0 or more than 100.
+     */
+    public double getPercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            String excMsg = "Percentile " + percentile 
+                    + " should be from 0 to 100";
+            throw new IllegalArgumentException(excMsg);
+        }
+        double rank = percentile / 100.0 * (this.sortedSamples.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        double fraction = rank - lower;
+        return this.sortedSamples[lower] + fraction 
+                * (this.sortedSamples[upper] - this.sortedSamples[lower]);
+    }
+
+    /**
+     * Gets the margin of error of the mean, that is, half the width of the 
+     * 95% confidence interval.
+     * @return The margin of error in nanoseconds per call. For example, 0.18, 
+     * meaning that the true mean is from 0.18 below {@link #getMean()} to 
+     * 0.18 above it, with 95% confidence. Or NaN if there's only one sample.
+     */
+    public double getErrorMargin() {
+        int degreesOfFreedom = this.samples.length - 1;
+        if (degreesOfFreedom < 1) {
+            return Double.NaN;
+        }
+        double critical = degreesOfFreedom <= T_CRITICAL_VALUES.length 
+                ? T_CRITICAL_VALUES[degreesOfFreedom - 1] : Z_CRITICAL_VALUE;
+        return critical * this.standardDeviation 
+                / Math.sqrt(this.samples.length);
+    }
+
+    /**
+     * Constructor.
+     * @param samples The samples, in nanoseconds per call, in the order they 
+     * were taken. For example, 12.5, 12.25 and 12.75. The array is copied.
+     * @throws IllegalArgumentException If <code>samples</code> is empty.
+     */
+    public BenchmarkStatistics(double[] samples) {
+        if (samples.length == 0) {
+            String excMsg = "There should be at least one sample";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.samples = samples.clone();
+        this.sortedSamples = samples.clone();
+        Arrays.sort(this.sortedSamples);
+        double sum = 0.0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        this.mean = sum / samples.length;
+        if (samples.length < 2) {
+            this.standardDeviation = Double.NaN;
+        } else {
+            double squares = 0.0;
+            for (double sample : samples) {
+                squares += (sample - this.mean) * (sample - this.mean);
+            }
+            this.standardDeviation = Math.sqrt(squares 
+                    / (samples.length - 1));
+        }
+    }
+
+}
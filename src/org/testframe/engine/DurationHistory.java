@@ -0,0 +1,203 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers how long tests and test classes took in previous runs, so that 
+ * they can be scheduled longest first. When tests run in parallel, starting 
+ * the longest ones first keeps a long test from being started last and 
+ * leaving all the other workers idle while they wait for it to finish. Each 
+ * duration is an estimate that is updated with every run, by averaging the 
+ * previous estimate and the new measurement. The durations can be saved to a 
+ * file, one line per test or test class, and loaded by a later run.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class DurationHistory {
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final char TEST_SEPARATOR = '#';
+
+    private final Map<String, Long> estimates = new ConcurrentHashMap<>();
+
+    private final Path historyFile;
+
+    private static String key(String testClassName, String testName) {
+        return testClassName + TEST_SEPARATOR + testName;
+    }
+
+    private void update(String key, long nanoseconds) {
+        this.estimates.merge(key, nanoseconds, 
+                (previous, latest) -> (previous + latest) / 2);
+    }
+
+    /**
+     * Records how long a test took, provided it was measured and it actually 
+     * ran. Results of tests that were skipped or not run are ignored.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> passed in 1.5 milliseconds.
+     */
+    public void record(String testClassName, TestResult result) {
+        TestResultStatus status = result.getStatus();
+        if (status == TestResultStatus.SKIPPED 
+                || status == TestResultStatus.NOT_RUN) {
+            return;
+        }
+        this.record(testClassName, result.getProcedure().getName(), 
+                result.getMetrics().getWallNanoseconds());
+    }
+
+    /**
+     * Records how long a test took, such as all the invocations of a test 
+     * with parameters put together.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the test procedure. For example, 
+     * "testIsPalindrome".
+     * @param nanoseconds How long the test took, in nanoseconds. For example, 
+     * 1500000 for one and a half milliseconds. Negative durations are 
+     * ignored.
+     */
+    void record(String testClassName, String testName, long nanoseconds) {
+        if (nanoseconds >= 0L) {
+            this.update(key(testClassName, testName), nanoseconds);
+        }
+    }
+
+    /**
+     * Records how long a test class took.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param nanoseconds How long the test class took, in nanoseconds. For 
+     * example, 1500000000 for one and a half seconds. Negative durations are 
+     * ignored.
+     */
+    public void recordClass(String testClassName, long nanoseconds) {
+        if (nanoseconds >= 0L) {
+            this.update(testClassName, nanoseconds);
+        }
+    }
+
+    /**
+     * Gets the estimated duration of a test.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the test procedure. For example, 
+     * "testNoDivisionByZero".
+     * @return The estimate in nanoseconds, or &minus;1 if the test hasn't run 
+     * before.
+     */
+    public long getTestEstimate(String testClassName, String testName) {
+        return this.estimates.getOrDefault(key(testClassName, testName), -1L);
+    }
+
+    /**
+     * Gets the estimated duration of a test class.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @return The estimate in nanoseconds, or &minus;1 if the test class 
+     * hasn't run before.
+     */
+    public long getClassEstimate(String testClassName) {
+        return this.estimates.getOrDefault(testClassName, -1L);
+    }
+
+    /**
+     * Orders work longest first according to estimated durations. Work 
+     * without an estimate goes first of all, since it could be the longest of 
+     * all. Ties are kept in their original order.
+     * @param estimates The estimated durations, with &minus;1 for unknown 
+     * durations. For example, 300, &minus;1, 4000, 25.
+     * @return The indices of the estimates in the order the work should be 
+     * started. For example, 1, 2, 0, 3.
+     */
+    static Integer[] longestFirst(long[] estimates) {
+        Integer[] order = new Integer[estimates.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) 
+                -> estimates[i] < 0L ? Long.MIN_VALUE : -estimates[i]));
+        return order;
+    }
+
+    /**
+     * Tells how many tests and test classes this history has durations for.
+     * @return The number of durations. For example, 120.
+     */
+    public int size() {
+        return this.estimates.size();
+    }
+
+    /**
+     * Gets the file this history was loaded from and is saved to.
+     * @return The file, or null if this history is only kept in memory.
+     */
+    public Path getFile() {
+        return this.historyFile;
+    }
+
+    /**
+     * Saves the durations to the file this history was constructed with. Does 
+     * nothing if this history is only kept in memory.
+     * @throws IOException If the file can't be written.
+     */
+    public void save() throws IOException {
+        if (this.historyFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.estimates.size() + 1);
+        lines.add("# Test durations in nanoseconds");
+        for (Map.Entry<String, Long> entry 
+                : new TreeMap<>(this.estimates).entrySet()) {
+            lines.add(entry.getKey() + FIELD_SEPARATOR + entry.getValue());
+        }
+        Files.write(this.historyFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor for a history that is only kept in memory.
+     */
+    public DurationHistory() {
+        this.historyFile = null;
+    }
+
+    /**
+     * Constructor for a history that is saved to a file. If the file exists, 
+     * the durations are loaded from it. Lines that aren't understood are 
+     * ignored.
+     * @param file The file. For example, "build/test-durations.txt".
+     * @throws IOException If the file exists but can't be read.
+     */
+    public DurationHistory(Path file) throws IOException {
+        this.historyFile = file;
+        if (Files.exists(file)) {
+            for (String line 
+                    : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(FIELD_SEPARATOR);
+                if (line.startsWith("#") || fields.length != 2) {
+                    continue;
+                }
+                try {
+                    this.estimates.put(fields[0], Long.parseLong(fields[1]));
+                } catch (NumberFormatException nfe) {
+                    // Ignored like any other line that isn't understood
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package org.testframe.engine;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the state of one run of one test class: the test plan, the results 
+ * recorded so far and the timing of the run. Each run gets its own context, so 
+ * that results from one run don't leak into another, and so that several test 
+ * classes can run at the same time in the same Java Virtual Machine (JVM).
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class ExecutionContext {
+
+    private final TestPlan testPlan;
+
+    private final RunOptions runOptions;
+
+    private final List<TestResult> results = new ArrayList<>();
+
+    private final Map<String, TestResultStatus> invocationVerdicts 
+            = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> invocationDurations 
+            = new ConcurrentHashMap<>();
+
+    private long startTime = 0L;
+
+    private long endTime = 0L;
+
+    /**
+     * Gets the test plan this context was constructed with.
+     * @return The test plan.
+     */
+    public TestPlan getPlan() {
+        return this.testPlan;
+    }
+
+    /**
+     * Gets the options this context was constructed with.
+     * @return The options.
+     */
+    public RunOptions getOptions() {
+        return this.runOptions;
+    }
+
+    /**
+     * Gets how many tests may run at the same time in this run.
+     * @return The parallelism, at least 1.
+     */
+    public int getParallelism() {
+        return this.runOptions.getParallelism();
+    }
+
+    private String getTestClassName() {
+        return this.testPlan.getTestClass().getName();
+    }
+
+    /**
+     * Notifies the listeners that the test class is about to run.
+     */
+    void notifyStarted() {
+        for (TestResultListener listener : this.runOptions.getListeners()) {
+            listener.testClassStarted(this.getTestClassName());
+        }
+    }
+
+    /**
+     * Compares a benchmark result to its baseline, if the options have 
+     * baselines. This should be done before the listeners are notified of 
+     * the result, so that a benchmark that regressed is counted as failed.
+     * @param result The result to compare. Should not be null.
+     * @return The result with its comparison to the baseline, which may have 
+     * turned it to {@link TestResultStatus#FAILED}. Or <code>result</code> 
+     * itself if it isn't for a benchmark or there are no baselines.
+     */
+    TestResult compareToBaseline(TestResult result) {
+        PerformanceBaseline baseline = this.runOptions.getBaseline();
+        if (baseline == null) {
+            return result;
+        }
+        return baseline.compare(this.getTestClassName(), result, 
+                this.runOptions.getRegressionTolerance(), 
+                this.runOptions.isUpdateBaseline());
+    }
+
+    /**
+     * Combines the statuses of two invocations of a test with parameters into 
+     * the status of the test as a whole.
+     * @param status The status so far. For example, {@link 
+     * TestResultStatus#PASSED}.
+     * @param next The status of another invocation. For example, {@link 
+     * TestResultStatus#FAILED}.
+     * @return {@link TestResultStatus#FAILED} or {@link 
+     * TestResultStatus#ERROR} if either invocation failed or caused an error, 
+     * {@link TestResultStatus#PASSED} if both passed, or the status other 
+     * than {@link TestResultStatus#PASSED} otherwise. For example, {@link 
+     * TestResultStatus#FAILED}.
+     */
+    private static TestResultStatus combine(TestResultStatus status, 
+            TestResultStatus next) {
+        if (status == TestResultStatus.FAILED 
+                || status == TestResultStatus.ERROR) {
+            return status;
+        }
+        if (next == TestResultStatus.FAILED || next == TestResultStatus.ERROR 
+                || status == TestResultStatus.PASSED) {
+            return next;
+        }
+        return status;
+    }
+
+    /**
+     * Notifies the listeners of a test result without recording it, counts it 
+     * towards the maximum number of failures and adds it to the duration and 
+     * failure histories, if there are any. The results of a test with 
+     * parameters go into the histories as one, when the test class finishes, 
+     * so that the test stays in the failure history if any invocation 
+     * failed, whatever order the invocations finish in, and so that its 
+     * estimated duration is that of all its invocations. This may be called 
+     * from any thread, and is meant for results that will be recorded later 
+     * with {@link #recordNotified(List)}.
+     * @param result The result to notify of. Should not be null.
+     */
+    void notifyFinished(TestResult result) {
+        this.runOptions.countFailure(result);
+        Method procedure = result.getProcedure();
+        boolean parameterized = ArgumentSources.isParameterized(procedure);
+        DurationHistory history = this.runOptions.getDurationHistory();
+        if (history != null) {
+            long wall = result.getMetrics().getWallNanoseconds();
+            if (!parameterized) {
+                history.record(this.getTestClassName(), result);
+            } else if (wall >= 0L 
+                    && result.getStatus() != TestResultStatus.SKIPPED
+                    && result.getStatus() != TestResultStatus.NOT_RUN) {
+                this.invocationDurations.merge(procedure.getName(), wall, 
+                        Long::sum);
+            }
+        }
+        FailureHistory failures = this.runOptions.getFailureHistory();
+        if (failures != null) {
+            if (parameterized) {
+                this.invocationVerdicts.merge(procedure.getName(), 
+                        result.getStatus(), ExecutionContext::combine);
+            } else {
+                failures.record(this.getTestClassName(), result);
+            }
+        }
+        for (TestResultListener listener : this.runOptions.getListeners()) {
+            listener.testFinished(this.getTestClassName(), result);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the test class has finished running, and 
+     * adds its duration and the total durations of its tests with parameters 
+     * to the duration history and the verdicts of its tests with parameters 
+     * to the failure history, if there are such histories.
+     */
+    void notifyClassFinished() {
+        FailureHistory failures = this.runOptions.getFailureHistory();
+        if (failures != null) {
+            for (Map.Entry<String, TestResultStatus> entry 
+                    : this.invocationVerdicts.entrySet()) {
+                failures.record(this.getTestClassName(), entry.getKey(), 
+                        entry.getValue());
+            }
+        }
+        DurationHistory history = this.runOptions.getDurationHistory();
+        if (history != null) {
+            for (Map.Entry<String, Long> entry 
+                    : this.invocationDurations.entrySet()) {
+                history.record(this.getTestClassName(), entry.getKey(), 
+                        entry.getValue());
+            }
+            history.recordClass(this.getTestClassName(), 
+                    this.getElapsedNanoseconds());
+        }
+        List<TestResult> list = this.getResults();
+        for (TestResultListener listener : this.runOptions.getListeners()) {
+            listener.testClassFinished(this.getTestClassName(), list);
+        }
+    }
+
+    /**
+     * Records a test result and notifies the listeners of it. This may be 
+     * called from any thread.
+     * @param result The result to record. Should not be null.
+     */
+    void record(TestResult result) {
+        synchronized (this) {
+            this.results.add(result);
+        }
+        this.notifyFinished(result);
+    }
+
+    /**
+     * Records several test results in the order they're listed, without 
+     * notifying the listeners again. This may be called from any thread.
+     * @param list The results to record. Should not be null. The listeners 
+     * should have already been notified of each result with {@link 
+     * #notifyFinished(TestResult)}.
+     */
+    synchronized void recordNotified(List<TestResult> list) {
+        this.results.addAll(list);
+    }
+
+    /**
+     * Gets the results recorded so far.
+     * @return A copy of the list of results. Changes to this list have no 
+     * effect on the context.
+     */
+    public synchronized List<TestResult> getResults() {
+        return new ArrayList<>(this.results);
+    }
+
+    synchronized void markStarted() {
+        this.startTime = System.nanoTime();
+    }
+
+    synchronized void markFinished() {
+        this.endTime = System.nanoTime();
+    }
+
+    /**
+     * Tells whether the run has finished.
+     * @return True if the run has finished, false if it hasn't started or is 
+     * still going.
+     */
+    public synchronized boolean isFinished() {
+        return this.endTime != 0L;
+    }
+
+    /**
+     * Tells how long the run took, or has been taking so far.
+     * @return The elapsed time in nanoseconds. For example, 1500000000 for a 
+     * run that took one and a half seconds. 0 if the run hasn't started yet.
+     */
+    public synchronized long getElapsedNanoseconds() {
+        if (this.startTime == 0L) {
+            return 0L;
+        }
+        long end = this.endTime == 0L ? System.nanoTime() : this.endTime;
+        return end - this.startTime;
+    }
+
+    private static RunOptions withParallelism(int parallelism) {
+        RunOptions options = new RunOptions();
+        options.setParallelism(parallelism);
+        return options;
+    }
+
+    /**
+     * Constructor.
+     * @param plan The test plan to run. For example, the plan for 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @param parallelism How many tests may run at the same time. For example, 
+     * 8.
+     * @throws IllegalArgumentException If <code>parallelism</code> is 0 or 
+     * negative.
+     */
+    public ExecutionContext(TestPlan plan, int parallelism) {
+        this(plan, withParallelism(parallelism));
+    }
+
+    /**
+     * Constructor with options.
+     * @param plan The test plan to run. For example, the plan for 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @param options The options for the run, such as how many tests may run 
+     * at the same time and which listeners to notify of the results. The 
+     * options should not be changed while the run is going.
+     */
+    public ExecutionContext(TestPlan plan, RunOptions options) {
+        this.testPlan = plan;
+        this.runOptions = options;
+    }
+
+}
@@ -0,0 +1,225 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which tests failed or caused an error in previous runs, so that 
+ * they can be run first, or on their own. A test stays in the history until 
+ * it passes. Tests that are skipped or not run are left as they were. The 
+ * failures can be saved to a file, one test per line, and loaded by a later 
+ * run.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class FailureHistory {
+
+    private static final char TEST_SEPARATOR = '#';
+
+    private final Set<String> failures = ConcurrentHashMap.newKeySet();
+
+    private final Path historyFile;
+
+    private static String key(String testClassName, String testName) {
+        return testClassName + TEST_SEPARATOR + testName;
+    }
+
+    /**
+     * Records the result of a test. A test that failed or caused an error is 
+     * added to the history, and a test that passed is removed from it. A test 
+     * with parameters should be recorded once, after all its invocations have 
+     * finished, with {@link #record(String, String, TestResultStatus)}, since 
+     * otherwise which invocation is recorded last would decide whether the 
+     * test stays in the history.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> failed.
+     */
+    public void record(String testClassName, TestResult result) {
+        this.record(testClassName, result.getProcedure().getName(), 
+                result.getStatus());
+    }
+
+    /**
+     * Records how a test came out, such as a test with parameters once all 
+     * its invocations have finished.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the test. For example, 
+     * "testNoDivisionByZero".
+     * @param status How the test came out. For a test with parameters, 
+     * {@link TestResultStatus#PASSED} only if every invocation passed. For 
+     * example, {@link TestResultStatus#FAILED} if one invocation out of ten 
+     * failed.
+     */
+    void record(String testClassName, String testName, 
+            TestResultStatus status) {
+        String key = key(testClassName, testName);
+        switch (status) {
+            case FAILED:
+            case ERROR:
+                this.failures.add(key);
+                break;
+            case PASSED:
+                this.failures.remove(key);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Tells whether a test failed or caused an error the last time it ran.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the test procedure. For example, 
+     * "testNoDivisionByZero".
+     * @return True if the test failed or caused an error, false if it passed 
+     * or hasn't run before.
+     */
+    public boolean hasFailed(String testClassName, String testName) {
+        return this.failures.contains(key(testClassName, testName));
+    }
+
+    /**
+     * Gets the tests of a test class that failed or caused an error the last 
+     * time they ran.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @return The names of the tests. For example, "testNoDivisionByZero". 
+     * Empty if the test class had no failures.
+     */
+    public Set<String> getFailedTests(String testClassName) {
+        String prefix = testClassName + TEST_SEPARATOR;
+        Set<String> testNames = new HashSet<>();
+        for (String key : this.failures) {
+            if (key.startsWith(prefix)) {
+                testNames.add(key.substring(prefix.length()));
+            }
+        }
+        return testNames;
+    }
+
+    /**
+     * Adds a test to the history as having failed, such as to pass on the 
+     * failures of a test class to a forked worker.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the test. For example, 
+     * "testNoDivisionByZero".
+     */
+    void addFailure(String testClassName, String testName) {
+        this.failures.add(key(testClassName, testName));
+    }
+
+    /**
+     * Forgets the failures of tests that no longer exist, such as because 
+     * they were renamed, so that their test class doesn't keep being rerun 
+     * for them.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testNames The names of all the tests the test class has now.
+     */
+    public void retainTests(String testClassName, 
+            Collection<String> testNames) {
+        for (String testName : this.getFailedTests(testClassName)) {
+            if (!testNames.contains(testName)) {
+                this.failures.remove(key(testClassName, testName));
+            }
+        }
+    }
+
+    /**
+     * Orders work with failures first. Ties are kept in their original order.
+     * @param order The order the work would otherwise be started in, as 
+     * indices. For example, 0, 1, 2, 3.
+     * @param failed Whether each piece of work had failures, by index. For 
+     * example, false, false, true, false.
+     * @return The indices in the order the work should be started. For 
+     * example, 2, 0, 1, 3.
+     */
+    static Integer[] failedFirst(Integer[] order, boolean[] failed) {
+        Integer[] reordered = new Integer[order.length];
+        int position = 0;
+        for (int index : order) {
+            if (failed[index]) {
+                reordered[position++] = index;
+            }
+        }
+        for (int index : order) {
+            if (!failed[index]) {
+                reordered[position++] = index;
+            }
+        }
+        return reordered;
+    }
+
+    /**
+     * Tells how many tests this history has failures for.
+     * @return The number of tests. For example, 3.
+     */
+    public int size() {
+        return this.failures.size();
+    }
+
+    /**
+     * Gets the file this history was loaded from and is saved to.
+     * @return The file, or null if this history is only kept in memory.
+     */
+    public Path getFile() {
+        return this.historyFile;
+    }
+
+    /**
+     * Saves the failures to the file this history was constructed with. Does 
+     * nothing if this history is only kept in memory.
+     * @throws IOException If the file can't be written.
+     */
+    public void save() throws IOException {
+        if (this.historyFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.failures.size() + 1);
+        lines.add("# Tests that failed or caused an error");
+        lines.addAll(new TreeSet<>(this.failures));
+        Files.write(this.historyFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor for a history that is only kept in memory.
+     */
+    public FailureHistory() {
+        this.historyFile = null;
+    }
+
+    /**
+     * Constructor for a history that is saved to a file. If the file exists, 
+     * the failures are loaded from it. Lines that aren't understood are 
+     * ignored.
+     * @param file The file. For example, "build/test-failures.txt".
+     * @throws IOException If the file exists but can't be read.
+     */
+    public FailureHistory(Path file) throws IOException {
+        this.historyFile = file;
+        if (Files.exists(file)) {
+            for (String line 
+                    : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.startsWith("#") 
+                        && line.indexOf(TEST_SEPARATOR) > 0) {
+                    this.failures.add(line);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+package org.testframe.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The main class of a forked Java Virtual Machine (JVM) run by a {@link 
+ * ForkedWorkerPool}. The worker reads the names of test classes from standard 
+ * input, runs each one, and writes each test result to standard output as 
+ * soon as the test finishes. Since standard output is taken up by the 
+ * results, whatever the tests print to <code>System.out</code> is sent to 
+ * standard error instead. Each test class is loaded by a fresh {@link 
+ * IsolatingClassLoader}, so that static state left over by one test class 
+ * doesn't affect the next, even though the worker itself is reused.
+ * <p>The messages are written with <code>DataOutputStream</code>. A request 
+ * is the name of a test class, the parallelism, whether to use virtual 
+ * threads, the index and count of the shard of tests to run, both 0 to run 
+ * all the tests, the timeout in milliseconds, 0 for none, whether to detect 
+ * leaks, whether to track heap growth, how many times to repeat each test 
+ * and how many more tests may fail before the worker stops starting tests, 
+ * 0 for no limit, and then whether there's a failure history, followed, if 
+ * there is, by whether to rerun only the failed tests, the number of tests 
+ * of the test class that failed before and their names. Or the request is 
+ * an empty name to make the worker exit. Since the 
+ * worker has no duration history, a test class split test by test is split 
+ * by the hash codes of the test names. A response is a {@link #RESULT} for 
+ * each test, then {@link #CLASS_FINISHED}, or {@link #CLASS_NOT_FOUND} 
+ * instead if the test class couldn't be loaded. If running the test class 
+ * throws a runtime exception, the tests that weren't reported yet are 
+ * reported as errors holding that exception, and the worker goes on to the 
+ * next request.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class ForkedWorker {
+
+    /**
+     * Precedes a test result: the name of the test procedure, the name of the 
+     * status, the wall time, the CPU time, the bytes allocated, the bytes 
+     * retained, and then the length of the serialized <code>Throwable</code>, 
+     * 0 if there is none, followed by its bytes, the number of warnings 
+     * followed by the warnings, the number of benchmark samples, 0 if the 
+     * test is not a benchmark, followed by the samples, and lastly the number 
+     * of repetitions, 0 if the test was run only once, followed by the number 
+     * of threads, the counts of repetitions that passed, failed and caused 
+     * an error, the number of the first repetition that didn't pass and the 
+     * latency of each repetition. The first repetition that didn't pass threw 
+     * the serialized <code>Throwable</code>. After all that comes the index 
+     * of the invocation, 0 if the test has no parameters, followed by the 
+     * description of its arguments if it's not 0.
+     */
+    static final byte RESULT = 'R';
+
+    /**
+     * Tells that all the results for the test class have been written.
+     */
+    static final byte CLASS_FINISHED = 'F';
+
+    /**
+     * Tells that the test class couldn't be loaded.
+     */
+    static final byte CLASS_NOT_FOUND = 'N';
+
+    /**
+     * Serializes a <code>Throwable</code> for a worker response. If the 
+     * <code>Throwable</code> can't be serialized, such as because it has a 
+     * field that isn't serializable, a <code>RuntimeException</code> with the 
+     * same message and stack trace is serialized in its place.
+     * @param throwable The <code>Throwable</code>. For example, an 
+     * <code>AssertionError</code> from a failed test. May be null.
+     * @return The serialized form, or an empty array if 
+     * <code>throwable</code> is null.
+     */
+    static byte[] serialize(Throwable throwable) {
+        if (throwable == null) {
+            return new byte[0];
+        }
+        try {
+            return write(throwable);
+        } catch (IOException ioe) {
+            RuntimeException substitute 
+                    = new RuntimeException(throwable.toString());
+            substitute.setStackTrace(throwable.getStackTrace());
+            try {
+                return write(substitute);
+            } catch (IOException reioe) {
+                throw new UncheckedIOException(reioe);
+            }
+        }
+    }
+
+    private static byte[] write(Throwable throwable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(throwable);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a <code>Throwable</code> from a worker response.
+     * @param bytes The serialized form. For example, an 
+     * <code>AssertionError</code> serialized by {@link 
+     * #serialize(Throwable)}.
+     * @return The <code>Throwable</code>, or null if <code>bytes</code> is 
+     * empty. If the <code>Throwable</code> can't be deserialized, such as 
+     * because its class can't be found, a <code>RuntimeException</code> 
+     * explaining that.
+     */
+    static Throwable deserialize(byte[] bytes) {
+        if (bytes.length == 0) {
+            return null;
+        }
+        try (ObjectInputStream stream 
+                = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Throwable) stream.readObject();
+        } catch (IOException | ClassNotFoundException 
+                | ClassCastException ioe) {
+            return new RuntimeException("Unable to read error from worker", 
+                    ioe);
+        }
+    }
+
+    private static void send(DataOutputStream out, TestResult result) {
+        TestMetrics metrics = result.getMetrics();
+        byte[] info = serialize(result.getInformation());
+        synchronized (out) {
+            try {
+                out.writeByte(RESULT);
+                out.writeUTF(result.getProcedure().getName());
+                out.writeUTF(result.getStatus().name());
+                out.writeLong(metrics.getWallNanoseconds());
+                out.writeLong(metrics.getCPUNanoseconds());
+                out.writeLong(metrics.getAllocatedBytes());
+                out.writeLong(metrics.getRetainedBytes());
+                out.writeInt(info.length);
+                out.write(info);
+                out.writeInt(result.getWarnings().size());
+                for (String warning : result.getWarnings()) {
+                    out.writeUTF(warning);
+                }
+                double[] samples = result.getBenchmarkStatistics() == null 
+                        ? new double[0]
+                        : result.getBenchmarkStatistics().getSamples();
+                out.writeInt(samples.length);
+                for (double sample : samples) {
+                    out.writeDouble(sample);
+                }
+                RepetitionSummary summary = result.getRepetitionSummary();
+                if (summary == null) {
+                    out.writeInt(0);
+                } else {
+                    out.writeInt(summary.getRepetitionCount());
+                    out.writeInt(summary.getThreadCount());
+                    out.writeInt(summary.getPassedCount());
+                    out.writeInt(summary.getFailedCount());
+                    out.writeInt(summary.getErrorCount());
+                    out.writeInt(summary.getFirstFailedRepetition());
+                    for (double latency 
+                            : summary.getLatencyStatistics().getSamples()) {
+                        out.writeDouble(latency);
+                    }
+                }
+                TestInvocation invocation = result.getInvocation();
+                if (invocation == null) {
+                    out.writeLong(0L);
+                } else {
+                    out.writeLong(invocation.getIndex());
+                    out.writeUTF(invocation.getArguments());
+                }
+                out.flush();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+
+    /**
+     * Runs test classes as requested on standard input until told to exit or 
+     * until standard input is closed.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws IOException If standard input can't be read or standard output 
+     * can't be written to.
+     */
+    public static void main(String[] args) throws IOException {
+        DataInputStream in 
+                = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream( 
+                new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+        String classPath = System.getProperty("java.class.path");
+        ClassLoader shared = ClassLoader.getSystemClassLoader();
+        while (true) {
+            String testClassName;
+            int parallelism;
+            boolean virtualThreads;
+            int shardIndex;
+            int shardCount;
+            long timeoutMillis;
+            boolean detectLeaks;
+            boolean trackHeap;
+            int repeat;
+            int maxFailures;
+            FailureHistory failures = null;
+            boolean rerunFailed = false;
+            try {
+                testClassName = in.readUTF();
+                if (testClassName.isEmpty()) {
+                    return;
+                }
+                parallelism = in.readInt();
+                virtualThreads = in.readBoolean();
+                shardIndex = in.readInt();
+                shardCount = in.readInt();
+                timeoutMillis = in.readLong();
+                detectLeaks = in.readBoolean();
+                trackHeap = in.readBoolean();
+                repeat = in.readInt();
+                maxFailures = in.readInt();
+                if (in.readBoolean()) {
+                    failures = new FailureHistory();
+                    rerunFailed = in.readBoolean();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        failures.addFailure(testClassName, in.readUTF());
+                    }
+                }
+            } catch (EOFException eofe) {
+                return;
+            }
+            RunOptions options = new RunOptions();
+            options.setParallelism(parallelism);
+            options.setVirtualThreads(virtualThreads);
+            options.setTimeout(Duration.ofMillis(timeoutMillis));
+            options.setDetectLeaks(detectLeaks);
+            options.setTrackHeap(trackHeap);
+            options.setRepeat(repeat);
+            options.setMaxFailures(maxFailures);
+            options.setFailureHistory(failures);
+            options.setRerunFailed(rerunFailed);
+            if (shardCount > 0) {
+                options.setShard(new TestShard(shardIndex, shardCount));
+                options.setShardByTests(true);
+            }
+            Set<String> reported = ConcurrentHashMap.newKeySet();
+            options.addListener((name, result) -> {
+                reported.add(result.getProcedure().getName());
+                send(out, result);
+            });
+            try (IsolatingClassLoader loader 
+                    = new IsolatingClassLoader(classPath, shared, 
+                            testClassName)) {
+                Class<?> type = loader.loadClass(testClassName);
+                try {
+                    TestRunner.execute(type, options);
+                } catch (RuntimeException re) {
+                    System.err.println("Unable to finish running " 
+                            + testClassName + " because of " + re);
+                    TestPlan plan = TestRunner.select(options.getPlanCache() 
+                            .getPlan(type), options);
+                    for (Method test : plan.getTests()) {
+                        if (!reported.contains(test.getName())) {
+                            send(out, new TestResult(test, 
+                                    TestResultStatus.ERROR, re));
+                        }
+                    }
+                    for (Method skip : plan.getSkips()) {
+                        if (!reported.contains(skip.getName())) {
+                            send(out, new TestResult(skip, 
+                                    TestResultStatus.SKIPPED, null));
+                        }
+                    }
+                }
+                synchronized (out) {
+                    out.writeByte(CLASS_FINISHED);
+                }
+            } catch (ClassNotFoundException | LinkageError cnfe) {
+                synchronized (out) {
+                    out.writeByte(CLASS_NOT_FOUND);
+                }
+            }
+            out.flush();
+        }
+    }
+
+}
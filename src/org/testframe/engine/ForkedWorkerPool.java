@@ -0,0 +1,396 @@
+package org.testframe.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs test classes in forked Java Virtual Machines (JVMs), for test classes 
+ * that change static state and so can't share a JVM with other test classes. 
+ * The forked JVMs are kept around and reused for one test class after another, 
+ * so that the cost of starting a JVM, loading the test runner and warming up 
+ * the just-in-time (JIT) compiler is only paid once per worker rather than 
+ * once per test class. Each test class is nonetheless loaded afresh in the 
+ * worker, as explained for {@link ForkedWorker}. The results are streamed back 
+ * as the tests finish, so the listeners in the options are notified just as 
+ * they would be for tests run in this JVM. If a worker dies, such as because 
+ * a test called <code>System.exit()</code>, the tests of its test class that 
+ * hadn't finished are reported as having caused an error, and a new worker is 
+ * started for the next test class.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class ForkedWorkerPool implements Closeable {
+
+    private final int poolSize;
+
+    private final List<String> jvmOptions;
+
+    private final BlockingQueue<Worker> idleWorkers 
+            = new LinkedBlockingQueue<>();
+
+    private final List<Worker> allWorkers = new ArrayList<>();
+
+    private boolean closed = false;
+
+    private static class Worker {
+
+        private final Process process;
+
+        private final DataOutputStream out;
+
+        private final DataInputStream in;
+
+        Worker(Process process) {
+            this.process = process;
+            this.out = new DataOutputStream(new BufferedOutputStream(process 
+                    .getOutputStream()));
+            this.in = new DataInputStream(new BufferedInputStream(process 
+                    .getInputStream()));
+        }
+
+    }
+
+    private Worker start() throws IOException {
+        String javaCommand = System.getProperty("java.home") + File.separator 
+                + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.addAll(this.jvmOptions);
+        command.add("-enableassertions");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ForkedWorker.class.getName());
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return new Worker(builder.start());
+    }
+
+    private Worker borrow() throws IOException, InterruptedException {
+        Worker worker = this.idleWorkers.poll();
+        if (worker != null) {
+            return worker;
+        }
+        synchronized (this) {
+            if (this.closed) {
+                throw new IllegalStateException("Worker pool is closed");
+            }
+            if (this.allWorkers.size() < this.poolSize) {
+                worker = this.start();
+                this.allWorkers.add(worker);
+                return worker;
+            }
+        }
+        return this.idleWorkers.take();
+    }
+
+    private synchronized void discard(Worker worker) {
+        worker.process.destroyForcibly();
+        this.allWorkers.remove(worker);
+    }
+
+    private static TestResult readResult(DataInputStream in, Class<?> type) 
+            throws IOException {
+        String testName = in.readUTF();
+        TestResultStatus status = TestResultStatus.valueOf(in.readUTF());
+        TestMetrics metrics = new TestMetrics(in.readLong(), in.readLong(), 
+                in.readLong(), in.readLong());
+        byte[] info = new byte[in.readInt()];
+        in.readFully(info);
+        List<String> warnings = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            warnings.add(in.readUTF());
+        }
+        double[] samples = new double[in.readInt()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = in.readDouble();
+        }
+        RepetitionSummary summary = null;
+        int repetitions = in.readInt();
+        Throwable failure = ForkedWorker.deserialize(info);
+        if (repetitions > 0) {
+            int threads = in.readInt();
+            int passed = in.readInt();
+            int failed = in.readInt();
+            int errors = in.readInt();
+            int firstFailed = in.readInt();
+            double[] latencies = new double[repetitions];
+            for (int i = 0; i < repetitions; i++) {
+                latencies[i] = in.readDouble();
+            }
+            summary = new RepetitionSummary(threads, passed, failed, errors, 
+                    firstFailed, failure, latencies);
+        }
+        long index = in.readLong();
+        TestInvocation invocation = index == 0L ? null 
+                : new TestInvocation(index, in.readUTF());
+        Method procedure = null;
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(testName) && (procedure == null 
+                    || method.getParameterCount() == 0)) {
+                procedure = method;
+            }
+        }
+        if (procedure == null) {
+            String excMsg = "Worker reported result for unknown test " 
+                    + testName;
+            throw new IOException(excMsg);
+        }
+        BenchmarkStatistics statistics = samples.length == 0 ? null 
+                : new BenchmarkStatistics(samples);
+        return new TestResult(procedure, status, failure, metrics, warnings, 
+                statistics, null, summary, invocation);
+    }
+
+    private void runInWorker(ExecutionContext context) {
+        TestPlan plan = context.getPlan();
+        RunOptions options = context.getOptions();
+        Class<?> type = plan.getTestClass();
+        Set<String> reported = new HashSet<>();
+        Map<String, InvocationResults> invoked = new LinkedHashMap<>();
+        FailureHistory failures = options.getFailureHistory();
+        Set<String> failed = null;
+        if (failures != null) {
+            List<String> testNames = new ArrayList<>();
+            for (Method test : plan.getAllTests()) {
+                testNames.add(test.getName());
+            }
+            failures.retainTests(type.getName(), testNames);
+            failed = failures.getFailedTests(type.getName());
+        }
+        Worker worker = null;
+        try {
+            worker = this.borrow();
+            worker.out.writeUTF(type.getName());
+            worker.out.writeInt(options.getParallelism());
+            worker.out.writeBoolean(options.isVirtualThreads());
+            TestShard shard = options.isShardByTests() ? options.getShard() 
+                    : null;
+            worker.out.writeInt(shard == null ? 0 : shard.getIndex());
+            worker.out.writeInt(shard == null ? 0 : shard.getCount());
+            worker.out.writeLong(options.getTimeout().toMillis());
+            worker.out.writeBoolean(options.isDetectLeaks());
+            worker.out.writeBoolean(options.isTrackHeap());
+            worker.out.writeInt(options.getRepeat());
+            int budget = options.getMaxFailures() == 0 ? 0 
+                    : Math.max(options.getMaxFailures() 
+                            - options.getFailureCount(), 1);
+            worker.out.writeInt(budget);
+            worker.out.writeBoolean(failures != null);
+            if (failures != null) {
+                worker.out.writeBoolean(options.isRerunFailed());
+                worker.out.writeInt(failed.size());
+                for (String testName : failed) {
+                    worker.out.writeUTF(testName);
+                }
+            }
+            worker.out.flush();
+            byte tag = worker.in.readByte();
+            while (tag == ForkedWorker.RESULT) {
+                TestResult result = readResult(worker.in, type);
+                result = context.compareToBaseline(result);
+                Method procedure = result.getProcedure();
+                reported.add(procedure.getName());
+                if (ArgumentSources.isParameterized(procedure)) {
+                    context.notifyFinished(result);
+                    invoked.computeIfAbsent(procedure.getName(), name 
+                            -> new InvocationResults(procedure, 
+                                    options.getParallelism())).add(result);
+                } else {
+                    context.record(result);
+                }
+                tag = worker.in.readByte();
+            }
+            if (tag == ForkedWorker.CLASS_NOT_FOUND) {
+                System.err.println("Worker was unable to load " 
+                        + type.getName());
+            } else if (tag != ForkedWorker.CLASS_FINISHED) {
+                throw new IOException("Unexpected response " + tag 
+                        + " from worker");
+            }
+            this.idleWorkers.add(worker);
+        } catch (IOException ioe) {
+            if (worker != null) {
+                this.discard(worker);
+            }
+            RuntimeException problem = new RuntimeException("Worker for " 
+                    + type.getName() + " exited before test finished", ioe);
+            for (Method test : plan.getTests()) {
+                if (!reported.contains(test.getName()) && (failed == null 
+                        || !options.isRerunFailed()
+                        || failed.contains(test.getName()))) {
+                    context.record(new TestResult(test, 
+                            TestResultStatus.ERROR, problem));
+                }
+            }
+            for (Method skip : plan.getSkips()) {
+                if (!reported.contains(skip.getName()) && (failed == null 
+                        || !options.isRerunFailed()
+                        || failed.contains(skip.getName()))) {
+                    context.record(new TestResult(skip, 
+                            TestResultStatus.SKIPPED, null));
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            String excMsg = "Interrupted while waiting for a worker to run " 
+                    + type.getName();
+            throw new RuntimeException(excMsg, ie);
+        } finally {
+            for (InvocationResults results : invoked.values()) {
+                context.recordNotified(results.getResults());
+            }
+        }
+    }
+
+    /**
+     * Runs the tests of a test class in one of the workers. The test class is 
+     * also loaded in this JVM, without being initialized, so as to report the 
+     * results against its procedures.
+     * @param testClassName The name of the test class, fully qualified. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param options The options for the run. The parallelism and whether to 
+     * use virtual threads are passed on to the worker. The listeners are 
+     * notified in this JVM. If the maximum number of failures has already 
+     * been reached, the test class isn't sent to a worker at all, and its 
+     * tests are reported as not run.
+     * @return The results of the tests, in the order they finished. Empty if 
+     * the test class couldn't be found.
+     * @throws IllegalStateException If this pool has been closed.
+     */
+    public List<TestResult> runClass(String testClassName, 
+            RunOptions options) {
+        Class<?> type;
+        try {
+            type = Class.forName(testClassName, false, 
+                    options.getClassLoader());
+        } catch (ClassNotFoundException cnfe) {
+            System.err.println("No tests ran for " + testClassName);
+            System.err.println("Unable to find class " + testClassName);
+            System.err.println("\"" + cnfe.getMessage() + "\"");
+            return new ArrayList<>();
+        }
+        TestPlan plan = options.getPlanCache().getPlan(type);
+        ExecutionContext context = new ExecutionContext(plan, options);
+        context.markStarted();
+        context.notifyStarted();
+        try {
+            if (options.isFailureLimitReached()) {
+                for (Method test : plan.getTests()) {
+                    context.record(new TestResult(test, 
+                            TestResultStatus.NOT_RUN, null));
+                }
+                for (Method skip : plan.getSkips()) {
+                    context.record(new TestResult(skip, 
+                            TestResultStatus.SKIPPED, null));
+                }
+            } else {
+                this.runInWorker(context);
+            }
+        } finally {
+            context.markFinished();
+            context.notifyClassFinished();
+        }
+        return context.getResults();
+    }
+
+    /**
+     * Runs the tests of several test classes in the workers, as many test 
+     * classes at the same time as there are workers. The test classes are 
+     * selected, ordered and reported just as explained for {@link 
+     * TestSuiteRunner#run(List, RunOptions)}.
+     * @param testClassNames The names of the test classes, fully qualified. 
+     * For example, "org.example.demo.textops.PalindromeCheckerTest" and 
+     * "org.example.demo.textops.AnagramCheckerTest".
+     * @param options The options for the run. The number of workers in the 
+     * options is ignored in favor of the size of this pool.
+     * @return A map from test class names to the results of their tests, in 
+     * the same order as the names were listed.
+     * @throws IllegalStateException If this pool has been closed.
+     */
+    public Map<String, List<TestResult>> run(List<String> testClassNames, 
+            RunOptions options) {
+        return TestSuiteRunner.run(testClassNames, options, 
+                name -> this.runClass(name, options), this.poolSize);
+    }
+
+    /**
+     * Gets how many workers this pool may have at the same time.
+     * @return The size of the pool. For example, 4.
+     */
+    public int getSize() {
+        return this.poolSize;
+    }
+
+    /**
+     * Tells the workers to exit and waits briefly for them to do so. Workers 
+     * that don't exit in time are destroyed.
+     */
+    @Override
+    public void close() {
+        List<Worker> workers;
+        synchronized (this) {
+            this.closed = true;
+            workers = new ArrayList<>(this.allWorkers);
+            this.allWorkers.clear();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.out.writeUTF("");
+                worker.out.close();
+                if (!worker.process.waitFor(5L, 
+                        TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (IOException ioe) {
+                worker.process.destroyForcibly();
+            } catch (InterruptedException ie) {
+                worker.process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Constructor with no options for the forked JVMs.
+     * @param size How many workers this pool may have at the same time. For 
+     * example, 4. The workers are only started as needed.
+     * @throws IllegalArgumentException If <code>size</code> is 0 or negative.
+     */
+    public ForkedWorkerPool(int size) {
+        this(size, new ArrayList<>());
+    }
+
+    /**
+     * Constructor.
+     * @param size How many workers this pool may have at the same time. For 
+     * example, 4. The workers are only started as needed.
+     * @param options The options to start the forked JVMs with. For example, 
+     * "-Xmx512m". The class path of this JVM is always passed on, and 
+     * assertions are always turned on.
+     * @throws IllegalArgumentException If <code>size</code> is 0 or negative.
+     */
+    public ForkedWorkerPool(int size, List<String> options) {
+        if (size < 1) {
+            String excMsg = "Pool size " + size + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.poolSize = size;
+        this.jvmOptions = new ArrayList<>(options);
+    }
+
+}
@@ -0,0 +1,190 @@
+package org.testframe.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of how the heap grows across each test class, so that a test 
+ * class that leaks memory can be singled out even when thousands of test 
+ * classes run in the same Java Virtual Machine (JVM). A garbage collection is 
+ * forced and the heap in use is sampled when a test class starts and again 
+ * when it finishes. If the options of the run also track heap growth test by 
+ * test, a test class whose every test retained a sizable amount of heap is 
+ * flagged as growing steadily, which is the mark of a fixture that keeps 
+ * adding to something it never clears. Since the heap belongs to the whole 
+ * JVM, the growth is only meaningful when test classes run one at a time. 
+ * Forcing garbage collections has no effect if the JVM was started with 
+ * <code>-XX:+DisableExplicitGC</code>.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class HeapGrowthMonitor implements TestResultListener {
+
+    /**
+     * How many bytes the heap needs to grow by for the growth to be worth 
+     * reporting, either across a test class or test by test: 64 kibibytes. 
+     * Smaller amounts are easily taken up by the test results themselves and 
+     * by caches filled on first use.
+     */
+    public static final long GROWTH_THRESHOLD = 64L * 1024L;
+
+    private static final int STEADY_GROWTH_MINIMUM_TESTS = 3;
+
+    private static final int COLLECTION_ATTEMPTS = 4;
+
+    private static final MemoryMXBean MEMORY_BEAN 
+            = ManagementFactory.getMemoryMXBean();
+
+    private final Map<String, Long> startingHeap = new ConcurrentHashMap<>();
+
+    private final Map<String, List<Long>> retainedByTests 
+            = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> growth = new ConcurrentHashMap<>();
+
+    private final Set<String> steadilyGrowing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Forces a garbage collection and samples the heap in use. Since one 
+     * collection doesn't always free everything that's unreachable, such as 
+     * objects waiting to be finalized, collections are forced until the heap 
+     * in use stops shrinking, up to a few times.
+     * @return The number of bytes in use. For example, 8388608.
+     */
+    static long usedHeapAfterCollection() {
+        System.gc();
+        long used = MEMORY_BEAN.getHeapMemoryUsage().getUsed();
+        for (int i = 1; i < COLLECTION_ATTEMPTS; i++) {
+            System.gc();
+            long now = MEMORY_BEAN.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * Samples the heap in use before the test class runs.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     */
+    @Override
+    public void testClassStarted(String testClassName) {
+        this.retainedByTests.put(testClassName, 
+                Collections.synchronizedList(new ArrayList<>()));
+        this.startingHeap.put(testClassName, usedHeapAfterCollection());
+    }
+
+    /**
+     * Notes how much heap the test retained, if that was measured.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> passed and retained 0 bytes.
+     */
+    @Override
+    public void testFinished(String testClassName, TestResult result) {
+        long retained = result.getMetrics().getRetainedBytes();
+        List<Long> retainedList = this.retainedByTests.get(testClassName);
+        if (retained >= 0L && retainedList != null) {
+            retainedList.add(retained);
+        }
+    }
+
+    /**
+     * Samples the heap in use after the test class has run, and works out 
+     * whether it grew steadily.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param results The results of all the tests of the test class. These 
+     * are not looked at, since the heap retained by each test was already 
+     * noted as it finished.
+     */
+    @Override
+    public void testClassFinished(String testClassName, 
+            List<TestResult> results) {
+        Long start = this.startingHeap.remove(testClassName);
+        List<Long> retainedList = this.retainedByTests.remove(testClassName);
+        if (start == null) {
+            return;
+        }
+        this.growth.put(testClassName, usedHeapAfterCollection() - start);
+        synchronized (retainedList) {
+            if (retainedList.size() < STEADY_GROWTH_MINIMUM_TESTS) {
+                return;
+            }
+            for (long retained : retainedList) {
+                if (retained <= GROWTH_THRESHOLD) {
+                    return;
+                }
+            }
+        }
+        this.steadilyGrowing.add(testClassName);
+    }
+
+    /**
+     * Gets how much the heap grew across a test class, from before its 
+     * procedures annotated {@link org.testframe.api.BeforeAllTests} ran to 
+     * after its procedures annotated {@link org.testframe.api.AfterAllTests} 
+     * ran.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @return The number of bytes. For example, 3145728. Negative if the heap 
+     * shrank, or 0 if the test class hasn't finished running.
+     */
+    public long getGrowth(String testClassName) {
+        return this.growth.getOrDefault(testClassName, 0L);
+    }
+
+    /**
+     * Tells whether the heap grew steadily across a test class, that is, 
+     * whether each of at least three of its tests retained more than {@link 
+     * #GROWTH_THRESHOLD} bytes.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @return True if the heap grew steadily, false if it didn't, if the heap 
+     * retained by each test wasn't measured, or if the test class hasn't 
+     * finished running.
+     */
+    public boolean isGrowingSteadily(String testClassName) {
+        return this.steadilyGrowing.contains(testClassName);
+    }
+
+    /**
+     * Reports to <code>System.out</code> the test classes the heap grew 
+     * across by more than {@link #GROWTH_THRESHOLD} bytes, or grew steadily 
+     * across, from the largest growth to the smallest.
+     */
+    public void report() {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : this.growth.entrySet()) {
+            if (entry.getValue() > GROWTH_THRESHOLD 
+                    || this.steadilyGrowing.contains(entry.getKey())) {
+                names.add(entry.getKey());
+            }
+        }
+        names.sort((a, b) -> Long.compare(this.growth.get(b), 
+                this.growth.get(a)));
+        System.out.println();
+        if (names.isEmpty()) {
+            System.out.println("No test class grew the heap by more than " 
+                    + GROWTH_THRESHOLD + " bytes");
+            return;
+        }
+        System.out.println("Heap growth by test class");
+        for (String name : names) {
+            System.out.println(name + " " + this.growth.get(name) + " bytes" 
+                    + (this.steadilyGrowing.contains(name) 
+                            ? ", grew with every test" : ""));
+        }
+    }
+
+}
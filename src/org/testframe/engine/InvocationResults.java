@@ -0,0 +1,136 @@
+package org.testframe.engine;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gathers the results of the invocations of a test with parameters. The 
+ * invocations that failed, caused an error, weren't run or came with warnings 
+ * are kept as results of their own, but the invocations that passed are 
+ * folded into one result, with a {@link RepetitionSummary} that tells how 
+ * many there were and how long they took, so that a test invoked millions of 
+ * times doesn't hold on to millions of results. The listeners should still be 
+ * notified of each invocation as it finishes.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+class InvocationResults {
+
+    private final Method testProcedure;
+
+    private final int threadCount;
+
+    private final List<TestResult> keptResults = new ArrayList<>();
+
+    private double[] latencies = new double[16];
+
+    private int passedCount = 0;
+
+    private long wallNanos = 0L;
+
+    private long cpuNanos = 0L;
+
+    private long allocatedBytes = 0L;
+
+    private long retainedBytes = 0L;
+
+    private boolean closed = false;
+
+    private static long sum(long total, long measurement) {
+        return total < 0L || measurement < 0L ? -1L : total + measurement;
+    }
+
+    /**
+     * Adds the result of an invocation, unless the results have been closed. 
+     * This may be called from any thread.
+     * @param result The result. For example, that the third invocation, with 
+     * the arguments "racecar" and <code>true</code>, passed.
+     * @return True if the result was added, false if it came in too late, 
+     * after {@link #close()}, in which case the listeners should not be 
+     * notified of it either.
+     */
+    synchronized boolean add(TestResult result) {
+        if (this.closed) {
+            return false;
+        }
+        if (result.getStatus() != TestResultStatus.PASSED 
+                || result.getInvocation() == null
+                || !result.getWarnings().isEmpty()) {
+            this.keptResults.add(result);
+            return true;
+        }
+        if (this.passedCount == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, 
+                    2 * this.latencies.length);
+        }
+        TestMetrics metrics = result.getMetrics();
+        this.latencies[this.passedCount++] = Math.max(metrics 
+                .getWallNanoseconds(), 0L);
+        this.wallNanos = sum(this.wallNanos, metrics.getWallNanoseconds());
+        this.cpuNanos = sum(this.cpuNanos, metrics.getCPUNanoseconds());
+        this.allocatedBytes = sum(this.allocatedBytes, 
+                metrics.getAllocatedBytes());
+        this.retainedBytes = sum(this.retainedBytes, 
+                metrics.getRetainedBytes());
+        return true;
+    }
+
+    /**
+     * Gets the results gathered so far.
+     * @return The result for the invocations that passed, if any did, with 
+     * the totals of their metrics and with no invocation of its own, 
+     * followed by the results kept on their own, in the order of their 
+     * invocations. For example, a result for <code>testSquare</code> that 
+     * sums up nine passing invocations, then a result for 
+     * <code>testSquare[7](7, 49)</code> that failed.
+     */
+    synchronized List<TestResult> getResults() {
+        List<TestResult> results = new ArrayList<>(this.keptResults.size() 
+                + 1);
+        if (this.passedCount > 0) {
+            RepetitionSummary summary = new RepetitionSummary(this.threadCount, 
+                    this.passedCount, 0, 0, 0, null, 
+                    Arrays.copyOf(this.latencies, this.passedCount));
+            TestMetrics metrics = new TestMetrics(this.wallNanos, 
+                    this.cpuNanos, this.allocatedBytes, this.retainedBytes);
+            results.add(new TestResult(this.testProcedure, 
+                    TestResultStatus.PASSED, null, metrics, 
+                    Collections.emptyList(), null, null, summary, null));
+        }
+        List<TestResult> kept = new ArrayList<>(this.keptResults);
+        kept.sort(Comparator.comparingLong(result 
+                -> result.getInvocation() == null ? Long.MAX_VALUE 
+                        : result.getInvocation().getIndex()));
+        results.addAll(kept);
+        return results;
+    }
+
+    /**
+     * Stops taking results and gets the results gathered, such as when an 
+     * invocation that was cancelled is still running after it was waited on 
+     * for as long as it could be.
+     * @return The results gathered, just as {@link #getResults()} gives them. 
+     * Possibly empty.
+     */
+    synchronized List<TestResult> close() {
+        this.closed = true;
+        return this.getResults();
+    }
+
+    /**
+     * Constructor.
+     * @param procedure The test with parameters. For example, 
+     * <code>testIsPalindrome(String, boolean)</code>.
+     * @param threads How many threads the invocations may run from. For 
+     * example, 4.
+     */
+    InvocationResults(Method procedure, int threads) {
+        this.testProcedure = procedure;
+        this.threadCount = threads;
+    }
+
+}
@@ -0,0 +1,163 @@
+package org.testframe.engine;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads classes from a class path afresh, rather than asking the system class 
+ * loader for them first, so that each instance of this class loader gets its 
+ * own copies of the test classes and of the classes they use, static fields 
+ * and all. The classes of the test runner and the annotations in {@link 
+ * org.testframe.api} are the exception: those are always shared, since the 
+ * test runner has to recognize the annotations on the test classes. Classes 
+ * in subpackages of <code>org.testframe.api</code>, such as {@link 
+ * org.testframe.api.graphics.MockGraphics}, are loaded afresh, and so is the 
+ * test class this class loader is for, along with its nested classes, even if 
+ * it's in one of the shared packages. Or, if this class loader isn't for a 
+ * particular test class, only the classes outside the shared packages are 
+ * loaded afresh. Either way, this class loader keeps track of the classes it 
+ * loaded afresh, and of the resources found through it, so as to tell which 
+ * classes and files a test class depends on.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+class IsolatingClassLoader extends URLClassLoader {
+
+    private static final String ENGINE_PREFIX = "org.testframe.engine.";
+
+    private static final String API_PREFIX = "org.testframe.api.";
+
+    private final ClassLoader sharedLoader;
+
+    private final String isolatedName;
+
+    private final Set<String> loadedNames = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> resourceNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Tells whether a class is shared rather than loaded afresh.
+     * @param name The fully qualified name of the class. For example, 
+     * "org.testframe.api.Test".
+     * @return True if the class belongs to the test runner or is directly in 
+     * the package <code>org.testframe.api</code>, false otherwise.
+     */
+    static boolean isShared(String name) {
+        return name.startsWith(ENGINE_PREFIX) || (name.startsWith(API_PREFIX) 
+                && name.indexOf('.', API_PREFIX.length()) < 0);
+    }
+
+    /**
+     * Converts a class path to URLs.
+     * @param classPath The class path, with entries separated by the 
+     * platform's path separator. For example, "build/classes:lib/foo.jar".
+     * @return The URLs of the entries. Empty entries are left out.
+     */
+    static URL[] toURLs(String classPath) {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            try {
+                urls.add(new File(entry).toURI().toURL());
+            } catch (MalformedURLException murle) {
+                String excMsg = "Unable to use class path entry " + entry;
+                throw new IllegalArgumentException(excMsg, murle);
+            }
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    /**
+     * Gets the names of the classes this class loader has loaded afresh so 
+     * far. The shared classes are left out.
+     * @return The fully qualified names of the classes, in no particular 
+     * order. For example, "org.example.demo.textops.PalindromeCheckerTest" 
+     * and "org.example.demo.textops.PalindromeChecker".
+     */
+    Set<String> getLoadedClassNames() {
+        return Collections.unmodifiableSet(this.loadedNames);
+    }
+
+    /**
+     * Gets the names of the resources found through this class loader so far, 
+     * such as files of arguments for tests with parameters.
+     * @return The names of the resources, in no particular order. For 
+     * example, "org/example/demo/textops/palindromes.csv".
+     */
+    Set<String> getResourceNames() {
+        return Collections.unmodifiableSet(this.resourceNames);
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL url = super.getResource(name);
+        if (url != null) {
+            this.resourceNames.add(name);
+        }
+        return url;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> type = super.findClass(name);
+        this.loadedNames.add(name);
+        return type;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) 
+            throws ClassNotFoundException {
+        boolean isolated = this.isolatedName != null 
+                && (name.equals(this.isolatedName) 
+                        || name.startsWith(this.isolatedName + "$"));
+        if (!isolated && isShared(name)) {
+            return this.sharedLoader.loadClass(name);
+        }
+        return super.loadClass(name, resolve);
+    }
+
+    /**
+     * Constructor. Assertions are turned on for the classes loaded.
+     * @param classPath The class path to load classes from. For example, the 
+     * "java.class.path" system property.
+     * @param shared The class loader to get the shared classes from. For 
+     * example, the system class loader.
+     * @param testClassName The fully qualified name of the test class this 
+     * class loader is for. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest". May be null if this 
+     * class loader is for all the test classes on the class path.
+     */
+    IsolatingClassLoader(String classPath, ClassLoader shared, 
+            String testClassName) {
+        this(toURLs(classPath), shared, testClassName);
+    }
+
+    /**
+     * Constructor. Assertions are turned on for the classes loaded.
+     * @param urls The URLs of the class path to load classes from. For 
+     * example, the URLs of the directory "build/classes".
+     * @param shared The class loader to get the shared classes from. For 
+     * example, the system class loader.
+     * @param testClassName The fully qualified name of the test class this 
+     * class loader is for. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest". May be null if this 
+     * class loader is for all the test classes on the class path.
+     */
+    IsolatingClassLoader(URL[] urls, ClassLoader shared, 
+            String testClassName) {
+        super(urls, ClassLoader.getPlatformClassLoader());
+        this.sharedLoader = shared;
+        this.isolatedName = testClassName;
+        this.setDefaultAssertionStatus(true);
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.testframe.engine;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes test results in the JUnit XML format understood by most continuous 
+ * integration (CI) servers. Each test class is written as a 
+ * <code>&lt;testsuite&gt;</code> element as soon as the test class finishes, 
+ * and then let go of, so that only the results of the test classes still 
+ * running are held in memory, never the whole document. Failures and errors 
+ * carry the message and a trimmed stack trace. Call {@link #close()} after all 
+ * the tests have run to close the root <code>&lt;testsuites&gt;</code> 
+ * element.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class JUnitXMLResultWriter implements TestResultListener, Closeable {
+
+    private final Writer writer;
+
+    private boolean closed = false;
+
+    static String escape(String str) {
+        StringBuilder builder = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            switch (ch) {
+                case '&': 
+                    builder.append("&amp;");
+                    break;
+                case '<': 
+                    builder.append("&lt;");
+                    break;
+                case '>': 
+                    builder.append("&gt;");
+                    break;
+                case '"': 
+                    builder.append("&quot;");
+                    break;
+                case '\n': case '\r': case '\t': 
+                    builder.append(ch);
+                    break;
+                default:
+                    if (ch >= ' ') {
+                        builder.append(ch);
+                    }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String formatSeconds(long nanoseconds) {
+        if (nanoseconds < 0L) {
+            return "0.000";
+        }
+        return String.format("%.3f", nanoseconds / 1.0E9);
+    }
+
+    private static void writeProblem(StringBuilder builder, String element, 
+            Throwable info) {
+        builder.append("      <").append(element);
+        if (info == null) {
+            builder.append("/>\n");
+            return;
+        }
+        String message = info.getMessage();
+        if (message != null) {
+            builder.append(" message=\"").append(escape(message)).append('"');
+        }
+        builder.append(" type=\"").append(escape(info.getClass().getName())) 
+                .append("\">").append(escape(StackTraceTrimmer.trim(info)))
+                .append("</").append(element).append(">\n");
+    }
+
+    /**
+     * Does nothing, since a <code>&lt;testsuite&gt;</code> element can't be 
+     * written until the counts of its test class are known.
+     * @param testClassName The fully qualified name of the test class.
+     * @param result The result of the test.
+     */
+    @Override
+    public void testFinished(String testClassName, TestResult result) {
+        // Written out in testClassFinished
+    }
+
+    /**
+     * Writes a <code>&lt;testsuite&gt;</code> element for the test class, with 
+     * a <code>&lt;testcase&gt;</code> element for each result.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param results The results of all the tests of the test class.
+     * @throws UncheckedIOException If the element can't be written.
+     */
+    @Override
+    public void testClassFinished(String testClassName, 
+            List<TestResult> results) {
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        long totalTime = 0L;
+        StringBuilder cases = new StringBuilder();
+        String className = escape(testClassName);
+        for (TestResult result : results) {
+            long wallTime = result.getMetrics().getWallNanoseconds();
+            if (wallTime > 0L) {
+                totalTime += wallTime;
+            }
+            cases.append("    <testcase classname=\"").append(className) 
+                    .append("\" name=\"")
+                    .append(escape(result.getTestName()))
+                    .append("\" time=\"").append(formatSeconds(wallTime))
+                    .append('"');
+            switch (result.getStatus()) {
+                case PASSED:
+                    cases.append("/>\n");
+                    continue;
+                case FAILED:
+                    failures++;
+                    cases.append(">\n");
+                    writeProblem(cases, "failure", result.getInformation());
+                    break;
+                case ERROR:
+                    errors++;
+                    cases.append(">\n");
+                    writeProblem(cases, "error", result.getInformation());
+                    break;
+                case NOT_RUN:
+                    skipped++;
+                    cases.append(">\n      <skipped message=\"Not run\"/>\n");
+                    break;
+                default:
+                    skipped++;
+                    cases.append(">\n");
+                    writeProblem(cases, "skipped", null);
+            }
+            cases.append("    </testcase>\n");
+        }
+        String suite = "  <testsuite name=\"" + className + "\" tests=\"" 
+                + results.size() + "\" failures=\"" + failures
+                + "\" errors=\"" + errors + "\" skipped=\"" + skipped
+                + "\" time=\"" + formatSeconds(totalTime) + "\">\n" + cases
+                + "  </testsuite>\n";
+        synchronized (this) {
+            try {
+                this.writer.write(suite);
+                this.writer.flush();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+
+    /**
+     * Closes the root element and the underlying writer. Calling this more 
+     * than once has no further effect.
+     * @throws IOException If the writer can't be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.writer.write("</testsuites>\n");
+        } finally {
+            this.writer.close();
+        }
+    }
+
+    /**
+     * Constructor. The XML declaration and the opening tag of the root element 
+     * are written right away.
+     * @param out Where to write the XML to. For example, a 
+     * <code>StringWriter</code>. It's buffered by this writer.
+     * @throws UncheckedIOException If the opening can't be written.
+     */
+    public JUnitXMLResultWriter(Writer out) {
+        this.writer = new BufferedWriter(out);
+        try {
+            this.writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" 
+                    + "<testsuites>\n");
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Constructor for writing to a file. The file is created if it doesn't 
+     * exist, and overwritten if it does.
+     * @param file The file to write to. For example, "TEST-results.xml".
+     * @throws IOException If the file can't be opened for writing.
+     */
+    public JUnitXMLResultWriter(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+}
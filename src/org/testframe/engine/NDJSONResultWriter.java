@@ -0,0 +1,238 @@
+package org.testframe.engine;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes test results as newline-delimited JSON (NDJSON), one JSON object per 
+ * line, as soon as each test finishes. Each object has the test class name, 
+ * the test procedure name, the status, the metrics and, for tests that failed 
+ * or caused an error, the message and a trimmed stack trace. For example,
+ * <pre>{"class":"org.example.FooTest","test":"testBar","status":"PASSED", 
+ *"wallNanoseconds":1500000,"cpuNanoseconds":1200000,"allocatedBytes":65536, 
+ *"message":null,"stackTrace":null}</pre>
+ * <p>A result with warnings, such as about leaked threads, also has a 
+ * "warnings" array of strings, and a result for which heap growth was 
+ * tracked also has a "retainedBytes" number. The result of a benchmark also 
+ * has a "benchmark" object with the mean, the margin of error and the 
+ * samples, in nanoseconds per call. The result of an invocation of a test 
+ * with parameters also has an "invocation" number, counting from 1, and an 
+ * "arguments" string describing the arguments.</p>
+ * <p>Nothing is held in memory beyond the writer's buffer. Call {@link 
+ * #close()} after all the tests have run.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class NDJSONResultWriter implements TestResultListener, Closeable {
+
+    private final Writer writer;
+
+    static String quote(String str) {
+        if (str == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(str.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            switch (ch) {
+                case '"': 
+                    builder.append("\\\"");
+                    break;
+                case '\\': 
+                    builder.append("\\\\");
+                    break;
+                case '\n': 
+                    builder.append("\\n");
+                    break;
+                case '\r': 
+                    builder.append("\\r");
+                    break;
+                case '\t': 
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (ch < ' ') {
+                        builder.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        builder.append(ch);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String warningsField(TestResult result) {
+        if (result.getWarnings().isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(",\"warnings\":[");
+        for (String warning : result.getWarnings()) {
+            if (builder.charAt(builder.length() - 1) != '[') {
+                builder.append(',');
+            }
+            builder.append(quote(warning));
+        }
+        return builder.append(']').toString();
+    }
+
+    private static String retainedField(TestMetrics metrics) {
+        if (metrics.getRetainedBytes() < 0L) {
+            return "";
+        }
+        return ",\"retainedBytes\":" + metrics.getRetainedBytes();
+    }
+
+    private static String benchmarkField(TestResult result) {
+        BenchmarkStatistics statistics = result.getBenchmarkStatistics();
+        if (statistics == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(",\"benchmark\":{");
+        builder.append("\"meanNanoseconds\":").append(statistics.getMean());
+        if (!Double.isNaN(statistics.getErrorMargin())) {
+            builder.append(",\"errorNanoseconds\":") 
+                    .append(statistics.getErrorMargin());
+        }
+        builder.append(",\"samplesNanoseconds\":[");
+        for (double sample : statistics.getSamples()) {
+            if (builder.charAt(builder.length() - 1) != '[') {
+                builder.append(',');
+            }
+            builder.append(sample);
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static String repetitionsField(TestResult result) {
+        RepetitionSummary summary = result.getRepetitionSummary();
+        if (summary == null) {
+            return "";
+        }
+        BenchmarkStatistics latencies = summary.getLatencyStatistics();
+        return ",\"repetitions\":{\"count\":" + summary.getRepetitionCount() 
+                + ",\"threads\":" + summary.getThreadCount() + ",\"passed\":"
+                + summary.getPassedCount() + ",\"failed\":"
+                + summary.getFailedCount() + ",\"errors\":"
+                + summary.getErrorCount() + ",\"firstFailedRepetition\":"
+                + summary.getFirstFailedRepetition()
+                + ",\"meanLatencyNanoseconds\":" + latencies.getMean()
+                + ",\"medianLatencyNanoseconds\":"
+                + latencies.getPercentile(50.0)
+                + ",\"p99LatencyNanoseconds\":" + latencies.getPercentile(99.0)
+                + ",\"maximumLatencyNanoseconds\":"
+                + latencies.getPercentile(100.0) + "}";
+    }
+
+    private static String invocationField(TestResult result) {
+        TestInvocation invocation = result.getInvocation();
+        if (invocation == null) {
+            return "";
+        }
+        return ",\"invocation\":" + invocation.getIndex() + ",\"arguments\":" 
+                + quote(invocation.getArguments());
+    }
+
+    private static String baselineField(TestResult result) {
+        BaselineComparison comparison = result.getBaselineComparison();
+        if (comparison == null) {
+            return "";
+        }
+        return ",\"baseline\":{\"baselineMedianNanoseconds\":" 
+                + comparison.getBaselineMedian()
+                + ",\"currentMedianNanoseconds\":"
+                + comparison.getCurrentMedian() + ",\"relativeChange\":"
+                + comparison.getRelativeChange() + ",\"pValue\":"
+                + comparison.getPValue() + ",\"regression\":"
+                + comparison.isRegression() + "}";
+    }
+
+    /**
+     * Writes one line for the result.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> passed.
+     * @throws UncheckedIOException If the line can't be written.
+     */
+    @Override
+    public synchronized void testFinished(String testClassName, 
+            TestResult result) {
+        TestMetrics metrics = result.getMetrics();
+        Throwable info = result.getInformation();
+        String message = null;
+        String stackTrace = null;
+        if (info != null) {
+            message = info.getMessage();
+            stackTrace = StackTraceTrimmer.trim(info);
+        }
+        String line = "{\"class\":" + quote(testClassName) + ",\"test\":" 
+                + quote(result.getProcedure().getName()) + ",\"status\":"
+                + quote(result.getStatus().name()) + ",\"wallNanoseconds\":"
+                + metrics.getWallNanoseconds() + ",\"cpuNanoseconds\":"
+                + metrics.getCPUNanoseconds() + ",\"allocatedBytes\":"
+                + metrics.getAllocatedBytes() + retainedField(metrics)
+                + ",\"message\":"
+                + quote(message) + ",\"stackTrace\":" + quote(stackTrace)
+                + warningsField(result) + benchmarkField(result)
+                + baselineField(result) + repetitionsField(result)
+                + invocationField(result) + "}\n";
+        try {
+            this.writer.write(line);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Flushes the lines written so far for the test class.
+     * @param testClassName The fully qualified name of the test class.
+     * @param results The results of all the tests of the test class.
+     * @throws UncheckedIOException If the lines can't be flushed.
+     */
+    @Override
+    public synchronized void testClassFinished(String testClassName, 
+            List<TestResult> results) {
+        try {
+            this.writer.flush();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying writer.
+     * @throws IOException If the writer can't be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.writer.close();
+    }
+
+    /**
+     * Constructor.
+     * @param out Where to write the lines to. For example, a 
+     * <code>StringWriter</code>. It's buffered by this writer.
+     */
+    public NDJSONResultWriter(Writer out) {
+        this.writer = new BufferedWriter(out);
+    }
+
+    /**
+     * Constructor for writing to a file. The file is created if it doesn't 
+     * exist, and overwritten if it does.
+     * @param file The file to write to. For example, "results.ndjson".
+     * @throws IOException If the file can't be opened for writing.
+     */
+    public NDJSONResultWriter(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,207 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the samples each benchmark took when its baseline was recorded, 
+ * so that later runs can tell whether the benchmark got slower. A benchmark 
+ * that passes and has no baseline yet gets the samples of that run as its 
+ * baseline. After that, the baseline is kept as it is, even if the benchmark 
+ * gets faster, unless the run is told to update it. The baselines can be 
+ * saved to a file, one benchmark per line, and loaded by a later run.
+ * <p>Only tests annotated {@link org.testframe.api.Benchmark} have 
+ * baselines, since an ordinary test gives only one duration per run, which 
+ * is too little to tell a slowdown from noise.</p>
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class PerformanceBaseline {
+
+    /**
+     * How much slower a benchmark may get than its baseline before it counts 
+     * as a regression, unless a different tolerance is given: 10% of the 
+     * baseline median.
+     */
+    public static final double DEFAULT_TOLERANCE = 0.1;
+
+    private static final char TEST_SEPARATOR = '#';
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String SAMPLE_SEPARATOR = ",";
+
+    private final Map<String, double[]> baselines = new ConcurrentHashMap<>();
+
+    private final Path baselineFile;
+
+    private static String key(String testClassName, String testName) {
+        return testClassName + TEST_SEPARATOR + testName;
+    }
+
+    /**
+     * Gets the baseline samples of a benchmark.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the benchmark. For example, 
+     * "benchmarkIsPalindrome".
+     * @return A copy of the samples, in nanoseconds per call. For example, 
+     * 12.5, 12.25 and 12.75. Or null if the benchmark has no baseline.
+     */
+    public double[] getSamples(String testClassName, String testName) {
+        double[] samples = this.baselines.get(key(testClassName, testName));
+        return samples == null ? null : samples.clone();
+    }
+
+    /**
+     * Records the samples of a benchmark as its baseline, replacing any 
+     * baseline it already had.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param testName The name of the benchmark. For example, 
+     * "benchmarkIsPalindrome".
+     * @param samples The samples, in nanoseconds per call. For example, 12.5, 
+     * 12.25 and 12.75. The array is copied.
+     */
+    public void record(String testClassName, String testName, 
+            double[] samples) {
+        this.baselines.put(key(testClassName, testName), samples.clone());
+    }
+
+    /**
+     * Compares a benchmark result to its baseline, and records the result as 
+     * the baseline if there's none yet or if so requested. Results that 
+     * aren't benchmarks, or that didn't pass, are given back as they are.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result. For example, that 
+     * <code>benchmarkIsPalindrome()</code> passed with a median of 15.5 
+     * nanoseconds per call.
+     * @param tolerance How much slower the benchmark may get before it counts 
+     * as a regression, as a fraction of the baseline median. For example, 
+     * 0.1 for 10%.
+     * @param update True to record the result as the new baseline rather 
+     * than compare it to the old one, false to only record it if there's no 
+     * baseline yet.
+     * @return The result with its comparison to the baseline, as {@link 
+     * TestResultStatus#FAILED} if the benchmark regressed. Or 
+     * <code>result</code> itself if it wasn't compared.
+     */
+    public TestResult compare(String testClassName, TestResult result, 
+            double tolerance, boolean update) {
+        BenchmarkStatistics statistics = result.getBenchmarkStatistics();
+        if (statistics == null 
+                || result.getStatus() != TestResultStatus.PASSED) {
+            return result;
+        }
+        String testName = result.getProcedure().getName();
+        double[] baseline = this.baselines.get(key(testClassName, testName));
+        if (baseline == null || update) {
+            this.record(testClassName, testName, statistics.getSamples());
+            return result;
+        }
+        BaselineComparison comparison = new BaselineComparison(baseline, 
+                statistics.getSamples(), tolerance);
+        TestResultStatus status = TestResultStatus.PASSED;
+        Throwable info = null;
+        if (comparison.isRegression()) {
+            status = TestResultStatus.FAILED;
+            info = new AssertionError(String.format("Benchmark %s got %.1f%% " 
+                    + "slower than its baseline, more than the %.1f%% "
+                    + "tolerated (p = %.4f)", testName, 
+                    100.0 * comparison.getRelativeChange(), 100.0 * tolerance,
+                    comparison.getPValue()));
+        }
+        return new TestResult(result.getProcedure(), status, info, 
+                result.getMetrics(), result.getWarnings(), statistics,
+                comparison, result.getRepetitionSummary(), 
+                result.getInvocation());
+    }
+
+    /**
+     * Tells how many benchmarks this baseline has samples for.
+     * @return The number of benchmarks. For example, 20.
+     */
+    public int size() {
+        return this.baselines.size();
+    }
+
+    /**
+     * Gets the file this baseline was loaded from and is saved to.
+     * @return The file, or null if this baseline is only kept in memory.
+     */
+    public Path getFile() {
+        return this.baselineFile;
+    }
+
+    /**
+     * Saves the baseline samples to the file this baseline was constructed 
+     * with. Does nothing if this baseline is only kept in memory.
+     * @throws IOException If the file can't be written.
+     */
+    public void save() throws IOException {
+        if (this.baselineFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.baselines.size() + 1);
+        lines.add("# Benchmark baselines, in nanoseconds per call");
+        for (String key : new TreeSet<>(this.baselines.keySet())) {
+            StringBuilder builder = new StringBuilder(key);
+            builder.append(FIELD_SEPARATOR);
+            for (double sample : this.baselines.get(key)) {
+                if (builder.charAt(builder.length() - 1) != '\t') {
+                    builder.append(SAMPLE_SEPARATOR);
+                }
+                builder.append(sample);
+            }
+            lines.add(builder.toString());
+        }
+        Files.write(this.baselineFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor for a baseline that is only kept in memory.
+     */
+    public PerformanceBaseline() {
+        this.baselineFile = null;
+    }
+
+    /**
+     * Constructor for a baseline that is saved to a file. If the file exists, 
+     * the baseline samples are loaded from it. Lines that aren't understood 
+     * are ignored.
+     * @param file The file. For example, "build/benchmark-baseline.txt".
+     * @throws IOException If the file exists but can't be read.
+     */
+    public PerformanceBaseline(Path file) throws IOException {
+        this.baselineFile = file;
+        if (Files.exists(file)) {
+            for (String line 
+                    : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(FIELD_SEPARATOR);
+                if (line.startsWith("#") || fields.length != 2 
+                        || fields[0].indexOf(TEST_SEPARATOR) < 1) {
+                    continue;
+                }
+                String[] numbers = fields[1].split(SAMPLE_SEPARATOR);
+                double[] samples = new double[numbers.length];
+                try {
+                    for (int i = 0; i < numbers.length; i++) {
+                        samples[i] = Double.parseDouble(numbers[i]);
+                    }
+                } catch (NumberFormatException nfe) {
+                    continue;
+                }
+                this.baselines.put(fields[0], samples);
+            }
+        }
+    }
+
+}
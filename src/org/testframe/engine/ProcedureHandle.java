@@ -0,0 +1,137 @@
+package org.testframe.engine;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * A test procedure or a set-up or tear-down procedure, resolved once into a 
+ * method handle so that it can be invoked over and over without going through 
+ * reflection each time. Whatever the procedure throws is thrown as is, rather 
+ * than wrapped in an <code>InvocationTargetException</code>. Static procedures 
+ * are also supported, in which case the instance is ignored, and so are 
+ * procedures that return a value, in which case the value is discarded. A 
+ * procedure with parameters, such as a test that takes its arguments from a 
+ * {@link org.testframe.api.MethodSource}, is invoked with an array of 
+ * arguments instead, which are unboxed as needed.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class ProcedureHandle {
+
+    private static final MethodType INVOCATION_TYPE 
+            = MethodType.methodType(void.class, Object.class);
+
+    private static final MethodType SPREAD_INVOCATION_TYPE 
+            = MethodType.methodType(void.class, Object.class, Object[].class);
+
+    private final Method procedure;
+
+    private final MethodHandle handle;
+
+    private static MethodHandle resolve(Method procedure) {
+        try {
+            MethodHandle resolved = MethodHandles.publicLookup() 
+                    .unreflect(procedure);
+            if (Modifier.isStatic(procedure.getModifiers())) {
+                resolved = MethodHandles.dropArguments(resolved, 0, 
+                        Object.class);
+            }
+            int count = procedure.getParameterCount();
+            if (count == 0) {
+                return resolved.asType(INVOCATION_TYPE);
+            }
+            return resolved.asType(resolved.type().generic() 
+                    .changeReturnType(void.class))
+                    .asSpreader(Object[].class, count)
+                    .asType(SPREAD_INVOCATION_TYPE);
+        } catch (IllegalAccessException iae) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the procedure this handle was resolved from.
+     * @return The procedure. For example, <code>testNoDivisionByZero()</code>.
+     */
+    public Method getProcedure() {
+        return this.procedure;
+    }
+
+    /**
+     * Invokes the procedure.
+     * @param instance The instance to invoke the procedure on. For example, an 
+     * instance of <code>org.example.demo.textops.PalindromeCheckerTest</code>. 
+     * Ignored if the procedure is static.
+     * @throws Throwable Whatever the procedure throws. For example, an 
+     * <code>AssertionError</code> if the procedure is a test that fails. Also 
+     * <code>IllegalAccessException</code> if the procedure could not be 
+     * resolved because it's not accessible, or 
+     * <code>IllegalArgumentException</code> if the procedure has parameters.
+     */
+    public void invoke(Object instance) throws Throwable {
+        if (this.handle != null && this.procedure.getParameterCount() == 0) {
+            this.handle.invokeExact(instance);
+            return;
+        }
+        try {
+            this.procedure.invoke(instance);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    /**
+     * Invokes the procedure with arguments.
+     * @param instance The instance to invoke the procedure on. For example, an 
+     * instance of <code>org.example.demo.textops.PalindromeCheckerTest</code>. 
+     * Ignored if the procedure is static.
+     * @param arguments The arguments, one per parameter. For example, 
+     * "racecar" and <code>true</code>. Arguments for primitive parameters are 
+     * unboxed.
+     * @throws Throwable Whatever the procedure throws. For example, an 
+     * <code>AssertionError</code> if the procedure is a test that fails. Also 
+     * <code>IllegalArgumentException</code> if there are more or fewer 
+     * arguments than parameters, <code>ClassCastException</code> if an 
+     * argument is of the wrong type, or <code>NullPointerException</code> if 
+     * an argument for a primitive parameter is null.
+     */
+    public void invoke(Object instance, Object[] arguments) throws Throwable {
+        int count = this.procedure.getParameterCount();
+        if (arguments.length != count) {
+            String excMsg = "Procedure " + this.procedure.getName() 
+                    + " takes " + count + " arguments, not "
+                    + arguments.length;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (count == 0) {
+            this.invoke(instance);
+            return;
+        }
+        if (this.handle != null) {
+            this.handle.invokeExact(instance, arguments);
+            return;
+        }
+        try {
+            this.procedure.invoke(instance, arguments);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    /**
+     * Sole constructor. If the procedure can't be resolved into a method 
+     * handle, such as because it's declared in a class that is not public, it 
+     * will be invoked reflectively instead.
+     * @param procedure The procedure to resolve. For example, 
+     * <code>testNoDivisionByZero()</code>.
+     */
+    public ProcedureHandle(Method procedure) {
+        this.procedure = procedure;
+        this.handle = resolve(procedure);
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.testframe.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a test several times, as called for by the {@link 
+ * org.testframe.api.Repeat} annotation or by {@link RunOptions#getRepeat()}, 
+ * and sums up the repetitions in a {@link RepetitionSummary}. A repetition 
+ * that fails doesn't stop the others, so that the summary tells how often 
+ * the test fails and not just whether it does. If the repetitions run from 
+ * several threads, each thread takes the next repetition as soon as it's 
+ * done with its last, so that all the threads are kept busy until the 
+ * repetitions run out.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class RepetitionExecutor {
+
+    private static void validate(int repetitions, int threads) {
+        String problem = null;
+        if (repetitions < 1) {
+            problem = "Repetitions " + repetitions + " should be at least 1";
+        } else if (threads < 1) {
+            problem = "Threads " + threads + " should be at least 1";
+        }
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+    }
+
+    private static void repeat(ProcedureHandle test, Object instance, 
+            AtomicInteger next, double[] latencies, Throwable[] failures)
+            throws InterruptedException {
+        int index = next.getAndIncrement();
+        while (index < latencies.length) {
+            long start = System.nanoTime();
+            try {
+                test.invoke(instance);
+            } catch (InterruptedException ie) {
+                throw ie;
+            } catch (Throwable t) {
+                failures[index] = t;
+            }
+            latencies[index] = System.nanoTime() - start;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Repetitions of " 
+                        + test.getProcedure().getName() + " interrupted");
+            }
+            index = next.getAndIncrement();
+        }
+    }
+
+    private static void repeatFromThreads(ProcedureHandle test, 
+            Object instance, int threads, double[] latencies, 
+            Throwable[] failures) throws InterruptedException {
+        String name = test.getProcedure().getName();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, 
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, "Repetition thread " 
+                            + threadNumber.incrementAndGet() + " of " + name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    repeat(test, instance, next, latencies, failures);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ee) {
+            String excMsg = "Repetitions of " + name + " were interrupted";
+            throw new InterruptedException(excMsg);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a test several times and sums up the repetitions.
+     * @param test The test to run. For example, 
+     * <code>testConcurrentIncrements()</code>.
+     * @param instance The instance to run the test on, with the procedures 
+     * annotated {@link org.testframe.api.BeforeEachTest} already run on it.
+     * @param repetitions How many times to run the test. For example, 100.
+     * @param threads How many threads to run the repetitions from. For 
+     * example, 4. If 1, the repetitions run one after the other on the 
+     * calling thread.
+     * @return The summary of the repetitions.
+     * @throws IllegalArgumentException If <code>repetitions</code> or 
+     * <code>threads</code> is less than 1.
+     * @throws InterruptedException If a thread running the repetitions is 
+     * interrupted, such as because the test ran out of time.
+     */
+    static RepetitionSummary run(ProcedureHandle test, Object instance, 
+            int repetitions, int threads) throws InterruptedException {
+        validate(repetitions, threads);
+        double[] latencies = new double[repetitions];
+        Throwable[] failures = new Throwable[repetitions];
+        if (threads == 1) {
+            repeat(test, instance, new AtomicInteger(), latencies, failures);
+        } else {
+            repeatFromThreads(test, instance, threads, latencies, failures);
+        }
+        int failed = 0;
+        int errors = 0;
+        int firstFailed = 0;
+        for (int i = repetitions - 1; i >= 0; i--) {
+            if (failures[i] instanceof AssertionError) {
+                failed++;
+                firstFailed = i + 1;
+            } else if (failures[i] != null) {
+                errors++;
+                firstFailed = i + 1;
+            }
+        }
+        return new RepetitionSummary(threads, repetitions - failed - errors, 
+                failed, errors, firstFailed, 
+                firstFailed == 0 ? null : failures[firstFailed - 1], 
+                latencies);
+    }
+
+}
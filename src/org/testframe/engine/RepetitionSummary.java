@@ -0,0 +1,159 @@
+package org.testframe.engine;
+
+/**
+ * Sums up the repetitions of a test annotated {@link 
+ * org.testframe.api.Repeat}, or of a test run several times because of the 
+ * options of the run: how many passed and how many failed, which failed 
+ * first, and how long each took. The repetitions are numbered from 1, in the 
+ * order they were started, which is not necessarily the order they finished 
+ * in if they ran from several threads. The invocations of a test with 
+ * parameters that passed are summed up the same way, as if they were 
+ * repetitions.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class RepetitionSummary {
+
+    private final int threadCount;
+
+    private final int passedCount;
+
+    private final int failedCount;
+
+    private final int errorCount;
+
+    private final int firstFailedRepetition;
+
+    private final Throwable firstFailure;
+
+    private final BenchmarkStatistics latencies;
+
+    /**
+     * Tells how many threads the repetitions ran from.
+     * @return The number of threads. For example, 4.
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Tells how many times the test ran.
+     * @return The number of repetitions. For example, 100.
+     */
+    public int getRepetitionCount() {
+        return this.passedCount + this.failedCount + this.errorCount;
+    }
+
+    /**
+     * Tells how many repetitions passed.
+     * @return The number of repetitions that passed. For example, 97.
+     */
+    public int getPassedCount() {
+        return this.passedCount;
+    }
+
+    /**
+     * Tells how many repetitions failed an assertion.
+     * @return The number of repetitions that failed. For example, 2.
+     */
+    public int getFailedCount() {
+        return this.failedCount;
+    }
+
+    /**
+     * Tells how many repetitions caused an error other than a failed 
+     * assertion.
+     * @return The number of repetitions that caused an error. For example, 1.
+     */
+    public int getErrorCount() {
+        return this.errorCount;
+    }
+
+    /**
+     * Tells which repetition was the first to fail or cause an error.
+     * @return The number of the repetition, counting from 1. For example, 12. 
+     * Or 0 if every repetition passed.
+     */
+    public int getFirstFailedRepetition() {
+        return this.firstFailedRepetition;
+    }
+
+    /**
+     * Gets what the first repetition to fail or cause an error threw.
+     * @return The error or exception. For example, an 
+     * <code>AssertionError</code> for an unexpected count. Or null if every 
+     * repetition passed.
+     */
+    public Throwable getFirstFailure() {
+        return this.firstFailure;
+    }
+
+    /**
+     * Gives the status of the test as a whole, which is the status of the 
+     * first repetition to fail or cause an error, if any did.
+     * @return {@link TestResultStatus#PASSED} if every repetition passed, 
+     * {@link TestResultStatus#FAILED} if the first repetition that didn't 
+     * pass failed an assertion, {@link TestResultStatus#ERROR} otherwise.
+     */
+    public TestResultStatus getStatus() {
+        if (this.firstFailure == null) {
+            return TestResultStatus.PASSED;
+        }
+        return this.firstFailure instanceof AssertionError 
+                ? TestResultStatus.FAILED : TestResultStatus.ERROR;
+    }
+
+    /**
+     * Gets the statistics of how long each repetition took.
+     * @return The statistics, with one sample per repetition, in nanoseconds, 
+     * in the order the repetitions were started.
+     */
+    public BenchmarkStatistics getLatencyStatistics() {
+        return this.latencies;
+    }
+
+    /**
+     * Constructor.
+     * @param threads How many threads the repetitions ran from. For example, 
+     * 4.
+     * @param passed How many repetitions passed. For example, 97.
+     * @param failed How many repetitions failed an assertion. For example, 2.
+     * @param errors How many repetitions caused an error. For example, 1.
+     * @param firstFailed Which repetition was the first to fail or cause an 
+     * error, counting from 1. For example, 12. Or 0 if every repetition 
+     * passed.
+     * @param failure What the first repetition to fail or cause an error 
+     * threw. Should be null if and only if <code>firstFailed</code> is 0.
+     * @param latencyNanos How long each repetition took, in nanoseconds, in 
+     * the order the repetitions were started. For example, 1250000.0, 
+     * 1175000.0 and 1300000.0. The array is copied.
+     * @throws IllegalArgumentException If <code>threads</code> is less than 
+     * 1, if any count is negative, or if the number of latencies isn't the 
+     * number of repetitions.
+     */
+    public RepetitionSummary(int threads, int passed, int failed, int errors, 
+            int firstFailed, Throwable failure, double[] latencyNanos) {
+        if (threads < 1 || passed < 0 || failed < 0 || errors < 0 
+                || firstFailed < 0) {
+            String excMsg = "Threads " + threads 
+                    + " should be at least 1 and counts " + passed + ", " 
+                    + failed + ", " + errors + " and " + firstFailed 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (latencyNanos.length != passed + failed + errors) {
+            String excMsg = "There should be one latency per repetition, got " 
+                    + latencyNanos.length + " for "
+                    + (passed + failed + errors) + " repetitions";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.threadCount = threads;
+        this.passedCount = passed;
+        this.failedCount = failed;
+        this.errorCount = errors;
+        this.firstFailedRepetition = firstFailed;
+        this.firstFailure = failure;
+        this.latencies = new BenchmarkStatistics(latencyNanos);
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The resources in use by this Java Virtual Machine (JVM) at a given moment: 
+ * the live threads, the open file descriptors and the memory taken up by 
+ * direct buffers. Comparing a snapshot taken before a test to one taken after 
+ * tells whether the test leaked any of those. Since the resources belong to 
+ * the whole JVM, the comparison is only meaningful if nothing else runs at 
+ * the same time as the test.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+class ResourceSnapshot {
+
+    private static final Path FILE_DESCRIPTORS = Paths.get("/proc/self/fd");
+
+    private static final String COMMON_POOL_PREFIX = "ForkJoinPool.commonPool-";
+
+    private static final int SETTLE_ATTEMPTS = 10;
+
+    private static final long SETTLE_MILLISECONDS = 10L;
+
+    private final Set<Thread> threads;
+
+    private final long fileDescriptors;
+
+    private final long directBytes;
+
+    private static Set<Thread> liveThreads() {
+        Set<Thread> live = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() 
+                    && !thread.getName().startsWith(COMMON_POOL_PREFIX)) {
+                live.add(thread);
+            }
+        }
+        return live;
+    }
+
+    private static long countFileDescriptors() {
+        if (!Files.isDirectory(FILE_DESCRIPTORS)) {
+            return -1L;
+        }
+        try (Stream<Path> entries = Files.list(FILE_DESCRIPTORS)) {
+            return entries.count();
+        } catch (IOException ioe) {
+            return -1L;
+        }
+    }
+
+    private static long measureDirectBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory 
+                .getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Takes a snapshot of the resources in use right now.
+     * @return The snapshot.
+     */
+    static ResourceSnapshot take() {
+        return new ResourceSnapshot(liveThreads(), countFileDescriptors(), 
+                measureDirectBytes());
+    }
+
+    private List<Thread> newThreads(Set<Thread> later) {
+        List<Thread> added = new ArrayList<>();
+        for (Thread thread : later) {
+            if (!this.threads.contains(thread) && thread.isAlive()) {
+                added.add(thread);
+            }
+        }
+        return added;
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(SETTLE_MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Describes the resources leaked since this snapshot was taken. Threads 
+     * and file descriptors are given a brief moment to go away on their own, 
+     * such as a thread that has been told to stop but hasn't quite finished. 
+     * Since direct buffers are only freed when they're garbage collected, a 
+     * garbage collection is requested before direct buffer memory is counted 
+     * as leaked.
+     * @return Warnings describing the leaks, one for each kind of resource 
+     * leaked. For example, "Leaked 1 thread: pool-3-thread-1". Empty if 
+     * nothing was leaked.
+     */
+    List<String> describeLeaks() {
+        List<Thread> leakedThreads = this.newThreads(liveThreads());
+        long leakedDescriptors = countFileDescriptors() - this.fileDescriptors;
+        for (int i = 0; i < SETTLE_ATTEMPTS && (!leakedThreads.isEmpty() 
+                || leakedDescriptors > 0L); i++) {
+            pause();
+            leakedThreads = this.newThreads(liveThreads());
+            leakedDescriptors = countFileDescriptors() - this.fileDescriptors;
+        }
+        long leakedBytes = measureDirectBytes() - this.directBytes;
+        if (leakedBytes > 0L) {
+            System.gc();
+            pause();
+            leakedBytes = measureDirectBytes() - this.directBytes;
+        }
+        if (leakedThreads.isEmpty() && leakedDescriptors <= 0L 
+                && leakedBytes <= 0L) {
+            return Collections.emptyList();
+        }
+        List<String> warnings = new ArrayList<>();
+        if (!leakedThreads.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (Thread thread : leakedThreads) {
+                names.add(thread.getName());
+            }
+            Collections.sort(names);
+            warnings.add("Leaked " + names.size() 
+                    + (names.size() == 1 ? " thread: " : " threads: ") 
+                    + String.join(", ", names));
+        }
+        if (this.fileDescriptors >= 0L && leakedDescriptors > 0L) {
+            warnings.add("Leaked " + leakedDescriptors + " file descriptor" 
+                    + (leakedDescriptors == 1L ? "" : "s"));
+        }
+        if (this.directBytes >= 0L && leakedBytes > 0L) {
+            warnings.add("Leaked " + leakedBytes 
+                    + " bytes of direct buffer memory");
+        }
+        return warnings;
+    }
+
+    private ResourceSnapshot(Set<Thread> threads, long fileDescriptors, 
+            long directBytes) {
+        this.threads = threads;
+        this.fileDescriptors = fileDescriptors;
+        this.directBytes = directBytes;
+    }
+
+}
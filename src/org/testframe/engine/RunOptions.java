@@ -0,0 +1,1029 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the options for a run of one or more test classes. These can be set 
+ * programmatically or parsed from the command line arguments given to {@link 
+ * TestRunner#main}.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class RunOptions {
+
+    private final List<String> testClassNames = new ArrayList<>();
+
+    private boolean sortResults = false;
+
+    private int testParallelism = 1;
+
+    private int classWorkers = 1;
+
+    private boolean virtualThreads = false;
+
+    private int forks = 0;
+
+    private String scanClassPath = null;
+    
+    private int slowestCount = TestResultsReporter.DEFAULT_SLOWEST_COUNT;
+
+    private boolean streamResults = false;
+
+    private Path junitXMLFile = null;
+
+    private Path ndjsonFile = null;
+
+    private int maxFailures = 0;
+
+    private Duration timeout = Duration.ZERO;
+
+    private int repeat = 1;
+
+    private boolean detectLeaks = false;
+
+    private boolean trackHeap = false;
+
+    private final AtomicInteger failureCount = new AtomicInteger();
+
+    private DurationHistory durationHistory = null;
+
+    private TestImpactMap impactMap = null;
+
+    private FailureHistory failureHistory = null;
+
+    private boolean rerunFailed = false;
+
+    private PerformanceBaseline baseline = null;
+
+    private double regressionTolerance 
+            = PerformanceBaseline.DEFAULT_TOLERANCE;
+
+    private boolean updateBaseline = false;
+
+    private TestShard shard = null;
+
+    private boolean shardByTests = false;
+
+    private TestPlanCache planCache = TestPlanCache.getShared();
+
+    private ClassLoader classLoader = null;
+
+    private final List<TestResultListener> listeners 
+            = new CopyOnWriteArrayList<>();
+
+    private static int parseNonNegative(String numStr, String description) {
+        int count;
+        try {
+            count = Integer.parseInt(numStr);
+        } catch (NumberFormatException nfe) {
+            String excMsg = "Unable to parse \"" + numStr + "\" as a number of " 
+                    + description;
+            throw new IllegalArgumentException(excMsg, nfe);
+        }
+        if (count < 0) {
+            String excMsg = "Number of " + description + " " + count 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return count;
+    }
+
+    private static int parseCount(String option, String description) {
+        int index = option.indexOf('=');
+        if (index < 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int count = parseNonNegative(option.substring(index + 1), description);
+        if (count == 0) {
+            String excMsg = "Number of " + description 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return count;
+    }
+    
+    /**
+     * Reads test class names from a file, one name per line. Blank lines and 
+     * lines starting with "#" are ignored.
+     * @param file The file to read. For example, "suite.txt".
+     * @return The list of names in the order they are listed in the file.
+     * @throws IOException If the file can't be read.
+     */
+    public static List<String> readTestClassNames(Path file) 
+            throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String name = line.trim();
+            if (!name.isEmpty() && !name.startsWith("#")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Gets the names of the test classes to run.
+     * @return An unmodifiable list of fully qualified class names, in the 
+     * order they were added. Possibly empty.
+     */
+    public List<String> getTestClassNames() {
+        return Collections.unmodifiableList(this.testClassNames);
+    }
+
+    /**
+     * Adds the name of a test class to run.
+     * @param name The fully qualified name of the test class. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest".
+     */
+    public void addTestClassName(String name) {
+        this.testClassNames.add(name);
+    }
+
+    /**
+     * Tells whether the results should be sorted by status for the report.
+     * @return True if the results should be sorted, false otherwise. The 
+     * default is false.
+     */
+    public boolean isSortResults() {
+        return this.sortResults;
+    }
+
+    /**
+     * Sets whether the results should be sorted by status for the report.
+     * @param sort True if the results should be sorted, false otherwise.
+     */
+    public void setSortResults(boolean sort) {
+        this.sortResults = sort;
+    }
+
+    /**
+     * Gets how many tests of the same test class may run at the same time.
+     * @return The parallelism. The default is 1.
+     */
+    public int getParallelism() {
+        return this.testParallelism;
+    }
+
+    /**
+     * Sets how many tests of the same test class may run at the same time.
+     * @param parallelism The parallelism. For example, 8.
+     * @throws IllegalArgumentException If <code>parallelism</code> is 0 or 
+     * negative.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String excMsg = "Parallelism " + parallelism 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.testParallelism = parallelism;
+    }
+
+    /**
+     * Tells whether each test should run on its own virtual thread rather than 
+     * on a pool of platform threads.
+     * @return True if virtual threads should be used, false otherwise. The 
+     * default is false.
+     */
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Sets whether each test should run on its own virtual thread rather than 
+     * on a pool of platform threads. This is meant for tests that spend most 
+     * of their time blocked on sockets, files or sleeps, since a blocked 
+     * virtual thread doesn't tie up a platform thread. The parallelism still 
+     * caps how many tests may run at the same time, but it may then be set 
+     * much higher than the number of available processors. Either way, each 
+     * test runs on a fresh instance of the test class, along with the test 
+     * set-ups and tear-downs.
+     * @param virtual True to use virtual threads, false otherwise.
+     */
+    public void setVirtualThreads(boolean virtual) {
+        this.virtualThreads = virtual;
+    }
+
+    /**
+     * Gets how many forked Java Virtual Machines (JVMs) may run test classes 
+     * at the same time.
+     * @return The number of forked JVMs, or 0 if the test classes run in this 
+     * JVM. The default is 0.
+     */
+    public int getForks() {
+        return this.forks;
+    }
+
+    /**
+     * Sets how many forked Java Virtual Machines (JVMs) may run test classes 
+     * at the same time, through a {@link ForkedWorkerPool}. This only affects 
+     * {@link TestRunner#main}. Programmatic runs can use a {@link 
+     * ForkedWorkerPool} directly instead.
+     * @param count The number of forked JVMs. For example, 4. Or 0 to run the 
+     * test classes in this JVM.
+     * @throws IllegalArgumentException If <code>count</code> is negative.
+     */
+    public void setForks(int count) {
+        if (count < 0) {
+            String excMsg = "Number of forks " + count 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.forks = count;
+    }
+
+    /**
+     * Gets how many test classes may run at the same time.
+     * @return The number of workers. The default is 1.
+     */
+    public int getWorkers() {
+        return this.classWorkers;
+    }
+
+    /**
+     * Sets how many test classes may run at the same time.
+     * @param workers The number of workers. For example, 16.
+     * @throws IllegalArgumentException If <code>workers</code> is 0 or 
+     * negative.
+     */
+    public void setWorkers(int workers) {
+        if (workers < 1) {
+            String excMsg = "Number of workers " + workers 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.classWorkers = workers;
+    }
+
+    /**
+     * Gets the class path to scan for test classes.
+     * @return The class path, or null if no scan was requested. The default is 
+     * null.
+     */
+    public String getScanClassPath() {
+        return this.scanClassPath;
+    }
+
+    /**
+     * Sets the class path to scan for test classes. The test classes found by 
+     * {@link TestClassScanner} are run in addition to any test classes named 
+     * explicitly.
+     * @param classPath The class path to scan. For example, 
+     * "build/test-classes". Or null to not scan anything.
+     */
+    public void setScanClassPath(String classPath) {
+        this.scanClassPath = classPath;
+    }
+
+    /**
+     * Gets how many of the slowest tests to list at the end of the report.
+     * @return How many tests to list. The default is {@link 
+     * TestResultsReporter#DEFAULT_SLOWEST_COUNT}.
+     */
+    public int getSlowestCount() {
+        return this.slowestCount;
+    }
+
+    /**
+     * Sets how many of the slowest tests to list at the end of the report.
+     * @param count How many tests to list. For example, 10. If 0, the slowest 
+     * tests are not listed.
+     * @throws IllegalArgumentException If <code>count</code> is negative.
+     */
+    public void setSlowestCount(int count) {
+        if (count < 0) {
+            String excMsg = "Count " + count + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.slowestCount = count;
+    }
+
+    /**
+     * Tells whether the results should be reported as soon as each test 
+     * finishes, by a {@link StreamingResultsReporter}, rather than all at once 
+     * after all the tests have run.
+     * @return True if the results should be streamed, false otherwise. The 
+     * default is false.
+     */
+    public boolean isStreamResults() {
+        return this.streamResults;
+    }
+
+    /**
+     * Sets whether the results should be reported as soon as each test 
+     * finishes. This only affects {@link TestRunner#main}. Programmatic runs 
+     * can add a {@link StreamingResultsReporter} as a listener instead.
+     * @param stream True if the results should be streamed, false otherwise.
+     */
+    public void setStreamResults(boolean stream) {
+        this.streamResults = stream;
+    }
+
+    /**
+     * Gets the file to write the results to in the JUnit XML format.
+     * @return The file, or null if no such file was requested. The default is 
+     * null.
+     */
+    public Path getJUnitXMLFile() {
+        return this.junitXMLFile;
+    }
+
+    /**
+     * Sets the file to write the results to in the JUnit XML format, through a 
+     * {@link JUnitXMLResultWriter}. This only affects {@link TestRunner#main}. 
+     * Programmatic runs can add a writer as a listener instead.
+     * @param file The file. For example, "TEST-results.xml". Or null to not 
+     * write such a file.
+     */
+    public void setJUnitXMLFile(Path file) {
+        this.junitXMLFile = file;
+    }
+
+    /**
+     * Gets the file to write the results to as newline-delimited JSON.
+     * @return The file, or null if no such file was requested. The default is 
+     * null.
+     */
+    public Path getNDJSONFile() {
+        return this.ndjsonFile;
+    }
+
+    /**
+     * Sets the file to write the results to as newline-delimited JSON, through 
+     * an {@link NDJSONResultWriter}. This only affects {@link 
+     * TestRunner#main}. Programmatic runs can add a writer as a listener 
+     * instead.
+     * @param file The file. For example, "results.ndjson". Or null to not 
+     * write such a file.
+     */
+    public void setNDJSONFile(Path file) {
+        this.ndjsonFile = file;
+    }
+
+    /**
+     * Tells whether only one test at a time runs in this Java Virtual Machine 
+     * (JVM), which is what it takes for resources that belong to the whole JVM 
+     * to be pinned on a test.
+     * @return True if the parallelism is 1, virtual threads aren't used, only 
+     * one test class runs at a time and the test classes don't run in forked 
+     * JVMs, false otherwise.
+     */
+    boolean isOneTestAtATime() {
+        return this.testParallelism == 1 && !this.virtualThreads 
+                && this.classWorkers == 1 && this.forks == 0;
+    }
+
+    /**
+     * Tells whether tests are checked for leaked threads, file descriptors 
+     * and direct buffer memory.
+     * @return True if tests are checked for leaks, false otherwise. The 
+     * default is false.
+     */
+    public boolean isDetectLeaks() {
+        return this.detectLeaks;
+    }
+
+    /**
+     * Sets whether tests are checked for leaked threads, file descriptors and 
+     * direct buffer memory. The resources in use are compared from before the 
+     * procedures annotated {@link org.testframe.api.BeforeEachTest} run to 
+     * after the procedures annotated {@link org.testframe.api.AfterEachTest} 
+     * run, and any growth is reported as a warning on the test result, 
+     * without changing its status. Since the resources belong to the whole 
+     * Java Virtual Machine, leaks can only be pinned on a test when it runs on 
+     * its own, so this only has an effect when the parallelism is 1, virtual 
+     * threads aren't used and only one test class runs at a time. A forked 
+     * worker runs one test class at a time, so there this depends only on the 
+     * parallelism and on whether virtual threads are used.
+     * @param detect True to check tests for leaks, false not to.
+     */
+    public void setDetectLeaks(boolean detect) {
+        this.detectLeaks = detect;
+    }
+
+    /**
+     * Tells whether the heap retained by each test is measured.
+     * @return True if heap growth is tracked, false otherwise. The default is 
+     * false.
+     */
+    public boolean isTrackHeap() {
+        return this.trackHeap;
+    }
+
+    /**
+     * Sets whether the heap retained by each test is measured. A garbage 
+     * collection is forced and the heap in use is sampled before the 
+     * procedures annotated {@link org.testframe.api.BeforeEachTest} run and 
+     * again after the procedures annotated {@link 
+     * org.testframe.api.AfterEachTest} run, and the growth is given in the 
+     * metrics of the test result. This slows the run down considerably. As 
+     * with leak detection, this only has an effect when the parallelism is 1, 
+     * virtual threads aren't used and only one test class runs at a time, or 
+     * in a forked worker. To also see which test classes the 
+     * heap grew across, add a {@link HeapGrowthMonitor} as a listener.
+     * @param track True to track heap growth, false not to.
+     */
+    public void setTrackHeap(boolean track) {
+        this.trackHeap = track;
+    }
+
+    /**
+     * Gets how long each test may run if it doesn't have a {@link 
+     * org.testframe.api.Timeout} annotation of its own.
+     * @return The timeout, or zero for no timeout. The default is zero.
+     */
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Sets how long each test may run if neither it nor its test class has a 
+     * {@link org.testframe.api.Timeout} annotation. A test that runs out of 
+     * time is interrupted and reported as having caused an error with a 
+     * <code>java.util.concurrent.TimeoutException</code>, and the run goes on 
+     * without waiting for it.
+     * @param allotted How long each test may run. For example, 30 seconds. Or 
+     * zero for no timeout.
+     * @throws IllegalArgumentException If <code>allotted</code> is negative.
+     */
+    public void setTimeout(Duration allotted) {
+        if (allotted.isNegative()) {
+            String excMsg = "Timeout " + allotted + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.timeout = allotted;
+    }
+
+    /**
+     * Gets how many times each test is to run if it doesn't have a {@link 
+     * org.testframe.api.Repeat} annotation of its own.
+     * @return The number of repetitions, at least 1. The default is 1.
+     */
+    public int getRepeat() {
+        return this.repeat;
+    }
+
+    /**
+     * Sets how many times each test is to run if it doesn't have a {@link 
+     * org.testframe.api.Repeat} annotation, such as to find out whether any 
+     * test fails only now and then. The repetitions of each test run one 
+     * after the other and are reported as one result, summed up in a {@link 
+     * RepetitionSummary}. This has no effect on benchmarks or on tests 
+     * with parameters.
+     * @param repetitions The number of repetitions. For example, 50. Or 1 to 
+     * run each test once.
+     * @throws IllegalArgumentException If <code>repetitions</code> is less 
+     * than 1.
+     */
+    public void setRepeat(int repetitions) {
+        if (repetitions < 1) {
+            String excMsg = "Repetitions " + repetitions 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.repeat = repetitions;
+    }
+
+    /**
+     * Gets how many tests may fail or cause an error before the run is 
+     * stopped.
+     * @return The maximum number of failures, or 0 if there is no limit. The 
+     * default is 0.
+     */
+    public int getMaxFailures() {
+        return this.maxFailures;
+    }
+
+    /**
+     * Sets how many tests may fail or cause an error before the run is 
+     * stopped. Once the limit is reached, no more tests are started, tests 
+     * still running on other threads are interrupted, and the tests that 
+     * didn't get to run are reported as {@link TestResultStatus#NOT_RUN}. The 
+     * failures are counted across all the test classes run with these 
+     * options.
+     * @param max The maximum number of failures. For example, 1 to stop at the 
+     * first failure. Or 0 for no limit.
+     * @throws IllegalArgumentException If <code>max</code> is negative.
+     */
+    public void setMaxFailures(int max) {
+        if (max < 0) {
+            String excMsg = "Maximum failures " + max 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.maxFailures = max;
+    }
+
+    /**
+     * Tells how many tests run with these options have failed or caused an 
+     * error so far.
+     * @return The number of failures. For example, 3.
+     */
+    public int getFailureCount() {
+        return this.failureCount.get();
+    }
+
+    /**
+     * Counts the result towards the maximum number of failures if the test 
+     * failed or caused an error. This may be called from any thread.
+     * @param result The result. Should not be null.
+     */
+    void countFailure(TestResult result) {
+        TestResultStatus status = result.getStatus();
+        if (status == TestResultStatus.FAILED 
+                || status == TestResultStatus.ERROR) {
+            this.failureCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Tells whether enough tests have failed or caused an error that no more 
+     * tests should be started.
+     * @return True if there is a maximum number of failures and it has been 
+     * reached, false otherwise.
+     */
+    boolean isFailureLimitReached() {
+        return this.maxFailures > 0 
+                && this.failureCount.get() >= this.maxFailures;
+    }
+
+    /**
+     * Gets the history of test durations used to schedule the longest tests 
+     * and test classes first.
+     * @return The history, or null if there is none. The default is null.
+     */
+    public DurationHistory getDurationHistory() {
+        return this.durationHistory;
+    }
+
+    /**
+     * Sets the history of test durations used to schedule the longest tests 
+     * and test classes first. The history is updated with the durations of 
+     * the tests as they finish. Without a history, tests and test classes are 
+     * started in the order they're listed.
+     * @param history The history. For example, a history that is saved to a 
+     * file after the run. Or null for no history.
+     */
+    public void setDurationHistory(DurationHistory history) {
+        this.durationHistory = history;
+    }
+
+    /**
+     * Gets the map of which classes each test class depends on, used to run 
+     * only the test classes affected by changes.
+     * @return The map, or null if there is none. The default is null.
+     */
+    public TestImpactMap getImpactMap() {
+        return this.impactMap;
+    }
+
+    /**
+     * Sets the map of which classes each test class depends on. With a map, 
+     * {@link TestSuiteRunner} only runs the test classes that are affected by 
+     * changes, as explained in {@link TestImpactMap}, and runs each of them 
+     * in its own class loader so as to record what it loads. Test classes run 
+     * in forked Java Virtual Machines are selected but not recorded, and so 
+     * they'll run every time.
+     * @param map The map. For example, a map that is saved to a file after 
+     * the run. Or null to run all the test classes.
+     */
+    public void setImpactMap(TestImpactMap map) {
+        this.impactMap = map;
+    }
+
+    /**
+     * Gets the history of test failures used to run the tests that failed 
+     * before first.
+     * @return The history, or null if there is none. The default is null.
+     */
+    public FailureHistory getFailureHistory() {
+        return this.failureHistory;
+    }
+
+    /**
+     * Sets the history of test failures used to run the tests that failed 
+     * before first, both among the test classes of a suite and among the 
+     * tests of each test class. The history is updated with the results of 
+     * the tests as they finish.
+     * @param history The history. For example, a history that is saved to a 
+     * file after the run. Or null for no history.
+     */
+    public void setFailureHistory(FailureHistory history) {
+        this.failureHistory = history;
+    }
+
+    /**
+     * Tells whether only the tests that failed before are to be run.
+     * @return True if only those tests are to be run, false if all tests are 
+     * to be run. The default is false.
+     */
+    public boolean isRerunFailed() {
+        return this.rerunFailed;
+    }
+
+    /**
+     * Sets whether only the tests in the {@link FailureHistory} are to be 
+     * run. Test classes without any failures in the history are left out of 
+     * the run altogether. This has no effect without a failure history.
+     * @param rerun True to run only the tests that failed before, false to run 
+     * all tests.
+     */
+    public void setRerunFailed(boolean rerun) {
+        this.rerunFailed = rerun;
+    }
+
+    /**
+     * Gets the baselines benchmarks are compared to.
+     * @return The baselines, or null if benchmarks aren't compared to any. 
+     * The default is null.
+     */
+    public PerformanceBaseline getBaseline() {
+        return this.baseline;
+    }
+
+    /**
+     * Sets the baselines benchmarks are compared to. A benchmark that passes 
+     * but is significantly slower than its baseline, by more than the {@link 
+     * #getRegressionTolerance() regression tolerance}, is reported as 
+     * failed. A benchmark that has no baseline yet gets the samples it took 
+     * as its baseline.
+     * @param baseline The baselines. For example, baselines that are saved to 
+     * a file after the run. Or null to not compare benchmarks to anything.
+     */
+    public void setBaseline(PerformanceBaseline baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * Gets how much slower a benchmark may get than its baseline before it 
+     * counts as a regression.
+     * @return The tolerance, as a fraction of the baseline median. The 
+     * default is {@link PerformanceBaseline#DEFAULT_TOLERANCE}.
+     */
+    public double getRegressionTolerance() {
+        return this.regressionTolerance;
+    }
+
+    /**
+     * Sets how much slower a benchmark may get than its baseline before it 
+     * counts as a regression. This has no effect without a baseline.
+     * @param tolerance The tolerance, as a fraction of the baseline median. 
+     * For example, 0.25 for 25%.
+     * @throws IllegalArgumentException If <code>tolerance</code> is negative.
+     */
+    public void setRegressionTolerance(double tolerance) {
+        if (!(tolerance >= 0.0)) {
+            String excMsg = "Tolerance " + tolerance 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.regressionTolerance = tolerance;
+    }
+
+    /**
+     * Tells whether benchmarks are to replace their baselines rather than be 
+     * compared to them.
+     * @return True if the baselines are to be replaced, false if benchmarks 
+     * are to be compared to them. The default is false.
+     */
+    public boolean isUpdateBaseline() {
+        return this.updateBaseline;
+    }
+
+    /**
+     * Sets whether benchmarks are to replace their baselines rather than be 
+     * compared to them, such as after a slowdown has been accepted as the 
+     * price of a new feature. This has no effect without a baseline.
+     * @param update True to replace the baselines, false to compare to them.
+     */
+    public void setUpdateBaseline(boolean update) {
+        this.updateBaseline = update;
+    }
+
+    /**
+     * Gets the shard of the suite to run.
+     * @return The shard, or null to run the whole suite. The default is null.
+     */
+    public TestShard getShard() {
+        return this.shard;
+    }
+
+    /**
+     * Sets the shard of the suite to run. If the options also have a {@link 
+     * DurationHistory}, the shards are balanced by duration. The history is 
+     * then not saved by {@link TestRunner#main} after the run, since each 
+     * machine would save durations for its own shard only, and the machines 
+     * would no longer agree on the split. The history should be updated by 
+     * a run of the whole suite instead.
+     * @param shard The shard. For example, the third of eight shards. Or null 
+     * to run the whole suite.
+     */
+    public void setShard(TestShard shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * Tells whether the suite is split into shards test by test rather than 
+     * test class by test class.
+     * @return True if split test by test, false if split test class by test 
+     * class. The default is false.
+     */
+    public boolean isShardByTests() {
+        return this.shardByTests;
+    }
+
+    /**
+     * Sets whether the suite is split into shards test by test rather than 
+     * test class by test class. Splitting test by test gives more even shards 
+     * when a few test classes have most of the tests, at the cost of every 
+     * shard running the class set-ups and tear-downs of every test class.
+     * @param byTests True to split test by test, false to split test class by 
+     * test class.
+     */
+    public void setShardByTests(boolean byTests) {
+        this.shardByTests = byTests;
+    }
+
+    /**
+     * Gets the cache to get test plans from.
+     * @return The cache. The default is {@link TestPlanCache#getShared()}.
+     */
+    public TestPlanCache getPlanCache() {
+        return this.planCache;
+    }
+
+    /**
+     * Sets the cache to get test plans from.
+     * @param cache The cache. For example, a cache that is saved to a file 
+     * after the run.
+     * @throws NullPointerException If <code>cache</code> is null.
+     */
+    public void setPlanCache(TestPlanCache cache) {
+        if (cache == null) {
+            String excMsg = "Plan cache should not be null";
+            throw new NullPointerException(excMsg);
+        }
+        this.planCache = cache;
+    }
+
+    /**
+     * Gets the class loader to load the test classes with.
+     * @return The class loader. The default is the system class loader.
+     */
+    public ClassLoader getClassLoader() {
+        if (this.classLoader == null) {
+            return ClassLoader.getSystemClassLoader();
+        }
+        return this.classLoader;
+    }
+
+    /**
+     * Sets the class loader to load the test classes with. Assertions should 
+     * already be turned on for the classes it loads.
+     * @param loader The class loader. For example, a class loader that loads 
+     * the test classes afresh after they've been recompiled.
+     * @throws NullPointerException If <code>loader</code> is null.
+     */
+    public void setClassLoader(ClassLoader loader) {
+        if (loader == null) {
+            String excMsg = "Class loader should not be null";
+            throw new NullPointerException(excMsg);
+        }
+        this.classLoader = loader;
+    }
+
+    /**
+     * Gets the listeners to notify of test results as the tests run.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<TestResultListener> getListeners() {
+        return Collections.unmodifiableList(this.listeners);
+    }
+
+    /**
+     * Adds a listener to notify of test results as the tests run.
+     * @param listener The listener. For example, a {@link 
+     * StreamingResultsReporter}.
+     */
+    public void addListener(TestResultListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Parses command line arguments. Arguments that don't start with "-" are 
+     * taken to be test class names. The recognized options are:
+     * <ul>
+     * <li>"-sort" to sort the test results so that passing tests are reported 
+     * first and failing tests last.</li>
+     * <li>"-parallel=N" to run up to N tests of a test class at the same time. 
+     * If N is omitted, the number of available processors is used.</li>
+     * <li>"-virtual=N" to run each test on its own virtual thread, up to N 
+     * tests of a test class at the same time. If N is omitted, as in 
+     * "-virtual", there is no cap on how many tests may run at the same 
+     * time.</li>
+     * <li>"-workers=N" to run up to N test classes at the same time. If N is 
+     * omitted, the number of available processors is used.</li>
+     * <li>"-fork=N" to run test classes in up to N forked Java Virtual 
+     * Machines, which are reused from one test class to the next. If N is 
+     * omitted, the number of available processors is used.</li>
+     * <li>"-suite=<i>file</i>" to add the test class names listed in a file, 
+     * one per line.</li>
+     * <li>"-scan=<i>classpath</i>" to add the test classes found on a class 
+     * path. If the class path is omitted, as in "-scan", the class path of the 
+     * running Java Virtual Machine is scanned.</li>
+     * <li>"-slowest=N" to list the N slowest tests at the end of the report. 
+     * "-slowest=0" turns off the list.</li>
+     * <li>"-stream" to report each result as soon as its test finishes, 
+     * through a {@link StreamingResultsReporter}. This overrides "-sort".</li>
+     * <li>"-junitxml=<i>file</i>" to also write the results to a file in the 
+     * JUnit XML format.</li>
+     * <li>"-ndjson=<i>file</i>" to also write the results to a file as 
+     * newline-delimited JSON.</li>
+     * <li>"-failfast" to stop the run at the first test that fails or causes 
+     * an error. The tests that didn't get to run are reported as not 
+     * run.</li>
+     * <li>"-maxfailures=N" to stop the run once N tests have failed or caused 
+     * an error.</li>
+     * <li>"-leaks" to warn about tests that leak threads, file descriptors 
+     * or direct buffer memory, when tests run one at a time.</li>
+     * <li>"-heap" to measure the heap each test retains, when tests run one 
+     * at a time, and to list the test classes the heap grew across at the 
+     * end of the report.</li>
+     * <li>"-timeout=N" to give up on any test that runs for more than N 
+     * milliseconds, unless it has a timeout of its own.</li>
+     * <li>"-repeat=N" to run each test N times, unless it has a number of 
+     * repetitions of its own, and report the repetitions as one result.</li>
+     * <li>"-history=<i>file</i>" to load test durations from a file before 
+     * the run, start the longest tests and test classes first, and save the 
+     * updated durations to that file after the run.</li>
+     * <li>"-shard=<i>i</i>/<i>n</i>" to split the suite into <i>n</i> shards 
+     * and run only the <i>i</i>-th, counting from 1. The shards are balanced 
+     * by duration if "-history" is also given, in which case the history file 
+     * is only read, not saved, so that every machine keeps working out the 
+     * same split.</li>
+     * <li>"-shardby=tests" to split the suite test by test rather than test 
+     * class by test class, which is "-shardby=classes", the default.</li>
+     * <li>"-impact=<i>file</i>" to load the classes each test class depends 
+     * on from a file before the run, run only the test classes affected by 
+     * changes to those classes, and save the updated dependencies to that 
+     * file after the run.</li>
+     * <li>"-failures=<i>file</i>" to load the tests that failed or caused an 
+     * error from a file before the run, run those tests and their test 
+     * classes first, and save the updated failures to that file after the 
+     * run.</li>
+     * <li>"-rerun-failed" to run only the tests that failed or caused an 
+     * error, as listed in the file given with "-failures".</li>
+     * <li>"-plancache=<i>file</i>" to load test plans from a file before the 
+     * run and save them to that file after, so that later runs don't need to 
+     * look at the annotations of unchanged test classes again.</li>
+     * <li>"-baseline=<i>file</i>" to load benchmark samples from a file 
+     * before the run, fail benchmarks that got significantly slower, and save 
+     * the samples of benchmarks that had none to that file after the 
+     * run. A failed benchmark makes {@link TestRunner#main} exit with status 
+     * 1, like any other failed test.</li>
+     * <li>"-tolerance=N" to let benchmarks get up to N percent slower than 
+     * their baselines before failing them. The default is 10.</li>
+     * <li>"-update-baseline" to replace the samples in the file given with 
+     * "-baseline" rather than compare to them.</li>
+     * </ul>
+     * <p>Unrecognized options are reported to <code>System.err</code> and 
+     * otherwise ignored.</p>
+     * @param args The command line arguments. For example, 
+     * "org.example.FooTest", "org.example.BarTest" and "-workers=4".
+     * @return The parsed options.
+     * @throws IllegalArgumentException If a count or shard can't be parsed, 
+     * if a suite file, history file, plan cache file or baseline file can't 
+     * be read, or if 
+     * "-rerun-failed" is given without "-failures".
+     */
+    public static RunOptions parse(String[] args) {
+        RunOptions options = new RunOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("-")) {
+                options.addTestClassName(arg);
+            } else if (arg.equals("-sort")) {
+                options.setSortResults(true);
+            } else if (arg.equals("-parallel") 
+                    || arg.startsWith("-parallel=")) {
+                options.setParallelism(parseCount(arg, "parallel tests"));
+            } else if (arg.equals("-virtual")) {
+                options.setVirtualThreads(true);
+                options.setParallelism(Integer.MAX_VALUE);
+            } else if (arg.startsWith("-virtual=")) {
+                options.setVirtualThreads(true);
+                options.setParallelism(parseCount(arg, "virtual threads"));
+            } else if (arg.equals("-workers") || arg.startsWith("-workers=")) {
+                options.setWorkers(parseCount(arg, "workers"));
+            } else if (arg.equals("-fork") || arg.startsWith("-fork=")) {
+                options.setForks(parseCount(arg, "forks"));
+            } else if (arg.startsWith("-suite=")) {
+                Path file = Paths.get(arg.substring(7));
+                try {
+                    options.testClassNames.addAll(readTestClassNames(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read suite file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.equals("-scan")) {
+                options.setScanClassPath(System 
+                        .getProperty("java.class.path"));
+            } else if (arg.startsWith("-scan=")) {
+                options.setScanClassPath(arg.substring(6));
+            } else if (arg.startsWith("-slowest=")) {
+                options.setSlowestCount(parseNonNegative(arg.substring(9), 
+                        "slowest tests"));
+            } else if (arg.equals("-stream")) {
+                options.setStreamResults(true);
+            } else if (arg.startsWith("-junitxml=")) {
+                options.setJUnitXMLFile(Paths.get(arg.substring(10)));
+            } else if (arg.startsWith("-ndjson=")) {
+                options.setNDJSONFile(Paths.get(arg.substring(8)));
+            } else if (arg.equals("-failfast")) {
+                options.setMaxFailures(1);
+            } else if (arg.startsWith("-maxfailures=")) {
+                options.setMaxFailures(parseNonNegative(arg.substring(13), 
+                        "failures"));
+            } else if (arg.equals("-leaks")) {
+                options.setDetectLeaks(true);
+            } else if (arg.equals("-heap")) {
+                options.setTrackHeap(true);
+            } else if (arg.startsWith("-repeat=")) {
+                options.setRepeat(parseCount(arg, "repetitions"));
+            } else if (arg.startsWith("-timeout=")) {
+                options.setTimeout(Duration.ofMillis(parseNonNegative(arg 
+                        .substring(9), "milliseconds")));
+            } else if (arg.startsWith("-history=")) {
+                Path file = Paths.get(arg.substring(9));
+                try {
+                    options.setDurationHistory(new DurationHistory(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read history file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.startsWith("-shard=")) {
+                options.setShard(TestShard.parse(arg.substring(7)));
+            } else if (arg.equals("-shardby=tests")) {
+                options.setShardByTests(true);
+            } else if (arg.equals("-shardby=classes")) {
+                options.setShardByTests(false);
+            } else if (arg.startsWith("-impact=")) {
+                Path file = Paths.get(arg.substring(8));
+                try {
+                    options.setImpactMap(new TestImpactMap(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read impact map file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.startsWith("-failures=")) {
+                Path file = Paths.get(arg.substring(10));
+                try {
+                    options.setFailureHistory(new FailureHistory(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read failures file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.equals("-rerun-failed")) {
+                options.setRerunFailed(true);
+            } else if (arg.startsWith("-plancache=")) {
+                Path file = Paths.get(arg.substring(11));
+                try {
+                    options.setPlanCache(new TestPlanCache(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read plan cache file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.startsWith("-baseline=")) {
+                Path file = Paths.get(arg.substring(10));
+                try {
+                    options.setBaseline(new PerformanceBaseline(file));
+                } catch (IOException ioe) {
+                    String excMsg = "Unable to read baseline file " + file;
+                    throw new IllegalArgumentException(excMsg, ioe);
+                }
+            } else if (arg.startsWith("-tolerance=")) {
+                options.setRegressionTolerance(parseNonNegative(arg 
+                        .substring(11), "percent") / 100.0);
+            } else if (arg.equals("-update-baseline")) {
+                options.setUpdateBaseline(true);
+            } else {
+                System.err.println("Ignoring unrecognized option " + arg);
+            }
+        }
+        if (options.rerunFailed && options.failureHistory == null) {
+            String excMsg = "Option -rerun-failed requires -failures=<file>";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return options;
+    }
+
+}
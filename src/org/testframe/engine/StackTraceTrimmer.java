@@ -0,0 +1,82 @@
+package org.testframe.engine;
+
+/**
+ * Formats stack traces without the frames that belong to the test runner or to 
+ * the reflection machinery it uses to call the test, since those are the same 
+ * for every test and only get in the way of finding the line that caused a 
+ * test failure or error. Frames from the Java Development Kit that the test 
+ * itself goes through, such as a stream pipeline or an executor, are kept.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+class StackTraceTrimmer {
+
+    private static final String[] RUNNER_FRAME_PREFIXES = {
+        "org.testframe.engine.TestRunner", 
+        "org.testframe.engine.ProcedureHandle"};
+
+    private static final String[] CALL_FRAME_PREFIXES = {"java.lang.invoke.", 
+        "java.lang.reflect.", "jdk.internal.", "java.util.concurrent."};
+
+    private static boolean startsWithAny(StackTraceElement element, 
+            String[] prefixes) {
+        String className = element.getClassName();
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int cutOff(StackTraceElement[] elements) {
+        int index = 0;
+        while (index < elements.length 
+                && !startsWithAny(elements[index], RUNNER_FRAME_PREFIXES)) {
+            index++;
+        }
+        if (index == elements.length) {
+            return index;
+        }
+        while (index > 0 
+                && startsWithAny(elements[index - 1], CALL_FRAME_PREFIXES)) {
+            index--;
+        }
+        return index;
+    }
+
+    private static void append(Throwable throwable, StringBuilder builder, 
+            int depth) {
+        builder.append(throwable.toString()).append('\n');
+        StackTraceElement[] elements = throwable.getStackTrace();
+        int end = cutOff(elements);
+        for (int i = 0; i < end; i++) {
+            builder.append("\tat ").append(elements[i].toString()) 
+                    .append('\n');
+        }
+        Throwable cause = throwable.getCause();
+        if (cause != null && cause != throwable && depth < 8) {
+            builder.append("Caused by: ");
+            append(cause, builder, depth + 1);
+        }
+    }
+
+    /**
+     * Formats a stack trace, leaving out the frames from the first frame that 
+     * belongs to the test runner on, as well as the reflection and concurrency 
+     * frames directly above that frame. If no frame belongs to the test 
+     * runner, the whole stack trace is kept. Causes are included, trimmed the 
+     * same way.
+     * @param throwable The error or exception to format. For example, an 
+     * <code>AssertionError</code> thrown by a failing test.
+     * @return The trimmed stack trace, with lines separated by "\n". For 
+     * example, "java.lang.AssertionError: Expected = 1. Actual = 2\n\tat 
+     * org.example.FooTest.testBar(FooTest.java:17)\n".
+     */
+    static String trim(Throwable throwable) {
+        StringBuilder builder = new StringBuilder();
+        append(throwable, builder, 0);
+        return builder.toString();
+    }
+
+}
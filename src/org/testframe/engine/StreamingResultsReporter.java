@@ -0,0 +1,218 @@
+package org.testframe.engine;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Reports each test result as soon as the test finishes, rather than after all 
+ * the tests have run like {@link TestResultsReporter} does. All output, stack 
+ * traces included, goes through a single buffered writer, which is flushed 
+ * when a test class starts or finishes, and otherwise every so often by a 
+ * daemon thread, so that progress shows up while the tests are still 
+ * running, even during a long test, without a write to the console for every 
+ * line. Since results from different test classes may be 
+ * interleaved, each result is reported with the name of its test class.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class StreamingResultsReporter implements TestResultListener {
+
+    /**
+     * How many milliseconds to let pass between flushes of the buffer, unless 
+     * otherwise specified to the constructor.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLISECONDS = 250L;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PrintWriter writer;
+
+    private final long flushInterval;
+
+    private final Timer flushTimer;
+
+    private final Map<String, Integer> classCounts = new HashMap<>();
+
+    private long lastFlush = System.nanoTime();
+
+    private int passCount = 0;
+
+    private int failCount = 0;
+
+    private int skipCount = 0;
+
+    private int errorCount = 0;
+
+    private int notRunCount = 0;
+
+    private synchronized void flushIfDue() {
+        long now = System.nanoTime();
+        if (now - this.lastFlush >= this.flushInterval) {
+            this.writer.flush();
+            this.lastFlush = now;
+        }
+    }
+
+    /**
+     * Writes the result to the buffer, along with its stack trace if the test 
+     * failed or caused an error. The buffer is flushed if enough time has 
+     * passed since the last flush.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> passed.
+     */
+    @Override
+    public synchronized void testFinished(String testClassName, 
+            TestResult result) {
+        this.classCounts.merge(testClassName, 1, Integer::sum);
+        TestResultStatus status = result.getStatus();
+        this.writer.print(testClassName + "." + result.getTestName() 
+                + " " + status.toString() + " "
+                + TestResultsReporter.formatMetrics(result.getMetrics()));
+        switch (status) {
+            case PASSED:
+                this.passCount++;
+                this.writer.println();
+                break;
+            case FAILED:
+                this.failCount++;
+                this.writer.println(result.getInformation().getMessage());
+                result.getInformation().printStackTrace(this.writer);
+                break;
+            case SKIPPED:
+                this.skipCount++;
+                this.writer.println();
+                break;
+            case ERROR:
+                this.errorCount++;
+                this.writer.println(result.getInformation().getMessage());
+                result.getInformation().printStackTrace(this.writer);
+                break;
+            case NOT_RUN:
+                this.notRunCount++;
+                this.writer.println();
+                break;
+            default:
+                throw new RuntimeException("Unknown test result status");
+        }
+        if (result.getBenchmarkStatistics() != null) {
+            this.writer.println(TestResultsReporter 
+                    .formatBenchmark(result.getBenchmarkStatistics()));
+        }
+        if (result.getBaselineComparison() != null) {
+            this.writer.println(TestResultsReporter 
+                    .formatComparison(result.getBaselineComparison()));
+        }
+        if (result.getRepetitionSummary() != null) {
+            this.writer.println(TestResultsReporter 
+                    .formatRepetitions(result.getRepetitionSummary()));
+        }
+        for (String warning : result.getWarnings()) {
+            this.writer.println("Warning: " + warning);
+        }
+        this.flushIfDue();
+    }
+
+    /**
+     * Flushes the buffer, so that the results of the test classes that 
+     * finished before show up before the next test class gets going.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     */
+    @Override
+    public synchronized void testClassStarted(String testClassName) {
+        this.writer.flush();
+        this.lastFlush = System.nanoTime();
+    }
+
+    /**
+     * Writes a summary line for the test class and flushes the buffer.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param results The results of all the tests of the test class. These 
+     * aren't counted for the summary line, since the invocations of a test 
+     * with parameters that passed are folded into one result. The results 
+     * this reporter was notified of are counted instead.
+     */
+    @Override
+    public synchronized void testClassFinished(String testClassName, 
+            List<TestResult> results) {
+        Integer count = this.classCounts.remove(testClassName);
+        this.writer.println("Finished " + testClassName + ": " 
+                + (count == null ? 0 : count) + " tests");
+        this.writer.flush();
+        this.lastFlush = System.nanoTime();
+    }
+
+    /**
+     * Writes the totals for all the results reported so far, flushes the 
+     * buffer and stops the thread that flushes it every so often. This 
+     * should be called after all the tests have run.
+     */
+    public synchronized void finish() {
+        if (this.flushTimer != null) {
+            this.flushTimer.cancel();
+        }
+        int totalCount = this.passCount + this.failCount + this.skipCount 
+                + this.errorCount + this.notRunCount;
+        this.writer.println();
+        this.writer.println("Passed: " + this.passCount + ". Failed: " 
+                + this.failCount + ". Skipped: " + this.skipCount
+                + ". Caused an error: " + this.errorCount
+                + TestResultsReporter.formatNotRunCount(this.notRunCount));
+        this.writer.println("Total: " + totalCount);
+        this.writer.flush();
+    }
+
+    /**
+     * Constructor that reports to <code>System.out</code> and flushes every 
+     * {@link #DEFAULT_FLUSH_INTERVAL_MILLISECONDS} milliseconds at most.
+     */
+    public StreamingResultsReporter() {
+        this(System.out, DEFAULT_FLUSH_INTERVAL_MILLISECONDS);
+    }
+
+    /**
+     * Constructor.
+     * @param out Where to write the report to. For example, 
+     * <code>System.out</code>. The stream is not closed by this reporter.
+     * @param flushIntervalMilliseconds How many milliseconds to let pass 
+     * between flushes of the buffer. For example, 1000. If 0, the buffer is 
+     * flushed after every result, and no thread is started to flush it.
+     * @throws IllegalArgumentException If the flush interval is negative.
+     */
+    public StreamingResultsReporter(OutputStream out, 
+            long flushIntervalMilliseconds) {
+        if (flushIntervalMilliseconds < 0L) {
+            String excMsg = "Flush interval " + flushIntervalMilliseconds 
+                    + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.writer = new PrintWriter(new BufferedWriter( 
+                new OutputStreamWriter(out), BUFFER_SIZE), false);
+        this.flushInterval = flushIntervalMilliseconds * 1000000L;
+        if (flushIntervalMilliseconds == 0L) {
+            this.flushTimer = null;
+        } else {
+            this.flushTimer = new Timer("StreamingResultsReporter-flusher", 
+                    true);
+            this.flushTimer.schedule(new TimerTask() {
+
+                @Override
+                public void run() {
+                    flushIfDue();
+                }
+
+            }, flushIntervalMilliseconds, flushIntervalMilliseconds);
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+package org.testframe.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Discovers test classes on a class path without loading them. The class files 
+ * in directories and Java Archives (JARs) are read as bytes, and a class file 
+ * is deemed to hold a test class if its constant pool has the descriptor of 
+ * the {@link org.testframe.api.Test} annotation, or if a class it extends, 
+ * directly or not, has that descriptor and turns up in the same scan, since 
+ * the public tests of a superclass are inherited. Only concrete classes are 
+ * reported, since abstract classes and interfaces can't be instantiated to run 
+ * their tests. No static initializers are run in the course of the scan.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestClassScanner {
+
+    private static final byte[] TEST_DESCRIPTOR = "Lorg/testframe/api/Test;" 
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private static int readU2(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readU4(byte[] bytes, int offset) {
+        return (readU2(bytes, offset) << 16) | readU2(bytes, offset + 2);
+    }
+
+    private static boolean matches(byte[] bytes, int offset, int length, 
+            byte[] target) {
+        if (length != target.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + i] != target[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * What the scan needs to know about a class file.
+     */
+    private static class ClassFileSummary {
+
+        private final String className;
+
+        private final String superclassName;
+
+        private final boolean testDescriptor;
+
+        private final boolean concrete;
+
+        ClassFileSummary(String name, String superName, boolean test, 
+                boolean instantiable) {
+            this.className = name;
+            this.superclassName = superName;
+            this.testDescriptor = test;
+            this.concrete = instantiable;
+        }
+
+    }
+
+    private static String readClassName(byte[] classFile, int[] utf8Offsets, 
+            int[] classNameIndices, int classIndex) {
+        if (classIndex == 0) {
+            return null;
+        }
+        int nameOffset = utf8Offsets[classNameIndices[classIndex]];
+        int nameLength = readU2(classFile, nameOffset);
+        String internalName = new String(classFile, nameOffset + 2, 
+                nameLength, StandardCharsets.UTF_8);
+        return internalName.replace('/', '.');
+    }
+
+    private static ClassFileSummary summarize(byte[] classFile) {
+        try {
+            if (classFile.length < 10 
+                    || readU4(classFile, 0) != CLASS_FILE_MAGIC) {
+                return null;
+            }
+            int count = readU2(classFile, 8);
+            int[] utf8Offsets = new int[count];
+            int[] classNameIndices = new int[count];
+            boolean hasTestDescriptor = false;
+            int offset = 10;
+            for (int index = 1; index < count; index++) {
+                int tag = classFile[offset] & 0xFF;
+                switch (tag) {
+                    case 1: 
+                        int length = readU2(classFile, offset + 1);
+                        utf8Offsets[index] = offset + 1;
+                        if (!hasTestDescriptor && matches(classFile, 
+                                offset + 3, length, TEST_DESCRIPTOR)) {
+                            hasTestDescriptor = true;
+                        }
+                        offset += 3 + length;
+                        break;
+                    case 7: 
+                        classNameIndices[index] = readU2(classFile, 
+                                offset + 1);
+                        offset += 3;
+                        break;
+                    case 8: case 16: case 19: case 20: 
+                        offset += 3;
+                        break;
+                    case 15: 
+                        offset += 4;
+                        break;
+                    case 3: case 4: case 9: case 10: case 11: case 12:
+                    case 17: case 18: 
+                        offset += 5;
+                        break;
+                    case 5: case 6: 
+                        offset += 9;
+                        index++;
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            int accessFlags = readU2(classFile, offset);
+            boolean concrete 
+                    = (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+            String name = readClassName(classFile, utf8Offsets, 
+                    classNameIndices, readU2(classFile, offset + 2));
+            String superName = readClassName(classFile, utf8Offsets, 
+                    classNameIndices, readU2(classFile, offset + 4));
+            return new ClassFileSummary(name, superName, hasTestDescriptor, 
+                    concrete);
+        } catch (ArrayIndexOutOfBoundsException aioobe) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the name of a test class from a class file, provided the class 
+     * file holds a concrete class with at least one procedure annotated {@link 
+     * org.testframe.api.Test}. Only the constant pool, the access flags and 
+     * the name of the class are looked at, so a class that only inherits its 
+     * tests is not recognized by this function, though {@link #scan(String)} 
+     * does find it if it finds the class it inherits them from.
+     * @param classFile The bytes of the class file. For example, the contents 
+     * of <code>org/example/demo/textops/PalindromeCheckerTest.class</code>.
+     * @return The fully qualified name of the test class, such as 
+     * "org.example.demo.textops.PalindromeCheckerTest", or null if the class 
+     * file doesn't hold a concrete test class, or if it's not a well-formed 
+     * class file.
+     */
+    public static String readTestClassName(byte[] classFile) {
+        ClassFileSummary summary = summarize(classFile);
+        if (summary == null || !summary.testDescriptor 
+                || !summary.concrete) {
+            return null;
+        }
+        return summary.className;
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = stream.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void add(ClassFileSummary summary, 
+            Map<String, ClassFileSummary> summaries) {
+        if (summary != null) {
+            summaries.putIfAbsent(summary.className, summary);
+        }
+    }
+
+    private static void scanDirectory(File directory, 
+            Map<String, ClassFileSummary> summaries) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scanDirectory(file, summaries);
+            } else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                add(summarize(Files.readAllBytes(file.toPath())), summaries);
+            }
+        }
+    }
+
+    private static void scanArchive(File archive, 
+            Map<String, ClassFileSummary> summaries) throws IOException {
+        try (ZipFile zip = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() 
+                        && entry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    try (InputStream stream = zip.getInputStream(entry)) {
+                        add(summarize(readAll(stream)), summaries);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a class path for test classes.
+     * @param classPath The class path to scan, with entries separated by the 
+     * platform's path separator, just like the "java.class.path" system 
+     * property. For example, "build/classes:build/test-classes:lib/foo.jar". 
+     * Entries that don't exist are ignored.
+     * @return The fully qualified names of the test classes found, in 
+     * alphabetical order. For example, 
+     * "org.example.demo.textops.AnagramCheckerTest" and 
+     * "org.example.demo.textops.PalindromeCheckerTest". Possibly empty.
+     * @throws IOException If a directory or archive on the class path can't be 
+     * read.
+     */
+    public static List<String> scan(String classPath) throws IOException {
+        Map<String, ClassFileSummary> summaries = new HashMap<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            File file = new File(entry);
+            if (file.isDirectory()) {
+                scanDirectory(file, summaries);
+            } else if (file.isFile()) {
+                scanArchive(file, summaries);
+            }
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (ClassFileSummary summary : summaries.values()) {
+            if (!summary.concrete) {
+                continue;
+            }
+            ClassFileSummary ancestor = summary;
+            int depth = summaries.size();
+            while (ancestor != null && depth-- > 0) {
+                if (ancestor.testDescriptor) {
+                    names.add(summary.className);
+                    break;
+                }
+                ancestor = summaries.get(ancestor.superclassName);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Scans the class path of the running Java Virtual Machine (JVM) for test 
+     * classes.
+     * @return The fully qualified names of the test classes found, in 
+     * alphabetical order. Possibly empty.
+     * @throws IOException If a directory or archive on the class path can't be 
+     * read.
+     */
+    public static List<String> scan() throws IOException {
+        return scan(System.getProperty("java.class.path"));
+    }
+
+}
@@ -0,0 +1,309 @@
+package org.testframe.engine;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stays running in the background so that test classes can be run again and 
+ * again without paying each time for starting a Java Virtual Machine (JVM), 
+ * loading the test runner and warming up the just-in-time (JIT) compiler. The 
+ * daemon watches the directories on its class path, and after anything in 
+ * them changes, such as because the test classes were recompiled, the next 
+ * run loads the classes afresh in a new {@link IsolatingClassLoader}. Until 
+ * then, runs reuse the classes already loaded. The classes of the test runner 
+ * itself are never reloaded. Requests come in on a socket bound to the 
+ * loopback address, usually from {@link TestDaemonClient}, and are run one at 
+ * a time, with <code>System.out</code> and <code>System.err</code> sent back 
+ * to the client for the duration of the run. Since anyone on the same machine 
+ * can connect, options that name files or directories, such as 
+ * "-junitxml=<i>file</i>", are turned down rather than let a client read or 
+ * write files with the permissions of the daemon.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestDaemon implements Closeable {
+
+    /**
+     * The port the daemon listens on if no other port is specified.
+     */
+    public static final int DEFAULT_PORT = 7171;
+
+    /**
+     * The request that tells the daemon to stop.
+     */
+    public static final String STOP_REQUEST = "-stop";
+
+    private static final String[] PATH_OPTION_PREFIXES = {"-suite=", 
+        "-scan=", "-junitxml=", "-ndjson=", "-history=", "-impact=", 
+        "-failures=", "-plancache=", "-baseline="};
+
+    private final String classPath;
+
+    private final ServerSocket serverSocket;
+
+    private final WatchService watchService;
+
+    private final AtomicLong changeCount = new AtomicLong();
+
+    private long loadedChangeCount = -1L;
+
+    private IsolatingClassLoader loader = null;
+
+    private volatile boolean stopped = false;
+
+    private void register(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, 
+                    BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, 
+                        StandardWatchEventKinds.ENTRY_CREATE, 
+                        StandardWatchEventKinds.ENTRY_MODIFY, 
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    private void watch() {
+        try {
+            while (!this.stopped) {
+                WatchKey key = this.watchService.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE 
+                            && context instanceof Path) {
+                        Path child = dir.resolve((Path) context);
+                        if (Files.isDirectory(child)) {
+                            this.register(child);
+                        }
+                    }
+                }
+                key.reset();
+                this.changeCount.incrementAndGet();
+            }
+        } catch (ClosedWatchServiceException cwse) {
+            // The daemon was closed, so there's nothing left to watch
+        } catch (IOException ioe) {
+            System.err.println("Stopped watching class path because of " 
+                    + ioe.getClass().getName());
+            System.err.println("\"" + ioe.getMessage() + "\"");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tells how many times the watched directories have changed since this 
+     * daemon started.
+     * @return The number of changes noticed. For example, 3.
+     */
+    long getChangeCount() {
+        return this.changeCount.get();
+    }
+
+    /**
+     * Gets the class loader for the next run, replacing the current one if 
+     * anything in the watched directories has changed since it was made.
+     * @return The class loader.
+     */
+    synchronized ClassLoader getClassLoader() {
+        long changes = this.changeCount.get();
+        if (this.loader == null || changes != this.loadedChangeCount) {
+            if (this.loader != null) {
+                try {
+                    this.loader.close();
+                } catch (IOException ioe) {
+                    System.err.println("Unable to close class loader because " 
+                            + "of " + ioe.getClass().getName());
+                }
+            }
+            this.loader = new IsolatingClassLoader(this.classPath, 
+                    ClassLoader.getSystemClassLoader(), null);
+            this.loadedChangeCount = changes;
+        }
+        return this.loader;
+    }
+
+    /**
+     * Gets the port this daemon listens on.
+     * @return The port. For example, 7171.
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Finds the first option that names a file or directory, which the daemon 
+     * doesn't accept from clients.
+     * @param args The options from a client. For example, {"-junitxml=a.xml", 
+     * "org.example.FooTest"}.
+     * @return The first option naming a file or directory, such as 
+     * "-junitxml=a.xml" in the example. Null if there is no such option.
+     */
+    static String findPathOption(String[] args) {
+        for (String arg : args) {
+            for (String prefix : PATH_OPTION_PREFIXES) {
+                if (arg.startsWith(prefix)) {
+                    return arg;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void handle(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+        PrintStream out = new PrintStream(socket.getOutputStream(), true, 
+                StandardCharsets.UTF_8.name());
+        if (args.length == 1 && args[0].equals(STOP_REQUEST)) {
+            out.println("Test daemon stopping");
+            this.close();
+            return;
+        }
+        String pathOption = findPathOption(args);
+        if (pathOption != null) {
+            out.println("The test daemon does not accept option " + pathOption 
+                    + " since it names a file or directory");
+            return;
+        }
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        System.setOut(out);
+        System.setErr(out);
+        try {
+            RunOptions options = RunOptions.parse(args);
+            options.setClassLoader(this.getClassLoader());
+            TestRunner.run(options);
+        } catch (RuntimeException re) {
+            out.println("Unable to run tests because of " 
+                    + re.getClass().getName());
+            out.println("\"" + re.getMessage() + "\"");
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+            out.flush();
+        }
+    }
+
+    /**
+     * Serves requests until this daemon is stopped, either by a stop request 
+     * or by calling {@link #close()}. Each request is run to completion before 
+     * the next is accepted.
+     */
+    public void serve() {
+        while (!this.stopped) {
+            try (Socket socket = this.serverSocket.accept()) {
+                this.handle(socket);
+            } catch (SocketException se) {
+                if (!this.stopped) {
+                    System.err.println("Unable to serve request because of " 
+                            + se.getClass().getName());
+                }
+            } catch (IOException ioe) {
+                System.err.println("Unable to serve request because of " 
+                        + ioe.getClass().getName());
+                System.err.println("\"" + ioe.getMessage() + "\"");
+            }
+        }
+    }
+
+    /**
+     * Stops this daemon. A run in progress is allowed to finish.
+     */
+    @Override
+    public void close() {
+        this.stopped = true;
+        try {
+            this.serverSocket.close();
+            this.watchService.close();
+        } catch (IOException ioe) {
+            System.err.println("Unable to stop daemon cleanly because of " 
+                    + ioe.getClass().getName());
+        }
+    }
+
+    /**
+     * Starts a daemon on the class path of this JVM and serves requests until 
+     * it's stopped.
+     * @param args The command line arguments. Only "-port=N" is recognized, to 
+     * listen on port N rather than {@link #DEFAULT_PORT}.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("-port=")) {
+                port = Integer.parseInt(arg.substring(6));
+            } else {
+                System.err.println("Ignoring unrecognized option " + arg);
+            }
+        }
+        try (TestDaemon daemon 
+                = new TestDaemon(System.getProperty("java.class.path"), port)) {
+            System.out.println("Test daemon listening on port " 
+                    + daemon.getPort());
+            daemon.serve();
+        } catch (IOException ioe) {
+            System.err.println("Unable to start daemon because of " 
+                    + ioe.getClass().getName());
+            System.err.println("\"" + ioe.getMessage() + "\"");
+        }
+    }
+
+    /**
+     * Constructor. Starts watching the directories on the class path and 
+     * listening on the port, but requests aren't served until {@link 
+     * #serve()} is called.
+     * @param classPath The class path to load the test classes from. For 
+     * example, "build/classes:build/test-classes:lib/foo.jar". Only the 
+     * directories are watched for changes.
+     * @param port The port to listen on. For example, {@link #DEFAULT_PORT}. 
+     * Or 0 for any free port.
+     * @throws IOException If the port can't be listened on or the directories 
+     * can't be watched.
+     */
+    public TestDaemon(String classPath, int port) throws IOException {
+        this.classPath = classPath;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            Path path = Paths.get(entry.isEmpty() ? "." : entry);
+            if (Files.isDirectory(path)) {
+                this.register(path);
+            }
+        }
+        this.serverSocket = new ServerSocket(port, 50, 
+                InetAddress.getLoopbackAddress());
+        Thread watcher = new Thread(this::watch, "TestDaemon-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.testframe.engine;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asks a {@link TestDaemon} to run test classes and copies the report to 
+ * <code>System.out</code>. This class loads as little as it can, so that it 
+ * starts quickly.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestDaemonClient {
+
+    /**
+     * Sends a request to a daemon and copies the report to a stream.
+     * @param port The port the daemon listens on. For example, {@link 
+     * TestDaemon#DEFAULT_PORT}.
+     * @param args The arguments for the daemon to run the test classes with, 
+     * just as for {@link TestRunner#main}. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest" and "-sort". Or just 
+     * {@link TestDaemon#STOP_REQUEST} to stop the daemon.
+     * @param out The stream to copy the report to. For example, 
+     * <code>System.out</code>.
+     * @throws IOException If the daemon can't be reached, such as because it's 
+     * not running.
+     */
+    public static void send(int port, List<String> args, OutputStream out) 
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), 
+                port)) {
+            DataOutputStream request 
+                    = new DataOutputStream(socket.getOutputStream());
+            request.writeInt(args.size());
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+            InputStream in = socket.getInputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Sends the command line arguments to a daemon.
+     * @param args The arguments for the daemon, just as for {@link 
+     * TestRunner#main}, except for the options that name files or directories, 
+     * which the daemon turns down, and optionally "-port=N" for a daemon that 
+     * listens on port N rather than {@link TestDaemon#DEFAULT_PORT}.
+     */
+    public static void main(String[] args) {
+        int port = TestDaemon.DEFAULT_PORT;
+        List<String> forwarded = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("-port=")) {
+                port = Integer.parseInt(arg.substring(6));
+            } else {
+                forwarded.add(arg);
+            }
+        }
+        try {
+            send(port, forwarded, System.out);
+        } catch (IOException ioe) {
+            System.err.println("Unable to reach test daemon on port " + port 
+                    + " because of " + ioe.getClass().getName());
+            System.err.println("\"" + ioe.getMessage() + "\"");
+        }
+    }
+
+}
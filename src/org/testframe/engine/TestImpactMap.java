@@ -0,0 +1,268 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers which classes each test class loaded the last time it passed, and 
+ * the checksums of their class files at the time, so that a later run can 
+ * skip the test classes none of whose classes have changed since. Resources 
+ * a test class read from the class path, such as the file named by a {@link 
+ * org.testframe.api.CSVSource}, are remembered the same way, by their names 
+ * with a leading slash, so that changing such a file also makes the test 
+ * class run again. A test 
+ * class that has never run, or that had any test fail or cause an error the 
+ * last time it ran, is always run. The classes of the test runner and the 
+ * annotations in {@link org.testframe.api} aren't tracked, so a change to the 
+ * test runner itself isn't noticed. The map can be saved to a file, one line 
+ * per test class, and loaded by a later run.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestImpactMap {
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final char CHECKSUM_SEPARATOR = '=';
+
+    private static final String RESOURCE_PREFIX = "/";
+
+    private final Map<String, Map<String, String>> dependencies 
+            = new ConcurrentHashMap<>();
+
+    private final Path mapFile;
+
+    /**
+     * Computes the checksum of a class file, or of a resource.
+     * @param loader The class loader to find the class file or resource with. 
+     * For example, the system class loader.
+     * @param className The fully qualified name of the class. For example, 
+     * "org.example.demo.textops.PalindromeChecker". Or the name of the 
+     * resource with a leading slash. For example, 
+     * "/org/example/demo/textops/palindromes.csv".
+     * @return The checksum, or null if the class file or resource can't be 
+     * found or read, such as because the class was deleted.
+     */
+    static String checksum(ClassLoader loader, String className) {
+        CRC32 crc = new CRC32();
+        try {
+            if (className.startsWith(RESOURCE_PREFIX)) {
+                updateFromResource(crc, loader, className.substring(1));
+            } else {
+                TestPlanCache.update(crc, loader, className);
+            }
+        } catch (IOException ioe) {
+            return null;
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static void updateFromResource(CRC32 crc, ClassLoader loader, 
+            String resource) throws IOException {
+        try (InputStream stream = loader.getResourceAsStream(resource)) {
+            if (stream == null) {
+                String excMsg = "Unable to find resource " + resource;
+                throw new IOException(excMsg);
+            }
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Records the classes a test class loaded. This should only be called 
+     * for a test class whose tests all passed or were skipped.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param classNames The fully qualified names of the classes the test 
+     * class loaded, including the test class itself. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest" and 
+     * "org.example.demo.textops.PalindromeChecker".
+     * @param loader The class loader to find the class files with, so as to 
+     * compute their checksums.
+     */
+    public void record(String testClassName, Collection<String> classNames, 
+            ClassLoader loader) {
+        this.record(testClassName, classNames, Collections.emptySet(), 
+                loader);
+    }
+
+    /**
+     * Records the classes a test class loaded and the resources it read from 
+     * the class path. This should only be called for a test class whose 
+     * tests all passed or were skipped.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param classNames The fully qualified names of the classes the test 
+     * class loaded, including the test class itself. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest" and 
+     * "org.example.demo.textops.PalindromeChecker".
+     * @param resourceNames The names of the resources the test class read, 
+     * without a leading slash. For example, 
+     * "org/example/demo/textops/palindromes.csv".
+     * @param loader The class loader to find the class files and resources 
+     * with, so as to compute their checksums.
+     */
+    void record(String testClassName, Collection<String> classNames, 
+            Collection<String> resourceNames, ClassLoader loader) {
+        Map<String, String> checksums = new TreeMap<>();
+        for (String className : classNames) {
+            String crc = checksum(loader, className);
+            if (crc != null) {
+                checksums.put(className, crc);
+            }
+        }
+        for (String resourceName : resourceNames) {
+            String key = RESOURCE_PREFIX + resourceName;
+            String crc = checksum(loader, key);
+            if (crc != null) {
+                checksums.put(key, crc);
+            }
+        }
+        this.dependencies.put(testClassName, checksums);
+    }
+
+    /**
+     * Forgets the classes a test class loaded, so that it will run next time 
+     * regardless of changes.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     */
+    public void forget(String testClassName) {
+        this.dependencies.remove(testClassName);
+    }
+
+    /**
+     * Tells whether a test class needs to run.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param loader The class loader to find the current class files with.
+     * @return True if the test class hasn't been recorded, or if any of the 
+     * classes it loaded has changed or can no longer be found. False if none 
+     * of them have changed.
+     */
+    public boolean isAffected(String testClassName, ClassLoader loader) {
+        Map<String, String> checksums = this.dependencies.get(testClassName);
+        if (checksums == null) {
+            return true;
+        }
+        for (Map.Entry<String, String> entry : checksums.entrySet()) {
+            if (!entry.getValue().equals(checksum(loader, entry.getKey()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selects the test classes that need to run.
+     * @param testClassNames The fully qualified names of the test classes. For 
+     * example, "org.example.demo.textops.AnagramCheckerTest" and 
+     * "org.example.demo.textops.PalindromeCheckerTest".
+     * @param loader The class loader to find the current class files with.
+     * @return The names of the test classes that are affected, as explained 
+     * for {@link #isAffected(String, ClassLoader)}, in the same order as they 
+     * were listed. Possibly empty.
+     */
+    public List<String> selectAffected(List<String> testClassNames, 
+            ClassLoader loader) {
+        List<String> selected = new ArrayList<>();
+        for (String name : testClassNames) {
+            if (this.isAffected(name, loader)) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Tells how many test classes this map has recorded classes for.
+     * @return The number of test classes. For example, 12.
+     */
+    public int size() {
+        return this.dependencies.size();
+    }
+
+    /**
+     * Gets the file this map was loaded from and is saved to.
+     * @return The file, or null if this map is only kept in memory.
+     */
+    public Path getFile() {
+        return this.mapFile;
+    }
+
+    /**
+     * Saves the recorded classes and checksums to the file this map was 
+     * constructed with. Does nothing if this map is only kept in memory.
+     * @throws IOException If the file can't be written.
+     */
+    public void save() throws IOException {
+        if (this.mapFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.dependencies.size() + 1);
+        lines.add("# Test impact map, one test class per line");
+        for (String testClassName : new TreeSet<>(this.dependencies.keySet())) {
+            StringBuilder builder = new StringBuilder(testClassName);
+            for (Map.Entry<String, String> entry 
+                    : this.dependencies.get(testClassName).entrySet()) {
+                builder.append(FIELD_SEPARATOR).append(entry.getKey()) 
+                        .append(CHECKSUM_SEPARATOR).append(entry.getValue());
+            }
+            lines.add(builder.toString());
+        }
+        Files.write(this.mapFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor for a map that is only kept in memory.
+     */
+    public TestImpactMap() {
+        this.mapFile = null;
+    }
+
+    /**
+     * Constructor for a map that is saved to a file. If the file exists, the 
+     * recorded classes and checksums are loaded from it. Lines that aren't 
+     * understood are ignored.
+     * @param file The file. For example, "build/test-impact.txt".
+     * @throws IOException If the file exists but can't be read.
+     */
+    public TestImpactMap(Path file) throws IOException {
+        this.mapFile = file;
+        if (Files.exists(file)) {
+            for (String line 
+                    : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(FIELD_SEPARATOR);
+                if (line.startsWith("#") || fields[0].isEmpty()) {
+                    continue;
+                }
+                Map<String, String> checksums = new TreeMap<>();
+                for (int i = 1; i < fields.length; i++) {
+                    int index = fields[i].indexOf(CHECKSUM_SEPARATOR);
+                    if (index > 0) {
+                        checksums.put(fields[i].substring(0, index), 
+                                fields[i].substring(index + 1));
+                    }
+                }
+                this.dependencies.put(fields[0], checksums);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.testframe.engine;
+
+/**
+ * Tells which invocation of a test with parameters a test result is for, 
+ * and what arguments the test was invoked with. Only a description of the 
+ * arguments is kept, not the arguments themselves, so that the results of 
+ * millions of invocations don't hold on to millions of arguments.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestInvocation {
+
+    private final long invocationIndex;
+
+    private final String argumentsDescription;
+
+    /**
+     * Gets the number of the invocation.
+     * @return The number, counting from 1. For example, 3 for the third set 
+     * of arguments.
+     */
+    public long getIndex() {
+        return this.invocationIndex;
+    }
+
+    /**
+     * Gets the description of the arguments.
+     * @return The description. For example, "\"racecar\", true".
+     */
+    public String getArguments() {
+        return this.argumentsDescription;
+    }
+
+    /**
+     * Gives the number of the invocation and the description of the 
+     * arguments, to follow the name of the test.
+     * @return The number in square brackets followed by the description in 
+     * parentheses. For example, "[3](\"racecar\", true)".
+     */
+    @Override
+    public String toString() {
+        return "[" + this.invocationIndex + "](" + this.argumentsDescription 
+                + ")";
+    }
+
+    /**
+     * Sole constructor.
+     * @param index The number of the invocation, counting from 1. For 
+     * example, 3.
+     * @param arguments The description of the arguments. For example, 
+     * "\"racecar\", true".
+     * @throws IllegalArgumentException If <code>index</code> is less than 1.
+     */
+    public TestInvocation(long index, String arguments) {
+        if (index < 1L) {
+            String excMsg = "Invocation index " + index 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.invocationIndex = index;
+        this.argumentsDescription = arguments;
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.testframe.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the wall clock time, CPU time and heap allocation of the current 
+ * thread between a call to {@link #start()} and a call to {@link #stop()}. An 
+ * instance should only be used by one thread.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+class TestMeter {
+
+    private static final ThreadMXBean THREAD_BEAN 
+            = ManagementFactory.getThreadMXBean();
+
+    private static final boolean CPU_TIME_SUPPORTED 
+            = THREAD_BEAN.isCurrentThreadCpuTimeSupported();
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN 
+            = THREAD_BEAN instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREAD_BEAN) 
+                    .isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) THREAD_BEAN : null;
+
+    static {
+        if (CPU_TIME_SUPPORTED && !THREAD_BEAN.isThreadCpuTimeEnabled()) {
+            THREAD_BEAN.setThreadCpuTimeEnabled(true);
+        }
+        if (ALLOCATION_BEAN != null 
+                && !ALLOCATION_BEAN.isThreadAllocatedMemoryEnabled()) {
+            ALLOCATION_BEAN.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    private long startWall;
+
+    private long startCPU;
+
+    private long startAllocated;
+
+    private static long currentCPU() {
+        return CPU_TIME_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : -1L;
+    }
+
+    private static long currentAllocated() {
+        if (ALLOCATION_BEAN == null) {
+            return -1L;
+        }
+        return ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Starts measuring.
+     */
+    void start() {
+        this.startCPU = currentCPU();
+        this.startAllocated = currentAllocated();
+        this.startWall = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring.
+     * @return The measurements taken since the last call to {@link #start()}.
+     */
+    TestMetrics stop() {
+        long wall = System.nanoTime() - this.startWall;
+        long cpu = currentCPU();
+        long allocated = currentAllocated();
+        return new TestMetrics(wall, 
+                cpu < 0L || this.startCPU < 0L ? -1L : cpu - this.startCPU,
+                allocated < 0L || this.startAllocated < 0L 
+                        ? -1L : allocated - this.startAllocated);
+    }
+
+}
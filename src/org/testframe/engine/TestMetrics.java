@@ -0,0 +1,114 @@
+package org.testframe.engine;
+
+/**
+ * Holds measurements taken while a test ran, including the time spent in the 
+ * procedures annotated {@link org.testframe.api.BeforeEachTest} and {@link 
+ * org.testframe.api.AfterEachTest} for that test. A measurement that's not 
+ * available, such as CPU time on a Java Virtual Machine (JVM) that doesn't 
+ * support measuring it, or heap retained when heap growth isn't tracked, is 
+ * given as &minus;1.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestMetrics {
+
+    /**
+     * Metrics for a test that was not measured, such as a skipped test. All 
+     * measurements are &minus;1.
+     */
+    public static final TestMetrics NOT_MEASURED = new TestMetrics(-1L, -1L, 
+            -1L, -1L);
+
+    private final long wallTime;
+
+    private final long cpuTime;
+
+    private final long allocated;
+
+    private final long retained;
+
+    /**
+     * Tells whether the test was measured at all.
+     * @return True if at least the wall clock time is available, false 
+     * otherwise.
+     */
+    public boolean isMeasured() {
+        return this.wallTime >= 0L;
+    }
+
+    /**
+     * Gets how much time passed on the wall clock while the test ran.
+     * @return The time in nanoseconds. For example, 1500000 for a test that 
+     * took one and a half milliseconds. Or &minus;1 if not measured.
+     */
+    public long getWallNanoseconds() {
+        return this.wallTime;
+    }
+
+    /**
+     * Gets how much CPU time the thread running the test used.
+     * @return The time in nanoseconds. For example, 1200000 for a test that 
+     * used 1.2 milliseconds of CPU time. Or &minus;1 if not available.
+     */
+    public long getCPUNanoseconds() {
+        return this.cpuTime;
+    }
+
+    /**
+     * Gets how many bytes the thread running the test allocated on the heap.
+     * @return The number of bytes. For example, 65536. Or &minus;1 if not 
+     * available.
+     */
+    public long getAllocatedBytes() {
+        return this.allocated;
+    }
+
+    /**
+     * Gets how much more of the heap was in use after the test than before, 
+     * with a garbage collection forced each time, which suggests how much the 
+     * test left reachable once it was done, such as in a static collection.
+     * @return The number of bytes. For example, 1048576. Or 0 if the heap 
+     * didn't grow, or &minus;1 if heap growth wasn't tracked.
+     * @see RunOptions#setTrackHeap(boolean)
+     */
+    public long getRetainedBytes() {
+        return this.retained;
+    }
+
+    /**
+     * Constructor.
+     * @param wallNanoseconds The wall clock time in nanoseconds. For example, 
+     * 1500000. Or &minus;1 if not measured.
+     * @param cpuNanoseconds The CPU time in nanoseconds. For example, 1200000. 
+     * Or &minus;1 if not available.
+     * @param allocatedBytes The number of bytes allocated. For example, 65536. 
+     * Or &minus;1 if not available.
+     */
+    public TestMetrics(long wallNanoseconds, long cpuNanoseconds, 
+            long allocatedBytes) {
+        this(wallNanoseconds, cpuNanoseconds, allocatedBytes, -1L);
+    }
+
+    /**
+     * Constructor for metrics that include the heap retained by the test.
+     * @param wallNanoseconds The wall clock time in nanoseconds. For example, 
+     * 1500000. Or &minus;1 if not measured.
+     * @param cpuNanoseconds The CPU time in nanoseconds. For example, 1200000. 
+     * Or &minus;1 if not available.
+     * @param allocatedBytes The number of bytes allocated. For example, 65536. 
+     * Or &minus;1 if not available.
+     * @param retainedBytes The number of bytes retained. For example, 
+     * 1048576. Or &minus;1 if heap growth wasn't tracked. A negative number 
+     * other than &minus;1, as when the heap shrank, is taken to mean 0.
+     * @since 1.1
+     */
+    public TestMetrics(long wallNanoseconds, long cpuNanoseconds, 
+            long allocatedBytes, long retainedBytes) {
+        this.wallTime = wallNanoseconds;
+        this.cpuTime = cpuNanoseconds;
+        this.allocated = allocatedBytes;
+        this.retained = retainedBytes == -1L ? -1L 
+                : Math.max(retainedBytes, 0L);
+    }
+
+}
@@ -0,0 +1,315 @@
+package org.testframe.engine;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.testframe.api.AfterAllTests;
+import org.testframe.api.AfterEachTest;
+import org.testframe.api.BeforeAllTests;
+import org.testframe.api.BeforeEachTest;
+import org.testframe.api.Skip;
+import org.testframe.api.Test;
+
+/**
+ * Lists the procedures of a test class according to their annotations: the 
+ * class set-ups, the test set-ups, the tests to run, the tests to skip, the 
+ * test tear-downs and the class tear-downs. A test plan is not changed after 
+ * construction, so it may be shared by any number of runs, even simultaneous 
+ * ones.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestPlan {
+
+    private final Class<?> testClass;
+
+    private final List<Method> setUps;
+
+    private final List<Method> befores;
+
+    private final List<Method> tests;
+
+    private final List<Method> skips;
+
+    private final List<Method> afters;
+
+    private final List<Method> tearDowns;
+    
+    private final List<ProcedureHandle> setUpHandles;
+
+    private final List<ProcedureHandle> beforeHandles;
+
+    private final List<ProcedureHandle> testHandles;
+
+    private final List<ProcedureHandle> afterHandles;
+
+    private final List<ProcedureHandle> tearDownHandles;
+
+    private static List<Method> filter(Method[] procedures, 
+            Class<? extends Annotation> annotation) {
+        List<Method> filtered = new ArrayList<>();
+        for (Method procedure : procedures) {
+            Annotation holder = procedure.getAnnotation(annotation);
+            if (holder != null) {
+                filtered.add(procedure);
+            }
+        }
+        return Collections.unmodifiableList(filtered);
+    }
+
+    private static List<Method> filterSkips(List<Method> annotatedTests, 
+            boolean wanted) {
+        List<Method> filtered = new ArrayList<>();
+        for (Method test : annotatedTests) {
+            if ((test.getAnnotation(Skip.class) != null) == wanted) {
+                filtered.add(test);
+            }
+        }
+        return Collections.unmodifiableList(filtered);
+    }
+
+    private static List<ProcedureHandle> resolveAll(List<Method> procedures) {
+        List<ProcedureHandle> handles = new ArrayList<>(procedures.size());
+        for (Method procedure : procedures) {
+            handles.add(new ProcedureHandle(procedure));
+        }
+        return Collections.unmodifiableList(handles);
+    }
+    
+    /**
+     * Gets the test class this plan is for.
+     * @return The test class. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     */
+    public Class<?> getTestClass() {
+        return this.testClass;
+    }
+
+    /**
+     * Gets the procedures annotated {@link BeforeAllTests}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getSetUps() {
+        return this.setUps;
+    }
+
+    /**
+     * Gets the procedures annotated {@link BeforeEachTest}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getBefores() {
+        return this.befores;
+    }
+
+    /**
+     * Gets the procedures annotated {@link Test} but not {@link Skip}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getTests() {
+        return this.tests;
+    }
+
+    /**
+     * Gets the procedures annotated both {@link Test} and {@link Skip}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getSkips() {
+        return this.skips;
+    }
+
+    /**
+     * Gets the procedures annotated {@link AfterEachTest}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getAfters() {
+        return this.afters;
+    }
+
+    /**
+     * Gets the procedures annotated {@link AfterAllTests}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    public List<Method> getTearDowns() {
+        return this.tearDowns;
+    }
+
+    List<ProcedureHandle> getSetUpHandles() {
+        return this.setUpHandles;
+    }
+
+    List<ProcedureHandle> getBeforeHandles() {
+        return this.beforeHandles;
+    }
+
+    /**
+     * Gets the handles of the tests to run, in the same order as {@link 
+     * #getTests()}.
+     * @return An unmodifiable list, possibly empty.
+     */
+    List<ProcedureHandle> getTestHandles() {
+        return this.testHandles;
+    }
+
+    List<ProcedureHandle> getAfterHandles() {
+        return this.afterHandles;
+    }
+
+    List<ProcedureHandle> getTearDownHandles() {
+        return this.tearDownHandles;
+    }
+
+    /**
+     * Gets the names of the procedures in this plan, so that an equivalent 
+     * plan can be made later with {@link #fromNames(Class, List)}.
+     * @return Six lists of procedure names: the class set-ups, the test 
+     * set-ups, the tests to run, the tests to skip, the test tear-downs and 
+     * the class tear-downs. Null if any of the procedures has parameters, 
+     * since then the name alone would not be enough to find the procedure.
+     */
+    List<List<String>> getProcedureNames() {
+        List<List<String>> names = new ArrayList<>(6);
+        for (List<Method> procedures : Arrays.asList(this.setUps, 
+                this.befores, this.tests, this.skips, this.afters,
+                this.tearDowns)) {
+            List<String> list = new ArrayList<>(procedures.size());
+            for (Method procedure : procedures) {
+                if (procedure.getParameterCount() != 0) {
+                    return null;
+                }
+                list.add(procedure.getName());
+            }
+            names.add(list);
+        }
+        return names;
+    }
+
+    private static List<List<Method>> scan(Class<?> type) {
+        Method[] procedures = type.getMethods();
+        List<Method> annotatedTests = filter(procedures, Test.class);
+        return Arrays.asList(filter(procedures, BeforeAllTests.class), 
+                filter(procedures, BeforeEachTest.class),
+                filterSkips(annotatedTests, false),
+                filterSkips(annotatedTests, true),
+                filter(procedures, AfterEachTest.class),
+                filter(procedures, AfterAllTests.class));
+    }
+
+    /**
+     * Makes a test plan from procedure names previously obtained from {@link 
+     * #getProcedureNames()}, looking up each procedure by name rather than 
+     * looking at the annotations of every public procedure of the test class. 
+     * The caller is responsible for making sure that the names still match 
+     * the test class, such as by comparing class file checksums.
+     * @param type The test class to make the plan for. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @param names Six lists of procedure names, in the order given by {@link 
+     * #getProcedureNames()}.
+     * @return The test plan, or null if any of the procedures can't be found.
+     */
+    static TestPlan fromNames(Class<?> type, List<List<String>> names) {
+        List<List<Method>> categories = new ArrayList<>(names.size());
+        try {
+            for (List<String> list : names) {
+                List<Method> procedures = new ArrayList<>(list.size());
+                for (String name : list) {
+                    procedures.add(type.getMethod(name));
+                }
+                categories.add(Collections.unmodifiableList(procedures));
+            }
+        } catch (NoSuchMethodException nsme) {
+            return null;
+        }
+        return new TestPlan(type, categories);
+    }
+
+    private static List<Method> retain(List<Method> procedures, 
+            Set<String> names) {
+        List<Method> retained = new ArrayList<>();
+        for (Method procedure : procedures) {
+            if (names.contains(procedure.getName())) {
+                retained.add(procedure);
+            }
+        }
+        return Collections.unmodifiableList(retained);
+    }
+
+    /**
+     * Makes a plan like this one but with only some of the tests, such as the 
+     * tests that belong to a {@link TestShard}. The set-ups and tear-downs are 
+     * the same.
+     * @param testNames The names of the tests to keep, whether they're to be 
+     * run or skipped. For example, "testNoDivisionByZero".
+     * @return A new plan with just those tests. Possibly without any tests.
+     */
+    TestPlan retainTests(Set<String> testNames) {
+        return new TestPlan(this.testClass, Arrays.asList(this.setUps, 
+                this.befores, retain(this.tests, testNames),
+                retain(this.skips, testNames), this.afters, this.tearDowns));
+    }
+
+    /**
+     * Makes a plan like this one but with some of the tests moved ahead of the 
+     * others, such as the tests that failed in a previous run. The tests are 
+     * otherwise kept in the same order.
+     * @param testNames The names of the tests to move ahead. For example, 
+     * "testNoDivisionByZero".
+     * @return A new plan with the same tests in the new order.
+     */
+    TestPlan moveTestsFirst(Set<String> testNames) {
+        List<Method> reordered = new ArrayList<>(retain(this.tests, 
+                testNames));
+        for (Method test : this.tests) {
+            if (!testNames.contains(test.getName())) {
+                reordered.add(test);
+            }
+        }
+        return new TestPlan(this.testClass, Arrays.asList(this.setUps, 
+                this.befores, Collections.unmodifiableList(reordered),
+                this.skips, this.afters, this.tearDowns));
+    }
+
+    /**
+     * Gets all the procedures annotated {@link Test}, whether they're to be 
+     * run or skipped.
+     * @return A list with the tests to run followed by the tests to skip.
+     */
+    List<Method> getAllTests() {
+        List<Method> all = new ArrayList<>(this.tests);
+        all.addAll(this.skips);
+        return all;
+    }
+
+    private TestPlan(Class<?> type, List<List<Method>> categories) {
+        this.testClass = type;
+        this.setUps = categories.get(0);
+        this.befores = categories.get(1);
+        this.tests = categories.get(2);
+        this.skips = categories.get(3);
+        this.afters = categories.get(4);
+        this.tearDowns = categories.get(5);
+        this.setUpHandles = resolveAll(this.setUps);
+        this.beforeHandles = resolveAll(this.befores);
+        this.testHandles = resolveAll(this.tests);
+        this.afterHandles = resolveAll(this.afters);
+        this.tearDownHandles = resolveAll(this.tearDowns);
+    }
+
+    /**
+     * Primary constructor. Only public procedures are considered. Each 
+     * procedure other than the tests to skip is resolved into a {@link 
+     * ProcedureHandle} once, here, rather than each time it's invoked. To 
+     * avoid looking at the annotations again on later runs of the same test 
+     * class, get plans from a {@link TestPlanCache} instead.
+     * @param type The test class to make the plan for. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     */
+    public TestPlan(Class<?> type) {
+        this(type, scan(type));
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps test plans around so that running the same test class again doesn't 
+ * require looking at the annotations of all its public procedures again. 
+ * There are two levels to the cache. A test class that has already been 
+ * loaded gets the very same plan every time. And a test class that has been 
+ * loaded again, such as by a new class loader after a rebuild, gets its plan 
+ * from the names of its procedures, looked up by name, as long as the 
+ * checksum of its class file, and those of its superclasses and interfaces, 
+ * hasn't changed. The names and checksums can be saved to a file and loaded 
+ * by a later Java Virtual Machine (JVM).
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestPlanCache {
+
+    private static final TestPlanCache SHARED = new TestPlanCache();
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String NAME_SEPARATOR = ",";
+
+    private static final int NUMBER_OF_FIELDS = 8;
+
+    private final ClassValue<TestPlan> plans = new ClassValue<TestPlan>() {
+
+        @Override
+        protected TestPlan computeValue(Class<?> type) {
+            return resolve(type);
+        }
+
+    };
+
+    private final Map<String, String> descriptors = new ConcurrentHashMap<>();
+
+    private final Path cacheFile;
+
+    /**
+     * Updates a checksum with the contents of a class file.
+     * @param crc The checksum to update.
+     * @param loader The class loader to find the class file with.
+     * @param className The fully qualified name of the class. For example, 
+     * "org.example.demo.textops.PalindromeChecker".
+     * @throws IOException If the class file can't be found or read.
+     */
+    static void update(CRC32 crc, ClassLoader loader, String className) 
+            throws IOException {
+        String resource = className.replace('.', '/') + ".class";
+        try (InputStream stream = loader.getResourceAsStream(resource)) {
+            if (stream == null) {
+                String excMsg = "Unable to find class file " + resource;
+                throw new IOException(excMsg);
+            }
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Computes a checksum of the class file of a class, as well as the class 
+     * files of its superclasses and interfaces, since the plan also depends on 
+     * the procedures they declare. Classes loaded by the bootstrap class 
+     * loader, such as <code>java.lang.Object</code>, are left out.
+     * @param type The class. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @return The checksum, or null if any of the class files can't be read.
+     */
+    static String checksum(Class<?> type) {
+        CRC32 crc = new CRC32();
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(type);
+        try {
+            while (!pending.isEmpty()) {
+                Class<?> current = pending.removeFirst();
+                if (current.getClassLoader() == null 
+                        || !visited.add(current)) {
+                    continue;
+                }
+                update(crc, current.getClassLoader(), current.getName());
+                if (current.getSuperclass() != null) {
+                    pending.add(current.getSuperclass());
+                }
+                pending.addAll(Arrays.asList(current.getInterfaces()));
+            }
+        } catch (IOException ioe) {
+            return null;
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String describe(String className, String crc, 
+            List<List<String>> names) {
+        StringBuilder builder = new StringBuilder(className);
+        builder.append(FIELD_SEPARATOR).append(crc);
+        for (List<String> list : names) {
+            builder.append(FIELD_SEPARATOR) 
+                    .append(String.join(NAME_SEPARATOR, list));
+        }
+        return builder.toString();
+    }
+
+    private static List<List<String>> readNames(String[] fields) {
+        List<List<String>> names = new ArrayList<>(NUMBER_OF_FIELDS - 2);
+        for (int i = 2; i < NUMBER_OF_FIELDS; i++) {
+            if (fields[i].isEmpty()) {
+                names.add(Collections.emptyList());
+            } else {
+                names.add(Arrays.asList(fields[i].split(NAME_SEPARATOR)));
+            }
+        }
+        return names;
+    }
+
+    private TestPlan resolve(Class<?> type) {
+        String crc = checksum(type);
+        if (crc == null) {
+            return new TestPlan(type);
+        }
+        String descriptor = this.descriptors.get(type.getName());
+        if (descriptor != null) {
+            String[] fields = descriptor.split(FIELD_SEPARATOR, -1);
+            if (fields[1].equals(crc)) {
+                TestPlan plan = TestPlan.fromNames(type, readNames(fields));
+                if (plan != null) {
+                    return plan;
+                }
+            }
+        }
+        TestPlan plan = new TestPlan(type);
+        List<List<String>> names = plan.getProcedureNames();
+        if (names != null) {
+            this.descriptors.put(type.getName(), describe(type.getName(), 
+                    crc, names));
+        }
+        return plan;
+    }
+
+    /**
+     * Gets the test plan for a test class, making it only if it's not already 
+     * cached.
+     * @param type The test class. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @return The test plan. The same plan is returned for the same test class 
+     * every time.
+     */
+    public TestPlan getPlan(Class<?> type) {
+        return this.plans.get(type);
+    }
+
+    /**
+     * Tells how many test classes this cache has procedure names for.
+     * @return The number of test classes. For example, 12.
+     */
+    public int size() {
+        return this.descriptors.size();
+    }
+
+    /**
+     * Gets the file this cache was loaded from and is saved to.
+     * @return The file, or null if this cache is only kept in memory.
+     */
+    public Path getFile() {
+        return this.cacheFile;
+    }
+
+    /**
+     * Saves the procedure names and checksums to the file this cache was 
+     * constructed with. Does nothing if this cache is only kept in memory.
+     * @throws IOException If the file can't be written.
+     */
+    public void save() throws IOException {
+        if (this.cacheFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("# Test plan cache, one test class per line");
+        lines.addAll(new TreeMap<>(this.descriptors).values());
+        Files.write(this.cacheFile, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the cache shared by all runs that don't specify a cache of their 
+     * own. It's only kept in memory.
+     * @return The shared cache.
+     */
+    public static TestPlanCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Constructor for a cache that is only kept in memory.
+     */
+    public TestPlanCache() {
+        this.cacheFile = null;
+    }
+
+    /**
+     * Constructor for a cache that is saved to a file. If the file exists, the 
+     * procedure names and checksums are loaded from it. Lines that aren't 
+     * understood are ignored.
+     * @param file The file. For example, "build/testplans.txt".
+     * @throws IOException If the file exists but can't be read.
+     */
+    public TestPlanCache(Path file) throws IOException {
+        this.cacheFile = file;
+        if (Files.exists(file)) {
+            for (String line 
+                    : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                if (!line.startsWith("#") 
+                        && fields.length == NUMBER_OF_FIELDS) {
+                    this.descriptors.put(fields[0], line);
+                }
+            }
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package org.testframe.engine;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Holds the results of a test. Includes a <code>Throwable</code> if it was 
@@ -15,6 +18,18 @@ public class TestResult {
     private final TestResultStatus testStatus;
     
     private final Throwable testStackTraceHolder;
+
+    private final TestMetrics testMetrics;
+
+    private final List<String> testWarnings;
+
+    private final BenchmarkStatistics testBenchmark;
+
+    private final BaselineComparison testComparison;
+
+    private final RepetitionSummary testRepetitions;
+
+    private final TestInvocation testInvocation;
     
     /**
      * Gets the test procedure the result is for.
@@ -28,8 +43,8 @@ public class TestResult {
     /**
      * Gets the test result status.
      * @return The test result status, one of {@link TestResultStatus#PASSED}, 
-     * {@link TestResultStatus#FAILED}, {@link TestResultStatus#ERROR} or {@link 
-     * TestResultStatus#SKIPPED}.
+     * {@link TestResultStatus#FAILED}, {@link TestResultStatus#ERROR}, {@link 
+     * TestResultStatus#SKIPPED} or {@link TestResultStatus#NOT_RUN}.
      */
     public TestResultStatus getStatus() {
         return this.testStatus;
@@ -54,13 +69,112 @@ public class TestResult {
         return this.testStackTraceHolder;
     }
     
+    /**
+     * Gets the measurements taken while the test ran.
+     * @return The metrics, such as how long the test took. If the result was 
+     * constructed without metrics, this is {@link TestMetrics#NOT_MEASURED}.
+     * @since 1.1
+     */
+    public TestMetrics getMetrics() {
+        return this.testMetrics;
+    }
+
+    /**
+     * Gets the warnings about the test that don't affect its status, such as 
+     * that it leaked threads.
+     * @return An unmodifiable list of warnings, usually empty. For example, 
+     * "Leaked 1 thread: pool-3-thread-1".
+     * @since 1.1
+     */
+    public List<String> getWarnings() {
+        return this.testWarnings;
+    }
+
+    /**
+     * Gets the statistics of the samples taken by a benchmark.
+     * @return The statistics, such as the mean time per call. Null if the 
+     * test is not a benchmark, or if it is but failed or caused an error 
+     * before all the samples were taken.
+     * @see org.testframe.api.Benchmark
+     * @since 1.1
+     */
+    public BenchmarkStatistics getBenchmarkStatistics() {
+        return this.testBenchmark;
+    }
+
+    /**
+     * Gets how the samples taken by a benchmark compare to its baseline.
+     * @return The comparison, such as that the median time per call went up 
+     * by 24%. Null if the test is not a benchmark, if there's no baseline to 
+     * compare it to, or if it was recorded as the new baseline.
+     * @see PerformanceBaseline
+     * @since 1.1
+     */
+    public BaselineComparison getBaselineComparison() {
+        return this.testComparison;
+    }
+
+    /**
+     * Gets the summary of the repetitions of a test that was run several 
+     * times.
+     * @return The summary, such as that 97 of 100 repetitions passed. Null if 
+     * the test was run only once.
+     * @see org.testframe.api.Repeat
+     * @since 1.1
+     */
+    public RepetitionSummary getRepetitionSummary() {
+        return this.testRepetitions;
+    }
+
+    /**
+     * Gets which invocation of a test with parameters this result is for.
+     * @return The invocation, such as the third one, with the arguments 
+     * "racecar" and <code>true</code>. Null if the test has no parameters.
+     * @see org.testframe.api.MethodSource
+     * @since 1.1
+     */
+    public TestInvocation getInvocation() {
+        return this.testInvocation;
+    }
+
+    /**
+     * Gets the name to report the test by. This is the name of the test 
+     * procedure, followed by the invocation if the test has parameters, so 
+     * that each invocation can be told apart from the others.
+     * @return The name. For example, "testNoDivisionByZero" for a test 
+     * without parameters, or "testIsPalindrome[3](\"racecar\", true)" for 
+     * the third invocation of a test with parameters.
+     * @since 1.1
+     */
+    public String getTestName() {
+        String name = this.testProcedure.getName();
+        return this.testInvocation == null ? name 
+                : name + this.testInvocation;
+    }
+
+    /**
+     * Gets a copy of this result for an invocation of a test with 
+     * parameters.
+     * @param invocation Which invocation the copy is for. For example, the 
+     * third one, with the arguments "racecar" and <code>true</code>.
+     * @return A result like this one, but for the given invocation.
+     * @since 1.1
+     */
+    TestResult withInvocation(TestInvocation invocation) {
+        return new TestResult(this.testProcedure, this.testStatus, 
+                this.testStackTraceHolder, this.testMetrics, 
+                this.testWarnings, this.testBenchmark, this.testComparison, 
+                this.testRepetitions, invocation);
+    }
+
     /**
      * Constructor.
      * @param procedure The test procedure the test result is for. Such as, for 
      * example, <code>testNoDivisionByZero()</code>.
      * @param status The test result status, one of {@link 
      * TestResultStatus#PASSED}, {@link TestResultStatus#FAILED}, {@link 
-     * TestResultStatus#ERROR} or {@link TestResultStatus#SKIPPED}.
+     * TestResultStatus#ERROR}, {@link TestResultStatus#SKIPPED} or {@link 
+     * TestResultStatus#NOT_RUN}.
      * @param information An error or exception object presumably holding a 
      * stack trace pertinent to the test, or null if not applicable (such as 
      * ought to be the case for a passing or skipped test). For example, an 
@@ -69,9 +183,68 @@ public class TestResult {
      */
     public TestResult(Method procedure, TestResultStatus status, 
             Throwable information) {
+        this(procedure, status, information, TestMetrics.NOT_MEASURED);
+    }
+
+    /**
+     * Constructor with metrics.
+     * @param procedure The test procedure the test result is for. Such as, for 
+     * example, <code>testNoDivisionByZero()</code>.
+     * @param status The test result status, one of {@link 
+     * TestResultStatus#PASSED}, {@link TestResultStatus#FAILED}, {@link 
+     * TestResultStatus#ERROR}, {@link TestResultStatus#SKIPPED} or {@link 
+     * TestResultStatus#NOT_RUN}.
+     * @param information An error or exception object presumably holding a 
+     * stack trace pertinent to the test, or null if not applicable.
+     * @param metrics The measurements taken while the test ran, such as how 
+     * long it took. Should not be null; use {@link TestMetrics#NOT_MEASURED} 
+     * if nothing was measured.
+     * @since 1.1
+     */
+    public TestResult(Method procedure, TestResultStatus status, 
+            Throwable information, TestMetrics metrics) {
+        this(procedure, status, information, metrics, 
+                Collections.emptyList(), null, null, null, null);
+    }
+
+    /**
+     * Constructor with everything that may be known about a test result.
+     * @param procedure The test procedure the test result is for. Such as, for 
+     * example, <code>testIsPalindrome(String, boolean)</code>.
+     * @param status The test result status. For example, {@link 
+     * TestResultStatus#FAILED}.
+     * @param information An error or exception object presumably holding a 
+     * stack trace pertinent to the test, or null if not applicable.
+     * @param metrics The measurements taken while the test ran, such as how 
+     * long it took. Should not be null.
+     * @param warnings Warnings about the test that don't affect its status. 
+     * Should not be null, but may be empty. The list is copied.
+     * @param benchmark The statistics of the samples taken, if the test is a 
+     * benchmark. Null if the test is not a benchmark or no samples were 
+     * taken.
+     * @param comparison How the samples compare to the baseline of the 
+     * benchmark. Null if they weren't compared.
+     * @param repetitions The summary of the repetitions, if the test was run 
+     * several times. Null if the test was run only once.
+     * @param invocation Which invocation of a test with parameters the result 
+     * is for. For example, the third one, with the arguments "racecar" and 
+     * <code>true</code>. Null if the test has no parameters.
+     * @since 1.1
+     */
+    TestResult(Method procedure, TestResultStatus status, 
+            Throwable information, TestMetrics metrics, List<String> warnings,
+            BenchmarkStatistics benchmark, BaselineComparison comparison, 
+            RepetitionSummary repetitions, TestInvocation invocation) {
         this.testProcedure = procedure;
         this.testStatus = status;
         this.testStackTraceHolder = information;
+        this.testMetrics = metrics;
+        this.testWarnings = warnings.isEmpty() ? Collections.emptyList() 
+                : Collections.unmodifiableList(new ArrayList<>(warnings));
+        this.testBenchmark = benchmark;
+        this.testComparison = comparison;
+        this.testRepetitions = repetitions;
+        this.testInvocation = invocation;
     }
 
 }
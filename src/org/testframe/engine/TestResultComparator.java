@@ -25,7 +25,7 @@ public class TestResultComparator
      * <code>resultA</code>'s status is listed earlier than 
      * <code>resultB</code>'s status, or a positive integer if 
      * <code>resultA</code>'s status is listed later than <code>resultB</code>'s 
-     * status. The range of this function is currently &minus;3 to +3, but this 
+     * status. The range of this function is currently &minus;4 to +4, but this 
      * is not guaranteed to stay the same in later versions.
      */
     @Override
@@ -0,0 +1,48 @@
+package org.testframe.engine;
+
+import java.util.List;
+
+/**
+ * Gets notified of test results as soon as they're available, rather than 
+ * after all the tests have run. Listeners are added to the {@link RunOptions} 
+ * of a run. When tests run in parallel, or when several test classes run at 
+ * the same time, a listener may be notified from several threads at once, so 
+ * implementations need to be thread-safe.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public interface TestResultListener {
+
+    /**
+     * Called before any procedure of a test class runs. The default 
+     * implementation does nothing.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     */
+    default void testClassStarted(String testClassName) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Called as soon as a test has finished, or has been skipped.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param result The result of the test. For example, that 
+     * <code>testNoDivisionByZero()</code> passed.
+     */
+    void testFinished(String testClassName, TestResult result);
+
+    /**
+     * Called after all the procedures of a test class have run. The default 
+     * implementation does nothing.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param results The results of all the tests of the test class, in the 
+     * order they would be reported in.
+     */
+    default void testClassFinished(String testClassName, 
+            List<TestResult> results) {
+        // Nothing to do by default
+    }
+
+}
@@ -1,9 +1,10 @@
 package org.testframe.engine;
 
 /**
- * Enumerates the four possible outcomes of running a test: it passed, it 
- * failed, it was skipped or it caused an error. Tests are annotated with the 
- * annotation {@link org.testframe.api.Test}.
+ * Enumerates the possible outcomes of running a test: it passed, it failed, it 
+ * was skipped, it caused an error or it was not run at all because the run 
+ * was stopped early. Tests are annotated with the annotation {@link 
+ * org.testframe.api.Test}.
  * @since 1.0
  * @author Alonso del Arte
  */
@@ -37,6 +38,15 @@ public enum TestResultStatus {
      * Indicates the test failed. Generally associated with the color yellow. 
      * The developer should check that the test failed for the expected reason.
      */
-    FAILED
+    FAILED,
+
+    /**
+     * Indicates the test was not run because the run was stopped early, after 
+     * too many tests failed or caused an error. Generally associated with 
+     * gray, like skipped tests. Unlike a skipped test, a test that was not run 
+     * is not annotated any differently from the tests that did run.
+     * @since 1.1
+     */
+    NOT_RUN
     
 }
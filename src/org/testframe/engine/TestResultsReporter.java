@@ -1,6 +1,10 @@
 package org.testframe.engine;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Reports the test results. Any frills in the output, such as text in different 
@@ -14,26 +18,170 @@ import java.util.List;
  */
 public class TestResultsReporter {
     
-    private final String testClassName;
+    private final Map<String, List<TestResult>> resultsMap;
     
-    private final List<TestResult> resultsList;
+    private int suitePassCount = 0;
     
+    private int suiteFailCount = 0;
+
+    private int suiteSkipCount = 0;
+
+    private int suiteErrorCount = 0;
+
+    private int suiteNotRunCount = 0;
+
+    private int slowestCount = DEFAULT_SLOWEST_COUNT;
+
     /**
-     * Reports the test results to <code>System.out</code>. The output includes 
-     * one or more stack traces if any tests failed or caused an error.
+     * How many of the slowest tests are listed at the end of the report unless 
+     * otherwise specified with {@link #setSlowestCount(int)}.
+     * @since 1.1
      */
-    public void report() {
-        int totalCount = this.resultsList.size();
+    public static final int DEFAULT_SLOWEST_COUNT = 5;
+
+    static String formatNotRunCount(int notRunCount) {
+        if (notRunCount == 0) {
+            return "";
+        }
+        return ". Not run: " + notRunCount;
+    }
+
+    static String formatNanoseconds(long nanoseconds) {
+        return String.format("%.3f ms", nanoseconds / 1000000.0);
+    }
+
+    static String formatMetrics(TestMetrics metrics) {
+        if (!metrics.isMeasured()) {
+            return "";
+        }
+        String str = "(" + formatNanoseconds(metrics.getWallNanoseconds());
+        if (metrics.getCPUNanoseconds() >= 0L) {
+            str = str + ", CPU " + formatNanoseconds(metrics 
+                    .getCPUNanoseconds());
+        }
+        if (metrics.getAllocatedBytes() >= 0L) {
+            str = str + ", " + metrics.getAllocatedBytes() 
+                    + " bytes allocated";
+        }
+        if (metrics.getRetainedBytes() >= 0L) {
+            str = str + ", " + metrics.getRetainedBytes() + " bytes retained";
+        }
+        return str + ") ";
+    }
+
+    static String formatBenchmark(BenchmarkStatistics statistics) {
+        String str = String.format("Benchmark: %.3f ns per call", 
+                statistics.getMean());
+        if (!Double.isNaN(statistics.getErrorMargin())) {
+            str = str + String.format(" +/- %.3f (95%% confidence)", 
+                    statistics.getErrorMargin());
+        }
+        return str + String.format(", median %.3f, 90th percentile %.3f, " 
+                + "99th percentile %.3f, %d samples",
+                statistics.getPercentile(50.0), statistics.getPercentile(90.0),
+                statistics.getPercentile(99.0), statistics.getSampleCount());
+    }
+
+    static String formatRepetitions(RepetitionSummary summary) {
+        String str = "Repeated " + summary.getRepetitionCount() + " times" 
+                + (summary.getThreadCount() > 1 ? " from " 
+                        + summary.getThreadCount() + " threads" : "")
+                + ": " + summary.getPassedCount() + " passed, "
+                + summary.getFailedCount() + " failed, "
+                + summary.getErrorCount() + " caused an error";
+        if (summary.getFirstFailedRepetition() > 0) {
+            str = str + ", first at repetition " 
+                    + summary.getFirstFailedRepetition();
+        }
+        return str + formatLatencies(summary.getLatencyStatistics());
+    }
+
+    static String formatInvocations(RepetitionSummary summary) {
+        return "Passed with " + summary.getPassedCount() 
+                + " sets of arguments"
+                + formatLatencies(summary.getLatencyStatistics());
+    }
+
+    private static String formatLatencies(BenchmarkStatistics latencies) {
+        return String.format(". Latency: mean %.3f ms, median %.3f, " 
+                + "90th percentile %.3f, 99th percentile %.3f, maximum %.3f", 
+                latencies.getMean() / 1000000.0, 
+                latencies.getPercentile(50.0) / 1000000.0, 
+                latencies.getPercentile(90.0) / 1000000.0, 
+                latencies.getPercentile(99.0) / 1000000.0, 
+                latencies.getPercentile(100.0) / 1000000.0);
+    }
+
+    static String formatComparison(BaselineComparison comparison) {
+        return String.format("Baseline: median %.3f ns per call, now %.3f, " 
+                + "%+.1f%% (p = %.4f)%s", comparison.getBaselineMedian(),
+                comparison.getCurrentMedian(), 
+                100.0 * comparison.getRelativeChange(), comparison.getPValue(),
+                comparison.isRegression() ? ", regression" : "");
+    }
+
+    /**
+     * Sets how many of the slowest tests to list at the end of the report.
+     * @param count How many tests to list. For example, 10. If 0, the slowest 
+     * tests are not listed at all.
+     * @throws IllegalArgumentException If <code>count</code> is negative.
+     * @since 1.1
+     */
+    public void setSlowestCount(int count) {
+        if (count < 0) {
+            String excMsg = "Count " + count + " should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.slowestCount = count;
+    }
+
+    private void reportSlowest() {
+        List<String> names = new ArrayList<>();
+        List<TestResult> measured = new ArrayList<>();
+        for (Map.Entry<String, List<TestResult>> entry 
+                : this.resultsMap.entrySet()) {
+            for (TestResult result : entry.getValue()) {
+                if (result.getMetrics().isMeasured()) {
+                    names.add(entry.getKey() + "." + result.getTestName());
+                    measured.add(result);
+                }
+            }
+        }
+        if (this.slowestCount == 0 || measured.isEmpty()) {
+            return;
+        }
+        Integer[] indices = new Integer[measured.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> Long.compare(measured.get(b) 
+                .getMetrics().getWallNanoseconds(),
+                measured.get(a).getMetrics().getWallNanoseconds()));
+        int count = Math.min(this.slowestCount, indices.length);
+        System.out.println();
+        System.out.println("Slowest " + count + " tests");
+        for (int i = 0; i < count; i++) {
+            TestMetrics metrics = measured.get(indices[i]).getMetrics();
+            System.out.println(names.get(indices[i]) + " " 
+                    + formatNanoseconds(metrics.getWallNanoseconds()));
+        }
+    }
+
+    private void reportClass(String testClassName, 
+            List<TestResult> resultsList) {
+        int totalCount = resultsList.size();
         int passCount = 0;
         int failCount = 0;
         int skipCount = 0;
         int errorCount = 0;
+        int notRunCount = 0;
         System.out.println();
-        System.out.println("Test results for " + this.testClassName);
-        for (TestResult result : this.resultsList) {
-            System.out.print(result.getProcedure().getName() + " ");
+        System.out.println("Test results for " + testClassName);
+        for (TestResult result : resultsList) {
+            System.out.print(result.getTestName() + " ");
             TestResultStatus status = result.getStatus();
             System.out.print(status.toString() + " ");
+            System.out.print(formatMetrics(result.getMetrics()));
             switch (status) {
                 case PASSED: 
                     passCount++;
@@ -55,27 +203,103 @@ public class TestResultsReporter {
                     System.out.println(errorInfo.getMessage());
                     errorInfo.printStackTrace();
                     break;
+                case NOT_RUN:
+                    notRunCount++;
+                    System.out.println();
+                    break;
                 default:
                     throw new RuntimeException("Unknown test result status");
             }
+            if (result.getBenchmarkStatistics() != null) {
+                System.out.println(formatBenchmark(result 
+                        .getBenchmarkStatistics()));
+            }
+            if (result.getBaselineComparison() != null) {
+                System.out.println(formatComparison(result 
+                        .getBaselineComparison()));
+            }
+            if (result.getRepetitionSummary() != null) {
+                RepetitionSummary summary = result.getRepetitionSummary();
+                System.out.println(ArgumentSources.isParameterized(result 
+                        .getProcedure()) ? formatInvocations(summary)
+                        : formatRepetitions(summary));
+            }
+            for (String warning : result.getWarnings()) {
+                System.out.println("Warning: " + warning);
+            }
             System.out.println();
         }
         System.out.println("Passed: " + passCount + ". Failed: " + failCount 
                 + ". Skipped: " + skipCount + ". Caused an error: " 
-                + errorCount);
+                + errorCount + formatNotRunCount(notRunCount));
         System.out.println("Total: " + totalCount);
+        this.suiteNotRunCount += notRunCount;
+        this.suitePassCount += passCount;
+        this.suiteFailCount += failCount;
+        this.suiteSkipCount += skipCount;
+        this.suiteErrorCount += errorCount;
     }
     
     /**
-     * Sole constructor.
+     * Reports the test results to <code>System.out</code>. The output includes 
+     * one or more stack traces if any tests failed or caused an error. If there 
+     * are results for more than one test class, the results are reported class 
+     * by class and then the totals for all the test classes are reported. 
+     * Each result is reported with how long the test took, how much CPU time 
+     * it used and how many bytes it allocated and retained, if those were 
+     * measured, with the statistics of its samples if it's a benchmark, and 
+     * with any warnings about it, and the report ends with a list of the 
+     * slowest tests.
+     */
+    public void report() {
+        this.suitePassCount = 0;
+        this.suiteFailCount = 0;
+        this.suiteSkipCount = 0;
+        this.suiteErrorCount = 0;
+        this.suiteNotRunCount = 0;
+        for (Map.Entry<String, List<TestResult>> entry 
+                : this.resultsMap.entrySet()) {
+            this.reportClass(entry.getKey(), entry.getValue());
+        }
+        if (this.resultsMap.size() > 1) {
+            int totalCount = this.suitePassCount + this.suiteFailCount 
+                    + this.suiteSkipCount + this.suiteErrorCount
+                    + this.suiteNotRunCount;
+            System.out.println();
+            System.out.println("Suite results for " + this.resultsMap.size() 
+                    + " test classes");
+            System.out.println("Passed: " + this.suitePassCount + ". Failed: " 
+                    + this.suiteFailCount + ". Skipped: " + this.suiteSkipCount 
+                    + ". Caused an error: " + this.suiteErrorCount
+                    + formatNotRunCount(this.suiteNotRunCount));
+            System.out.println("Total: " + totalCount);
+        }
+        this.reportSlowest();
+    }
+
+    /**
+     * Constructor for the results of a single test class.
      * @param name The name of the test class, fully qualified. For example, 
      * <code>org.example.HelloWorldTest</code>.
      * @param results The results of the tests. Such as, for example, that one 
      * test passed and another failed.
      */
     public TestResultsReporter(String name, List<TestResult> results) {
-        this.testClassName = name;
-        this.resultsList = results;
+        this.resultsMap = new LinkedHashMap<>();
+        this.resultsMap.put(name, results);
+    }
+
+    /**
+     * Constructor for the results of a suite of test classes.
+     * @param results A map from the fully qualified names of the test classes 
+     * to the results of their tests. For example, 
+     * <code>org.example.HelloWorldTest</code> to the result that one test 
+     * passed and another failed. The test classes are reported in the map's 
+     * iteration order.
+     * @since 1.1
+     */
+    public TestResultsReporter(Map<String, List<TestResult>> results) {
+        this.resultsMap = new LinkedHashMap<>(results);
     }
 
 }
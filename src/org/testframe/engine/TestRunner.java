@@ -1,18 +1,39 @@
 package org.testframe.engine;
 
-import java.lang.annotation.Annotation;
+import java.io.Closeable;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.testframe.api.AfterAllTests;
 import org.testframe.api.AfterEachTest;
 import org.testframe.api.BeforeAllTests;
 import org.testframe.api.BeforeEachTest;
-import org.testframe.api.Skip;
-import org.testframe.api.Test;
+import org.testframe.api.Benchmark;
+import org.testframe.api.Repeat;
+import org.testframe.api.Timeout;
 
 /**
  * Runs the tests in a test class. You can use the -enableassertions switch on 
@@ -22,127 +43,750 @@ import org.testframe.api.Test;
  * @author Alonso del Arte
  */
 public class TestRunner {
-    
-    private static List<Method> setUps = new ArrayList<Method>();
 
-    private static List<Method> befores = new ArrayList<Method>();
+    private static final int MAXIMUM_INVOCATIONS_IN_FLIGHT = 256;
 
-    private static List<Method> tests = new ArrayList<Method>();
+    private static final long CANCELLED_TESTS_WAIT_MILLIS = 10000L;
 
-    private static List<Method> skips = new ArrayList<Method>();
+    /**
+     * Thrown when a procedure annotated {@link BeforeEachTest} or {@link 
+     * AfterEachTest} fails, which stops the run of the whole test class 
+     * rather than only of the test.
+     */
+    private static class FixtureException extends RuntimeException {
 
-    private static List<Method> afters = new ArrayList<Method>();
-    
-    private static List<Method> tearDowns = new ArrayList<Method>();
-    
-    private static List<TestResult> results = new ArrayList<TestResult>();
+        private static final long serialVersionUID = 4553891040722346240L;
 
-    private static List<Method> filter(Method[] procedures, 
-            Class<? extends Annotation> annotation) {
-        List<Method> tests = new ArrayList<>();
-        for (Method procedure : procedures) {
-            Annotation holder = procedure.getAnnotation(annotation);
-            if (holder != null) {
-                tests.add(procedure);
-            }
+        FixtureException(String message, Throwable cause) {
+            super(message, cause);
         }
-        return tests;
-    }
-    
-    private static void filterOutSkips() {
-        for (Method test : tests) {
-            if (test.getAnnotation(Skip.class) != null) {
-                skips.add(test);
-            }
-        }
-        tests.removeAll(skips);
+
     }
 
-    private static TestResult run(Method test, Object instance) {
+    /**
+     * What came of running a test together with its fixtures.
+     */
+    private static class Outcome {
+
         TestResultStatus status = TestResultStatus.PASSED;
+
         Throwable info = null;
+
+        BenchmarkStatistics statistics = null;
+
+        RepetitionSummary summary = null;
+
+        TestMetrics metrics = TestMetrics.NOT_MEASURED;
+
+    }
+
+    private static long timeoutFor(TestPlan plan, ProcedureHandle test, 
+            RunOptions options) {
+        Timeout timeout = test.getProcedure().getAnnotation(Timeout.class);
+        if (timeout == null) {
+            timeout = plan.getTestClass().getAnnotation(Timeout.class);
+        }
+        return timeout == null ? options.getTimeout().toMillis() 
+                : timeout.value();
+    }
+
+    /**
+     * A call of a test, together with its fixtures, that gives back whatever 
+     * sums up the call, such as benchmark statistics.
+     * @param <T> The type of the summary.
+     */
+    private interface TestCall<T> {
+
+        T call() throws Throwable;
+
+    }
+
+    /**
+     * Makes a call, on a thread of its own if there's a timeout.
+     * @param test The test the call is for, to name the thread after.
+     * @param call The call.
+     * @param timeoutMillis The timeout in milliseconds, or 0 for none.
+     * @param abandoned Set to true if the call runs out of time, before the 
+     * thread it runs on is interrupted, so that the call can tell it was 
+     * given up on.
+     * @return Whatever the call gives back.
+     * @throws TimeoutException If the call runs out of time.
+     * @throws Throwable Whatever the call throws.
+     */
+    private static <T> T invoke(ProcedureHandle test, TestCall<T> call, 
+            long timeoutMillis, AtomicBoolean abandoned) throws Throwable {
+        if (timeoutMillis <= 0L) {
+            return call.call();
+        }
+        FutureTask<T> task = new FutureTask<>(() -> {
+            try {
+                return call.call();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        });
+        String name = test.getProcedure().getName();
+        Thread thread = new Thread(task, "Timed test " + name);
+        thread.setDaemon(true);
+        thread.start();
         try {
+            return task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ee) {
+            throw ee.getCause();
+        } catch (TimeoutException te) {
+            StackTraceElement[] stuckAt = thread.getStackTrace();
+            abandoned.set(true);
+            task.cancel(true);
+            TimeoutException timedOut = new TimeoutException("Test " + name 
+                    + " timed out after " + timeoutMillis + " milliseconds");
+            timedOut.setStackTrace(stuckAt);
+            throw timedOut;
+        } catch (InterruptedException ie) {
+            abandoned.set(true);
+            task.cancel(true);
+            throw ie;
+        }
+    }
+
+    /**
+     * A call of a test with parameters, with one set of arguments.
+     */
+    private interface InvocationCall {
+
+        void call(Object[] arguments, TestInvocation invocation);
+
+    }
+
+    private static TestResult run(TestPlan plan, ProcedureHandle test, 
+            Object instance, RunOptions options) {
+        return run(plan, test, instance, options, null, null);
+    }
+
+    private static void runBody(ProcedureHandle test, Object instance, 
+            RunOptions options, Object[] arguments, Outcome outcome)
+            throws Throwable {
+        Benchmark benchmark = test.getProcedure() 
+                .getAnnotation(Benchmark.class);
+        Repeat repeat = test.getProcedure().getAnnotation(Repeat.class);
+        if (arguments != null) {
+            test.invoke(instance, ArgumentSources.convert(arguments, 
+                    test.getProcedure().getParameterTypes()));
+        } else if (benchmark != null) {
+            outcome.statistics = BenchmarkExecutor.run(test, instance, 
+                    benchmark);
+        } else if (repeat != null || options.getRepeat() > 1) {
+            int repetitions = repeat == null ? options.getRepeat() 
+                    : repeat.value();
+            int threads = repeat == null ? 1 : repeat.threads();
+            outcome.summary = RepetitionExecutor.run(test, instance, 
+                    repetitions, threads);
+            outcome.status = outcome.summary.getStatus();
+            outcome.info = outcome.summary.getFirstFailure();
+        } else {
             test.invoke(instance);
-        } catch (InvocationTargetException ite) {
-            Throwable cause = ite.getCause();
-            info = cause;
-            if (cause instanceof AssertionError) {
-                status = TestResultStatus.FAILED;
-            } else {
-                status = TestResultStatus.ERROR;
+        }
+    }
+
+    /**
+     * Runs a test bracketed by the procedures annotated {@link 
+     * BeforeEachTest} and {@link AfterEachTest}. All of these run on the same 
+     * thread, which is also the thread the CPU time and the allocations are 
+     * measured on, and, if the test has a timeout, they all count towards it. 
+     * If the test runs out of time, the procedures annotated {@link 
+     * AfterEachTest} are not run, since the test may still be running on the 
+     * instance.
+     */
+    private static TestResult run(TestPlan plan, ProcedureHandle test, 
+            Object instance, RunOptions options, Object[] arguments, 
+            TestInvocation invocation) {
+        boolean detectLeaks = options.isDetectLeaks() 
+                && options.isOneTestAtATime();
+        boolean trackHeap = options.isTrackHeap() 
+                && options.isOneTestAtATime();
+        ResourceSnapshot snapshot = detectLeaks ? ResourceSnapshot.take() 
+                : null;
+        long heapBefore = trackHeap 
+                ? HeapGrowthMonitor.usedHeapAfterCollection() : 0L;
+        AtomicBoolean abandoned = new AtomicBoolean(false);
+        TestCall<Outcome> call = () -> {
+            Outcome outcome = new Outcome();
+            TestMeter meter = new TestMeter();
+            meter.start();
+            runBefores(plan, instance);
+            try {
+                runBody(test, instance, options, arguments, outcome);
+            } catch (AssertionError ae) {
+                outcome.info = ae;
+                outcome.status = TestResultStatus.FAILED;
+            } catch (Throwable t) {
+                outcome.info = t;
+                outcome.status = TestResultStatus.ERROR;
             }
-        } catch (IllegalAccessException iae) {
-            String excMsg = "Unable to run test " + test.getName() 
-                    + " due to illegal access";
-            throw new RuntimeException(excMsg, iae);
+            if (!abandoned.get()) {
+                runAfters(plan, instance);
+            }
+            outcome.metrics = meter.stop();
+            return outcome;
+        };
+        Outcome outcome;
+        try {
+            outcome = invoke(test, call, timeoutFor(plan, test, options), 
+                    abandoned);
+        } catch (FixtureException fe) {
+            throw fe;
+        } catch (Throwable t) {
+            outcome = new Outcome();
+            outcome.info = t;
+            outcome.status = TestResultStatus.ERROR;
         }
-        return new TestResult(test, status, info);
+        TestResultStatus status = outcome.status;
+        Throwable info = outcome.info;
+        BenchmarkStatistics statistics = outcome.statistics;
+        RepetitionSummary summary = outcome.summary;
+        TestMetrics metrics = outcome.metrics;
+        List<String> warnings = detectLeaks ? snapshot.describeLeaks() 
+                : Collections.emptyList();
+        if (trackHeap) {
+            long retained = HeapGrowthMonitor.usedHeapAfterCollection() 
+                    - heapBefore;
+            metrics = new TestMetrics(metrics.getWallNanoseconds(), 
+                    metrics.getCPUNanoseconds(), metrics.getAllocatedBytes(),
+                    retained);
+        }
+        return new TestResult(test.getProcedure(), status, info, metrics, 
+                warnings, statistics, null, summary, invocation);
     }
     
-    private static List<TestResult> skip() {
+    private static List<TestResult> skip(TestPlan plan) {
         List<TestResult> results = new ArrayList<>();
-        for (Method skip : skips) {
+        for (Method skip : plan.getSkips()) {
             results.add(new TestResult(skip, TestResultStatus.SKIPPED, null));
         }
         return results;
     }
     
-    private static void runSetUps(Object instance) {
+    private static void runSetUps(TestPlan plan, Object instance) {
         try {
-            for (Method setUp : setUps) {
+            for (ProcedureHandle setUp : plan.getSetUpHandles()) {
                 setUp.invoke(instance);
             }
-        } catch (Exception e) {
+        } catch (Throwable t) {
             String msg = "Unable to run @BeforeAllTests because of " 
-                    + e.getClass().getName();
-            throw new RuntimeException(msg, e);
+                    + t.getClass().getName();
+            throw new RuntimeException(msg, t);
         }
     }
     
-    private static void runBefores(Object instance) {
+    private static void runBefores(TestPlan plan, Object instance) {
         try {
-            for (Method before : befores) {
+            for (ProcedureHandle before : plan.getBeforeHandles()) {
                 before.invoke(instance);
             }
-        } catch (Exception e) {
+        } catch (Throwable t) {
             String excMsg = "Unable to run @BeforeEach due to " 
-                    + e.getClass().getName();
-            throw new RuntimeException(excMsg, e);
+                    + t.getClass().getName();
+            throw new FixtureException(excMsg, t);
         }
     }
     
-    private static void runAfters(Object instance) {
+    private static void runAfters(TestPlan plan, Object instance) {
         try {
-            for (Method after : afters) {
+            for (ProcedureHandle after : plan.getAfterHandles()) {
                 after.invoke(instance);
             }
-        } catch (Exception e) {
+        } catch (Throwable t) {
             String excMsg = "Unable to run @AfterEach due to " 
-                    + e.getClass().getName();
-            throw new RuntimeException(excMsg, e);
+                    + t.getClass().getName();
+            throw new FixtureException(excMsg, t);
         }
     }
     
-    private static void run(Object instance) {
-        for (Method test : tests) {
-            runBefores(instance);
-            results.add(run(test, instance));
-            runAfters(instance);
+    private static TestResult notRun(ProcedureHandle test) {
+        return notRun(test, null);
+    }
+
+    private static TestResult notRun(ProcedureHandle test, 
+            TestInvocation invocation) {
+        return new TestResult(test.getProcedure(), TestResultStatus.NOT_RUN, 
+                null).withInvocation(invocation);
+    }
+
+    private static TestResult notInstantiated(ProcedureHandle test, 
+            ReflectiveOperationException roe) {
+        Throwable cause = roe instanceof InvocationTargetException 
+                ? roe.getCause() : roe;
+        return new TestResult(test.getProcedure(), TestResultStatus.ERROR, 
+                cause);
+    }
+
+    /**
+     * Opens the argument source of a test with parameters and makes a call 
+     * for each set of arguments, one at a time, until the arguments run out 
+     * or the maximum number of failures is reached. The stream of arguments 
+     * is closed afterwards.
+     * @param context The execution context.
+     * @param test The test with parameters.
+     * @param instance The instance to get the arguments from if they come 
+     * from a procedure that's not static.
+     * @param call The call to make for each set of arguments.
+     * @param report Where to put the result if the arguments can't be had, 
+     * such as because the argument source doesn't exist.
+     */
+    private static void invokeWithArguments(ExecutionContext context, 
+            ProcedureHandle test, Object instance, InvocationCall call, 
+            Consumer<TestResult> report) {
+        Method procedure = test.getProcedure();
+        Stream<Object[]> stream;
+        try {
+            stream = ArgumentSources.open(procedure, instance);
+        } catch (Throwable t) {
+            report.accept(new TestResult(procedure, TestResultStatus.ERROR, 
+                    t));
+            return;
+        }
+        long index = 0L;
+        try (Stream<Object[]> source = stream) {
+            Iterator<Object[]> iterator = source.iterator();
+            while (!context.getOptions().isFailureLimitReached()) {
+                Object[] arguments;
+                try {
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    arguments = iterator.next();
+                } catch (RuntimeException | Error e) {
+                    report.accept(new TestResult(procedure, 
+                            TestResultStatus.ERROR, e));
+                    return;
+                }
+                index++;
+                call.call(arguments, new TestInvocation(index, 
+                        ArgumentSources.describe(arguments)));
+            }
+        }
+        if (index == 0L) {
+            if (context.getOptions().isFailureLimitReached()) {
+                report.accept(notRun(test));
+            } else {
+                String excMsg = "Argument source of test " 
+                        + procedure.getName() + " gave no arguments";
+                report.accept(new TestResult(procedure, 
+                        TestResultStatus.ERROR, 
+                        new IllegalArgumentException(excMsg)));
+            }
         }
     }
 
-    private static void runTearDowns(Object instance) {
+    private static void run(ExecutionContext context, Object instance) {
+        TestPlan plan = context.getPlan();
+        RunOptions options = context.getOptions();
+        for (ProcedureHandle test : plan.getTestHandles()) {
+            if (options.isFailureLimitReached()) {
+                context.record(notRun(test));
+            } else if (ArgumentSources.isParameterized(test.getProcedure())) {
+                InvocationResults invoked 
+                        = new InvocationResults(test.getProcedure(), 1);
+                Consumer<TestResult> report = result -> {
+                    context.notifyFinished(result);
+                    invoked.add(result);
+                };
+                invokeWithArguments(context, test, instance, 
+                        (arguments, invocation) -> report.accept(run(plan, 
+                                test, instance, options, arguments, 
+                                invocation)), report);
+                context.recordNotified(invoked.getResults());
+            } else {
+                context.record(context.compareToBaseline(run(plan, test, 
+                        instance, options)));
+            }
+        }
+    }
+
+    private static TestResult runOnFreshInstance(ExecutionContext context, 
+            ProcedureHandle test) {
+        return runOnFreshInstance(context, test, null, null);
+    }
+
+    private static TestResult runOnFreshInstance(ExecutionContext context, 
+            ProcedureHandle test, Object[] arguments, 
+            TestInvocation invocation) {
+        if (context.getOptions().isFailureLimitReached()) {
+            return notRun(test, invocation);
+        }
+        TestPlan plan = context.getPlan();
+        try {
+            Object instance = plan.getTestClass().getDeclaredConstructor() 
+                    .newInstance();
+            return context.compareToBaseline(run(plan, test, instance, 
+                    context.getOptions(), arguments, invocation));
+        } catch (ReflectiveOperationException roe) {
+            return notInstantiated(test, roe).withInvocation(invocation);
+        }
+    }
+
+    /**
+     * Finds how long to wait for the tests of a test plan that are still 
+     * running after they've been cancelled, so that their outcomes can be 
+     * reported, but without waiting forever on a test that hangs.
+     * @param plan The test plan.
+     * @param options The options, for the default timeout.
+     * @return The longest timeout of the tests in milliseconds, or 10 
+     * seconds if any test has no timeout. For example, 5000.
+     */
+    private static long cancelWait(TestPlan plan, RunOptions options) {
+        long longest = 0L;
+        for (ProcedureHandle test : plan.getTestHandles()) {
+            long timeout = timeoutFor(plan, test, options);
+            if (timeout <= 0L) {
+                return CANCELLED_TESTS_WAIT_MILLIS;
+            }
+            longest = Math.max(longest, timeout);
+        }
+        return longest;
+    }
+
+    private static Integer[] scheduleOrder(TestPlan plan, 
+            RunOptions options) {
+        DurationHistory history = options.getDurationHistory();
+        FailureHistory failures = options.getFailureHistory();
+        List<ProcedureHandle> tests = plan.getTestHandles();
+        long[] estimates = new long[tests.size()];
+        boolean[] failed = new boolean[tests.size()];
+        String testClassName = plan.getTestClass().getName();
+        for (int i = 0; i < estimates.length; i++) {
+            String testName = tests.get(i).getProcedure().getName();
+            estimates[i] = history == null ? 0L 
+                    : history.getTestEstimate(testClassName, testName);
+            failed[i] = failures != null 
+                    && failures.hasFailed(testClassName, testName);
+        }
+        return FailureHistory.failedFirst(DurationHistory 
+                .longestFirst(estimates), failed);
+    }
+
+    /**
+     * Narrows down a test plan to the tests that should run with the given 
+     * options, in the order they should run in.
+     * @param plan The plan for all the tests of a test class.
+     * @param options The options for the run. Only the tests in the shard, 
+     * if the options split test classes test by test, are kept, and the tests 
+     * that failed before, if there's a failure history, either go first or 
+     * are the only ones kept.
+     * @return The narrowed down plan. For example, a plan with only 
+     * <code>testThatShouldFailB()</code>.
+     */
+    static TestPlan select(TestPlan plan, RunOptions options) {
+        String testClassName = plan.getTestClass().getName();
+        TestShard shard = options.getShard();
+        if (shard != null && options.isShardByTests()) {
+            plan = plan.retainTests(shard.selectTests(testClassName, 
+                    plan.getAllTests(), options.getDurationHistory()));
+        }
+        FailureHistory failures = options.getFailureHistory();
+        if (failures != null) {
+            List<String> testNames = new ArrayList<>();
+            for (Method test : plan.getAllTests()) {
+                testNames.add(test.getName());
+            }
+            failures.retainTests(testClassName, testNames);
+            Set<String> failed = failures.getFailedTests(testClassName);
+            plan = options.isRerunFailed() ? plan.retainTests(failed) 
+                    : plan.moveTestsFirst(failed);
+        }
+        return plan;
+    }
+
+    private static void claim(ExecutionContext context, 
+            AtomicReferenceArray<TestResult> slots, int index,
+            TestResult result) {
+        if (slots.compareAndSet(index, null, result)) {
+            context.notifyFinished(result);
+        }
+    }
+    
+    /**
+     * Feeds the invocations of a test with parameters to the pool of a 
+     * parallel run, pulling only as many sets of arguments from the argument 
+     * source as can be in flight at once.
+     * @param context The execution context.
+     * @param test The test with parameters.
+     * @param pool The pool to run the invocations on.
+     * @param permits The permits shared by all the tests of the run, one of 
+     * which each invocation holds while it runs.
+     * @param window The permits for the invocations in flight, one of which 
+     * is taken before pulling each set of arguments.
+     * @param results Where to gather the results of the invocations.
+     * @param problem Where to put the first exception that aborts an 
+     * invocation, such as one thrown by a procedure annotated {@link 
+     * BeforeEachTest}.
+     */
+    private static void feedInvocations(ExecutionContext context, 
+            ProcedureHandle test, ExecutorService pool, Semaphore permits, 
+            Semaphore window, InvocationResults results, 
+            AtomicReference<RuntimeException> problem) {
+        Consumer<TestResult> report = result -> {
+            if (results.add(result)) {
+                context.notifyFinished(result);
+            }
+        };
+        Object instance;
         try {
-            for (Method tearDown : tearDowns) {
+            instance = context.getPlan().getTestClass() 
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException roe) {
+            report.accept(notInstantiated(test, roe));
+            return;
+        }
+        InvocationCall submit = (arguments, invocation) -> {
+            try {
+                window.acquire();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                String excMsg = "Interrupted while running test " 
+                        + test.getProcedure().getName();
+                throw new RuntimeException(excMsg, ie);
+            }
+            pool.execute(() -> {
+                try {
+                    permits.acquire();
+                    try {
+                        report.accept(runOnFreshInstance(context, test, 
+                                arguments, invocation));
+                    } finally {
+                        permits.release();
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException re) {
+                    problem.compareAndSet(null, re);
+                } finally {
+                    window.release();
+                }
+            });
+        };
+        invokeWithArguments(context, test, instance, submit, report);
+    }
+
+    private static void runInParallel(ExecutionContext context) {
+        TestPlan plan = context.getPlan();
+        RunOptions options = context.getOptions();
+        List<ProcedureHandle> tests = plan.getTestHandles();
+        int count = tests.size();
+        AtomicReferenceArray<TestResult> slots 
+                = new AtomicReferenceArray<>(count);
+        List<InvocationResults> invocationResults = new ArrayList<>(count);
+        boolean parameterized = false;
+        for (ProcedureHandle test : tests) {
+            if (ArgumentSources.isParameterized(test.getProcedure())) {
+                invocationResults.add(new InvocationResults(test 
+                        .getProcedure(), context.getParallelism()));
+                parameterized = true;
+            } else {
+                invocationResults.add(null);
+            }
+        }
+        int parallelism = context.getParallelism();
+        ExecutorService pool;
+        if (options.isVirtualThreads()) {
+            pool = Executors.newVirtualThreadPerTaskExecutor();
+        } else {
+            pool = new ForkJoinPool(parameterized ? parallelism 
+                    : Math.min(parallelism, Math.max(count, 1)));
+        }
+        Semaphore permits = new Semaphore(parallelism, true);
+        int windowSize = Math.min(parallelism, MAXIMUM_INVOCATIONS_IN_FLIGHT);
+        Semaphore window = new Semaphore(windowSize, true);
+        AtomicReference<RuntimeException> problem = new AtomicReference<>();
+        CompletionService<Void> service = new ExecutorCompletionService<>(pool);
+        int submitted = 0;
+        Integer[] order = scheduleOrder(plan, options);
+        for (int index : order) {
+            ProcedureHandle test = tests.get(index);
+            if (invocationResults.get(index) != null) {
+                continue;
+            }
+            submitted++;
+            service.submit(() -> {
+                permits.acquire();
+                try {
+                    claim(context, slots, index, 
+                            runOnFreshInstance(context, test));
+                } finally {
+                    permits.release();
+                }
+                return null;
+            });
+        }
+        List<TestResult> parallelResults = new ArrayList<>(count);
+        try {
+            for (int index : order) {
+                if (invocationResults.get(index) != null) {
+                    feedInvocations(context, tests.get(index), pool, permits, 
+                            window, invocationResults.get(index), problem);
+                }
+            }
+            for (int i = 0; i < submitted 
+                    && !options.isFailureLimitReached(); i++) {
+                service.take().get();
+            }
+            if (options.isFailureLimitReached()) {
+                pool.shutdown();
+                pool.awaitTermination(cancelWait(plan, options), 
+                        TimeUnit.MILLISECONDS);
+            } else {
+                window.acquire(windowSize);
+            }
+            if (problem.get() != null) {
+                throw problem.get();
+            }
+            for (int i = 0; i < count; i++) {
+                InvocationResults invoked = invocationResults.get(i);
+                if (invoked == null) {
+                    claim(context, slots, i, notRun(tests.get(i)));
+                    parallelResults.add(slots.get(i));
+                    continue;
+                }
+                List<TestResult> gathered = invoked.close();
+                if (gathered.isEmpty()) {
+                    TestResult result = notRun(tests.get(i));
+                    context.notifyFinished(result);
+                    parallelResults.add(result);
+                } else {
+                    parallelResults.addAll(gathered);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            String excMsg = "Interrupted while running tests of " 
+                    + plan.getTestClass().getName();
+            throw new RuntimeException(excMsg, ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(cancelWait(plan, options), 
+                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        context.recordNotified(parallelResults);
+    }
+
+    private static void runTearDowns(TestPlan plan, Object instance) {
+        try {
+            for (ProcedureHandle tearDown : plan.getTearDownHandles()) {
                 tearDown.invoke(instance);
             }
-        } catch (Exception e) {
+        } catch (Throwable t) {
             String msg = "Unable to run @AfterAllTests because of " 
-                    + e.getClass().getName();
-            throw new RuntimeException(msg, e);
+                    + t.getClass().getName();
+            throw new RuntimeException(msg, t);
         }
     }
     
+    /**
+     * Runs the tests of a test class that has already been loaded. Each call 
+     * gets its own execution context, so this may be called from several 
+     * threads at the same time, even for the same test class.
+     * @param type The test class. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @param parallelism How many tests may run at the same time. For example, 
+     * 8. If 1, the tests run one after the other on the same instance of the 
+     * test class. Otherwise each test runs on a fresh instance of the test 
+     * class, as explained for {@link #run(String, int)}.
+     * @return The execution context of the run, holding the test results and 
+     * how long the run took. If the test class couldn't be instantiated, the 
+     * context will have no results.
+     * @throws IllegalArgumentException If <code>parallelism</code> is 0 or 
+     * negative.
+     */
+    public static ExecutionContext execute(Class<?> type, int parallelism) {
+        RunOptions options = new RunOptions();
+        options.setParallelism(parallelism);
+        return execute(type, options);
+    }
+
+    /**
+     * Runs the tests of a test class that has already been loaded, with the 
+     * specified options. Each call gets its own execution context, so this may 
+     * be called from several threads at the same time, even for the same test 
+     * class.
+     * @param type The test class. For example, 
+     * <code>org.example.demo.textops.PalindromeCheckerTest</code>.
+     * @param options The options for the run. The listeners in the options are 
+     * notified of each result as soon as it's available. If the maximum 
+     * number of failures in the options has already been reached, the test 
+     * class is not even instantiated, and its tests are reported as {@link 
+     * TestResultStatus#NOT_RUN}. If the options have a {@link 
+     * FailureHistory}, the tests that failed before run first, or are the 
+     * only ones to run if so specified. A test with a timeout, whether from 
+     * a {@link Timeout} annotation or from the options, runs on a thread of 
+     * its own, which is abandoned if the test runs out of time, so that a 
+     * test that hangs doesn't hold up the rest of the run. If a procedure 
+     * annotated {@link BeforeAllTests} fails, none of the tests run, and they 
+     * are all reported as {@link TestResultStatus#ERROR}, holding what went 
+     * wrong.
+     * @return The execution context of the run, holding the test results and 
+     * how long the run took. If the test class couldn't be instantiated, the 
+     * context will have no results.
+     * @since 1.1
+     */
+    public static ExecutionContext execute(Class<?> type, RunOptions options) {
+        TestPlan plan = select(options.getPlanCache().getPlan(type), options);
+        ExecutionContext context = new ExecutionContext(plan, options);
+        context.markStarted();
+        context.notifyStarted();
+        try {
+            if (options.isFailureLimitReached()) {
+                for (ProcedureHandle test : plan.getTestHandles()) {
+                    context.record(notRun(test));
+                }
+                for (TestResult result : skip(plan)) {
+                    context.record(result);
+                }
+                return context;
+            }
+            Object testClassInstance = type.newInstance();
+            try {
+                runSetUps(plan, testClassInstance);
+            } catch (RuntimeException re) {
+                for (ProcedureHandle test : plan.getTestHandles()) {
+                    context.record(new TestResult(test.getProcedure(), 
+                            TestResultStatus.ERROR, re));
+                }
+                for (TestResult result : skip(plan)) {
+                    context.record(result);
+                }
+                return context;
+            }
+            if (context.getParallelism() == 1 
+                    && !options.isVirtualThreads()) {
+                run(context, testClassInstance);
+            } else {
+                runInParallel(context);
+            }
+            runTearDowns(plan, testClassInstance);
+            for (TestResult result : skip(plan)) {
+                context.record(result);
+            }
+        } catch (IllegalAccessException | InstantiationException ie) {
+            System.err.println("No tests ran because of " 
+                    + ie.getClass().getName());
+        } finally {
+            context.markFinished();
+            context.notifyClassFinished();
+        }
+        return context;
+    }
+    
     /**
      * Runs the tests of a test class and reports the results.
      * @param testClassName The name of the test class. It needs to be fully 
@@ -152,55 +796,232 @@ public class TestRunner {
      * annotated public test procedure.
      */
     public static List<TestResult> run(String testClassName) {
-        ClassLoader loader = ClassLoader.getSystemClassLoader();
-        loader.setDefaultAssertionStatus(true);    
+        return run(testClassName, 1);
+    }
+    
+    /**
+     * Runs the tests of a test class concurrently and reports the results. Each 
+     * test procedure runs on a fresh instance of the test class, bracketed by 
+     * the procedures annotated {@link BeforeEachTest} and {@link 
+     * AfterEachTest} on that same instance. The procedures annotated {@link 
+     * BeforeAllTests} and {@link AfterAllTests} still run only once, on an 
+     * instance of their own, so they should not set up instance fields for the 
+     * tests to use.
+     * @param testClassName The name of the test class. It needs to be fully 
+     * qualified with all relevant package names. For example, 
+     * <code>"org.example.demo.textops.PalindromeCheckerTest"</code>.
+     * @param parallelism How many tests may run at the same time. For example, 
+     * 8. If 1, this is the same as {@link #run(String)}.
+     * @return A list of <code>TestResult</code> objects, one for each properly 
+     * annotated public test procedure. The results are listed in the same order 
+     * as they would have been by {@link #run(String)}, regardless of the order 
+     * in which the tests actually finished.
+     * @throws IllegalArgumentException If <code>parallelism</code> is 0 or 
+     * negative.
+     */
+    public static List<TestResult> run(String testClassName, int parallelism) {
+        RunOptions options = new RunOptions();
+        options.setParallelism(parallelism);
+        return run(testClassName, options);
+    }
+
+    /**
+     * Runs the tests of a test class with the specified options and reports the 
+     * results.
+     * @param testClassName The name of the test class. It needs to be fully 
+     * qualified with all relevant package names. For example, 
+     * <code>"org.example.demo.textops.PalindromeCheckerTest"</code>.
+     * @param options The options for the run, such as the parallelism and the 
+     * listeners to notify of each result as soon as it's available.
+     * @return A list of <code>TestResult</code> objects, one for each properly 
+     * annotated public test procedure, in the same order regardless of the 
+     * parallelism.
+     * @since 1.1
+     */
+    public static List<TestResult> run(String testClassName, 
+            RunOptions options) {
+        ClassLoader loader = options.getClassLoader();
+        loader.setDefaultAssertionStatus(true);
         try {
             Class<?> type = loader.loadClass(testClassName);
-            Object testClassInstance = type.newInstance();
-            Method[] procedures = type.getMethods();
-            setUps = filter(procedures, BeforeAllTests.class);
-            befores = filter(procedures, BeforeEachTest.class);
-            tests = filter(procedures, Test.class);
-            filterOutSkips();
-            afters = filter(procedures, AfterEachTest.class);
-            tearDowns = filter(procedures, AfterAllTests.class);
-            runSetUps(testClassInstance);
-            run(testClassInstance);
-            runTearDowns(testClassInstance);
-            results.addAll(skip());
+            return execute(type, options).getResults();
         } catch (ClassNotFoundException cnfe) {
             System.err.println("No tests ran");
             System.err.println("Unable to find class " + testClassName);
             System.err.println("\"" + cnfe.getMessage() + "\"");
-        } catch (IllegalAccessException | InstantiationException ie) {
-            System.err.println("No tests ran because of " 
-                    + ie.getClass().getName());
         }
-        return results;
+        return new ArrayList<>();
     }
-
+    
     /**
-     * Runs the tests of a test class specified on the command line and reports 
-     * the results.
-     * @param args First the fully qualified name of the test class, then the 
-     * command line options. For example, 
-     * "org.example.demo.textops.PalindromeCheckerTest". For now, only the 
-     * command line option "-sort", which sorts the test results so that passing 
-     * tests are reported first and failing tests last, is supported. This 
-     * option must be placed after the test class name.
+     * Runs the tests of one or more test classes specified on the command line 
+     * and reports the results.
+     * @param args The fully qualified names of the test classes and the 
+     * command line options, in any order. For example, 
+     * "org.example.demo.textops.PalindromeCheckerTest" and "-sort". The 
+     * command line options are explained in {@link RunOptions#parse}. If more 
+     * than one test class is given, or test classes are listed in a file with 
+     * "-suite=<i>file</i>" or discovered with "-scan", the test classes are run 
+     * as a suite by {@link TestSuiteRunner} and the results are reported 
+     * together. If any test failed or caused an error, including a benchmark 
+     * that got significantly slower than its baseline, the Java Virtual 
+     * Machine exits with status 1 once the results are reported, so that a 
+     * build running the tests fails.
      */
     public static void main(String[] args) {
-        if (args.length == 0) {
+        if (!run(RunOptions.parse(args))) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the tests of the test classes in the specified options and reports 
+     * the results to <code>System.out</code>, just as {@link #main} does once 
+     * it has parsed the command line arguments.
+     * @param options The options for the run, including the names of the test 
+     * classes.
+     * @return True if no test failed or caused an error, false otherwise. For 
+     * example, false if a benchmark got significantly slower than its 
+     * baseline.
+     */
+    static boolean run(RunOptions options) {
+        if (options.getScanClassPath() != null) {
+            try {
+                for (String name 
+                        : TestClassScanner.scan(options.getScanClassPath())) {
+                    options.addTestClassName(name);
+                }
+            } catch (IOException ioe) {
+                System.err.println("Unable to scan for test classes because of " 
+                        + ioe.getClass().getName());
+                System.err.println("\"" + ioe.getMessage() + "\"");
+            }
+        }
+        List<String> names = options.getTestClassNames();
+        if (names.isEmpty()) {
             System.out.println("Please specify class to test");
+            return true;
+        }
+        StreamingResultsReporter streamer = null;
+        if (options.isStreamResults()) {
+            streamer = new StreamingResultsReporter();
+            options.addListener(streamer);
+        }
+        HeapGrowthMonitor heapMonitor = null;
+        if (options.isTrackHeap() && options.getWorkers() == 1 
+                && options.getForks() == 0) {
+            heapMonitor = new HeapGrowthMonitor();
+            options.addListener(heapMonitor);
+        }
+        List<Closeable> writers = new ArrayList<>();
+        try {
+            if (options.getJUnitXMLFile() != null) {
+                JUnitXMLResultWriter writer 
+                        = new JUnitXMLResultWriter(options.getJUnitXMLFile());
+                writers.add(writer);
+                options.addListener(writer);
+            }
+            if (options.getNDJSONFile() != null) {
+                NDJSONResultWriter writer 
+                        = new NDJSONResultWriter(options.getNDJSONFile());
+                writers.add(writer);
+                options.addListener(writer);
+            }
+        } catch (IOException ioe) {
+            System.err.println("Unable to open results file because of " 
+                    + ioe.getClass().getName());
+            System.err.println("\"" + ioe.getMessage() + "\"");
+        }
+        Map<String, List<TestResult>> resultsMap;
+        try {
+            boolean asSuite = options.getImpactMap() != null 
+                    || options.isRerunFailed()
+                    || (options.getShard() != null 
+                            && !options.isShardByTests());
+            if (options.getForks() > 0) {
+                try (ForkedWorkerPool pool 
+                        = new ForkedWorkerPool(options.getForks())) {
+                    resultsMap = pool.run(names, options);
+                }
+            } else if (names.size() == 1 && !asSuite) {
+                resultsMap = new LinkedHashMap<>();
+                resultsMap.put(names.get(0), run(names.get(0), options));
+            } else {
+                resultsMap = TestSuiteRunner.run(names, options);
+            }
+        } finally {
+            for (Closeable writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException ioe) {
+                    System.err.println("Unable to close results file because " 
+                            + "of " + ioe.getClass().getName());
+                }
+            }
+        }
+        try {
+            if (options.getDurationHistory() != null 
+                    && options.getShard() == null) {
+                options.getDurationHistory().save();
+            }
+        } catch (IOException ioe) {
+            System.err.println("Unable to save history because of " 
+                    + ioe.getClass().getName());
+        }
+        try {
+            if (options.getFailureHistory() != null) {
+                options.getFailureHistory().save();
+            }
+        } catch (IOException ioe) {
+            System.err.println("Unable to save failures because of " 
+                    + ioe.getClass().getName());
+        }
+        try {
+            if (options.getBaseline() != null) {
+                options.getBaseline().save();
+            }
+        } catch (IOException ioe) {
+            System.err.println("Unable to save baseline because of " 
+                    + ioe.getClass().getName());
+        }
+        try {
+            if (options.getImpactMap() != null) {
+                options.getImpactMap().save();
+            }
+        } catch (IOException ioe) {
+            System.err.println("Unable to save impact map because of " 
+                    + ioe.getClass().getName());
+        }
+        try {
+            options.getPlanCache().save();
+        } catch (IOException ioe) {
+            System.err.println("Unable to save plan cache because of " 
+                    + ioe.getClass().getName());
+        }
+        if (streamer != null) {
+            streamer.finish();
         } else {
-            List<TestResult> results = run(args[0]);
-            if (args.length > 1 && args[1].equals("-sort")) {
-                Collections.sort(results, new TestResultComparator());
+            if (options.isSortResults()) {
+                for (List<TestResult> results : resultsMap.values()) {
+                    Collections.sort(results, new TestResultComparator());
+                }
             }
-            TestResultsReporter reporter 
-                    = new TestResultsReporter(args[0], results);
+            TestResultsReporter reporter = new TestResultsReporter(resultsMap);
+            reporter.setSlowestCount(options.getSlowestCount());
             reporter.report();
         }
+        if (heapMonitor != null) {
+            heapMonitor.report();
+        }
+        for (List<TestResult> results : resultsMap.values()) {
+            for (TestResult result : results) {
+                if (result.getStatus() == TestResultStatus.FAILED 
+                        || result.getStatus() == TestResultStatus.ERROR) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
 }
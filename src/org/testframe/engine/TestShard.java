@@ -0,0 +1,212 @@
+package org.testframe.engine;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One of several shards of a suite, so that the suite can be split across 
+ * several machines, each running its own shard. The split is deterministic, 
+ * so every machine works out the same split on its own without having to 
+ * talk to the others. Without a {@link DurationHistory}, test classes or tests 
+ * are assigned to shards by the hash codes of their names, which keeps most 
+ * assignments the same as test classes are added or removed. With a history, 
+ * they're assigned longest first to whichever shard has the least work so 
+ * far, which gives shards that take about the same time, as long as every 
+ * machine uses the same history. That's why a sharded run reads the history 
+ * but doesn't save it. For the same reason, the shard is selected from the 
+ * whole suite, and only then are the test classes not affected by changes or 
+ * without failures to rerun left out of it.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestShard {
+
+    private final int shardIndex;
+
+    private final int shardCount;
+
+    /**
+     * Gets which shard this is.
+     * @return The index of the shard, from 1 to {@link #getCount()}. For 
+     * example, 3.
+     */
+    public int getIndex() {
+        return this.shardIndex;
+    }
+
+    /**
+     * Gets how many shards the suite is split into.
+     * @return The number of shards. For example, 8.
+     */
+    public int getCount() {
+        return this.shardCount;
+    }
+
+    private static int[] assignByHash(List<String> keys, int count) {
+        int[] assignments = new int[keys.size()];
+        for (int i = 0; i < assignments.length; i++) {
+            assignments[i] = Math.floorMod(keys.get(i).hashCode(), count);
+        }
+        return assignments;
+    }
+
+    /**
+     * Assigns work to shards.
+     * @param keys The names of the work to assign. For example, the fully 
+     * qualified names of the test classes. There should be no duplicates.
+     * @param estimates The estimated durations of the work, in the same order 
+     * as the keys, with &minus;1 for unknown durations.
+     * @param count How many shards there are. For example, 8.
+     * @return The shard of each piece of work, from 0 to <code>count</code> 
+     * &minus; 1, in the same order as the keys.
+     */
+    static int[] assign(List<String> keys, long[] estimates, int count) {
+        long knownTotal = 0L;
+        int knownCount = 0;
+        for (long estimate : estimates) {
+            if (estimate >= 0L) {
+                knownTotal += estimate;
+                knownCount++;
+            }
+        }
+        if (knownCount == 0) {
+            return assignByHash(keys, count);
+        }
+        long[] filled = new long[estimates.length];
+        for (int i = 0; i < filled.length; i++) {
+            filled[i] = estimates[i] < 0L ? knownTotal / knownCount 
+                    : estimates[i];
+        }
+        Integer[] order = new Integer[filled.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int comparison = Long.compare(filled[b], filled[a]);
+            return comparison != 0 ? comparison 
+                    : keys.get(a).compareTo(keys.get(b));
+        });
+        long[] loads = new long[count];
+        int[] assignments = new int[filled.length];
+        for (int index : order) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            assignments[index] = lightest;
+            loads[lightest] += filled[index];
+        }
+        return assignments;
+    }
+
+    /**
+     * Selects the test classes that belong to this shard.
+     * @param testClassNames The fully qualified names of all the test classes 
+     * in the suite. For example, "org.example.demo.textops.AnagramCheckerTest" 
+     * and "org.example.demo.textops.PalindromeCheckerTest". There should be no 
+     * duplicates.
+     * @param history The durations of the test classes in previous runs. May 
+     * be null, in which case the test classes are assigned by hash code.
+     * @return The names of the test classes in this shard, in the same order 
+     * as they were listed. Possibly empty.
+     */
+    public List<String> selectClasses(List<String> testClassNames, 
+            DurationHistory history) {
+        long[] estimates = new long[testClassNames.size()];
+        for (int i = 0; i < estimates.length; i++) {
+            estimates[i] = history == null ? -1L 
+                    : history.getClassEstimate(testClassNames.get(i));
+        }
+        int[] assignments = assign(testClassNames, estimates, 
+                this.shardCount);
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < assignments.length; i++) {
+            if (assignments[i] == this.shardIndex - 1) {
+                selected.add(testClassNames.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Selects the tests of a test class that belong to this shard.
+     * @param testClassName The fully qualified name of the test class. For 
+     * example, "org.example.demo.textops.PalindromeCheckerTest".
+     * @param tests The tests of the test class, including those to be skipped.
+     * @param history The durations of the tests in previous runs. May be null, 
+     * in which case the tests are assigned by the hash codes of their names 
+     * qualified by the name of the test class.
+     * @return The names of the tests in this shard. Possibly empty.
+     */
+    public Set<String> selectTests(String testClassName, List<Method> tests, 
+            DurationHistory history) {
+        List<String> keys = new ArrayList<>(tests.size());
+        long[] estimates = new long[tests.size()];
+        for (int i = 0; i < estimates.length; i++) {
+            String testName = tests.get(i).getName();
+            keys.add(testClassName + "#" + testName);
+            estimates[i] = history == null ? -1L 
+                    : history.getTestEstimate(testClassName, testName);
+        }
+        int[] assignments = assign(keys, estimates, this.shardCount);
+        Set<String> selected = new HashSet<>();
+        for (int i = 0; i < assignments.length; i++) {
+            if (assignments[i] == this.shardIndex - 1) {
+                selected.add(tests.get(i).getName());
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Parses a shard specification.
+     * @param spec The specification, in the form "<i>i</i>/<i>n</i>", where 
+     * <i>i</i> is the index of the shard, from 1 to <i>n</i>, and <i>n</i> is 
+     * the number of shards. For example, "3/8".
+     * @return The shard. For example, the third of eight shards.
+     * @throws IllegalArgumentException If the specification can't be parsed, 
+     * or if the index is out of range.
+     */
+    public static TestShard parse(String spec) {
+        int slash = spec.indexOf('/');
+        try {
+            return new TestShard(Integer.parseInt(spec.substring(0, slash)), 
+                    Integer.parseInt(spec.substring(slash + 1)));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException nfe) {
+            String excMsg = "Unable to parse \"" + spec 
+                    + "\" as a shard, expected i/n, such as 3/8";
+            throw new IllegalArgumentException(excMsg, nfe);
+        }
+    }
+
+    /**
+     * Sole constructor.
+     * @param index Which shard this is, from 1 to <code>count</code>. For 
+     * example, 3.
+     * @param count How many shards the suite is split into. For example, 8.
+     * @throws IllegalArgumentException If <code>count</code> is less than 1, 
+     * or if <code>index</code> is less than 1 or greater than 
+     * <code>count</code>.
+     */
+    public TestShard(int index, int count) {
+        if (count < 1) {
+            String excMsg = "Number of shards " + count 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (index < 1 || index > count) {
+            String excMsg = "Shard index " + index 
+                    + " should be from 1 to " + count;
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.shardIndex = index;
+        this.shardCount = count;
+    }
+
+}
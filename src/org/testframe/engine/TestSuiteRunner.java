@@ -0,0 +1,192 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs the tests of several test classes in the same Java Virtual Machine 
+ * (JVM), scheduling whole test classes across a pool of workers. Each test 
+ * class still runs as it would with {@link TestRunner#run(String, int)}.
+ * @since 1.1
+ * @author Alonso del Arte
+ */
+public class TestSuiteRunner {
+
+    private static List<TestResult> runClass(String testClassName, 
+            ClassLoader loader, RunOptions options) {
+        try {
+            Class<?> type = loader.loadClass(testClassName);
+            return TestRunner.execute(type, options).getResults();
+        } catch (ClassNotFoundException cnfe) {
+            System.err.println("No tests ran for " + testClassName);
+            System.err.println("Unable to find class " + testClassName);
+            System.err.println("\"" + cnfe.getMessage() + "\"");
+        }
+        return new ArrayList<>();
+    }
+
+    private static List<TestResult> runRecorded(String testClassName, 
+            RunOptions options) {
+        ClassLoader loader = options.getClassLoader();
+        URL[] urls = loader instanceof URLClassLoader 
+                ? ((URLClassLoader) loader).getURLs()
+                : IsolatingClassLoader.toURLs(System 
+                        .getProperty("java.class.path"));
+        List<TestResult> results;
+        try (IsolatingClassLoader recorder 
+                = new IsolatingClassLoader(urls, loader, testClassName)) {
+            results = runClass(testClassName, recorder, options);
+            boolean passed = !results.isEmpty();
+            for (TestResult result : results) {
+                TestResultStatus status = result.getStatus();
+                passed &= status == TestResultStatus.PASSED 
+                        || status == TestResultStatus.SKIPPED;
+            }
+            if (passed) {
+                options.getImpactMap().record(testClassName, 
+                        recorder.getLoadedClassNames(), 
+                        recorder.getResourceNames(), loader);
+            } else {
+                options.getImpactMap().forget(testClassName);
+            }
+        } catch (IOException ioe) {
+            String excMsg = "Unable to close class loader for " 
+                    + testClassName;
+            throw new RuntimeException(excMsg, ioe);
+        }
+        return results;
+    }
+
+    /**
+     * Runs the tests of several test classes.
+     * @param testClassNames The names of the test classes, fully qualified. 
+     * For example, "org.example.demo.textops.PalindromeCheckerTest" and 
+     * "org.example.demo.textops.AnagramCheckerTest". If a name is listed more 
+     * than once, the test class only runs once.
+     * @param options The options for the run. The number of workers tells how 
+     * many test classes may run at the same time, and the parallelism tells 
+     * how many tests of each test class may run at the same time. If the 
+     * options have a {@link DurationHistory}, the test classes that took the 
+     * longest before are started first. If the options have a {@link 
+     * TestShard} and the suite is split class by class, only the test classes 
+     * in that shard are run, the shard being worked out from all the names 
+     * before any other selection. If the options have a {@link FailureHistory}, 
+     * the test classes with failures are started first, or are the only ones 
+     * run if so specified. If the options have a {@link TestImpactMap}, 
+     * only the test classes affected by changes are run, each in its own 
+     * class loader so as to record which classes it depends on.
+     * @return A map from test class names to the results of their tests, in 
+     * the same order as the names were listed, regardless of the order in 
+     * which the test classes actually finished. A test class that couldn't be 
+     * found maps to an empty list. Test classes not in the shard, not 
+     * affected by changes or without failures to rerun are left out.
+     */
+    public static Map<String, List<TestResult>> run( 
+            List<String> testClassNames, RunOptions options) {
+        ClassLoader loader = options.getClassLoader();
+        loader.setDefaultAssertionStatus(true);
+        if (options.getImpactMap() != null) {
+            return run(testClassNames, options, 
+                    name -> runRecorded(name, options), options.getWorkers());
+        }
+        return run(testClassNames, options, 
+                name -> runClass(name, loader, options), options.getWorkers());
+    }
+
+    /**
+     * Runs the tests of several test classes, each by way of the specified 
+     * function. This takes care of removing duplicate names, selecting the 
+     * test classes in the shard and those affected by changes, ordering them 
+     * failed first and longest first and collecting the results in the 
+     * order the names were listed, just as explained for {@link #run(List, 
+     * RunOptions)}.
+     * @param testClassNames The names of the test classes, fully qualified.
+     * @param options The options for the run.
+     * @param classRunner The function to run the tests of one test class 
+     * with. It will be called from several threads at the same time. For 
+     * example, a function that has a forked Java Virtual Machine (JVM) run the 
+     * tests.
+     * @param threads How many test classes may run at the same time. For 
+     * example, 4.
+     * @return A map from test class names to the results of their tests.
+     */
+    static Map<String, List<TestResult>> run(List<String> testClassNames, 
+            RunOptions options, 
+            Function<String, List<TestResult>> classRunner, int threads) {
+        List<String> names 
+                = new ArrayList<>(new LinkedHashSet<>(testClassNames));
+        TestShard shard = options.getShard();
+        if (shard != null && !options.isShardByTests()) {
+            names = shard.selectClasses(names, options.getDurationHistory());
+        }
+        if (options.getImpactMap() != null) {
+            names = options.getImpactMap().selectAffected(names, 
+                    options.getClassLoader());
+        }
+        FailureHistory failures = options.getFailureHistory();
+        if (failures != null && options.isRerunFailed()) {
+            List<String> failing = new ArrayList<>();
+            for (String name : names) {
+                if (!failures.getFailedTests(name).isEmpty()) {
+                    failing.add(name);
+                }
+            }
+            names = failing;
+        }
+        long[] estimates = new long[names.size()];
+        boolean[] failed = new boolean[names.size()];
+        DurationHistory history = options.getDurationHistory();
+        for (int i = 0; i < estimates.length; i++) {
+            estimates[i] = history == null ? 0L 
+                    : history.getClassEstimate(names.get(i));
+            failed[i] = failures != null 
+                    && !failures.getFailedTests(names.get(i)).isEmpty();
+        }
+        Integer[] order = FailureHistory.failedFirst(DurationHistory 
+                .longestFirst(estimates), failed);
+        List<Callable<List<TestResult>>> tasks = new ArrayList<>(names.size());
+        for (int index : order) {
+            String name = names.get(index);
+            tasks.add(() -> classRunner.apply(name));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Map<String, List<TestResult>> map = new LinkedHashMap<>();
+        try {
+            List<Future<List<TestResult>>> futures = pool.invokeAll(tasks);
+            List<List<TestResult>> resultsLists 
+                    = new ArrayList<>(Collections.nCopies(names.size(), null));
+            for (int i = 0; i < futures.size(); i++) {
+                resultsLists.set(order[i], futures.get(i).get());
+            }
+            for (int i = 0; i < names.size(); i++) {
+                map.put(names.get(i), resultsLists.get(i));
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running suite", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pool.shutdown();
+        }
+        return map;
+    }
+
+}
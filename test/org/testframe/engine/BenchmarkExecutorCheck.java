@@ -0,0 +1,117 @@
+package org.testframe.engine;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks of the BenchmarkExecutor class, by way of the test runner. These use 
+ * BenchmarkToyTests, which has benchmarks that pass, fail, are forked, have 
+ * invalid settings or run out of time, and one ordinary test.
+ * @author Alonso del Arte
+ */
+public class BenchmarkExecutorCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.BenchmarkToyTests";
+
+    private static void checkBenchmarkIsSampled(List<TestResult> results) {
+        System.out.println("Benchmark is sampled");
+        TestResult result = TestRunnerCheck.find(results, 
+                "benchmarkStringBuilding");
+        String msg = "Benchmark should pass, got " + result.getStatus();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED, 
+                msg);
+        BenchmarkStatistics statistics = result.getBenchmarkStatistics();
+        msg = "Benchmark should have " + BenchmarkToyTests.ITERATIONS 
+                + " samples";
+        TestRunnerCheck.check(statistics != null && statistics 
+                .getSampleCount() == BenchmarkToyTests.ITERATIONS, msg);
+        msg = "Mean " + statistics.getMean() + " should be positive and " 
+                + "between fastest and slowest samples";
+        TestRunnerCheck.check(statistics.getMean() > 0.0 
+                && statistics.getMean() >= statistics.getPercentile(0.0)
+                && statistics.getMean() <= statistics.getPercentile(100.0),
+                msg);
+        msg = "Samples should be well under 5 milliseconds per call";
+        TestRunnerCheck.check(statistics.getPercentile(100.0) < 5000000.0, 
+                msg);
+        String report = TestResultsReporter.formatBenchmark(statistics);
+        System.out.println(report);
+        msg = "Report should give number of samples";
+        TestRunnerCheck.check(report.endsWith(BenchmarkToyTests.ITERATIONS 
+                + " samples"), msg);
+    }
+
+    private static void checkForkedBenchmarkIsSampled( 
+            List<TestResult> results) {
+        System.out.println("Forked benchmark is sampled");
+        TestResult result = TestRunnerCheck.find(results, "benchmarkInForks");
+        String msg = "Forked benchmark should pass, got " + result.getStatus() 
+                + " " + result.getInformation();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED, 
+                msg);
+        int expected = BenchmarkToyTests.FORKS * BenchmarkToyTests.ITERATIONS;
+        msg = "Forked benchmark should have " + expected + " samples";
+        TestRunnerCheck.check(result.getBenchmarkStatistics() 
+                .getSampleCount() == expected, msg);
+    }
+
+    private static void checkFailingBenchmarkFails(List<TestResult> results) {
+        System.out.println("Failing benchmark fails");
+        TestResult result = TestRunnerCheck.find(results, 
+                "benchmarkThatFails");
+        String msg = "Failing benchmark should fail, got " 
+                + result.getStatus();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.FAILED, 
+                msg);
+        msg = "Failing benchmark should have no statistics";
+        TestRunnerCheck.check(result.getBenchmarkStatistics() == null, msg);
+    }
+
+    private static void checkInvalidSettingsCauseError( 
+            List<TestResult> results) {
+        System.out.println("Invalid settings cause error");
+        TestResult result = TestRunnerCheck.find(results, 
+                "benchmarkWithoutIterations");
+        String msg = "Benchmark without iterations should cause error";
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.ERROR 
+                && result.getInformation() 
+                        instanceof IllegalArgumentException, msg);
+        System.out.println("\"" + result.getInformation().getMessage() + "\"");
+    }
+
+    private static void checkTimeoutApplies(List<TestResult> results) {
+        System.out.println("Timeout applies to whole benchmark");
+        TestResult result = TestRunnerCheck.find(results, 
+                "benchmarkThatRunsOutOfTime");
+        String msg = "Benchmark that runs out of time should time out";
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.ERROR 
+                && result.getInformation() instanceof TimeoutException, msg);
+    }
+
+    private static void checkOrdinaryTestHasNoStatistics( 
+            List<TestResult> results) {
+        System.out.println("Ordinary test has no statistics");
+        TestResult result = TestRunnerCheck.find(results, 
+                "testThatIsNotBenchmark");
+        String msg = "Ordinary test should pass without statistics";
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED 
+                && result.getBenchmarkStatistics() == null, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME);
+        checkBenchmarkIsSampled(results);
+        checkForkedBenchmarkIsSampled(results);
+        checkFailingBenchmarkFails(results);
+        checkInvalidSettingsCauseError(results);
+        checkTimeoutApplies(results);
+        checkOrdinaryTestHasNoStatistics(results);
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.testframe.engine;
+
+import java.util.Arrays;
+
+/**
+ * Checks of the BenchmarkStatistics class.
+ * @author Alonso del Arte
+ */
+public class BenchmarkStatisticsCheck {
+
+    private static final double TOLERANCE = 0.00001;
+
+    private static void checkClose(double expected, double actual, 
+            String what) {
+        String msg = "Expected " + what + " " + expected + ", got " + actual;
+        TestRunnerCheck.check(Math.abs(expected - actual) < TOLERANCE, msg);
+    }
+
+    private static void checkMeanAndStandardDeviation() {
+        System.out.println("getMean, getStandardDeviation");
+        double[] samples = {2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0};
+        BenchmarkStatistics statistics = new BenchmarkStatistics(samples);
+        checkClose(5.0, statistics.getMean(), "mean");
+        checkClose(Math.sqrt(32.0 / 7.0), statistics.getStandardDeviation(), 
+                "standard deviation");
+        String msg = "Expected 8 samples";
+        TestRunnerCheck.check(statistics.getSampleCount() == 8, msg);
+    }
+
+    private static void checkPercentiles() {
+        System.out.println("getPercentile");
+        double[] samples = {40.0, 10.0, 30.0, 20.0, 50.0};
+        BenchmarkStatistics statistics = new BenchmarkStatistics(samples);
+        checkClose(10.0, statistics.getPercentile(0.0), "0th percentile");
+        checkClose(30.0, statistics.getPercentile(50.0), "median");
+        checkClose(46.0, statistics.getPercentile(90.0), "90th percentile");
+        checkClose(50.0, statistics.getPercentile(100.0), "100th percentile");
+        String msg = "Percentile over 100 should be rejected";
+        try {
+            statistics.getPercentile(101.0);
+            TestRunnerCheck.check(false, msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("\"" + iae.getMessage() + "\"");
+        }
+    }
+
+    private static void checkErrorMargin() {
+        System.out.println("getErrorMargin");
+        double[] samples = {10.0, 12.0, 14.0};
+        BenchmarkStatistics statistics = new BenchmarkStatistics(samples);
+        checkClose(4.303 * 2.0 / Math.sqrt(3.0), statistics.getErrorMargin(), 
+                "error margin");
+        statistics = new BenchmarkStatistics(new double[] {10.0});
+        String msg = "Error margin of a single sample should be NaN";
+        TestRunnerCheck.check(Double.isNaN(statistics.getErrorMargin()), msg);
+    }
+
+    private static void checkSamplesAreCopied() {
+        System.out.println("getSamples");
+        double[] samples = {3.0, 1.0, 2.0};
+        BenchmarkStatistics statistics = new BenchmarkStatistics(samples);
+        samples[0] = 100.0;
+        statistics.getSamples()[1] = 100.0;
+        double[] expected = {3.0, 1.0, 2.0};
+        String msg = "Samples should be kept in order and not be changeable";
+        TestRunnerCheck.check(Arrays.equals(expected, 
+                statistics.getSamples()), msg);
+        msg = "Empty samples should be rejected";
+        try {
+            new BenchmarkStatistics(new double[0]);
+            TestRunnerCheck.check(false, msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("\"" + iae.getMessage() + "\"");
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkMeanAndStandardDeviation();
+        checkPercentiles();
+        checkErrorMargin();
+        checkSamplesAreCopied();
+        System.out.println("All checks have PASSED");
+    }
+
+}
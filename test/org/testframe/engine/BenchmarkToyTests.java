@@ -0,0 +1,61 @@
+package org.testframe.engine;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Blackhole;
+import org.testframe.api.Test;
+import org.testframe.api.Timeout;
+
+/**
+ * Toy benchmarks to check that the test runner samples them. The iterations 
+ * are kept short so that the checks don't take long. One benchmark is run in 
+ * forks, one fails after a while, one has invalid settings, one never 
+ * finishes an iteration before its timeout, and one is an ordinary test.
+ * @author Alonso del Arte
+ */
+public class BenchmarkToyTests {
+
+    static final int ITERATIONS = 4;
+
+    static final int FORKS = 2;
+
+    private int callCount = 0;
+
+    @Test @Benchmark(warmupIterations = 1, iterations = ITERATIONS, 
+            iterationMillis = 5L)
+    public void benchmarkStringBuilding() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            builder.append(i);
+        }
+        Blackhole.consume(builder.toString());
+    }
+
+    @Test @Benchmark(warmupIterations = 0, iterations = ITERATIONS, 
+            iterationMillis = 5L, forks = FORKS)
+    public void benchmarkInForks() {
+        Blackhole.consume(Math.sqrt(System.nanoTime()));
+    }
+
+    @Test @Benchmark(warmupIterations = 0, iterations = ITERATIONS, 
+            iterationMillis = 5L)
+    public void benchmarkThatFails() {
+        this.callCount++;
+        assert this.callCount < 1000 : "Failing after 1000 calls";
+    }
+
+    @Test @Benchmark(iterations = 0)
+    public void benchmarkWithoutIterations() {
+        Blackhole.consume(this.callCount);
+    }
+
+    @Test @Timeout(50L) @Benchmark(iterationMillis = 60000L)
+    public void benchmarkThatRunsOutOfTime() {
+        Blackhole.consume(true);
+    }
+
+    @Test
+    public void testThatIsNotBenchmark() {
+        Blackhole.consume(1.5);
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.testframe.engine;
+
+import org.testframe.api.BeforeAllTests;
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that the tests of a test class whose procedure annotated 
+ * {@link BeforeAllTests} fails are reported as errors, to the listeners as 
+ * well, rather than abandon the whole suite. The two tests should never 
+ * actually run.
+ * @author Alonso del Arte
+ */
+public class BrokenSetUpToyTests {
+
+    @BeforeAllTests
+    public static void setUpClass() {
+        throw new IllegalStateException("This set up is meant to fail");
+    }
+
+    @Test
+    public void testThatNeverRuns() {
+        System.out.println("This test should not have run");
+    }
+
+    @Test
+    public void testThatAlsoNeverRuns() {
+        System.out.println("This test should not have run either");
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.testframe.engine;
+
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that a test still running when the maximum number of 
+ * failures is reached gets its actual outcome reported. One test fails soon, 
+ * giving the other time to start, while the other takes a while to pass.
+ * @author Alonso del Arte
+ */
+public class CancelledToyTests {
+
+    /**
+     * How long the test that fails takes, in milliseconds.
+     */
+    static final long FAILING_DURATION = 100L;
+
+    /**
+     * How long the test that passes takes, in milliseconds.
+     */
+    static final long PASSING_DURATION = 500L;
+
+    @Test
+    public void testThatFailsSoon() throws InterruptedException {
+        Thread.sleep(FAILING_DURATION);
+        String msg = "This test should be reported as failing";
+        System.out.println(msg);
+        assert false : msg;
+    }
+
+    @Test
+    public void testThatTakesAWhileToPass() throws InterruptedException {
+        Thread.sleep(PASSING_DURATION);
+        System.out.println("This test should be reported as passing");
+    }
+
+}
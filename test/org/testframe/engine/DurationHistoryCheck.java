@@ -0,0 +1,105 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks of the DurationHistory class. These use YetMoreToyTests, which has 
+ * three tests each that pass, fail, cause an error or are skipped.
+ * @author Alonso del Arte
+ */
+public class DurationHistoryCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static void checkLongestFirst() {
+        System.out.println("longestFirst");
+        long[] estimates = {300L, -1L, 4000L, 25L, 4000L};
+        List<Integer> expected = Arrays.asList(1, 2, 4, 0, 3);
+        List<Integer> actual 
+                = Arrays.asList(DurationHistory.longestFirst(estimates));
+        String msg = "Expected " + expected + ", got " + actual;
+        TestRunnerCheck.check(expected.equals(actual), msg);
+    }
+
+    private static void checkRecord() {
+        System.out.println("record");
+        Method procedure = DurationHistoryCheck.class.getMethods()[0];
+        DurationHistory history = new DurationHistory();
+        history.record("Foo", new TestResult(procedure, 
+                TestResultStatus.PASSED, null,
+                new TestMetrics(1000L, 800L, 64L)));
+        history.record("Foo", new TestResult(procedure, 
+                TestResultStatus.FAILED, null,
+                new TestMetrics(3000L, 800L, 64L)));
+        long expected = 2000L;
+        long actual = history.getTestEstimate("Foo", procedure.getName());
+        String msg = "Expected estimate " + expected + ", got " + actual;
+        TestRunnerCheck.check(expected == actual, msg);
+        history.record("Foo", new TestResult(procedure, 
+                TestResultStatus.SKIPPED, null));
+        msg = "Skipped test should not have changed the estimate";
+        TestRunnerCheck.check(history.getTestEstimate("Foo", 
+                procedure.getName()) == expected, msg);
+        msg = "Unknown test should have no estimate";
+        TestRunnerCheck.check(history.getTestEstimate("Foo", "bar") == -1L, 
+                msg);
+    }
+
+    private static void checkRunUpdatesHistory() {
+        System.out.println("run with history");
+        DurationHistory history = new DurationHistory();
+        RunOptions options = new RunOptions();
+        options.setParallelism(4);
+        options.setDurationHistory(history);
+        List<TestResult> expected = TestRunner.run(TEST_CLASS_NAME, 1);
+        List<TestResult> actual = TestRunner.run(TEST_CLASS_NAME, options);
+        String msg = "History should have 9 tests and 1 test class, has " 
+                + history.size() + " durations";
+        TestRunnerCheck.check(history.size() == 10, msg);
+        msg = "Test class should have an estimate";
+        TestRunnerCheck.check(history.getClassEstimate(TEST_CLASS_NAME) > 0L, 
+                msg);
+        actual = TestRunner.run(TEST_CLASS_NAME, options);
+        for (int i = 0; i < expected.size(); i++) {
+            msg = "Result " + i + " should be in plan order despite schedule";
+            TestRunnerCheck.check(expected.get(i).getProcedure() 
+                    .equals(actual.get(i).getProcedure()), msg);
+        }
+    }
+
+    private static void checkSaveAndLoad() {
+        System.out.println("save, load");
+        try {
+            Path file = Files.createTempFile("durations", ".txt");
+            DurationHistory history = new DurationHistory(file);
+            history.recordClass(TEST_CLASS_NAME, 12345L);
+            history.save();
+            DurationHistory loaded = new DurationHistory(file);
+            long actual = loaded.getClassEstimate(TEST_CLASS_NAME);
+            String msg = "Expected loaded estimate 12345, got " + actual;
+            TestRunnerCheck.check(actual == 12345L, msg);
+            file.toFile().delete();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to use history file", ioe);
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkLongestFirst();
+        checkRecord();
+        checkRunUpdatesHistory();
+        checkSaveAndLoad();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.testframe.engine;
+
+import org.testframe.api.Skip;
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that ForkedWorkerPool copes with a worker that exits in 
+ * the middle of a test, and still reports the skipped test as skipped. Never 
+ * run these in the same Java Virtual Machine as the checks.
+ * @author Alonso del Arte
+ */
+public class ExitingToyTests {
+
+    @Test
+    public void testThatExits() {
+        System.out.println("This test should be reported as an error");
+        System.exit(3);
+    }
+
+    @Skip @Test
+    public void testThatShouldBeSkipped() {
+        System.out.println("This test should be skipped");
+    }
+
+}
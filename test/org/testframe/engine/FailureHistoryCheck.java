@@ -0,0 +1,163 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks of the FailureHistory class, and of running the tests that failed 
+ * before first or on their own. These use YetMoreToyTests, which has three 
+ * tests each that pass, fail, cause an error or are skipped, and ToyTests.
+ * @author Alonso del Arte
+ */
+public class FailureHistoryCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static boolean isFailure(TestResult result) {
+        return result.getStatus() == TestResultStatus.FAILED 
+                || result.getStatus() == TestResultStatus.ERROR;
+    }
+
+    private static void checkRecord() throws NoSuchMethodException {
+        System.out.println("record");
+        FailureHistory history = new FailureHistory();
+        Method test = YetMoreToyTests.class.getMethod("testThatShouldFailA");
+        history.record(TEST_CLASS_NAME, new TestResult(test, 
+                TestResultStatus.FAILED, null));
+        String msg = "Failed test should be in history";
+        TestRunnerCheck.check(history.hasFailed(TEST_CLASS_NAME, 
+                "testThatShouldFailA"), msg);
+        history.record(TEST_CLASS_NAME, new TestResult(test, 
+                TestResultStatus.NOT_RUN, null));
+        msg = "Test that didn't run should stay in history";
+        TestRunnerCheck.check(history.size() == 1, msg);
+        history.record(TEST_CLASS_NAME, new TestResult(test, 
+                TestResultStatus.PASSED, null));
+        msg = "Test that passed should be removed from history";
+        TestRunnerCheck.check(history.size() == 0, msg);
+    }
+
+    private static void checkFailedFirst() {
+        System.out.println("failedFirst");
+        Integer[] order = {3, 0, 1, 2};
+        boolean[] failed = {false, true, false, true};
+        Integer[] expected = {3, 1, 0, 2};
+        Integer[] actual = FailureHistory.failedFirst(order, failed);
+        String msg = "Expected " + Arrays.toString(expected) + ", got " 
+                + Arrays.toString(actual);
+        TestRunnerCheck.check(Arrays.equals(expected, actual), msg);
+    }
+
+    private static void checkFailedTestsRunFirst(int parallelism) {
+        System.out.println("execute, failed first, parallelism " 
+                + parallelism);
+        RunOptions options = new RunOptions();
+        options.setParallelism(parallelism);
+        options.setFailureHistory(new FailureHistory());
+        TestRunner.run(TEST_CLASS_NAME, options);
+        String msg = "History should have 6 failures, has " 
+                + options.getFailureHistory().size();
+        TestRunnerCheck.check(options.getFailureHistory().size() == 6, msg);
+        List<String> finished 
+                = Collections.synchronizedList(new ArrayList<>());
+        options.addListener((testClassName, result) 
+                -> finished.add(result.getStatus().name()));
+        TestRunner.run(TEST_CLASS_NAME, options);
+        if (parallelism == 1) {
+            for (int i = 0; i < 6; i++) {
+                msg = "Result " + i + " should be a failure or error, was " 
+                        + finished.get(i);
+                TestRunnerCheck.check(finished.get(i).equals("FAILED") 
+                        || finished.get(i).equals("ERROR"), msg);
+            }
+        }
+        options.setRerunFailed(true);
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, options);
+        msg = "Rerun should only run the 6 failures, ran " + results.size();
+        TestRunnerCheck.check(results.size() == 6, msg);
+        for (TestResult result : results) {
+            msg = "Rerun should not include " + result.getProcedure() 
+                    .getName();
+            TestRunnerCheck.check(isFailure(result), msg);
+        }
+    }
+
+    private static void checkRerunLeavesOutClassesWithoutFailures() 
+            throws NoSuchMethodException {
+        System.out.println("TestSuiteRunner.run, rerun failed");
+        FailureHistory history = new FailureHistory();
+        history.record(TEST_CLASS_NAME, new TestResult(YetMoreToyTests.class 
+                .getMethod("testThatShouldFailB"), TestResultStatus.FAILED,
+                null));
+        RunOptions options = new RunOptions();
+        options.setFailureHistory(history);
+        options.setRerunFailed(true);
+        Map<String, List<TestResult>> map = TestSuiteRunner.run(Arrays.asList( 
+                "org.testframe.engine.ToyTests", TEST_CLASS_NAME), options);
+        String msg = "Only " + TEST_CLASS_NAME + " should run, ran " 
+                + map.keySet();
+        TestRunnerCheck.check(map.keySet() 
+                .equals(Collections.singleton(TEST_CLASS_NAME)), msg);
+        msg = "Only testThatShouldFailB should run";
+        TestRunnerCheck.check(map.get(TEST_CLASS_NAME).size() == 1, msg);
+    }
+
+    private static void checkSaveAndLoad() throws IOException {
+        System.out.println("save, load");
+        Path file = Files.createTempFile("failures", ".txt");
+        try {
+            FailureHistory history = new FailureHistory(file);
+            RunOptions options = new RunOptions();
+            options.setFailureHistory(history);
+            TestRunner.run(TEST_CLASS_NAME, options);
+            history.save();
+            FailureHistory loaded = new FailureHistory(file);
+            String msg = "Loaded history should have 6 failures, has " 
+                    + loaded.size();
+            TestRunnerCheck.check(loaded.size() == 6, msg);
+            msg = "Loaded history should have testThatShouldCauseErrorC";
+            TestRunnerCheck.check(loaded.hasFailed(TEST_CLASS_NAME, 
+                    "testThatShouldCauseErrorC"), msg);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void checkRerunRequiresFailuresFile() {
+        System.out.println("parse, -rerun-failed");
+        String[] args = {TEST_CLASS_NAME, "-rerun-failed"};
+        try {
+            RunOptions.parse(args);
+            TestRunnerCheck.check(false, 
+                    "-rerun-failed without -failures should be rejected");
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Rejected as expected: " + iae.getMessage());
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws Exception If a toy test procedure can't be found or the 
+     * temporary file can't be used.
+     */
+    public static void main(String[] args) throws Exception {
+        checkRecord();
+        checkFailedFirst();
+        checkFailedTestsRunFirst(1);
+        checkFailedTestsRunFirst(4);
+        checkRerunLeavesOutClassesWithoutFailures();
+        checkSaveAndLoad();
+        checkRerunRequiresFailuresFile();
+        System.out.println("All checks have PASSED");
+    }
+
+}
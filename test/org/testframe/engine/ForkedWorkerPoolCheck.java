@@ -0,0 +1,176 @@
+package org.testframe.engine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks of the ForkedWorkerPool class. These use YetMoreToyTests, which has 
+ * three tests each that pass, fail, cause an error or are skipped, as well as 
+ * IsolatedToyTests and ExitingToyTests.
+ * @author Alonso del Arte
+ */
+public class ForkedWorkerPoolCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static void checkRunClassGivesSameResults() {
+        System.out.println("runClass");
+        List<TestResult> expected = TestRunner.run(TEST_CLASS_NAME, 1);
+        List<TestResult> actual;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            actual = pool.runClass(TEST_CLASS_NAME, new RunOptions());
+        }
+        String msg = "Expected " + expected.size() + " results, got " 
+                + actual.size();
+        TestRunnerCheck.check(expected.size() == actual.size(), msg);
+        for (int i = 0; i < expected.size(); i++) {
+            msg = "Result " + i + " should be the same as in this JVM";
+            TestRunnerCheck.check(expected.get(i).getProcedure() 
+                    .equals(actual.get(i).getProcedure())
+                    && expected.get(i).getStatus() 
+                            == actual.get(i).getStatus(), msg);
+            if (actual.get(i).getStatus() == TestResultStatus.FAILED) {
+                msg = "Failure should come back as an AssertionError";
+                TestRunnerCheck.check(actual.get(i).getInformation() 
+                        instanceof AssertionError, msg);
+            }
+        }
+    }
+
+    private static void checkFailFastInWorker() {
+        System.out.println("runClass, fail fast");
+        RunOptions options = new RunOptions();
+        options.setMaxFailures(1);
+        List<TestResult> expected = TestRunner.run(TEST_CLASS_NAME, options);
+        options = new RunOptions();
+        options.setMaxFailures(1);
+        List<TestResult> actual;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            actual = pool.runClass(TEST_CLASS_NAME, options);
+        }
+        String msg = "Worker should stop at the first failure as this JVM " 
+                + "does";
+        TestRunnerCheck.check(count(actual, TestResultStatus.NOT_RUN) 
+                == count(expected, TestResultStatus.NOT_RUN)
+                && count(actual, TestResultStatus.NOT_RUN) > 0, msg);
+    }
+
+    private static int count(List<TestResult> results, 
+            TestResultStatus status) {
+        int count = 0;
+        for (TestResult result : results) {
+            if (result.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static RunOptions optionsWithFailure(String testName, 
+            boolean rerun) {
+        FailureHistory history = new FailureHistory();
+        history.addFailure(TEST_CLASS_NAME, testName);
+        RunOptions options = new RunOptions();
+        options.setFailureHistory(history);
+        options.setRerunFailed(rerun);
+        return options;
+    }
+
+    private static void checkFailureHistoryInWorker() {
+        System.out.println("runClass, failure history");
+        List<TestResult> all = TestRunner.run(TEST_CLASS_NAME, 1);
+        String testName = all.get(all.size() / 2).getProcedure().getName();
+        List<TestResult> expected = TestRunner.run(TEST_CLASS_NAME, 
+                optionsWithFailure(testName, true));
+        List<TestResult> actual;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            actual = pool.runClass(TEST_CLASS_NAME, 
+                    optionsWithFailure(testName, true));
+            String msg = "Worker should rerun only " + testName 
+                    + " as this JVM does, expected " + expected.size()
+                    + " results, got " + actual.size();
+            TestRunnerCheck.check(actual.size() == expected.size() 
+                    && actual.get(0).getProcedure().getName() 
+                            .equals(testName), msg);
+            actual = pool.runClass(TEST_CLASS_NAME, 
+                    optionsWithFailure(testName, false));
+        }
+        String msg = "Worker should run " + testName + " first, ran " 
+                + actual.get(0).getProcedure().getName() + " first";
+        TestRunnerCheck.check(actual.size() == all.size() && actual.get(0) 
+                .getProcedure().getName().equals(testName), msg);
+    }
+
+    private static void checkWorkerReuseIsIsolated() {
+        System.out.println("runClass, reused worker");
+        String name = "org.testframe.engine.IsolatedToyTests";
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            for (int i = 0; i < 3; i++) {
+                List<TestResult> results = pool.runClass(name, 
+                        new RunOptions());
+                String msg = "Run " + i + " should have had fresh state";
+                TestRunnerCheck.check(results.size() == 1 && results.get(0) 
+                        .getStatus() == TestResultStatus.PASSED, msg);
+            }
+        }
+    }
+
+    private static void checkBrokenSetUpInWorker() {
+        System.out.println("runClass, broken set up");
+        List<TestResult> broken;
+        List<TestResult> next;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            broken = pool.runClass("org.testframe.engine.BrokenSetUpToyTests", 
+                    new RunOptions());
+            next = pool.runClass(TEST_CLASS_NAME, new RunOptions());
+        }
+        String msg = "Expected 2 results for BrokenSetUpToyTests, got " 
+                + broken;
+        TestRunnerCheck.check(broken.size() == 2, msg);
+        for (TestResult result : broken) {
+            Throwable cause = result.getInformation();
+            msg = "Expected error from set up, got " + cause;
+            TestRunnerCheck.check(result.getStatus() == TestResultStatus.ERROR 
+                    && cause != null
+                    && cause.getMessage().contains("BeforeAllTests"), msg);
+        }
+        msg = "Worker should have gone on to the next test class";
+        TestRunnerCheck.check(next.size() == 12, msg);
+    }
+
+    private static void checkWorkerExitIsReported() {
+        System.out.println("run, worker exits");
+        List<String> names = Arrays.asList( 
+                "org.testframe.engine.ExitingToyTests", TEST_CLASS_NAME);
+        Map<String, List<TestResult>> map;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            map = pool.run(names, new RunOptions());
+        }
+        List<TestResult> exited = map.get(names.get(0));
+        String msg = "Test that exited should be reported as an error";
+        TestRunnerCheck.check(exited.size() == 2 && exited.get(0).getStatus() 
+                == TestResultStatus.ERROR, msg);
+        msg = "Skipped test should still be reported as skipped";
+        TestRunnerCheck.check(exited.get(1).getStatus() 
+                == TestResultStatus.SKIPPED, msg);
+        msg = "Next test class should have run in a new worker";
+        TestRunnerCheck.check(map.get(TEST_CLASS_NAME).size() == 12, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkRunClassGivesSameResults();
+        checkFailureHistoryInWorker();
+        checkFailFastInWorker();
+        checkWorkerReuseIsIsolated();
+        checkBrokenSetUpInWorker();
+        checkWorkerExitIsReported();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.testframe.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that the test runner notices the heap growing. Like a 
+ * careless fixture, each test adds to a static list that is never cleared.
+ * @author Alonso del Arte
+ */
+public class HeapGrowingToyTests {
+
+    static final int RETAINED_PER_TEST = 1 << 20;
+
+    private static final List<byte[]> HELD = new ArrayList<>();
+
+    @Test
+    public void testThatRetainsA() {
+        HELD.add(new byte[RETAINED_PER_TEST]);
+    }
+
+    @Test
+    public void testThatRetainsB() {
+        HELD.add(new byte[RETAINED_PER_TEST]);
+    }
+
+    @Test
+    public void testThatRetainsC() {
+        HELD.add(new byte[RETAINED_PER_TEST]);
+    }
+
+}
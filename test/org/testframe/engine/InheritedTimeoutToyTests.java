@@ -0,0 +1,13 @@
+package org.testframe.engine;
+
+import org.testframe.api.Timeout;
+
+/**
+ * Toy tests to check that a timeout on a test class applies to the tests it 
+ * inherits. The test without a timeout of its own takes longer than this 
+ * class allows.
+ * @author Alonso del Arte
+ */
+@Timeout(TimeoutToyTests.UNANNOTATED_DURATION / 3)
+public class InheritedTimeoutToyTests extends TimeoutToyTests {
+}
@@ -0,0 +1,23 @@
+package org.testframe.engine;
+
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that ForkedWorkerPool gives each run of a test class 
+ * fresh static state, even when the same worker is reused. The test only 
+ * passes the first time it runs in a given class loader.
+ * @author Alonso del Arte
+ */
+public class IsolatedToyTests {
+
+    private static int runCount = 0;
+
+    @Test
+    public void testStaticStateIsFresh() {
+        runCount++;
+        String msg = "Expected static state to be fresh, but run count is " 
+                + runCount;
+        assert runCount == 1 : msg;
+    }
+
+}
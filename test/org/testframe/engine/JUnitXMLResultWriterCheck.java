@@ -0,0 +1,103 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Checks of the JUnitXMLResultWriter class. These use YetMoreToyTests, which 
+ * has three tests each that pass, fail, cause an error or are skipped.
+ * @author Alonso del Arte
+ */
+public class JUnitXMLResultWriterCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static String runToXML() {
+        StringWriter out = new StringWriter();
+        JUnitXMLResultWriter writer = new JUnitXMLResultWriter(out);
+        RunOptions options = new RunOptions();
+        options.addListener(writer);
+        options.setParallelism(4);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        try {
+            writer.close();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to close writer", ioe);
+        }
+        return out.toString();
+    }
+
+    private static void checkTestSuiteCounts() {
+        System.out.println("testClassFinished, counts");
+        String xml = runToXML();
+        String expected = "<testsuite name=\"" + TEST_CLASS_NAME 
+                + "\" tests=\"12\" failures=\"3\" errors=\"3\" skipped=\"3\"";
+        String msg = "Expected XML to contain " + expected;
+        TestRunnerCheck.check(xml.contains(expected), msg);
+        msg = "Expected XML to start with declaration and end with root";
+        TestRunnerCheck.check(xml.startsWith("<?xml"), msg);
+        TestRunnerCheck.check(xml.trim().endsWith("</testsuites>"), msg);
+    }
+
+    private static void checkTrimmedStackTraces() {
+        System.out.println("testClassFinished, stack traces");
+        String xml = runToXML();
+        String msg = "Expected failures to have stack traces";
+        TestRunnerCheck.check(xml.contains("\tat " + TEST_CLASS_NAME), msg);
+        msg = "Expected runner frames to be trimmed from stack traces";
+        TestRunnerCheck.check(!xml.contains("org.testframe.engine.TestRunner"), 
+                msg);
+    }
+
+    private static StackTraceElement frame(String className, String name) {
+        return new StackTraceElement(className, name, null, -1);
+    }
+
+    private static void checkTrimKeepsFramesAboveRunner() {
+        System.out.println("StackTraceTrimmer.trim, frames above runner");
+        AssertionError error = new AssertionError("Meant to fail");
+        error.setStackTrace(new StackTraceElement[] {
+            frame(TEST_CLASS_NAME, "lambda$testInStream$0"), 
+            frame("java.util.stream.ReferencePipeline$3$1", "accept"), 
+            frame("java.util.concurrent.ForkJoinTask", "doExec"), 
+            frame(TEST_CLASS_NAME, "testInStream"), 
+            frame("jdk.internal.reflect.DirectMethodHandleAccessor", "invoke"), 
+            frame("java.lang.reflect.Method", "invoke"), 
+            frame("org.testframe.engine.ProcedureHandle", "invoke"), 
+            frame("org.testframe.engine.TestRunner", "run")});
+        String trace = StackTraceTrimmer.trim(error);
+        String msg = "Expected frames the test goes through to be kept in " 
+                + trace;
+        TestRunnerCheck.check(trace.contains("ReferencePipeline"), msg);
+        TestRunnerCheck.check(trace.contains("ForkJoinTask"), msg);
+        TestRunnerCheck.check(trace.contains("testInStream("), msg);
+        msg = "Expected reflection and runner frames to be trimmed from " 
+                + trace;
+        TestRunnerCheck.check(!trace.contains("java.lang.reflect"), msg);
+        TestRunnerCheck.check(!trace.contains("jdk.internal"), msg);
+        TestRunnerCheck.check(!trace.contains("org.testframe.engine.Proc"), 
+                msg);
+    }
+
+    private static void checkEscape() {
+        System.out.println("escape");
+        String expected = "a &lt; b &amp;&amp; c &gt; &quot;d&quot;";
+        String actual = JUnitXMLResultWriter.escape("a < b && c > \"d\"\u0001");
+        String msg = "Expected \"" + expected + "\" but got \"" + actual + "\"";
+        TestRunnerCheck.check(expected.equals(actual), msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkTestSuiteCounts();
+        checkTrimmedStackTraces();
+        checkTrimKeepsFramesAboveRunner();
+        checkEscape();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.testframe.engine;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.testframe.api.AfterAllTests;
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that the test runner notices leaked resources. Each 
+ * leaky test holds on to what it leaks until the tear-down.
+ * @author Alonso del Arte
+ */
+public class LeakyToyTests {
+
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    private static final List<Object> HELD = new ArrayList<>();
+
+    @Test
+    public void testThatLeaksThread() {
+        Thread thread = new Thread(() -> {
+            try {
+                RELEASE.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }, "LeakyToyTests-leaked");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Test
+    public void testThatLeaksFile() throws IOException {
+        Path file = Files.createTempFile("leaky", ".txt");
+        file.toFile().deleteOnExit();
+        HELD.add(new FileInputStream(file.toFile()));
+    }
+
+    @Test
+    public void testThatLeaksDirectBuffer() {
+        HELD.add(ByteBuffer.allocateDirect(1 << 20));
+    }
+
+    @Test
+    public void testThatCleansUp() throws IOException, InterruptedException {
+        Thread thread = new Thread(() -> {}, "LeakyToyTests-joined");
+        thread.start();
+        thread.join();
+        Path file = Files.createTempFile("tidy", ".txt");
+        try (InputStream stream = new FileInputStream(file.toFile())) {
+            assert stream.read() == -1 : "Temporary file should be empty";
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @AfterAllTests
+    public void tearDownClass() throws IOException {
+        RELEASE.countDown();
+        for (Object held : HELD) {
+            if (held instanceof InputStream) {
+                ((InputStream) held).close();
+            }
+        }
+        HELD.clear();
+    }
+
+}
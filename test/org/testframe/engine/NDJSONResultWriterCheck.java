@@ -0,0 +1,68 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Checks of the NDJSONResultWriter class. These use YetMoreToyTests, which has 
+ * three tests each that pass, fail, cause an error or are skipped.
+ * @author Alonso del Arte
+ */
+public class NDJSONResultWriterCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static void checkTestFinished() {
+        System.out.println("testFinished");
+        StringWriter out = new StringWriter();
+        NDJSONResultWriter writer = new NDJSONResultWriter(out);
+        RunOptions options = new RunOptions();
+        options.addListener(writer);
+        options.setParallelism(4);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        try {
+            writer.close();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to close writer", ioe);
+        }
+        String[] lines = out.toString().split("\n");
+        String msg = "Expected 12 lines, got " + lines.length;
+        TestRunnerCheck.check(lines.length == 12, msg);
+        int failures = 0;
+        for (String line : lines) {
+            msg = "Expected line to be a JSON object: " + line;
+            TestRunnerCheck.check(line.startsWith("{\"class\":\"" 
+                    + TEST_CLASS_NAME + "\",") && line.endsWith("}"), msg);
+            if (line.contains("\"status\":\"FAILED\"")) {
+                failures++;
+                msg = "Expected failure to have stack trace: " + line;
+                TestRunnerCheck.check(line.contains("\\tat "), msg);
+            }
+        }
+        msg = "Expected 3 failures, got " + failures;
+        TestRunnerCheck.check(failures == 3, msg);
+    }
+
+    private static void checkQuote() {
+        System.out.println("quote");
+        String expected = "\"say \\\"hi\\\"\\n\\\\ \\u0001\"";
+        String actual = NDJSONResultWriter.quote("say \"hi\"\n\\ \u0001");
+        String msg = "Expected " + expected + " but got " + actual;
+        TestRunnerCheck.check(expected.equals(actual), msg);
+        msg = "Null should be quoted as JSON null";
+        TestRunnerCheck.check("null".equals(NDJSONResultWriter.quote(null)), 
+                msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkTestFinished();
+        checkQuote();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,347 @@
+package org.testframe.engine;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks of tests with parameters, by way of the test runner, and of the 
+ * ArgumentSources class. These use ParameterizedToyTests, which has tests 
+ * that take their arguments from procedures, from a CSV file and from a 
+ * random generator, as well as tests whose arguments can't be had.
+ * @author Alonso del Arte
+ */
+public class ParameterizedTestsCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.ParameterizedToyTests";
+
+    private static List<TestResult> invocations(List<TestResult> results, 
+            String name) {
+        List<TestResult> invocations = new ArrayList<>();
+        for (TestResult result : results) {
+            if (result.getProcedure().getName().equals(name)) {
+                invocations.add(result);
+            }
+        }
+        return invocations;
+    }
+
+    private static List<TestResult> runStreamed(RunOptions options) {
+        List<TestResult> streamed = Collections 
+                .synchronizedList(new ArrayList<>());
+        options.addListener((testClassName, result) -> streamed.add(result));
+        TestRunner.run(TEST_CLASS_NAME, options);
+        return streamed;
+    }
+
+    private static void checkInvocationsFromMethod(List<TestResult> results) {
+        System.out.println("Invocations from method source");
+        List<TestResult> squares = invocations(results, "testSquare");
+        String msg = "Expected " + ParameterizedToyTests.SQUARES 
+                + " invocations, got " + squares.size();
+        TestRunnerCheck.check(squares.size() 
+                == ParameterizedToyTests.SQUARES, msg);
+        for (int i = 0; i < squares.size(); i++) {
+            TestResult result = squares.get(i);
+            TestResultStatus expected = i == 6 ? TestResultStatus.FAILED 
+                    : TestResultStatus.PASSED;
+            msg = "Invocation " + (i + 1) + " should have status " 
+                    + expected + ", got " + result.getStatus() + " "
+                    + result.getInformation();
+            TestRunnerCheck.check(result.getStatus() == expected, msg);
+            msg = "Invocations should be numbered in order";
+            TestRunnerCheck.check(result.getInvocation().getIndex() == i + 1, 
+                    msg);
+        }
+        String name = squares.get(6).getTestName();
+        System.out.println(name);
+        msg = "Expected name testSquare[7](7, 49), got " + name;
+        TestRunnerCheck.check(name.equals("testSquare[7](7, 49)"), msg);
+        List<TestResult> words = invocations(results, "testWordLength");
+        msg = "Single arguments from an iterator should each be an invocation";
+        TestRunnerCheck.check(words.size() == 3 && words.get(0).getTestName() 
+                .equals("testWordLength[1](\"alpha\")"), msg);
+        msg = "Short word should fail";
+        TestRunnerCheck.check(words.get(1).getStatus() 
+                == TestResultStatus.FAILED, msg);
+        TestResult ordinary = TestRunnerCheck.find(results, 
+                "testWithoutParameters");
+        msg = "Test without parameters should have no invocation";
+        TestRunnerCheck.check(ordinary.getInvocation() == null 
+                && ordinary.getTestName().equals("testWithoutParameters")
+                && ordinary.getStatus() == TestResultStatus.PASSED, msg);
+    }
+
+    private static void checkArgumentsMadeLazily() {
+        System.out.println("Arguments made lazily");
+        ParameterizedToyTests.SQUARES_MADE.set(0);
+        List<Integer> madeWhenFinished = new ArrayList<>();
+        RunOptions options = new RunOptions();
+        options.addListener((testClassName, result) -> {
+            if (result.getInvocation() != null && result.getProcedure() 
+                    .getName().equals("testSquare")) {
+                madeWhenFinished.add(ParameterizedToyTests.SQUARES_MADE 
+                        .get());
+            }
+        });
+        TestRunner.run(TEST_CLASS_NAME, options);
+        String msg = "Each set of arguments should only be made when needed, " 
+                + "made " + madeWhenFinished;
+        TestRunnerCheck.check(madeWhenFinished.size() 
+                == ParameterizedToyTests.SQUARES, msg);
+        for (int i = 0; i < madeWhenFinished.size(); i++) {
+            TestRunnerCheck.check(madeWhenFinished.get(i) == i + 1, msg);
+        }
+    }
+
+    private static void checkInvocationsFromCSV(List<TestResult> results) {
+        System.out.println("Invocations from CSV file");
+        List<TestResult> palindromes = invocations(results, 
+                "testIsPalindrome");
+        String msg = "Expected 6 invocations, got " + palindromes.size();
+        TestRunnerCheck.check(palindromes.size() == 6, msg);
+        for (TestResult result : palindromes) {
+            System.out.println(result.getTestName() + " " 
+                    + result.getStatus());
+            msg = "Invocation " + result.getTestName() + " should pass, got " 
+                    + result.getInformation();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.PASSED, msg);
+        }
+        msg = "Quoted field should keep its commas";
+        TestRunnerCheck.check(palindromes.get(2).getInvocation() 
+                .getArguments().equals("\"A man, a plan, a canal: Panama\", " 
+                        + "\"true\""), msg);
+        String[] fields = ArgumentSources.splitCSV("\"She said \"\"wow\"\"\"," 
+                + "12,,x");
+        msg = "Expected 4 fields, got " + Arrays.toString(fields);
+        TestRunnerCheck.check(Arrays.equals(fields, new String[] 
+                {"She said \"wow\"", "12", "", "x"}), msg);
+    }
+
+    private static void checkInvocationsFromRandom(List<TestResult> results) {
+        System.out.println("Invocations from random generator");
+        List<TestResult> randoms = invocations(results, "testRandomValues");
+        String msg = "Expected " + ParameterizedToyTests.RANDOM_COUNT 
+                + " invocations, got " + randoms.size();
+        TestRunnerCheck.check(randoms.size() 
+                == ParameterizedToyTests.RANDOM_COUNT, msg);
+        for (TestResult result : randoms) {
+            msg = "Random invocation should pass, got " 
+                    + result.getInformation();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.PASSED, msg);
+        }
+        msg = "Random values should vary, got " 
+                + ParameterizedToyTests.RANDOM_ARGUMENTS;
+        TestRunnerCheck.check(ParameterizedToyTests.RANDOM_ARGUMENTS.size() 
+                > 1, msg);
+        List<String> again = invocations(runStreamed(new RunOptions()), 
+                "testRandomValues").stream()
+                .map(TestResult::getTestName).collect(Collectors.toList());
+        List<String> first = randoms.stream().map(TestResult::getTestName) 
+                .collect(Collectors.toList());
+        msg = "Same seed should give same arguments";
+        TestRunnerCheck.check(first.equals(again), msg);
+    }
+
+    private static void checkMissingSourcesCauseError( 
+            List<TestResult> results) {
+        System.out.println("Missing argument sources cause error");
+        for (String name : Arrays.asList("testWithMissingSource", 
+                "testWithoutSource")) {
+            List<TestResult> list = invocations(results, name);
+            String msg = name + " should have one error result, got " + list;
+            TestRunnerCheck.check(list.size() == 1 && list.get(0).getStatus() 
+                    == TestResultStatus.ERROR
+                    && list.get(0).getInvocation() == null, msg);
+            System.out.println("\"" + list.get(0).getInformation() + "\"");
+        }
+    }
+
+    private static void checkConversions() throws Throwable {
+        System.out.println("Conversions and descriptions");
+        Method test = ParameterizedToyTests.class.getMethod("testRandomValues", 
+                long.class, TestResultStatus.class, String.class);
+        Object[] converted = ArgumentSources.convert(new Object[] {" 12", 
+            "SKIPPED", "text"}, test.getParameterTypes());
+        String msg = "Expected 12, SKIPPED and text, got " 
+                + Arrays.toString(converted);
+        TestRunnerCheck.check(converted[0].equals(12L) 
+                && converted[1] == TestResultStatus.SKIPPED
+                && converted[2].equals("text"), msg);
+        try {
+            ArgumentSources.convert(new Object[] {"twelve", "PASSED", ""}, 
+                    test.getParameterTypes());
+            TestRunnerCheck.check(false, "\"twelve\" should not convert");
+        } catch (IllegalArgumentException iae) {
+            System.out.println("\"" + iae.getMessage() + "\"");
+        }
+        SplittableRandom random = new SplittableRandom(1L);
+        long clamped = ArgumentSources.nextInRange(random, 1000L, 5000L, 
+                Byte.MIN_VALUE, Byte.MAX_VALUE);
+        msg = "Range above byte should come down to 127, got " + clamped;
+        TestRunnerCheck.check(clamped == Byte.MAX_VALUE, msg);
+        long wide = ArgumentSources.nextInRange(random, Long.MIN_VALUE + 1L, 
+                Long.MAX_VALUE - 1L, Long.MIN_VALUE, Long.MAX_VALUE);
+        msg = "Range of almost all longs should be generated from";
+        TestRunnerCheck.check(wide > Long.MIN_VALUE 
+                && wide < Long.MAX_VALUE, msg);
+        char[] longText = new char[200];
+        Arrays.fill(longText, 'x');
+        String description = ArgumentSources.describe(new Object[] {'c', 
+            new int[] {1, 2}, null, new String(longText)});
+        System.out.println(description);
+        msg = "Long description should be cut short";
+        TestRunnerCheck.check(description.length() == 80 
+                && description.startsWith("'c', [1, 2], null, \"xxx")
+                && description.endsWith("..."), msg);
+        try (Stream<Object[]> stream = ArgumentSources.open(test, null)) {
+            Set<String> first = stream.map(ArgumentSources::describe) 
+                    .collect(Collectors.toSet());
+            msg = "Expected " + ParameterizedToyTests.RANDOM_COUNT 
+                    + " distinct sets of arguments, got " + first.size();
+            TestRunnerCheck.check(first.size() 
+                    == ParameterizedToyTests.RANDOM_COUNT, msg);
+        }
+    }
+
+    private static void checkPassingInvocationsFolded( 
+            List<TestResult> results) {
+        System.out.println("Passing invocations folded into one result");
+        List<TestResult> squares = invocations(results, "testSquare");
+        String msg = "Expected passing invocations and failing invocation, " 
+                + "got " + squares.size() + " results";
+        TestRunnerCheck.check(squares.size() == 2, msg);
+        TestResult folded = squares.get(0);
+        RepetitionSummary summary = folded.getRepetitionSummary();
+        msg = "Expected " + (ParameterizedToyTests.SQUARES - 1) 
+                + " passing invocations in one result, got "
+                + folded.getTestName();
+        TestRunnerCheck.check(folded.getStatus() == TestResultStatus.PASSED 
+                && folded.getInvocation() == null && summary != null
+                && summary.getPassedCount() 
+                        == ParameterizedToyTests.SQUARES - 1, msg);
+        msg = "Failing invocation should be kept on its own";
+        TestRunnerCheck.check(squares.get(1).getTestName() 
+                .equals("testSquare[7](7, 49)"), msg);
+        String line = TestResultsReporter.formatInvocations(summary);
+        System.out.println(line);
+        msg = "Expected count of arguments in " + line;
+        TestRunnerCheck.check(line.startsWith("Passed with " 
+                + (ParameterizedToyTests.SQUARES - 1) + " sets"), msg);
+    }
+
+    private static void checkParallelInvocations(List<TestResult> expected) {
+        System.out.println("Invocations in parallel");
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, 4);
+        List<String> expectedNames = expected.stream() 
+                .map(result -> result.getTestName() + " " + result.getStatus())
+                .collect(Collectors.toList());
+        List<String> names = results.stream() 
+                .map(result -> result.getTestName() + " " + result.getStatus())
+                .collect(Collectors.toList());
+        String msg = "Parallel results should match sequential results, got " 
+                + names;
+        TestRunnerCheck.check(names.equals(expectedNames), msg);
+    }
+
+    private static void checkFailureLimit() {
+        System.out.println("Failure limit stops invocations");
+        RunOptions options = new RunOptions();
+        options.setMaxFailures(1);
+        List<TestResult> results = runStreamed(options);
+        List<TestResult> squares = invocations(results, "testSquare");
+        String msg = "Invocations should stop after the first failure, got " 
+                + squares.size();
+        TestRunnerCheck.check(squares.size() <= 7, msg);
+    }
+
+    private static void checkFailureHistory() {
+        System.out.println("Failure history decides once per test");
+        FailureHistory history = new FailureHistory();
+        history.addFailure(TEST_CLASS_NAME, "testIsPalindrome");
+        for (int i = 0; i < 5; i++) {
+            RunOptions options = new RunOptions();
+            options.setParallelism(4);
+            options.setFailureHistory(history);
+            TestRunner.run(TEST_CLASS_NAME, options);
+            String msg = "testSquare has a failing invocation, so it should " 
+                    + "stay in the history after run " + (i + 1);
+            TestRunnerCheck.check(history.hasFailed(TEST_CLASS_NAME, 
+                    "testSquare"), msg);
+        }
+        String msg = "testIsPalindrome passes every invocation, so it " 
+                + "should leave the history";
+        TestRunnerCheck.check(!history.hasFailed(TEST_CLASS_NAME, 
+                "testIsPalindrome"), msg);
+    }
+
+    private static void checkDurationHistory() {
+        System.out.println("Duration history sums up invocations");
+        DurationHistory history = new DurationHistory();
+        RunOptions options = new RunOptions();
+        options.setParallelism(4);
+        options.setDurationHistory(history);
+        long expected = 0L;
+        for (TestResult result : invocations(runStreamed(options), 
+                "testSquare")) {
+            expected += result.getMetrics().getWallNanoseconds();
+        }
+        long actual = history.getTestEstimate(TEST_CLASS_NAME, "testSquare");
+        String msg = "Expected estimate of " + expected 
+                + " ns for all invocations of testSquare, got " + actual;
+        TestRunnerCheck.check(actual == expected, msg);
+    }
+
+    private static void checkInvocationsInWorker(List<TestResult> expected) {
+        System.out.println("Invocations in forked worker");
+        List<TestResult> results;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            results = pool.runClass(TEST_CLASS_NAME, new RunOptions());
+        }
+        String msg = "Expected " + expected.size() + " results, got " 
+                + results.size();
+        TestRunnerCheck.check(results.size() == expected.size(), msg);
+        TestResult result = invocations(results, "testSquare").get(1);
+        msg = "Invocation should come back from worker, got " 
+                + result.getTestName();
+        TestRunnerCheck.check(result.getTestName() 
+                .equals("testSquare[7](7, 49)")
+                && result.getStatus() == TestResultStatus.FAILED, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws Throwable If a check fails or can't be carried out.
+     */
+    public static void main(String[] args) throws Throwable {
+        RunOptions options = new RunOptions();
+        List<TestResult> streamed = Collections 
+                .synchronizedList(new ArrayList<>());
+        options.addListener((testClassName, result) -> streamed.add(result));
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, options);
+        checkInvocationsFromMethod(streamed);
+        checkArgumentsMadeLazily();
+        checkInvocationsFromCSV(streamed);
+        checkInvocationsFromRandom(streamed);
+        checkMissingSourcesCauseError(results);
+        checkPassingInvocationsFolded(results);
+        checkConversions();
+        checkParallelInvocations(results);
+        checkFailureLimit();
+        checkFailureHistory();
+        checkDurationHistory();
+        checkInvocationsInWorker(results);
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.testframe.engine;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.testframe.api.BeforeEachTest;
+import org.testframe.api.CSVSource;
+import org.testframe.api.MethodSource;
+import org.testframe.api.RandomSource;
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that the test runner invokes tests with parameters once 
+ * for each set of arguments. The arguments come from a procedure that makes 
+ * them as they're needed, from a CSV file, from a random generator, from a 
+ * procedure that doesn't exist, and from a procedure that gives a single 
+ * argument per invocation.
+ * @author Alonso del Arte
+ */
+public class ParameterizedToyTests {
+
+    static final int SQUARES = 12;
+
+    static final int RANDOM_COUNT = 25;
+
+    static final int RANDOM_MAX = 50;
+
+    static final String CSV_FILE = "palindromes.csv";
+
+    static final AtomicInteger SQUARES_MADE = new AtomicInteger();
+
+    static final Set<Long> RANDOM_ARGUMENTS = ConcurrentHashMap.newKeySet();
+
+    private boolean setUpRan = false;
+
+    @BeforeEachTest
+    public void setUp() {
+        this.setUpRan = true;
+    }
+
+    public static Stream<Object[]> squares() {
+        return Stream.iterate(1, n -> n + 1).limit(SQUARES).map(n -> {
+            SQUARES_MADE.incrementAndGet();
+            return new Object[] {n, n * n};
+        });
+    }
+
+    public Iterator<String> words() {
+        List<String> words = Arrays.asList("alpha", "pi", "gamma");
+        return words.iterator();
+    }
+
+    static boolean isPalindrome(String text) {
+        StringBuilder letters = new StringBuilder();
+        for (char ch : text.toLowerCase().toCharArray()) {
+            if (Character.isLetter(ch)) {
+                letters.append(ch);
+            }
+        }
+        return letters.toString().equals(letters.reverse().toString());
+    }
+
+    @Test @MethodSource("squares")
+    public void testSquare(int n, long square) {
+        assert this.setUpRan : "Set-up should run before each invocation";
+        this.setUpRan = false;
+        assert n != 7 : "Seven is unlucky";
+        assert (long) n * n == square : n + " squared should be " + square;
+    }
+
+    @Test @MethodSource("words")
+    public void testWordLength(String word) {
+        assert word.length() > 3 : "Word " + word + " is too short";
+    }
+
+    @Test @CSVSource(value = CSV_FILE, header = true)
+    public void testIsPalindrome(String text, boolean expected) {
+        assert isPalindrome(text) == expected : "\"" + text + "\" " 
+                + (expected ? "should" : "should not") + " be a palindrome";
+    }
+
+    @Test @RandomSource(count = RANDOM_COUNT, seed = 42L, min = 0L, 
+            max = RANDOM_MAX)
+    public void testRandomValues(long value, TestResultStatus status, 
+            String text) {
+        RANDOM_ARGUMENTS.add(value);
+        assert value >= 0L && value <= RANDOM_MAX : value + " out of range";
+        assert status != null && text.length() <= 20;
+    }
+
+    @Test @MethodSource("noSuchSource")
+    public void testWithMissingSource(int n) {
+        assert n > 0;
+    }
+
+    @Test
+    public void testWithoutSource(int n) {
+        assert n > 0;
+    }
+
+    @Test
+    public void testWithoutParameters() {
+        assert this.setUpRan;
+    }
+
+}
@@ -0,0 +1,200 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks of the PerformanceBaseline and BaselineComparison classes, and of 
+ * failing benchmarks that got slower than their baselines. These use 
+ * SlowingToyTests, which has a benchmark that can be made slower between 
+ * runs.
+ * @author Alonso del Arte
+ */
+public class PerformanceBaselineCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.SlowingToyTests";
+
+    private static final String BENCHMARK_NAME = "benchmarkBusyWait";
+
+    private static void checkSlowdownPValue() {
+        System.out.println("slowdownPValue");
+        double[] baseline = {10.0, 10.5, 9.5, 10.25, 9.75, 10.0, 10.5, 9.5};
+        double[] slower = {15.0, 15.5, 14.5, 15.25, 14.75, 15.0, 15.5, 14.5};
+        double p = BaselineComparison.slowdownPValue(baseline, slower);
+        String msg = "Clear slowdown should have p below 0.001, had " + p;
+        TestRunnerCheck.check(p < 0.001, msg);
+        p = BaselineComparison.slowdownPValue(slower, baseline);
+        msg = "Clear speed-up should have p above 0.999, had " + p;
+        TestRunnerCheck.check(p > 0.999, msg);
+        p = BaselineComparison.slowdownPValue(baseline, baseline);
+        msg = "Same samples should have p about 0.5, had " + p;
+        TestRunnerCheck.check(p > 0.4 && p < 0.6, msg);
+        double[] tied = {10.0, 10.0, 10.0};
+        p = BaselineComparison.slowdownPValue(tied, tied);
+        msg = "All samples tied should have p 1, had " + p;
+        TestRunnerCheck.check(p == 1.0, msg);
+    }
+
+    private static void checkIsRegression() {
+        System.out.println("isRegression");
+        double[] baseline = {10.0, 10.1, 9.9, 10.05, 9.95, 10.0, 10.1, 9.9};
+        double[] slightlySlower = {10.5, 10.6, 10.4, 10.55, 10.45, 10.5, 
+            10.6, 10.4};
+        BaselineComparison comparison = new BaselineComparison(baseline, 
+                slightlySlower, 0.1);
+        String msg = "5% slowdown should be within 10% tolerance";
+        TestRunnerCheck.check(!comparison.isRegression(), msg);
+        comparison = new BaselineComparison(baseline, slightlySlower, 0.0);
+        msg = "5% slowdown should be a regression without tolerance, p was " 
+                + comparison.getPValue();
+        TestRunnerCheck.check(comparison.isRegression(), msg);
+        msg = "Relative change should be 0.05, was " 
+                + comparison.getRelativeChange();
+        TestRunnerCheck.check(Math.abs(comparison.getRelativeChange() - 0.05) 
+                < 0.00001, msg);
+        double[] few = {10.0, 10.5};
+        double[] fewSlower = {20.0, 21.0};
+        comparison = new BaselineComparison(few, fewSlower, 0.1);
+        msg = "Two samples each should be too few for significance";
+        TestRunnerCheck.check(!comparison.isRegression(), msg);
+        try {
+            new BaselineComparison(few, new double[0], 0.1);
+            TestRunnerCheck.check(false, "Empty samples should be rejected");
+        } catch (IllegalArgumentException iae) {
+            System.out.println("\"" + iae.getMessage() + "\"");
+        }
+    }
+
+    private static TestResult runBenchmark(RunOptions options) {
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, options);
+        return TestRunnerCheck.find(results, BENCHMARK_NAME);
+    }
+
+    private static void checkRegressionFails() {
+        System.out.println("execute, baseline");
+        RunOptions options = new RunOptions();
+        options.setBaseline(new PerformanceBaseline());
+        SlowingToyTests.workNanos = 20000L;
+        TestResult result = runBenchmark(options);
+        String msg = "First run should record the baseline";
+        TestRunnerCheck.check(options.getBaseline().size() == 1 
+                && result.getBaselineComparison() == null, msg);
+        result = runBenchmark(options);
+        msg = "Run at the same speed should pass, was " + result.getStatus();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED, 
+                msg);
+        msg = "Run at the same speed should be compared to baseline";
+        TestRunnerCheck.check(result.getBaselineComparison() != null, msg);
+        SlowingToyTests.workNanos = 40000L;
+        try {
+            result = runBenchmark(options);
+            msg = "Run at half the speed should fail, was " 
+                    + result.getStatus();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.FAILED, msg);
+            System.out.println(result.getInformation().getMessage());
+            System.out.println(TestResultsReporter.formatComparison(result 
+                    .getBaselineComparison()));
+            TestResult other = TestRunnerCheck.find(TestRunner 
+                    .run(TEST_CLASS_NAME, options), "testThatIsNotBenchmark");
+            msg = "Test that is not a benchmark should not be compared";
+            TestRunnerCheck.check(other.getBaselineComparison() == null, msg);
+            options.setUpdateBaseline(true);
+            result = runBenchmark(options);
+            msg = "Updating baseline should pass, was " + result.getStatus();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.PASSED, msg);
+            options.setUpdateBaseline(false);
+            result = runBenchmark(options);
+            msg = "Run at updated baseline speed should pass, was " 
+                    + result.getStatus();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.PASSED, msg);
+        } finally {
+            SlowingToyTests.workNanos = 20000L;
+        }
+    }
+
+    private static void checkRegressionFailsRun() throws IOException {
+        System.out.println("run, -baseline");
+        Path file = Files.createTempFile("baseline", ".txt");
+        Files.delete(file);
+        String[] args = {TEST_CLASS_NAME, "-baseline=" + file};
+        SlowingToyTests.workNanos = 20000L;
+        try {
+            String msg = "Run that records the baseline should succeed";
+            TestRunnerCheck.check(TestRunner.run(RunOptions.parse(args)), msg);
+            SlowingToyTests.workNanos = 40000L;
+            msg = "Run at half the speed of the baseline should not succeed";
+            TestRunnerCheck.check(!TestRunner.run(RunOptions.parse(args)), 
+                    msg);
+        } finally {
+            SlowingToyTests.workNanos = 20000L;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void checkSaveAndLoad() throws IOException {
+        System.out.println("save, load");
+        Path file = Files.createTempFile("baseline", ".txt");
+        try {
+            PerformanceBaseline baseline = new PerformanceBaseline(file);
+            double[] samples = {12.5, 12.25, 12.75};
+            baseline.record(TEST_CLASS_NAME, BENCHMARK_NAME, samples);
+            baseline.save();
+            Files.write(file, "Not a baseline line\n".getBytes(), 
+                    StandardOpenOption.APPEND);
+            PerformanceBaseline loaded = new PerformanceBaseline(file);
+            String msg = "Loaded baseline should have 1 benchmark, has " 
+                    + loaded.size();
+            TestRunnerCheck.check(loaded.size() == 1, msg);
+            msg = "Loaded samples should match saved samples";
+            TestRunnerCheck.check(Arrays.equals(samples, 
+                    loaded.getSamples(TEST_CLASS_NAME, BENCHMARK_NAME)), msg);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void checkCommandLineOptions() throws IOException {
+        System.out.println("parse, -baseline, -tolerance, -update-baseline");
+        Path file = Files.createTempFile("baseline", ".txt");
+        try {
+            String[] args = {TEST_CLASS_NAME, "-baseline=" + file, 
+                "-tolerance=25", "-update-baseline"};
+            RunOptions options = RunOptions.parse(args);
+            String msg = "Baseline should be loaded from " + file;
+            TestRunnerCheck.check(options.getBaseline() != null 
+                    && file.equals(options.getBaseline().getFile()), msg);
+            msg = "Tolerance should be 0.25, was " 
+                    + options.getRegressionTolerance();
+            TestRunnerCheck.check(options.getRegressionTolerance() == 0.25, 
+                    msg);
+            msg = "Baseline should be updated";
+            TestRunnerCheck.check(options.isUpdateBaseline(), msg);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws Exception If the temporary file can't be used.
+     */
+    public static void main(String[] args) throws Exception {
+        checkSlowdownPValue();
+        checkIsRegression();
+        checkRegressionFails();
+        checkRegressionFailsRun();
+        checkSaveAndLoad();
+        checkCommandLineOptions();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Checks of the ProcedureHandle class.
+ * @author Alonso del Arte
+ */
+public class ProcedureHandleCheck {
+
+    private static int staticInvocationCount = 0;
+
+    private int invocationCount = 0;
+
+    public void instanceProcedure() {
+        this.invocationCount++;
+    }
+
+    public static void staticProcedure() {
+        staticInvocationCount++;
+    }
+
+    public int functionWithResult() {
+        return ++this.invocationCount;
+    }
+
+    public void throwingProcedure() throws Exception {
+        throw new IOException("For testing purposes only");
+    }
+
+    private static Method lookUp(String name) {
+        try {
+            return ProcedureHandleCheck.class.getMethod(name);
+        } catch (NoSuchMethodException nsme) {
+            throw new RuntimeException("Unable to find " + name, nsme);
+        }
+    }
+
+    private static void checkGetProcedure() {
+        System.out.println("getProcedure");
+        Method expected = lookUp("instanceProcedure");
+        Method actual = new ProcedureHandle(expected).getProcedure();
+        String msg = "Expected " + expected.getName() + ", got " 
+                + actual.getName();
+        TestRunnerCheck.check(expected.equals(actual), msg);
+    }
+
+    private static void checkInvoke() throws Throwable {
+        System.out.println("invoke");
+        ProcedureHandleCheck instance = new ProcedureHandleCheck();
+        ProcedureHandle handle 
+                = new ProcedureHandle(lookUp("instanceProcedure"));
+        handle.invoke(instance);
+        handle.invoke(instance);
+        String msg = "Instance procedure should have been invoked twice";
+        TestRunnerCheck.check(instance.invocationCount == 2, msg);
+        handle = new ProcedureHandle(lookUp("functionWithResult"));
+        handle.invoke(instance);
+        msg = "Function should have been invoked and its result discarded";
+        TestRunnerCheck.check(instance.invocationCount == 3, msg);
+    }
+
+    private static void checkInvokeStatic() throws Throwable {
+        System.out.println("invoke, static procedure");
+        ProcedureHandle handle = new ProcedureHandle(lookUp("staticProcedure"));
+        handle.invoke(null);
+        handle.invoke(new ProcedureHandleCheck());
+        String msg = "Static procedure should have been invoked twice";
+        TestRunnerCheck.check(staticInvocationCount == 2, msg);
+    }
+
+    private static void checkInvokeThrowsUnwrapped() {
+        System.out.println("invoke, procedure throws");
+        ProcedureHandle handle 
+                = new ProcedureHandle(lookUp("throwingProcedure"));
+        Throwable caught = null;
+        try {
+            handle.invoke(new ProcedureHandleCheck());
+        } catch (Throwable t) {
+            caught = t;
+        }
+        String msg = "Expected IOException thrown as is, got " + caught;
+        TestRunnerCheck.check(caught instanceof IOException, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkGetProcedure();
+        try {
+            checkInvoke();
+            checkInvokeStatic();
+        } catch (Throwable t) {
+            throw new AssertionError("Invocation should not have thrown", t);
+        }
+        checkInvokeThrowsUnwrapped();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.testframe.engine;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testframe.api.BeforeEachTest;
+import org.testframe.api.Repeat;
+import org.testframe.api.Test;
+
+/**
+ * Toy tests to check that the test runner repeats tests. One test always 
+ * passes, one fails every third repetition, one runs from several threads, 
+ * one has invalid settings, and one is only repeated if the options of the 
+ * run say so.
+ * @author Alonso del Arte
+ */
+public class RepeatToyTests {
+
+    static final int REPETITIONS = 9;
+
+    static final int THREADS = 4;
+
+    static final Set<String> THREAD_NAMES = ConcurrentHashMap.newKeySet();
+
+    private int repetitionCount = 0;
+
+    @BeforeEachTest
+    public void setUp() {
+        this.repetitionCount = 0;
+    }
+
+    @Test @Repeat(REPETITIONS)
+    public void testThatAlwaysPasses() {
+        this.repetitionCount++;
+    }
+
+    @Test @Repeat(REPETITIONS)
+    public void testThatFailsEveryThirdTime() {
+        this.repetitionCount++;
+        assert this.repetitionCount % 3 != 0 : "Failing repetition " 
+                + this.repetitionCount;
+    }
+
+    @Test @Repeat(value = 10 * REPETITIONS, threads = THREADS)
+    public void testFromSeveralThreads() throws InterruptedException {
+        THREAD_NAMES.add(Thread.currentThread().getName());
+        Thread.sleep(1L);
+    }
+
+    @Test @Repeat(0)
+    public void testWithoutRepetitions() {
+        this.repetitionCount++;
+    }
+
+    @Test
+    public void testThatIsNotRepeated() {
+        this.repetitionCount++;
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.testframe.engine;
+
+import java.util.List;
+
+/**
+ * Checks of the RepetitionExecutor class, by way of the test runner. These 
+ * use RepeatToyTests, which has repeated tests that pass, fail now and then, 
+ * run from several threads or have invalid settings, and one test that is 
+ * only repeated if the options of the run say so.
+ * @author Alonso del Arte
+ */
+public class RepetitionExecutorCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.RepeatToyTests";
+
+    private static void checkPassingRepetitions(List<TestResult> results) {
+        System.out.println("Passing repetitions");
+        TestResult result = TestRunnerCheck.find(results, 
+                "testThatAlwaysPasses");
+        String msg = "Repeated test should pass, got " + result.getStatus();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED, 
+                msg);
+        RepetitionSummary summary = result.getRepetitionSummary();
+        msg = "Repeated test should have run " + RepeatToyTests.REPETITIONS 
+                + " times";
+        TestRunnerCheck.check(summary != null && summary.getRepetitionCount() 
+                == RepeatToyTests.REPETITIONS, msg);
+        msg = "All repetitions should have passed";
+        TestRunnerCheck.check(summary.getPassedCount() 
+                == RepeatToyTests.REPETITIONS
+                && summary.getFirstFailedRepetition() == 0, msg);
+        msg = "There should be a latency for each repetition";
+        TestRunnerCheck.check(summary.getLatencyStatistics().getSampleCount() 
+                == RepeatToyTests.REPETITIONS, msg);
+    }
+
+    private static void checkFailingRepetitions(List<TestResult> results) {
+        System.out.println("Failing repetitions");
+        TestResult result = TestRunnerCheck.find(results, 
+                "testThatFailsEveryThirdTime");
+        String msg = "Test failing every third time should fail, got " 
+                + result.getStatus();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.FAILED, 
+                msg);
+        RepetitionSummary summary = result.getRepetitionSummary();
+        int expected = RepeatToyTests.REPETITIONS / 3;
+        msg = "Expected " + expected + " failures, got " 
+                + summary.getFailedCount();
+        TestRunnerCheck.check(summary.getFailedCount() == expected 
+                && summary.getPassedCount() 
+                        == RepeatToyTests.REPETITIONS - expected, msg);
+        msg = "First failure should be repetition 3, was " 
+                + summary.getFirstFailedRepetition();
+        TestRunnerCheck.check(summary.getFirstFailedRepetition() == 3, msg);
+        msg = "Information should be the first failure";
+        TestRunnerCheck.check(result.getInformation() != null 
+                && result.getInformation().getMessage() 
+                        .equals("Failing repetition 3"), msg);
+        String report = TestResultsReporter.formatRepetitions(summary);
+        System.out.println(report);
+        msg = "Report should tell which repetition failed first";
+        TestRunnerCheck.check(report.contains("first at repetition 3"), msg);
+    }
+
+    private static void checkRepetitionsFromThreads( 
+            List<TestResult> results) {
+        System.out.println("Repetitions from several threads");
+        TestResult result = TestRunnerCheck.find(results, 
+                "testFromSeveralThreads");
+        String msg = "Test from several threads should pass, got " 
+                + result.getStatus() + " " + result.getInformation();
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.PASSED, 
+                msg);
+        RepetitionSummary summary = result.getRepetitionSummary();
+        msg = "Repetitions should have run from " + RepeatToyTests.THREADS 
+                + " threads";
+        TestRunnerCheck.check(summary.getThreadCount() 
+                == RepeatToyTests.THREADS
+                && summary.getRepetitionCount() 
+                        == 10 * RepeatToyTests.REPETITIONS, msg);
+        msg = "Expected more than one thread to run repetitions, got " 
+                + RepeatToyTests.THREAD_NAMES;
+        TestRunnerCheck.check(RepeatToyTests.THREAD_NAMES.size() > 1 
+                && RepeatToyTests.THREAD_NAMES.size() 
+                        <= RepeatToyTests.THREADS, msg);
+    }
+
+    private static void checkInvalidSettingsCauseError( 
+            List<TestResult> results) {
+        System.out.println("Invalid settings cause error");
+        TestResult result = TestRunnerCheck.find(results, 
+                "testWithoutRepetitions");
+        String msg = "Test without repetitions should cause error";
+        TestRunnerCheck.check(result.getStatus() == TestResultStatus.ERROR 
+                && result.getInformation() 
+                        instanceof IllegalArgumentException, msg);
+        result = TestRunnerCheck.find(results, "testThatIsNotRepeated");
+        msg = "Test without annotation should not be repeated by default";
+        TestRunnerCheck.check(result.getRepetitionSummary() == null, msg);
+    }
+
+    private static void checkRepeatOption() {
+        System.out.println("parse, -repeat");
+        String[] args = {TEST_CLASS_NAME, "-repeat=5"};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Expected 5 repetitions, got " + options.getRepeat();
+        TestRunnerCheck.check(options.getRepeat() == 5, msg);
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, options);
+        TestResult result = TestRunnerCheck.find(results, 
+                "testThatIsNotRepeated");
+        msg = "Test without annotation should run 5 times";
+        TestRunnerCheck.check(result.getRepetitionSummary() != null 
+                && result.getRepetitionSummary().getRepetitionCount() == 5, 
+                msg);
+        result = TestRunnerCheck.find(results, "testThatAlwaysPasses");
+        msg = "Annotation should take precedence over option";
+        TestRunnerCheck.check(result.getRepetitionSummary() 
+                .getRepetitionCount() == RepeatToyTests.REPETITIONS, msg);
+        try {
+            RunOptions.parse(new String[] {"-repeat=0"});
+            TestRunnerCheck.check(false, "-repeat=0 should be rejected");
+        } catch (IllegalArgumentException iae) {
+            System.out.println("\"" + iae.getMessage() + "\"");
+        }
+    }
+
+    private static void checkRepetitionsInWorker() {
+        System.out.println("Repetitions in forked worker");
+        List<TestResult> results;
+        try (ForkedWorkerPool pool = new ForkedWorkerPool(1)) {
+            results = pool.runClass(TEST_CLASS_NAME, new RunOptions());
+        }
+        TestResult result = TestRunnerCheck.find(results, 
+                "testThatFailsEveryThirdTime");
+        RepetitionSummary summary = result.getRepetitionSummary();
+        String msg = "Summary should come back from worker";
+        TestRunnerCheck.check(summary != null 
+                && summary.getFirstFailedRepetition() == 3
+                && summary.getFirstFailure() instanceof AssertionError, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        List<TestResult> results = TestRunner.run(TEST_CLASS_NAME, 
+                new RunOptions());
+        checkPassingRepetitions(results);
+        checkFailingRepetitions(results);
+        checkRepetitionsFromThreads(results);
+        checkInvalidSettingsCauseError(results);
+        checkRepeatOption();
+        checkRepetitionsInWorker();
+        System.out.println("All checks have PASSED");
+    }
+
+}
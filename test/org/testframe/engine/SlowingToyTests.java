@@ -0,0 +1,32 @@
+package org.testframe.engine;
+
+import org.testframe.api.Benchmark;
+import org.testframe.api.Test;
+
+/**
+ * A toy benchmark that can be made slower between runs, to check that the 
+ * test runner compares benchmarks to their baselines. The benchmark waits 
+ * busily rather than sleeping, so that its samples hardly vary.
+ * @author Alonso del Arte
+ */
+public class SlowingToyTests {
+
+    static final int ITERATIONS = 8;
+
+    static volatile long workNanos = 20000L;
+
+    @Test @Benchmark(warmupIterations = 2, iterations = ITERATIONS, 
+            iterationMillis = 5L)
+    public void benchmarkBusyWait() {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < workNanos) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    public void testThatIsNotBenchmark() {
+        assert workNanos > 0L : "Work should take some time";
+    }
+
+}
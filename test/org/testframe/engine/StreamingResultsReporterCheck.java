@@ -0,0 +1,152 @@
+package org.testframe.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+
+/**
+ * Checks of the StreamingResultsReporter class. These use YetMoreToyTests, 
+ * which has three tests each that pass, fail, cause an error or are skipped.
+ * @author Alonso del Arte
+ */
+public class StreamingResultsReporterCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static int countOccurrences(String str, String sought) {
+        int count = 0;
+        int index = str.indexOf(sought);
+        while (index > -1) {
+            count++;
+            index = str.indexOf(sought, index + 1);
+        }
+        return count;
+    }
+
+    private static int countLinesStartingWith(String str, String prefix) {
+        int count = 0;
+        for (String line : str.split("\\R")) {
+            if (line.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static void checkTestFinished() {
+        System.out.println("testFinished");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResultsReporter reporter = new StreamingResultsReporter(out, 
+                0L);
+        RunOptions options = new RunOptions();
+        options.addListener(reporter);
+        options.setParallelism(4);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        String report = out.toString();
+        int expected = 12;
+        int actual = countLinesStartingWith(report, TEST_CLASS_NAME 
+                + ".test");
+        String msg = "Expected " + expected + " results reported, got " 
+                + actual;
+        TestRunnerCheck.check(expected == actual, msg);
+        msg = "Expected stack traces for failures and errors in report";
+        TestRunnerCheck.check(countOccurrences(report, "\tat ") >= 6, msg);
+    }
+
+    private static void checkTestClassFinishedFlushes() {
+        System.out.println("testClassFinished");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResultsReporter reporter = new StreamingResultsReporter(out, 
+                Long.MAX_VALUE / 1000000L);
+        RunOptions options = new RunOptions();
+        options.addListener(reporter);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        String expected = "Finished " + TEST_CLASS_NAME + ": 12 tests";
+        String report = out.toString();
+        String msg = "Report should have been flushed with \"" + expected 
+                + "\" at end of test class";
+        TestRunnerCheck.check(report.contains(expected), msg);
+    }
+
+    private static void checkTestClassFinishedCountsInvocations() {
+        System.out.println("testClassFinished, invocations");
+        String name = "org.testframe.engine.ParameterizedToyTests";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResultsReporter reporter = new StreamingResultsReporter(out, 
+                0L);
+        RunOptions options = new RunOptions();
+        options.addListener(reporter);
+        TestRunner.run(name, options);
+        String report = out.toString();
+        int reported = countLinesStartingWith(report, name + ".test");
+        String expected = "Finished " + name + ": " + reported + " tests";
+        String msg = "Report should count each invocation, with \"" 
+                + expected + "\"";
+        TestRunnerCheck.check(report.contains(expected), msg);
+    }
+
+    private static void checkFlushesDuringTest() throws InterruptedException {
+        System.out.println("testFinished, flushed by timer");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResultsReporter reporter = new StreamingResultsReporter(out, 
+                50L);
+        Method procedure = StreamingResultsReporterCheck.class.getMethods()[0];
+        TestResult result = new TestResult(procedure, TestResultStatus.PASSED, 
+                null);
+        reporter.testClassStarted(TEST_CLASS_NAME);
+        reporter.testFinished(TEST_CLASS_NAME, result);
+        Thread.sleep(500L);
+        String msg = "Result should have been flushed while the test class " 
+                + "was still running";
+        TestRunnerCheck.check(out.toString().startsWith(TEST_CLASS_NAME), msg);
+        reporter.finish();
+    }
+
+    private static void checkFinish() {
+        System.out.println("finish");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResultsReporter reporter = new StreamingResultsReporter(out, 
+                0L);
+        RunOptions options = new RunOptions();
+        options.addListener(reporter);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        TestRunner.run(TEST_CLASS_NAME, options);
+        reporter.finish();
+        String report = out.toString();
+        String msg = "Report should end with totals for both runs";
+        TestRunnerCheck.check(report.contains("Passed: 6. Failed: 6. " 
+                + "Skipped: 6. Caused an error: 6"), msg);
+        TestRunnerCheck.check(report.contains("Total: 24"), msg);
+    }
+
+    private static void checkConstructorRejectsNegativeInterval() {
+        System.out.println("constructor, negative interval");
+        boolean rejected = false;
+        try {
+            new StreamingResultsReporter(new ByteArrayOutputStream(), -1L);
+        } catch (IllegalArgumentException iae) {
+            rejected = true;
+        }
+        String msg = "Negative flush interval should have been rejected";
+        TestRunnerCheck.check(rejected, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkTestFinished();
+        checkTestClassFinishedFlushes();
+        checkTestClassFinishedCountsInvocations();
+        try {
+            checkFlushesDuringTest();
+        } catch (InterruptedException ie) {
+            throw new RuntimeException("Unable to run checks", ie);
+        }
+        checkFinish();
+        checkConstructorRejectsNegativeInterval();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.testframe.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Checks of the TestClassScanner class. These rely on the toy test classes 
+ * being on the class path along with this check class.
+ * @author Alonso del Arte
+ */
+public class TestClassScannerCheck {
+
+    private static byte[] readClassFile(Class<?> type) throws IOException {
+        String resourceName = type.getSimpleName() + ".class";
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream stream = type.getResourceAsStream(resourceName)) {
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void checkReadTestClassName() throws IOException {
+        System.out.println("readTestClassName");
+        String expected = ToyTests.class.getName();
+        String actual = TestClassScanner 
+                .readTestClassName(readClassFile(ToyTests.class));
+        String msg = "Expected " + expected + ", got " + actual;
+        TestRunnerCheck.check(expected.equals(actual), msg);
+    }
+
+    private static void checkReadTestClassNameNotTestClass() 
+            throws IOException {
+        System.out.println("readTestClassName, not a test class");
+        Class<?>[] types = {TestRunner.class, TestPlan.class, 
+            TestRunnerCheck.class};
+        for (Class<?> type : types) {
+            String actual = TestClassScanner 
+                    .readTestClassName(readClassFile(type));
+            String msg = type.getName() + " should not be taken for a test " 
+                    + "class, but got " + actual;
+            TestRunnerCheck.check(actual == null, msg);
+        }
+    }
+
+    private static void checkReadTestClassNameNotClassFile() {
+        System.out.println("readTestClassName, not a class file");
+        byte[] bytes = "Not a class file at all".getBytes();
+        String msg = "Bytes that are not a class file should give null";
+        TestRunnerCheck.check(TestClassScanner.readTestClassName(bytes) 
+                == null, msg);
+        byte[] truncated = new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, 
+            (byte) 0xBE, 0, 0, 0, 65, 0, 99, 1, 0};
+        msg = "Truncated class file should give null";
+        TestRunnerCheck.check(TestClassScanner.readTestClassName(truncated) 
+                == null, msg);
+    }
+
+    private static void checkScan() throws IOException {
+        System.out.println("scan");
+        List<String> names = TestClassScanner.scan();
+        String[] expected = {ToyTests.class.getName(), 
+            MoreToyTests.class.getName(), YetMoreToyTests.class.getName()};
+        for (String name : expected) {
+            String msg = "Scan should have found " + name;
+            TestRunnerCheck.check(names.contains(name), msg);
+        }
+        String msg = "Scan should not have found " + TestRunner.class.getName();
+        TestRunnerCheck.check(!names.contains(TestRunner.class.getName()), 
+                msg);
+    }
+
+    private static void checkScanArchive() throws IOException {
+        System.out.println("scan, archive");
+        List<String> names = scanArchiveOf(ToyTests.class, TestRunner.class);
+        String msg = "Expected only ToyTests in archive, got " + names;
+        TestRunnerCheck.check(names.size() == 1 
+                && names.get(0).equals(ToyTests.class.getName()), msg);
+    }
+
+    private static List<String> scanArchiveOf(Class<?>... types) 
+            throws IOException {
+        File archive = File.createTempFile("toys", ".jar");
+        try (OutputStream stream = Files.newOutputStream(archive.toPath());
+                JarOutputStream jar = new JarOutputStream(stream)) {
+            for (Class<?> type : types) {
+                jar.putNextEntry(new ZipEntry(type.getName().replace('.', '/') 
+                        + ".class"));
+                jar.write(readClassFile(type));
+                jar.closeEntry();
+            }
+        }
+        List<String> names = TestClassScanner.scan(archive.getPath());
+        archive.delete();
+        return names;
+    }
+
+    private static void checkScanFindsSubclass() throws IOException {
+        System.out.println("scan, subclass of test class");
+        List<String> names = scanArchiveOf(TimeoutToyTests.class, 
+                InheritedTimeoutToyTests.class);
+        String msg = "Expected TimeoutToyTests and InheritedTimeoutToyTests, " 
+                + "got " + names;
+        TestRunnerCheck.check(names.size() == 2 && names 
+                .contains(InheritedTimeoutToyTests.class.getName()), msg);
+        names = scanArchiveOf(InheritedTimeoutToyTests.class);
+        msg = "Subclass without its superclass in the scan should not be " 
+                + "found, got " + names;
+        TestRunnerCheck.check(names.isEmpty(), msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        try {
+            checkReadTestClassName();
+            checkReadTestClassNameNotTestClass();
+            checkReadTestClassNameNotClassFile();
+            checkScan();
+            checkScanArchive();
+            checkScanFindsSubclass();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to run checks", ioe);
+        }
+        System.out.println("All checks have PASSED");
+    }
+
+}
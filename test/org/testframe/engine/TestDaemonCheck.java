@@ -0,0 +1,110 @@
+package org.testframe.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Checks of the TestDaemon and TestDaemonClient classes. These compile a toy 
+ * test class into a temporary directory, run it through a daemon, recompile 
+ * it so that its test fails and run it again.
+ * @author Alonso del Arte
+ */
+public class TestDaemonCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "daemoncheck.ReloadableToyTest";
+
+    private static void compile(Path dir, boolean passing) throws IOException {
+        Path source = dir.resolve("ReloadableToyTest.java");
+        String body = "package daemoncheck;\n" 
+                + "public class ReloadableToyTest {\n"
+                + "    @org.testframe.api.Test\n"
+                + "    public void testReload() {\n"
+                + "        assert " + passing + " : \"Reloaded\";\n"
+                + "    }\n"
+                + "}\n";
+        Files.write(source, body.getBytes(StandardCharsets.UTF_8));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int status = compiler.run(null, null, null, "-cp", 
+                System.getProperty("java.class.path"), "-d", dir.toString(), 
+                source.toString());
+        TestRunnerCheck.check(status == 0, "Toy test class should compile");
+    }
+
+    private static String send(TestDaemon daemon, String... args) 
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TestDaemonClient.send(daemon.getPort(), Arrays.asList(args), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void checkDaemonReloadsChangedClasses() 
+            throws IOException, InterruptedException {
+        System.out.println("serve, reload");
+        Path dir = Files.createTempDirectory("daemoncheck");
+        compile(dir, true);
+        TestDaemon daemon = new TestDaemon(dir.toString(), 0);
+        Thread server = new Thread(daemon::serve);
+        server.start();
+        try {
+            String report = send(daemon, TEST_CLASS_NAME);
+            String msg = "First run should pass, report was " + report;
+            TestRunnerCheck.check(report.contains("Passed: 1."), msg);
+            ClassLoader first = daemon.getClassLoader();
+            report = send(daemon, TEST_CLASS_NAME);
+            msg = "Unchanged classes should not be reloaded";
+            TestRunnerCheck.check(daemon.getClassLoader() == first, msg);
+            long changes = daemon.getChangeCount();
+            compile(dir, false);
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (daemon.getChangeCount() == changes 
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20L);
+            }
+            report = send(daemon, TEST_CLASS_NAME);
+            msg = "Run after recompiling should fail, report was " + report;
+            TestRunnerCheck.check(report.contains("Failed: 1."), msg);
+            report = send(daemon, "daemoncheck.NoSuchTest");
+            msg = "Errors should be sent to client, report was " + report;
+            TestRunnerCheck.check(report.contains("Unable to find class"), 
+                    msg);
+            Path xml = dir.resolve("results.xml");
+            report = send(daemon, "-junitxml=" + xml, TEST_CLASS_NAME);
+            msg = "Daemon should turn down path option, report was " + report;
+            TestRunnerCheck.check(report.contains("does not accept"), msg);
+            TestRunnerCheck.check(!Files.exists(xml), msg);
+            report = send(daemon, TestDaemon.STOP_REQUEST);
+            msg = "Daemon should acknowledge stop request";
+            TestRunnerCheck.check(report.contains("stopping"), msg);
+            server.join(5000L);
+            msg = "Daemon should have stopped";
+            TestRunnerCheck.check(!server.isAlive(), msg);
+        } finally {
+            daemon.close();
+            for (Path file : Files.walk(dir).sorted(Collections.reverseOrder()) 
+                    .toArray(Path[]::new)) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws Exception If the temporary directory can't be used or the check 
+     * is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        checkDaemonReloadsChangedClasses();
+        System.out.println("All checks have PASSED");
+    }
+
+}
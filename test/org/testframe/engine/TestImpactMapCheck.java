@@ -0,0 +1,194 @@
+package org.testframe.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Checks of the TestImpactMap class. These compile a toy production class and 
+ * two toy test classes into a temporary directory, only one of which uses the 
+ * production class, then change the production class and check that only the 
+ * test class that uses it runs again. A third toy test class reads its 
+ * arguments from a CSV file, to check that changing the file is noticed too.
+ * @author Alonso del Arte
+ */
+public class TestImpactMapCheck {
+
+    private static final String GREETER_TEST_NAME 
+            = "impactcheck.GreeterToyTest";
+
+    private static final String OTHER_TEST_NAME = "impactcheck.OtherToyTest";
+
+    private static final String WORDS_TEST_NAME = "impactcheck.WordsToyTest";
+
+    private static final List<String> NAMES = Arrays.asList(GREETER_TEST_NAME, 
+            OTHER_TEST_NAME);
+
+    private static void compile(Path dir, String fileName, String body) 
+            throws IOException {
+        Path source = dir.resolve(fileName);
+        Files.write(source, ("package impactcheck;\n" + body) 
+                .getBytes(StandardCharsets.UTF_8));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int status = compiler.run(null, null, null, "-cp", dir.toString() 
+                + File.pathSeparator
+                + System.getProperty("java.class.path"), "-d", dir.toString(),
+                source.toString());
+        TestRunnerCheck.check(status == 0, fileName + " should compile");
+    }
+
+    private static void compileGreeter(Path dir, String greeting) 
+            throws IOException {
+        compile(dir, "Greeter.java", "public class Greeter {\n" 
+                + "    public static String greet() {\n"
+                + "        return \"" + greeting + "\";\n"
+                + "    }\n"
+                + "}\n");
+    }
+
+    private static Map<String, List<TestResult>> run(Path dir, 
+            TestImpactMap map) throws IOException {
+        return run(dir, map, NAMES);
+    }
+
+    private static Map<String, List<TestResult>> run(Path dir, 
+            TestImpactMap map, List<String> names) throws IOException {
+        RunOptions options = new RunOptions();
+        options.setImpactMap(map);
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {
+            dir.toUri().toURL()
+        })) {
+            options.setClassLoader(loader);
+            return TestSuiteRunner.run(names, options);
+        }
+    }
+
+    private static void checkOnlyAffectedTestClassesRun(Path dir) 
+            throws IOException {
+        System.out.println("selectAffected, record");
+        TestImpactMap map = new TestImpactMap();
+        Map<String, List<TestResult>> results = run(dir, map);
+        String msg = "First run should run both test classes, ran " 
+                + results.keySet();
+        TestRunnerCheck.check(results.size() == 2, msg);
+        msg = "Both test classes should have been recorded";
+        TestRunnerCheck.check(map.size() == 2, msg);
+        results = run(dir, map);
+        msg = "Run without changes should run nothing, ran " 
+                + results.keySet();
+        TestRunnerCheck.check(results.isEmpty(), msg);
+        compileGreeter(dir, "Hi");
+        results = run(dir, map);
+        msg = "Run after changing Greeter should only run " + GREETER_TEST_NAME 
+                + ", ran " + results.keySet();
+        TestRunnerCheck.check(results.keySet() 
+                .equals(Collections.singleton(GREETER_TEST_NAME)), msg);
+        TestRunnerCheck.check(results.get(GREETER_TEST_NAME).get(0) 
+                .getStatus() == TestResultStatus.FAILED,
+                "Greeter test should fail after greeting changed");
+        results = run(dir, map);
+        msg = "Failed test class should run again, ran " + results.keySet();
+        TestRunnerCheck.check(results.keySet() 
+                .equals(Collections.singleton(GREETER_TEST_NAME)), msg);
+    }
+
+    private static void checkSaveAndLoad(Path dir) throws IOException {
+        System.out.println("save, load");
+        Path file = dir.resolve("impact.txt");
+        TestImpactMap map = new TestImpactMap(file);
+        compileGreeter(dir, "Hello");
+        run(dir, map);
+        map.save();
+        TestImpactMap loaded = new TestImpactMap(file);
+        String msg = "Loaded map should have " + map.size() 
+                + " test classes, has " + loaded.size();
+        TestRunnerCheck.check(loaded.size() == map.size(), msg);
+        Map<String, List<TestResult>> results = run(dir, loaded);
+        msg = "Run with loaded map should run nothing, ran " 
+                + results.keySet();
+        TestRunnerCheck.check(results.isEmpty(), msg);
+    }
+
+    private static void checkChangedCSVFileIsNoticed(Path dir) 
+            throws IOException {
+        System.out.println("record, CSV file");
+        Path csvFile = dir.resolve("impactcheck").resolve("words.csv");
+        Files.write(csvFile, "racecar\n".getBytes(StandardCharsets.UTF_8));
+        compile(dir, "WordsToyTest.java", "public class WordsToyTest {\n" 
+                + "    @org.testframe.api.Test\n"
+                + "    @org.testframe.api.CSVSource(\"words.csv\")\n"
+                + "    public void testWord(String word) {\n"
+                + "        assert !word.isEmpty();\n"
+                + "    }\n"
+                + "}\n");
+        List<String> names = Collections.singletonList(WORDS_TEST_NAME);
+        TestImpactMap map = new TestImpactMap();
+        Map<String, List<TestResult>> results = run(dir, map, names);
+        String msg = "First run should run " + WORDS_TEST_NAME + ", ran " 
+                + results.keySet();
+        TestRunnerCheck.check(results.keySet().equals(new HashSet<>(names)), 
+                msg);
+        results = run(dir, map, names);
+        msg = "Run without changes should run nothing, ran " 
+                + results.keySet();
+        TestRunnerCheck.check(results.isEmpty(), msg);
+        Files.write(csvFile, "racecar\nkayak\n" 
+                .getBytes(StandardCharsets.UTF_8));
+        results = run(dir, map, names);
+        msg = "Run after changing CSV file should run " + WORDS_TEST_NAME 
+                + ", ran " + results.keySet();
+        TestRunnerCheck.check(results.keySet().equals(new HashSet<>(names)), 
+                msg);
+        RepetitionSummary summary = results.get(WORDS_TEST_NAME).get(0) 
+                .getRepetitionSummary();
+        msg = "Expected both words to be read";
+        TestRunnerCheck.check(summary != null 
+                && summary.getPassedCount() == 2, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     * @throws IOException If the temporary directory can't be used.
+     */
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("impactcheck");
+        try {
+            compileGreeter(dir, "Hello");
+            compile(dir, "GreeterToyTest.java", 
+                    "public class GreeterToyTest {\n" 
+                    + "    @org.testframe.api.Test\n"
+                    + "    public void testGreet() {\n"
+                    + "        assert Greeter.greet().equals(\"Hello\");\n"
+                    + "    }\n"
+                    + "}\n");
+            compile(dir, "OtherToyTest.java", "public class OtherToyTest {\n" 
+                    + "    @org.testframe.api.Test\n"
+                    + "    public void testNothing() {\n"
+                    + "    }\n"
+                    + "}\n");
+            checkOnlyAffectedTestClassesRun(dir);
+            checkSaveAndLoad(dir);
+            checkChangedCSVFileIsNoticed(dir);
+        } finally {
+            for (Path file : Files.walk(dir).sorted(Collections.reverseOrder()) 
+                    .toArray(Path[]::new)) {
+                Files.delete(file);
+            }
+        }
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.testframe.engine;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Checks of the TestPlanCache class. These use ToyTests and MoreToyTests.
+ * @author Alonso del Arte
+ */
+public class TestPlanCacheCheck {
+
+    private static void checkSamePlanForSameClass() {
+        System.out.println("getPlan, same class");
+        TestPlanCache cache = new TestPlanCache();
+        TestPlan plan = cache.getPlan(MoreToyTests.class);
+        String msg = "Same plan should be returned for same class";
+        TestRunnerCheck.check(plan == cache.getPlan(MoreToyTests.class), msg);
+        msg = "Cache should have names for one test class";
+        TestRunnerCheck.check(cache.size() == 1, msg);
+    }
+
+    private static Class<?> reload(Class<?> type) {
+        URL location = type.getProtectionDomain().getCodeSource() 
+                .getLocation();
+        ClassLoader loader = new URLClassLoader(new URL[] {location}, null) {
+
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) 
+                    throws ClassNotFoundException {
+                if (name.startsWith("org.testframe.api.")) {
+                    return type.getClassLoader().loadClass(name);
+                }
+                return super.loadClass(name, resolve);
+            }
+
+        };
+        try {
+            return loader.loadClass(type.getName());
+        } catch (ClassNotFoundException cnfe) {
+            throw new RuntimeException("Unable to reload " + type.getName(), 
+                    cnfe);
+        }
+    }
+
+    private static void checkPlanForReloadedClass() {
+        System.out.println("getPlan, reloaded class");
+        TestPlanCache cache = new TestPlanCache();
+        TestPlan plan = cache.getPlan(ToyTests.class);
+        Class<?> reloaded = reload(ToyTests.class);
+        String msg = "Reloaded class should be a different class";
+        TestRunnerCheck.check(reloaded != ToyTests.class, msg);
+        TestPlan reloadedPlan = cache.getPlan(reloaded);
+        msg = "Plan for reloaded class should be for reloaded class";
+        TestRunnerCheck.check(reloadedPlan.getTestClass() == reloaded, msg);
+        msg = "Plan for reloaded class should have the same tests";
+        TestRunnerCheck.check(reloadedPlan.getTests().size() 
+                == plan.getTests().size(), msg);
+        TestRunnerCheck.check(reloadedPlan.getSkips().get(0).getName() 
+                .equals(plan.getSkips().get(0).getName()), msg);
+    }
+
+    private static void checkSaveAndLoad() {
+        System.out.println("save, load");
+        try {
+            Path file = Files.createTempFile("plans", ".txt");
+            TestPlanCache cache = new TestPlanCache(file);
+            cache.getPlan(ToyTests.class);
+            cache.getPlan(MoreToyTests.class);
+            cache.save();
+            TestPlanCache loaded = new TestPlanCache(file);
+            String msg = "Loaded cache should have names for two test classes";
+            TestRunnerCheck.check(loaded.size() == 2, msg);
+            TestPlan plan = loaded.getPlan(MoreToyTests.class);
+            msg = "Plan from loaded cache should have two tests";
+            TestRunnerCheck.check(plan.getTests().size() == 2, msg);
+            msg = "Plan from loaded cache should have two class set-ups";
+            TestRunnerCheck.check(plan.getSetUps().size() == 2, msg);
+            file.toFile().delete();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to use plan cache file", ioe);
+        }
+    }
+
+    private static void checkStaleChecksumIgnored() {
+        System.out.println("load, stale checksum");
+        try {
+            Path file = Files.createTempFile("plans", ".txt");
+            Files.write(file, ("org.testframe.engine.MoreToyTests\t0\t\t\t" 
+                    + "testThatShouldPass\t\t\t\n").getBytes("UTF-8"));
+            TestPlan plan = new TestPlanCache(file) 
+                    .getPlan(MoreToyTests.class);
+            String msg = "Stale names should have been ignored";
+            TestRunnerCheck.check(plan.getTests().size() == 2, msg);
+            file.toFile().delete();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to use plan cache file", ioe);
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkSamePlanForSameClass();
+        checkPlanForReloadedClass();
+        checkSaveAndLoad();
+        checkStaleChecksumIgnored();
+        System.out.println("All checks have PASSED");
+    }
+
+}
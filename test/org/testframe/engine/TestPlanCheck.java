@@ -0,0 +1,74 @@
+package org.testframe.engine;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Checks of the TestPlan class. These use ToyTests, which has one of each of 
+ * the annotations, and MoreToyTests, which has two each of the set-up and 
+ * tear-down annotations.
+ * @author Alonso del Arte
+ */
+public class TestPlanCheck {
+
+    private static void checkSize(List<Method> list, int expected, 
+            String description) {
+        int actual = list.size();
+        String msg = "Expected " + expected + " " + description + ", got " 
+                + actual;
+        TestRunnerCheck.check(expected == actual, msg);
+    }
+
+    private static void checkToyTestsPlan() {
+        System.out.println("ToyTests plan");
+        TestPlan plan = new TestPlan(ToyTests.class);
+        TestRunnerCheck.check(plan.getTestClass() == ToyTests.class, 
+                "Plan should be for ToyTests");
+        checkSize(plan.getSetUps(), 1, "class set-ups");
+        checkSize(plan.getBefores(), 1, "test set-ups");
+        checkSize(plan.getTests(), 3, "tests to run");
+        checkSize(plan.getSkips(), 1, "tests to skip");
+        checkSize(plan.getAfters(), 1, "test tear-downs");
+        checkSize(plan.getTearDowns(), 1, "class tear-downs");
+        String expected = "testThatShouldBeSkipped";
+        String actual = plan.getSkips().get(0).getName();
+        String msg = "Expected " + expected + " to be skipped, not " + actual;
+        TestRunnerCheck.check(expected.equals(actual), msg);
+    }
+
+    private static void checkMoreToyTestsPlan() {
+        System.out.println("MoreToyTests plan");
+        TestPlan plan = new TestPlan(MoreToyTests.class);
+        checkSize(plan.getSetUps(), 2, "class set-ups");
+        checkSize(plan.getBefores(), 2, "test set-ups");
+        checkSize(plan.getTests(), 2, "tests to run");
+        checkSize(plan.getSkips(), 0, "tests to skip");
+        checkSize(plan.getAfters(), 2, "test tear-downs");
+        checkSize(plan.getTearDowns(), 2, "class tear-downs");
+    }
+
+    private static void checkPlanIsUnmodifiable() {
+        System.out.println("unmodifiable");
+        TestPlan plan = new TestPlan(ToyTests.class);
+        boolean modified;
+        try {
+            plan.getTests().clear();
+            modified = true;
+        } catch (UnsupportedOperationException uoe) {
+            modified = false;
+        }
+        TestRunnerCheck.check(!modified, "Plan should not be modifiable");
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkToyTestsPlan();
+        checkMoreToyTestsPlan();
+        checkPlanIsUnmodifiable();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -72,6 +72,37 @@ public class TestResultCheck {
         }
     }
     
+    private static void checkGetMetrics() {
+        System.out.println("getMetrics");
+        Method procedure = TestResultCheck.class.getMethods()[0];
+        TestMetrics expected = new TestMetrics(1500000L, 1200000L, 65536L);
+        TestResult result = new TestResult(procedure, TestResultStatus.PASSED, 
+                null, expected);
+        TestMetrics actual = result.getMetrics();
+        String msg = "Result should carry the metrics that were given";
+        TestRunnerCheck.check(expected == actual, msg);
+        result = new TestResult(procedure, TestResultStatus.PASSED, null);
+        msg = "Result constructed without metrics should not be measured";
+        TestRunnerCheck.check(!result.getMetrics().isMeasured(), msg);
+    }
+
+    private static void checkWithInvocation() {
+        System.out.println("withInvocation");
+        Method procedure = TestResultCheck.class.getMethods()[0];
+        Throwable traceHolder = new AssertionError("For testing purposes only");
+        TestResult result = new TestResult(procedure, TestResultStatus.FAILED, 
+                traceHolder);
+        TestInvocation expected = new TestInvocation(3L, "(\"racecar\", true)");
+        TestResult copy = result.withInvocation(expected);
+        String msg = "Copy should be for the invocation that was given";
+        TestRunnerCheck.check(copy.getInvocation() == expected, msg);
+        msg = "Copy should keep the status and the stack trace";
+        TestRunnerCheck.check(copy.getStatus() == TestResultStatus.FAILED 
+                && copy.getInformation() == traceHolder, msg);
+        msg = "Original should still not be for any invocation";
+        TestRunnerCheck.check(result.getInvocation() == null, msg);
+    }
+
     public static void main(String[] args) {
         try {
             checkGetProcedure();
@@ -82,6 +113,8 @@ public class TestResultCheck {
         checkDoesNotHaveStackTrace();
         checkHasStackTrace();
         checkGetInformation();
+        checkGetMetrics();
+        checkWithInvocation();
         System.out.println("All checks have PASSED");
     }
 
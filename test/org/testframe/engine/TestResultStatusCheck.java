@@ -8,7 +8,7 @@ public class TestResultStatusCheck {
         System.out.println("ordinal");
         TestResultStatus[] statuses = {TestResultStatus.PASSED, 
                 TestResultStatus.SKIPPED, TestResultStatus.ERROR, 
-                TestResultStatus.FAILED};
+                TestResultStatus.FAILED, TestResultStatus.NOT_RUN};
         for (int expected = 0; expected < statuses.length; expected++) {
             TestResultStatus status = statuses[expected];
             int actual = status.ordinal();
@@ -1,6 +1,11 @@
 package org.testframe.engine;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -252,6 +257,369 @@ public class TestRunnerCheck {
         }
     }
     
+    private static void checkParallelRunGivesDeterministicOrder() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        List<TestResult> resultsA = TestRunner.run(extraTestClassName, 2);
+        List<TestResult> resultsB = TestRunner.run(extraTestClassName, 8);
+        int expected = 12;
+        int actual = resultsA.size();
+        String msg = "Parallel run of YetMoreToyTests should give " + expected 
+                + " results, gave " + actual;
+        check(expected == actual, msg);
+        check(resultsB.size() == actual, msg);
+        for (int i = 0; i < expected; i++) {
+            TestResult resultA = resultsA.get(i);
+            TestResult resultB = resultsB.get(i);
+            msg = "Result " + i + " should be for the same test in both runs";
+            check(resultA.getProcedure().equals(resultB.getProcedure()), msg);
+            msg = "Result " + i + " should have the same status in both runs";
+            check(resultA.getStatus().equals(resultB.getStatus()), msg);
+        }
+    }
+    
+    private static void checkRunsDoNotShareResults() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        List<TestResult> resultsA = TestRunner.run(extraTestClassName);
+        List<TestResult> resultsB = TestRunner.run(extraTestClassName);
+        String msg = "Second run should not include results of first run";
+        check(resultsA.size() == 12 && resultsB.size() == 12, msg);
+        check(resultsA != resultsB, msg);
+    }
+
+    private static void checkSimultaneousRunsAreIndependent() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        final int numberOfRuns = 8;
+        List<List<TestResult>> lists = new ArrayList<>();
+        Thread[] threads = new Thread[numberOfRuns];
+        for (int i = 0; i < numberOfRuns; i++) {
+            threads[i] = new Thread(() -> {
+                List<TestResult> results = TestRunner.run(extraTestClassName);
+                synchronized (lists) {
+                    lists.add(results);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ie) {
+                throw new RuntimeException(ie);
+            }
+        }
+        String msg = "Each of " + numberOfRuns 
+                + " simultaneous runs should give 12 results";
+        check(lists.size() == numberOfRuns, msg);
+        for (List<TestResult> results : lists) {
+            check(results.size() == 12, msg);
+        }
+    }
+
+    private static void checkResultsAreMeasured() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        for (TestResult result : TestRunner.run(extraTestClassName, 2)) {
+            TestMetrics metrics = result.getMetrics();
+            boolean skipped = result.getStatus() == TestResultStatus.SKIPPED;
+            String msg = result.getProcedure().getName() + " should " 
+                    + (skipped ? "not " : "") + "have been measured";
+            check(metrics.isMeasured() != skipped, msg);
+        }
+    }
+
+    private static void checkListenersAreNotified() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        final int[] counts = new int[3];
+        TestResultListener listener = new TestResultListener() {
+
+            @Override
+            public void testClassStarted(String testClassName) {
+                counts[0]++;
+            }
+
+            @Override
+            public synchronized void testFinished(String testClassName, 
+                    TestResult result) {
+                counts[1]++;
+            }
+
+            @Override
+            public void testClassFinished(String testClassName, 
+                    List<TestResult> results) {
+                counts[2]++;
+            }
+
+        };
+        RunOptions options = new RunOptions();
+        options.setParallelism(4);
+        options.addListener(listener);
+        TestRunner.run(extraTestClassName, options);
+        String msg = "Listener should have been notified of class start once";
+        check(counts[0] == 1, msg);
+        msg = "Listener should have been notified of 12 results, not " 
+                + counts[1];
+        check(counts[1] == 12, msg);
+        msg = "Listener should have been notified of class finish once";
+        check(counts[2] == 1, msg);
+    }
+
+    private static void checkVirtualThreadRunGivesSameResults(int cap) {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        final boolean[] onVirtualThread = {true};
+        RunOptions options = new RunOptions();
+        options.setVirtualThreads(true);
+        options.setParallelism(cap);
+        options.addListener((testClassName, result) -> {
+            if (result.getStatus() != TestResultStatus.SKIPPED 
+                    && !Thread.currentThread().isVirtual()) {
+                onVirtualThread[0] = false;
+            }
+        });
+        List<TestResult> expected = TestRunner.run(extraTestClassName, 1);
+        List<TestResult> actual = TestRunner.run(extraTestClassName, options);
+        String msg = "Virtual thread run with cap " + cap + " should give " 
+                + expected.size() + " results, gave " + actual.size();
+        check(expected.size() == actual.size(), msg);
+        for (int i = 0; i < expected.size(); i++) {
+            msg = "Result " + i + " should have the same status as when run " 
+                    + "sequentially";
+            check(expected.get(i).getStatus() == actual.get(i).getStatus(), 
+                    msg);
+        }
+        msg = "Tests should have run on virtual threads";
+        check(onVirtualThread[0], msg);
+    }
+
+    private static int[] countStatuses(List<TestResult> results) {
+        int[] counts = new int[TestResultStatus.values().length];
+        for (TestResult result : results) {
+            counts[result.getStatus().ordinal()]++;
+        }
+        return counts;
+    }
+
+    private static void checkFailFastStopsRun(int parallelism) {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        RunOptions options = new RunOptions();
+        options.setParallelism(parallelism);
+        options.setMaxFailures(2);
+        List<TestResult> results = TestRunner.run(extraTestClassName, 
+                options);
+        String msg = "Expected 12 results with parallelism " + parallelism 
+                + ", got " + results.size();
+        check(results.size() == 12, msg);
+        int[] counts = countStatuses(results);
+        int failures = counts[TestResultStatus.FAILED.ordinal()] 
+                + counts[TestResultStatus.ERROR.ordinal()];
+        int notRun = counts[TestResultStatus.NOT_RUN.ordinal()];
+        msg = "Expected at least 2 failures with parallelism " + parallelism 
+                + ", got " + failures;
+        check(failures >= 2, msg);
+        if (parallelism == 1) {
+            msg = "Expected exactly 2 failures when running sequentially, got " 
+                    + failures;
+            check(failures == 2, msg);
+        }
+        msg = "Expected some tests not run with parallelism " + parallelism;
+        check(notRun > 0, msg);
+        msg = "Expected skipped tests to still be reported as skipped";
+        check(counts[TestResultStatus.SKIPPED.ordinal()] == 3, msg);
+    }
+
+    private static void checkFailFastReportsTestsInFlight() {
+        String cancelledTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "CancelledToyTests");
+        RunOptions options = new RunOptions();
+        options.setParallelism(2);
+        options.setMaxFailures(1);
+        List<TestResult> results = TestRunner.run(cancelledTestClassName, 
+                options);
+        int[] counts = countStatuses(results);
+        String msg = "Test in flight when the limit was reached should have " 
+                + "been reported as passing, got " + results.size()
+                + " results with " + counts[TestResultStatus.NOT_RUN 
+                        .ordinal()] + " not run";
+        check(results.size() == 2 
+                && counts[TestResultStatus.PASSED.ordinal()] == 1
+                && counts[TestResultStatus.FAILED.ordinal()] == 1, msg);
+    }
+
+    private static void checkFailureLimitAppliesAcrossClasses() {
+        String extraTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "YetMoreToyTests");
+        String otherTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "MoreToyTests");
+        RunOptions options = new RunOptions();
+        options.setMaxFailures(1);
+        TestRunner.run(extraTestClassName, options);
+        List<TestResult> results = TestRunner.run(otherTestClassName, options);
+        for (TestResult result : results) {
+            String msg = result.getProcedure().getName() 
+                    + " should not have run after failure limit was reached";
+            check(result.getStatus() == TestResultStatus.NOT_RUN, msg);
+        }
+        String msg = "Expected results for tests that were not run";
+        check(!results.isEmpty(), msg);
+    }
+
+    static TestResult find(List<TestResult> results, String name) {
+        for (TestResult result : results) {
+            if (result.getProcedure().getName().equals(name)) {
+                return result;
+            }
+        }
+        throw new AssertionError("No result for " + name);
+    }
+
+    private static void checkTimeoutsAreEnforced(int parallelism) {
+        String timeoutTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "TimeoutToyTests");
+        long start = System.currentTimeMillis();
+        List<TestResult> results = TestRunner.run(timeoutTestClassName, 
+                parallelism);
+        long elapsed = System.currentTimeMillis() - start;
+        String msg = "Run with parallelism " + parallelism 
+                + " should not wait for hung tests, took " + elapsed + " ms";
+        check(elapsed < 1500L, msg);
+        for (String name : new String[] {"testThatHangs", 
+            "testThatIgnoresInterrupts"}) {
+            TestResult result = find(results, name);
+            msg = name + " should have caused an error by timing out";
+            check(result.getStatus() == TestResultStatus.ERROR 
+                    && result.getInformation() instanceof TimeoutException,
+                    msg);
+        }
+        msg = "Test that finished in time should have passed";
+        check(find(results, "testThatFinishesInTime").getStatus() 
+                == TestResultStatus.PASSED, msg);
+        msg = "Test without timeout should have passed";
+        check(find(results, "testWithoutTimeoutOfItsOwn").getStatus() 
+                == TestResultStatus.PASSED, msg);
+        TestResult allocating = find(results, "testThatAllocates");
+        msg = "Set-up and test should run on the same thread, got " 
+                + allocating.getInformation();
+        check(allocating.getStatus() == TestResultStatus.PASSED, msg);
+        long allocated = allocating.getMetrics().getAllocatedBytes();
+        msg = "Allocations on timed thread should be measured, got " 
+                + allocated;
+        check(allocated < 0L || allocated >= TimeoutToyTests.ALLOCATION, msg);
+        msg = "Tear-down should run after test that finished in time, " 
+                + "not after test that hung, got " + TimeoutToyTests.AFTERS_RUN;
+        check(TimeoutToyTests.AFTERS_RUN.contains("testThatFinishesInTime") 
+                && !TimeoutToyTests.AFTERS_RUN.contains("testThatHangs"), 
+                msg);
+    }
+
+    private static void checkInheritedTestsGetClassTimeout() {
+        String inheritedTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "InheritedTimeoutToyTests");
+        List<TestResult> results = TestRunner.run(inheritedTestClassName);
+        String msg = "Class timeout should apply to inherited test";
+        check(find(results, "testWithoutTimeoutOfItsOwn").getStatus() 
+                == TestResultStatus.ERROR, msg);
+    }
+
+    private static void checkRunnerWideTimeout() {
+        String timeoutTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "TimeoutToyTests");
+        RunOptions options = new RunOptions();
+        options.setTimeout(Duration.ofMillis(TimeoutToyTests 
+                .UNANNOTATED_DURATION / 3));
+        List<TestResult> results = TestRunner.run(timeoutTestClassName, 
+                options);
+        String msg = "Test without timeout should time out with runner-wide " 
+                + "timeout";
+        check(find(results, "testWithoutTimeoutOfItsOwn").getStatus() 
+                == TestResultStatus.ERROR, msg);
+        msg = "Annotation should take precedence over runner-wide timeout";
+        check(find(results, "testThatFinishesInTime").getStatus() 
+                == TestResultStatus.PASSED, msg);
+    }
+
+    private static void checkLeaksAreDetected() {
+        String leakyTestClassName = TEST_CLASS_NAME.replace("ToyTests", 
+                "LeakyToyTests");
+        RunOptions options = new RunOptions();
+        options.setDetectLeaks(true);
+        List<TestResult> results = TestRunner.run(leakyTestClassName, 
+                options);
+        List<String> warnings = find(results, "testThatLeaksThread") 
+                .getWarnings();
+        String msg = "Expected warning about leaked thread, got " + warnings;
+        check(warnings.size() == 1 && warnings.get(0) 
+                .contains("LeakyToyTests-leaked"), msg);
+        warnings = find(results, "testThatLeaksDirectBuffer").getWarnings();
+        msg = "Expected warning about direct buffer memory, got " + warnings;
+        check(warnings.size() == 1 && warnings.get(0) 
+                .contains("direct buffer"), msg);
+        if (Files.isDirectory(Paths.get("/proc/self/fd"))) {
+            warnings = find(results, "testThatLeaksFile").getWarnings();
+            msg = "Expected warning about file descriptor, got " + warnings;
+            check(warnings.size() == 1 && warnings.get(0) 
+                    .contains("file descriptor"), msg);
+        }
+        warnings = find(results, "testThatCleansUp").getWarnings();
+        msg = "Expected no warnings for test that cleans up, got " + warnings;
+        check(warnings.isEmpty(), msg);
+        results = TestRunner.run(leakyTestClassName, 1);
+        for (TestResult result : results) {
+            msg = "Expected no warnings without leak detection";
+            check(result.getWarnings().isEmpty(), msg);
+        }
+        options.setWorkers(2);
+        results = TestRunner.run(leakyTestClassName, options);
+        for (TestResult result : results) {
+            msg = "Expected no warnings when test classes run side by side";
+            check(result.getWarnings().isEmpty(), msg);
+        }
+    }
+
+    private static void checkHeapGrowthIsTracked() {
+        RunOptions options = new RunOptions();
+        options.setTrackHeap(true);
+        HeapGrowthMonitor monitor = new HeapGrowthMonitor();
+        options.addListener(monitor);
+        List<TestResult> results = TestRunner 
+                .execute(HeapGrowingToyTests.class, options).getResults();
+        TestRunner.execute(YetMoreToyTests.class, options);
+        long retainedPerTest = HeapGrowingToyTests.RETAINED_PER_TEST / 2;
+        for (TestResult result : results) {
+            long retained = result.getMetrics().getRetainedBytes();
+            String msg = "Expected " + result.getProcedure().getName() 
+                    + " to retain at least " + retainedPerTest
+                    + " bytes, measured " + retained;
+            check(retained >= retainedPerTest, msg);
+        }
+        String growingName = HeapGrowingToyTests.class.getName();
+        String msg = "Expected heap to grow steadily across " + growingName;
+        check(monitor.isGrowingSteadily(growingName), msg);
+        msg = "Expected heap to grow by at least " + 3 * retainedPerTest 
+                + " bytes across " + growingName + ", measured "
+                + monitor.getGrowth(growingName);
+        check(monitor.getGrowth(growingName) >= 3 * retainedPerTest, msg);
+        String steadyName = YetMoreToyTests.class.getName();
+        msg = "Expected heap not to grow steadily across " + steadyName;
+        check(!monitor.isGrowingSteadily(steadyName), msg);
+        for (TestResult result : TestRunner.run(steadyName, 1)) {
+            msg = "Expected retained heap not to be measured by default";
+            check(result.getMetrics().getRetainedBytes() == -1L, msg);
+        }
+        RunOptions sideBySide = new RunOptions();
+        sideBySide.setTrackHeap(true);
+        sideBySide.setWorkers(2);
+        for (TestResult result : TestRunner.run(steadyName, sideBySide)) {
+            msg = "Expected retained heap not to be measured when test " 
+                    + "classes run side by side";
+            check(result.getMetrics().getRetainedBytes() == -1L, msg);
+        }
+    }
+
     /**
      * Runs the checks.
      * @param args The command line arguments. These are completely ignored.
@@ -268,6 +636,23 @@ public class TestRunnerCheck {
         checkPreAndPostWereExecuted();
         checkPreAndPostWereExecutedInRightOrder();
         checkMultipleSetUpsAndTearDownsRun();
+        checkParallelRunGivesDeterministicOrder();
+        checkRunsDoNotShareResults();
+        checkSimultaneousRunsAreIndependent();
+        checkResultsAreMeasured();
+        checkListenersAreNotified();
+        checkVirtualThreadRunGivesSameResults(2);
+        checkVirtualThreadRunGivesSameResults(Integer.MAX_VALUE);
+        checkFailFastStopsRun(1);
+        checkFailFastStopsRun(4);
+        checkFailFastReportsTestsInFlight();
+        checkFailureLimitAppliesAcrossClasses();
+        checkTimeoutsAreEnforced(1);
+        checkTimeoutsAreEnforced(4);
+        checkRunnerWideTimeout();
+        checkInheritedTestsGetClassTimeout();
+        checkLeaksAreDetected();
+        checkHeapGrowthIsTracked();
         System.out.println("All checks have PASSED");
     }
     
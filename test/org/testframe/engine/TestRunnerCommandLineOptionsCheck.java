@@ -1,8 +1,13 @@
 package org.testframe.engine;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Checks of the command line options for TestRunner. The occurrences of 
@@ -20,15 +25,252 @@ public class TestRunnerCommandLineOptionsCheck {
     private static void checkMainSortCommandLineOption() {
         String extraTestClassName =  "org.testframe.engine.YetMoreToyTests";
         String args[] = {extraTestClassName, "-sort"};
+        checkSortedReport(args);
+    }
+    
+    /**
+     * Checks that the command line option "-parallel=N" can be combined with 
+     * "-sort" and still reports all the results of YetMoreToyTests.
+     */
+    private static void checkMainParallelCommandLineOption() {
+        String extraTestClassName =  "org.testframe.engine.YetMoreToyTests";
+        String args[] = {extraTestClassName, "-parallel=4", "-sort"};
+        String resultsStr = checkSortedReport(args);
+        String msg = "Report should include all 12 results";
+        TestRunnerCheck.check(resultsStr.contains("Total: 12"), msg);
+    }
+    
+    /**
+     * Checks that a run with a failed test doesn't count as successful, so 
+     * that <code>main()</code> exits with a nonzero status.
+     */
+    private static void checkMainExitStatus() {
+        String args[] = {"org.testframe.engine.MoreToyTests"};
+        String msg = "Run with a failed test should not succeed";
+        TestRunnerCheck.check(!TestRunner.run(RunOptions.parse(args)), msg);
+    }
+
+    private static String interceptMain(String[] args) {
         OutputStream interceptor = new ByteArrayOutputStream();
         PrintStream usualOut = System.out;
         PrintStream tempOut = new PrintStream(interceptor);
         System.setOut(tempOut);
-        TestRunner.main(args);
+        TestRunner.run(RunOptions.parse(args));
         System.setOut(usualOut);
-        String resultsStr = interceptor.toString();
+        return interceptor.toString();
+    }
+
+    /**
+     * Checks that giving more than one test class name runs the test classes as 
+     * a suite and reports the totals for the whole suite.
+     */
+    private static void checkMainSuiteOfClassNames() {
+        String args[] = {"org.testframe.engine.YetMoreToyTests", 
+            "org.testframe.engine.MoreToyTests", "-workers=2"};
+        String resultsStr = interceptMain(args);
+        String msg = "Report should include suite totals";
+        TestRunnerCheck.check(resultsStr 
+                .contains("Suite results for 2 test classes"), msg);
+        TestRunnerCheck.check(resultsStr.contains("Total: 14"), msg);
+    }
+
+    /**
+     * Checks that the command line option "-suite=<i>file</i>" reads the test 
+     * class names from the file.
+     */
+    private static void checkMainSuiteFileCommandLineOption() {
+        Path file;
+        try {
+            file = Files.createTempFile("suite", ".txt");
+            Files.write(file, Arrays.asList("# Toy tests", 
+                    "org.testframe.engine.YetMoreToyTests", "",
+                    "org.testframe.engine.MoreToyTests"));
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to write suite file", ioe);
+        }
+        String args[] = {"-suite=" + file.toString()};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Suite file should list two test classes";
+        TestRunnerCheck.check(options.getTestClassNames().size() == 2, msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should include suite totals";
+        TestRunnerCheck.check(resultsStr.contains("Total: 14"), msg);
+        file.toFile().delete();
+    }
+
+    /**
+     * Checks that the command line option "-slowest=N" lists the N slowest 
+     * tests at the end of the report, and that "-slowest=0" turns that off.
+     */
+    private static void checkMainSlowestCommandLineOption() {
+        String extraTestClassName =  "org.testframe.engine.YetMoreToyTests";
+        String args[] = {extraTestClassName, "-slowest=2"};
+        String resultsStr = interceptMain(args);
+        String msg = "Report should list the 2 slowest tests";
+        TestRunnerCheck.check(resultsStr.contains("Slowest 2 tests"), msg);
+        args[1] = "-slowest=0";
+        resultsStr = interceptMain(args);
+        msg = "Report should not list the slowest tests";
+        TestRunnerCheck.check(!resultsStr.contains("Slowest"), msg);
+    }
+
+    /**
+     * Checks that the command line option "-stream" reports each result along 
+     * with the name of its test class, and reports the totals at the end.
+     */
+    private static void checkMainStreamCommandLineOption() {
+        String extraTestClassName =  "org.testframe.engine.YetMoreToyTests";
+        String args[] = {extraTestClassName, 
+            "org.testframe.engine.MoreToyTests", "-stream", "-workers=2"};
+        String resultsStr = interceptMain(args);
+        String msg = "Streamed report should name test class of each result";
+        TestRunnerCheck.check(resultsStr.contains(extraTestClassName 
+                + ".testThatShouldPassA PASSED"), msg);
+        msg = "Streamed report should end with totals";
+        TestRunnerCheck.check(resultsStr.contains("Total: 14"), msg);
+    }
+
+    /**
+     * Checks that the command line options "-junitxml=<i>file</i>" and 
+     * "-ndjson=<i>file</i>" write the results to those files.
+     */
+    private static void checkMainResultFileCommandLineOptions() {
+        Path xmlFile;
+        Path jsonFile;
+        try {
+            xmlFile = Files.createTempFile("results", ".xml");
+            jsonFile = Files.createTempFile("results", ".ndjson");
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to create results files", ioe);
+        }
+        String args[] = {"org.testframe.engine.YetMoreToyTests", 
+            "org.testframe.engine.MoreToyTests", "-junitxml=" + xmlFile,
+            "-ndjson=" + jsonFile};
+        interceptMain(args);
+        try {
+            String xml = new String(Files.readAllBytes(xmlFile), "UTF-8");
+            String msg = "JUnit XML file should have two test suites";
+            TestRunnerCheck.check(xml.trim().endsWith("</testsuites>"), msg);
+            TestRunnerCheck.check(xml.contains("name=\"" 
+                    + "org.testframe.engine.MoreToyTests\" tests=\"2\""), msg);
+            List<String> lines = Files.readAllLines(jsonFile);
+            msg = "NDJSON file should have 14 lines, had " + lines.size();
+            TestRunnerCheck.check(lines.size() == 14, msg);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to read results files", ioe);
+        } finally {
+            xmlFile.toFile().delete();
+            jsonFile.toFile().delete();
+        }
+    }
+
+    /**
+     * Checks that the command line options "-failfast" and "-maxfailures=N" 
+     * set the maximum number of failures, and that the tests that didn't get 
+     * to run are reported as not run.
+     */
+    private static void checkMainFailFastCommandLineOptions() {
+        String[] args = {"-maxfailures=3"};
+        String msg = "Option -maxfailures=3 should set maximum failures to 3";
+        TestRunnerCheck.check(RunOptions.parse(args).getMaxFailures() == 3, 
+                msg);
+        args = new String[] {"org.testframe.engine.YetMoreToyTests", 
+            "-failfast"};
+        msg = "Option -failfast should set maximum failures to 1";
+        TestRunnerCheck.check(RunOptions.parse(args).getMaxFailures() == 1, 
+                msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should count tests that were not run";
+        TestRunnerCheck.check(resultsStr.contains("Not run: "), msg);
+    }
+
+    /**
+     * Checks that the command line option "-virtual=N" runs the tests on 
+     * virtual threads, up to N at a time.
+     */
+    private static void checkMainVirtualCommandLineOption() {
+        String[] args = {"org.testframe.engine.YetMoreToyTests", 
+            "-virtual=64"};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Option -virtual=64 should turn on virtual threads";
+        TestRunnerCheck.check(options.isVirtualThreads(), msg);
+        msg = "Option -virtual=64 should cap parallelism at 64";
+        TestRunnerCheck.check(options.getParallelism() == 64, msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should include totals";
+        TestRunnerCheck.check(resultsStr.contains("Total: 12"), msg);
+    }
+
+    private static void checkMainForkCommandLineOption() {
+        String[] args = {"org.testframe.engine.YetMoreToyTests", "-fork=2"};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Option -fork=2 should ask for two forked JVMs";
+        TestRunnerCheck.check(options.getForks() == 2, msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should include totals";
+        TestRunnerCheck.check(resultsStr.contains("Total: 12"), msg);
+    }
+
+    private static void checkMainTimeoutCommandLineOption() {
+        String[] args = {"org.testframe.engine.TimeoutToyTests", 
+            "-timeout=50"};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Option -timeout=50 should give 50 milliseconds";
+        TestRunnerCheck.check(options.getTimeout().toMillis() == 50L, msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should include three timed out tests";
+        TestRunnerCheck.check(resultsStr.contains("Caused an error: 3"), msg);
+    }
+
+    private static void checkMainHeapCommandLineOption() {
+        String[] args = {"org.testframe.engine.HeapGrowingToyTests", "-heap"};
+        RunOptions options = RunOptions.parse(args);
+        String msg = "Option -heap should track heap growth";
+        TestRunnerCheck.check(options.isTrackHeap(), msg);
+        String resultsStr = interceptMain(args);
+        msg = "Report should include heap retained by each test";
+        TestRunnerCheck.check(resultsStr.contains("bytes retained"), msg);
+        msg = "Report should list test class heap grew steadily across";
+        TestRunnerCheck.check(resultsStr.contains("Heap growth by test class") 
+                && resultsStr.contains("grew with every test"), msg);
+    }
+
+    /**
+     * Checks that the command line option "-history=<i>file</i>" saves the 
+     * durations after a run of the whole suite, but not after a run of one 
+     * shard, so that every shard keeps working out the same split.
+     */
+    private static void checkMainHistoryWithShardCommandLineOption() {
+        Path historyFile;
+        try {
+            historyFile = Files.createTempFile("history", ".txt");
+            Files.delete(historyFile);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to create history file", ioe);
+        }
+        try {
+            String[] args = {"org.testframe.engine.MoreToyTests", 
+                "org.testframe.engine.YetMoreToyTests", "-shard=1/2", 
+                "-history=" + historyFile};
+            interceptMain(args);
+            String msg = "Sharded run should not save history";
+            TestRunnerCheck.check(!Files.exists(historyFile), msg);
+            args = new String[] {"org.testframe.engine.MoreToyTests", 
+                "-history=" + historyFile};
+            interceptMain(args);
+            msg = "Run without shard should save history";
+            TestRunnerCheck.check(Files.exists(historyFile), msg);
+        } finally {
+            historyFile.toFile().delete();
+        }
+    }
+
+    private static String checkSortedReport(String[] args) {
+        String resultsStr = interceptMain(args);
         int index = 0;
-        TestResultStatus[] statuses = TestResultStatus.values();
+        TestResultStatus[] statuses = {TestResultStatus.PASSED, 
+            TestResultStatus.SKIPPED, TestResultStatus.ERROR,
+            TestResultStatus.FAILED};
         int len = statuses.length;
         for (int i = 0; i < len; i++) {
             String statusStr = statuses[i].toString();
@@ -39,6 +281,7 @@ public class TestRunnerCommandLineOptionsCheck {
                 TestRunnerCheck.check(index > -1, msg);
             }
         }
+        return resultsStr;
     }
     
     /**
@@ -46,7 +289,20 @@ public class TestRunnerCommandLineOptionsCheck {
      * @param args The command line arguments. These are completely ignored.
      */
     public static void main(String[] args) {
+        checkMainExitStatus();
         checkMainSortCommandLineOption();
+        checkMainParallelCommandLineOption();
+        checkMainSuiteOfClassNames();
+        checkMainSuiteFileCommandLineOption();
+        checkMainSlowestCommandLineOption();
+        checkMainStreamCommandLineOption();
+        checkMainResultFileCommandLineOptions();
+        checkMainFailFastCommandLineOptions();
+        checkMainVirtualCommandLineOption();
+        checkMainForkCommandLineOption();
+        checkMainTimeoutCommandLineOption();
+        checkMainHeapCommandLineOption();
+        checkMainHistoryWithShardCommandLineOption();
         System.out.println("All checks have PASSED");
     }
     
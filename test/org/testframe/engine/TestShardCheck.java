@@ -0,0 +1,143 @@
+package org.testframe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks of the TestShard class. These use YetMoreToyTests, which has three 
+ * tests each that pass, fail, cause an error or are skipped.
+ * @author Alonso del Arte
+ */
+public class TestShardCheck {
+
+    private static final String TEST_CLASS_NAME 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static List<String> makeNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add("org.example.Test" + i);
+        }
+        return names;
+    }
+
+    private static void checkShardsPartitionClasses() {
+        System.out.println("selectClasses");
+        List<String> names = makeNames(50);
+        Set<String> seen = new HashSet<>();
+        int total = 0;
+        for (int i = 1; i <= 8; i++) {
+            List<String> selected = new TestShard(i, 8).selectClasses(names, 
+                    null);
+            String msg = "Selection should be deterministic for shard " + i;
+            TestRunnerCheck.check(selected.equals(new TestShard(i, 8) 
+                    .selectClasses(names, null)), msg);
+            seen.addAll(selected);
+            total += selected.size();
+        }
+        String msg = "Each class should be in exactly one shard";
+        TestRunnerCheck.check(total == names.size() 
+                && seen.size() == names.size(), msg);
+    }
+
+    private static void checkBalancedByHistory() {
+        System.out.println("selectClasses, balanced");
+        List<String> names = makeNames(6);
+        DurationHistory history = new DurationHistory();
+        long[] durations = {9000L, 1000L, 1000L, 1000L, 3000L, 3000L};
+        for (int i = 0; i < durations.length; i++) {
+            history.recordClass(names.get(i), durations[i]);
+        }
+        for (int i = 1; i <= 2; i++) {
+            long load = 0L;
+            for (String name : new TestShard(i, 2).selectClasses(names, 
+                    history)) {
+                load += history.getClassEstimate(name);
+            }
+            String msg = "Expected shard " + i + " to have 9000 ns of work, " 
+                    + "got " + load;
+            TestRunnerCheck.check(load == 9000L, msg);
+        }
+    }
+
+    private static void checkShardSelectedBeforeRerunFailed() {
+        System.out.println("selectClasses, rerun failed");
+        List<String> names = makeNames(6);
+        DurationHistory history = new DurationHistory();
+        long[] durations = {9000L, 1000L, 1000L, 1000L, 3000L, 3000L};
+        FailureHistory failures = new FailureHistory();
+        for (int i = 0; i < durations.length; i++) {
+            history.recordClass(names.get(i), durations[i]);
+            if (i % 2 == 1) {
+                failures.addFailure(names.get(i), "testSomething");
+            }
+        }
+        for (int i = 1; i <= 2; i++) {
+            TestShard shard = new TestShard(i, 2);
+            RunOptions options = new RunOptions();
+            options.setShard(shard);
+            options.setDurationHistory(history);
+            options.setFailureHistory(failures);
+            options.setRerunFailed(true);
+            Set<String> ran = TestSuiteRunner.run(names, options, 
+                    name -> new ArrayList<>(), 1).keySet();
+            Set<String> expected = new HashSet<>();
+            for (String name : shard.selectClasses(names, history)) {
+                if (!failures.getFailedTests(name).isEmpty()) {
+                    expected.add(name);
+                }
+            }
+            String msg = "Shard " + i + " should have rerun " + expected 
+                    + " out of the whole suite, reran " + ran;
+            TestRunnerCheck.check(ran.equals(expected), msg);
+        }
+    }
+
+    private static void checkShardByTests() {
+        System.out.println("selectTests");
+        int total = 0;
+        for (int i = 1; i <= 3; i++) {
+            RunOptions options = new RunOptions();
+            options.setShard(new TestShard(i, 3));
+            options.setShardByTests(true);
+            total += TestRunner.run(TEST_CLASS_NAME, options).size();
+        }
+        String msg = "Shards should have 12 results in all, had " + total;
+        TestRunnerCheck.check(total == 12, msg);
+    }
+
+    private static void checkParse() {
+        System.out.println("parse");
+        TestShard shard = TestShard.parse("3/8");
+        String msg = "Expected shard 3 of 8";
+        TestRunnerCheck.check(shard.getIndex() == 3 && shard.getCount() == 8, 
+                msg);
+        for (String spec : Arrays.asList("0/8", "9/8", "3", "a/b")) {
+            boolean rejected = false;
+            try {
+                TestShard.parse(spec);
+            } catch (IllegalArgumentException iae) {
+                rejected = true;
+            }
+            msg = "Shard \"" + spec + "\" should have been rejected";
+            TestRunnerCheck.check(rejected, msg);
+        }
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkShardsPartitionClasses();
+        checkBalancedByHistory();
+        checkShardSelectedBeforeRerunFailed();
+        checkShardByTests();
+        checkParse();
+        System.out.println("All checks have PASSED");
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.testframe.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks of the TestSuiteRunner class. These use MoreToyTests, which has two 
+ * tests, and YetMoreToyTests, which has twelve.
+ * @author Alonso del Arte
+ */
+public class TestSuiteRunnerCheck {
+
+    private static final String MORE_TOY_TESTS 
+            = "org.testframe.engine.MoreToyTests";
+
+    private static final String YET_MORE_TOY_TESTS 
+            = "org.testframe.engine.YetMoreToyTests";
+
+    private static void checkRun() {
+        System.out.println("run");
+        List<String> names = Arrays.asList(YET_MORE_TOY_TESTS, MORE_TOY_TESTS);
+        RunOptions options = new RunOptions();
+        options.setWorkers(2);
+        Map<String, List<TestResult>> map = TestSuiteRunner.run(names, options);
+        List<String> actual = new ArrayList<>(map.keySet());
+        String msg = "Expected " + names + ", got " + actual;
+        TestRunnerCheck.check(names.equals(actual), msg);
+        int size = map.get(YET_MORE_TOY_TESTS).size();
+        msg = "Expected 12 results for YetMoreToyTests, got " + size;
+        TestRunnerCheck.check(size == 12, msg);
+        size = map.get(MORE_TOY_TESTS).size();
+        msg = "Expected 2 results for MoreToyTests, got " + size;
+        TestRunnerCheck.check(size == 2, msg);
+    }
+
+    private static void checkRunListedTwiceRunsOnce() {
+        System.out.println("run, same class listed twice");
+        List<String> names = Arrays.asList(YET_MORE_TOY_TESTS, 
+                YET_MORE_TOY_TESTS);
+        RunOptions options = new RunOptions();
+        options.setWorkers(2);
+        Map<String, List<TestResult>> map = TestSuiteRunner.run(names, options);
+        String msg = "Class listed twice should run only once";
+        TestRunnerCheck.check(map.size() == 1, msg);
+        TestRunnerCheck.check(map.get(YET_MORE_TOY_TESTS).size() == 12, msg);
+    }
+
+    private static void checkRunMissingClass() {
+        System.out.println("run, missing class");
+        String missing = "org.testframe.engine.NoSuchTests";
+        List<String> names = Arrays.asList(missing, MORE_TOY_TESTS);
+        Map<String, List<TestResult>> map = TestSuiteRunner.run(names, 
+                new RunOptions());
+        String msg = "Missing class should map to empty list";
+        TestRunnerCheck.check(map.get(missing).isEmpty(), msg);
+        msg = "Missing class should not keep other classes from running";
+        TestRunnerCheck.check(map.get(MORE_TOY_TESTS).size() == 2, msg);
+    }
+
+    private static void checkRunBrokenSetUp() {
+        System.out.println("run, class with broken set up");
+        String broken = "org.testframe.engine.BrokenSetUpToyTests";
+        List<String> names = Arrays.asList(broken, MORE_TOY_TESTS);
+        final List<TestResult> notified = new ArrayList<>();
+        final List<TestResult> finished = new ArrayList<>();
+        RunOptions options = new RunOptions();
+        options.setWorkers(2);
+        options.addListener(new TestResultListener() {
+
+            @Override
+            public synchronized void testFinished(String testClassName, 
+                    TestResult result) {
+                if (testClassName.equals(broken)) {
+                    notified.add(result);
+                }
+            }
+
+            @Override
+            public synchronized void testClassFinished(String testClassName, 
+                    List<TestResult> results) {
+                if (testClassName.equals(broken)) {
+                    finished.addAll(results);
+                }
+            }
+
+        });
+        Map<String, List<TestResult>> map = TestSuiteRunner.run(names, options);
+        List<TestResult> results = map.get(broken);
+        String msg = "Expected 2 results for BrokenSetUpToyTests, got " 
+                + results;
+        TestRunnerCheck.check(results.size() == 2, msg);
+        for (TestResult result : results) {
+            msg = "Expected error for " + result.getProcedure().getName() 
+                    + ", got " + result.getStatus();
+            TestRunnerCheck.check(result.getStatus() 
+                    == TestResultStatus.ERROR, msg);
+        }
+        msg = "Listeners should have been notified of 2 errors, not " 
+                + notified;
+        TestRunnerCheck.check(notified.size() == 2, msg);
+        msg = "Class finish should have come with 2 errors, not " + finished;
+        TestRunnerCheck.check(finished.size() == 2, msg);
+        msg = "Broken set up should not keep other classes from running";
+        TestRunnerCheck.check(map.get(MORE_TOY_TESTS).size() == 2, msg);
+    }
+
+    /**
+     * Runs the checks.
+     * @param args The command line arguments. These are completely ignored.
+     */
+    public static void main(String[] args) {
+        checkRun();
+        checkRunListedTwiceRunsOnce();
+        checkRunMissingClass();
+        checkRunBrokenSetUp();
+        System.out.println("All checks have PASSED");
+    }
+
+}
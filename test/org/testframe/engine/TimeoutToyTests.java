@@ -0,0 +1,88 @@
+package org.testframe.engine;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testframe.api.AfterEachTest;
+import org.testframe.api.BeforeEachTest;
+import org.testframe.api.Test;
+import org.testframe.api.Timeout;
+
+/**
+ * Toy tests to check that the test runner enforces timeouts. One test hangs 
+ * until interrupted, one ignores interruptions for a while, one finishes well 
+ * within its timeout, one allocates memory within its timeout, and one has no 
+ * timeout of its own.
+ * @author Alonso del Arte
+ */
+public class TimeoutToyTests {
+
+    /**
+     * How long the test without a timeout of its own takes, in milliseconds.
+     */
+    static final long UNANNOTATED_DURATION = 300L;
+
+    /**
+     * How many bytes the test that allocates memory allocates at least.
+     */
+    static final int ALLOCATION = 1 << 20;
+
+    static final Set<String> AFTERS_RUN = ConcurrentHashMap.newKeySet();
+
+    static volatile Object allocated;
+
+    private String setUpThread;
+
+    private String testName;
+
+    @BeforeEachTest
+    public void setUp() {
+        this.setUpThread = Thread.currentThread().getName();
+    }
+
+    @AfterEachTest
+    public void tearDown() {
+        AFTERS_RUN.add(this.testName);
+    }
+
+    @Test @Timeout(100L)
+    public void testThatHangs() throws InterruptedException {
+        this.testName = "testThatHangs";
+        Thread.sleep(Long.MAX_VALUE);
+    }
+
+    @Test @Timeout(100L)
+    public void testThatIgnoresInterrupts() {
+        this.testName = "testThatIgnoresInterrupts";
+        long end = System.currentTimeMillis() + 2000L;
+        while (System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(end - System.currentTimeMillis());
+            } catch (InterruptedException ie) {
+                System.out.println("Ignoring interruption");
+            }
+        }
+    }
+
+    @Test @Timeout(5000L)
+    public void testThatFinishesInTime() {
+        this.testName = "testThatFinishesInTime";
+        assert Math.abs(-1) == 1 : "Absolute value of -1 should be 1";
+    }
+
+    @Test @Timeout(5000L)
+    public void testThatAllocates() {
+        this.testName = "testThatAllocates";
+        String name = Thread.currentThread().getName();
+        assert name.equals(this.setUpThread) : "Set-up ran on " 
+                + this.setUpThread + ", test on " + name;
+        allocated = new byte[ALLOCATION];
+    }
+
+    @Test
+    public void testWithoutTimeoutOfItsOwn() throws InterruptedException {
+        this.testName = "testWithoutTimeoutOfItsOwn";
+        Thread.sleep(UNANNOTATED_DURATION);
+    }
+
+}